@@ -0,0 +1,141 @@
+package net.meisen.dissertation.jdbc;
+
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import net.meisen.dissertation.jdbc.benchmark.FakeTidaServer;
+import net.meisen.dissertation.jdbc.benchmark.FakeTidaServerSettings;
+import net.meisen.dissertation.jdbc.benchmark.IntervalDataGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end benchmark of the loading of records, comparing the insertion
+ * using a prepared {@code INSERT} statement per record with a
+ * {@code TidaBulkLoader}.
+ * 
+ * @author pmeisen
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BulkLoadBenchmark {
+	private static final String COLUMNS = "STRING:16,DOUBLE";
+
+	@Param({ "100", "1000" })
+	private int batchSize;
+
+	private FakeTidaServer server;
+	private TidaConnection connection;
+	private IntervalDataGenerator generator;
+	private Object[][] records;
+
+	/**
+	 * Starts the server, establishes the connection and creates the records.
+	 * 
+	 * @throws IOException
+	 *             if the server cannot be started
+	 * @throws SQLException
+	 *             if the connection cannot be established
+	 */
+	@Setup
+	public void setup() throws IOException, SQLException {
+		final FakeTidaServerSettings settings = new FakeTidaServerSettings();
+		settings.setColumns(COLUMNS);
+
+		final Properties props = new Properties();
+		props.setProperty(DriverProperties.PROPERTY_BULKBATCHSIZE, ""
+				+ batchSize);
+
+		this.server = new FakeTidaServer(settings).start();
+		this.connection = new TidaDriver().connect(server.getJdbcUrl(), props);
+
+		this.generator = new IntervalDataGenerator(COLUMNS);
+		this.records = new Object[10000][];
+		final Random rnd = new Random(1981);
+		for (int i = 0; i < records.length; i++) {
+			records[i] = generator.createRow(rnd, i);
+		}
+	}
+
+	/**
+	 * Closes the connection and the server.
+	 * 
+	 * @throws IOException
+	 *             if the server cannot be closed
+	 * @throws SQLException
+	 *             if the connection cannot be closed
+	 */
+	@TearDown
+	public void tearDown() throws IOException, SQLException {
+		connection.close();
+		server.close();
+	}
+
+	/**
+	 * Inserts the records using a prepared {@code INSERT} statement per
+	 * record, i.e. each value is formatted as text.
+	 * 
+	 * @throws SQLException
+	 *             if the insertion fails
+	 */
+	@Benchmark
+	public void insert() throws SQLException {
+		final String[] names = generator.getHeaderNames();
+		final StringBuilder sql = new StringBuilder("INSERT INTO data (");
+		for (int i = 0; i < names.length; i++) {
+			sql.append(i == 0 ? "" : ", ").append(names[i]);
+		}
+		sql.append(") VALUES (");
+		for (int i = 0; i < names.length; i++) {
+			sql.append(i == 0 ? "?" : ", ?");
+		}
+		sql.append(")");
+
+		final PreparedStatement stmt = connection.prepareStatement(sql
+				.toString());
+		for (final Object[] record : records) {
+			for (int i = 0; i < record.length; i++) {
+				stmt.setObject(i + 1, record[i]);
+			}
+			stmt.executeUpdate();
+		}
+		stmt.close();
+	}
+
+	/**
+	 * Loads the records using a {@code TidaBulkLoader}, i.e. the values are
+	 * send as binary values.
+	 * 
+	 * @throws SQLException
+	 *             if the loading fails
+	 */
+	@Benchmark
+	public void bulkLoad() throws SQLException {
+		final TidaBulkLoader loader = connection.createBulkLoader("data",
+				generator.getHeaderNames(), generator.getHeaderClasses());
+		for (final Object[] record : records) {
+			loader.add(record);
+		}
+		loader.close();
+	}
+}
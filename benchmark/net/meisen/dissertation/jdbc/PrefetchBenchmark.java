@@ -0,0 +1,115 @@
+package net.meisen.dissertation.jdbc;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import net.meisen.dissertation.jdbc.benchmark.FakeTidaServer;
+import net.meisen.dissertation.jdbc.benchmark.FakeTidaServerSettings;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * End-to-end benchmark of the prefetching of results (see
+ * {@link DriverProperties#getPrefetchDepth()}). Each row is processed using
+ * some CPU, so that the reading of the results and the processing can
+ * overlap.
+ *
+ * @author pmeisen
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrefetchBenchmark {
+
+	@Param({ "0", "256" })
+	private int prefetchDepth;
+
+	@Param({ "0", "200" })
+	private int tokens;
+
+	private FakeTidaServer server;
+	private TidaConnection connection;
+	private Statement statement;
+
+	/**
+	 * Starts the server and establishes the connection.
+	 *
+	 * @throws IOException
+	 *             if the server cannot be started
+	 * @throws SQLException
+	 *             if the connection cannot be established
+	 */
+	@Setup
+	public void setup() throws IOException, SQLException {
+		final FakeTidaServerSettings settings = new FakeTidaServerSettings();
+		settings.setRows(10000);
+		settings.setColumns("STRING:16,DOUBLE");
+
+		final Properties props = new Properties();
+		props.setProperty(DriverProperties.PROPERTY_PREFETCHDEPTH, ""
+				+ prefetchDepth);
+
+		this.server = new FakeTidaServer(settings).start();
+		this.connection = new TidaDriver().connect(server.getJdbcUrl(), props);
+		this.statement = connection.createStatement();
+	}
+
+	/**
+	 * Closes the connection and the server.
+	 *
+	 * @throws IOException
+	 *             if the server cannot be closed
+	 * @throws SQLException
+	 *             if the connection cannot be closed
+	 */
+	@TearDown
+	public void tearDown() throws IOException, SQLException {
+		statement.close();
+		connection.close();
+		server.close();
+	}
+
+	/**
+	 * Fires a query, retrieves the values of all the rows, and processes each
+	 * row by consuming the configured amount of CPU tokens.
+	 *
+	 * @param bh
+	 *            the {@code Blackhole} to consume the values
+	 *
+	 * @throws SQLException
+	 *             if the query fails
+	 */
+	@Benchmark
+	public void nextAndProcess(final Blackhole bh) throws SQLException {
+		final ResultSet rs = statement.executeQuery("SELECT RECORDS FROM data");
+
+		final int columns = rs.getMetaData().getColumnCount();
+		while (rs.next()) {
+			for (int i = 1; i <= columns; i++) {
+				bh.consume(rs.getObject(i));
+			}
+			Blackhole.consumeCPU(tokens);
+		}
+		rs.close();
+	}
+}
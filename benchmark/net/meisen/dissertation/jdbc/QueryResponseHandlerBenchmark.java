@@ -0,0 +1,76 @@
+package net.meisen.dissertation.jdbc;
+
+import java.util.concurrent.TimeUnit;
+
+import net.meisen.dissertation.jdbc.protocol.ResponseType;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link QueryResponseHandler#getHeaderPosition(String)}, which
+ * is used by any getter of a {@code TidaResultSet} referring to a column by
+ * its label.
+ * 
+ * @author pmeisen
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryResponseHandlerBenchmark {
+
+	@Param({ "5", "50" })
+	private int columns;
+
+	@Param({ "FIRST", "LAST", "MISSING" })
+	private String position;
+
+	private QueryResponseHandler handler;
+	private String name;
+
+	/**
+	 * Creates the handler with the header-names and determines the name to be
+	 * looked up.
+	 */
+	@Setup
+	public void setup() {
+		final String[] names = new String[columns];
+		for (int i = 0; i < columns; i++) {
+			names[i] = "COLUMN_" + i;
+		}
+
+		this.handler = new QueryResponseHandler();
+		this.handler.handleResult(ResponseType.HEADERNAMES, names);
+
+		if ("FIRST".equals(position)) {
+			this.name = new String(names[0]);
+		} else if ("LAST".equals(position)) {
+			this.name = new String(names[columns - 1]);
+		} else {
+			this.name = "UNKNOWN";
+		}
+	}
+
+	/**
+	 * Looks up the position of the header.
+	 * 
+	 * @return the position found
+	 */
+	@Benchmark
+	public int getHeaderPosition() {
+		return handler.getHeaderPosition(name);
+	}
+}
@@ -0,0 +1,133 @@
+package net.meisen.dissertation.jdbc;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import net.meisen.dissertation.jdbc.benchmark.FakeTidaServer;
+import net.meisen.dissertation.jdbc.benchmark.FakeTidaServerSettings;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * End-to-end benchmark of {@link TidaResultSet#next()} and the getters of the
+ * {@code TidaResultSet}. The data is retrieved from a {@code FakeTidaServer}
+ * via the loopback interface.
+ * 
+ * @author pmeisen
+ * 
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultSetBenchmark {
+
+	@Param({ "1", "1000" })
+	private int rows;
+
+	@Param({ "STRING:16,DOUBLE" })
+	private String columns;
+
+	private FakeTidaServer server;
+	private TidaConnection connection;
+	private Statement statement;
+
+	/**
+	 * Starts the server and establishes the connection.
+	 * 
+	 * @throws IOException
+	 *             if the server cannot be started
+	 * @throws SQLException
+	 *             if the connection cannot be established
+	 */
+	@Setup
+	public void setup() throws IOException, SQLException {
+		final FakeTidaServerSettings settings = new FakeTidaServerSettings();
+		settings.setRows(rows);
+		settings.setColumns(columns);
+
+		this.server = new FakeTidaServer(settings).start();
+		this.connection = new TidaDriver().connect(server.getJdbcUrl(), null);
+		this.statement = connection.createStatement();
+	}
+
+	/**
+	 * Closes the connection and the server.
+	 * 
+	 * @throws IOException
+	 *             if the server cannot be closed
+	 * @throws SQLException
+	 *             if the connection cannot be closed
+	 */
+	@TearDown
+	public void tearDown() throws IOException, SQLException {
+		statement.close();
+		connection.close();
+		server.close();
+	}
+
+	/**
+	 * Fires a query and iterates over all the rows without retrieving any
+	 * value.
+	 * 
+	 * @return the amount of rows
+	 * 
+	 * @throws SQLException
+	 *             if the query fails
+	 */
+	@Benchmark
+	public int next() throws SQLException {
+		final ResultSet rs = statement.executeQuery("SELECT RECORDS FROM data");
+
+		int count = 0;
+		while (rs.next()) {
+			count++;
+		}
+		rs.close();
+
+		return count;
+	}
+
+	/**
+	 * Fires a query and retrieves all the values of all the rows using the
+	 * typed getters.
+	 * 
+	 * @param bh
+	 *            the {@code Blackhole} to consume the values
+	 * 
+	 * @throws SQLException
+	 *             if the query fails
+	 */
+	@Benchmark
+	public void nextAndGet(final Blackhole bh) throws SQLException {
+		final ResultSet rs = statement.executeQuery("SELECT RECORDS FROM data");
+
+		final int columns = rs.getMetaData().getColumnCount();
+		while (rs.next()) {
+			bh.consume(rs.getInt(1));
+			bh.consume(rs.getTimestamp(2));
+			bh.consume(rs.getTimestamp("END"));
+			for (int i = 4; i <= columns; i++) {
+				bh.consume(rs.getObject(i));
+			}
+		}
+		rs.close();
+	}
+}
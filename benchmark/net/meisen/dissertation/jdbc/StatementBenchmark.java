@@ -0,0 +1,100 @@
+package net.meisen.dissertation.jdbc;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link TidaStatement#replacePlaceholder()} for different
+ * amounts and types of place-holders. The {@code TidaConnection} used is never
+ * connected to any server.
+ * 
+ * @author pmeisen
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementBenchmark {
+
+	@Param({ "1", "10", "100" })
+	private int placeholders;
+
+	@Param({ "INT", "STRING", "TIMESTAMP" })
+	private String kind;
+
+	private TidaConnection connection;
+	private TidaStatement statement;
+
+	/**
+	 * Creates the statement and sets the values of the place-holders.
+	 * 
+	 * @throws SQLException
+	 *             if the statement cannot be created
+	 */
+	@Setup
+	public void setup() throws SQLException {
+		final StringBuilder sql = new StringBuilder(
+				"INSERT INTO benchmark ([START], [END], VALUES) VALUES ");
+		for (int i = 0; i < placeholders; i++) {
+			sql.append(i == 0 ? "(?" : ", ?");
+		}
+		sql.append(")");
+
+		this.connection = new TidaConnection(new DriverProperties(
+				"jdbc:tida://localhost:7001", "localhost", 7001));
+		this.statement = new TidaStatement(connection, sql.toString());
+
+		for (int i = 1; i <= placeholders; i++) {
+			if ("INT".equals(kind)) {
+				statement.setInt(i, i * 1000);
+			} else if ("STRING".equals(kind)) {
+				statement.setString(i, "Value '" + i + "'");
+			} else if ("TIMESTAMP".equals(kind)) {
+				statement.setTimestamp(i, new Timestamp(1388534400000L + i
+						* 60000L));
+			} else {
+				throw new IllegalArgumentException("Unsupported kind '" + kind
+						+ "'.");
+			}
+		}
+	}
+
+	/**
+	 * Closes the statement and the connection.
+	 * 
+	 * @throws SQLException
+	 *             if the closing fails
+	 */
+	@TearDown
+	public void tearDown() throws SQLException {
+		statement.close();
+		connection.close();
+	}
+
+	/**
+	 * Replaces the place-holders of the statement.
+	 * 
+	 * @return the statement with replaced place-holders
+	 */
+	@Benchmark
+	public String replacePlaceholder() {
+		return statement.replacePlaceholder();
+	}
+}
@@ -0,0 +1,257 @@
+package net.meisen.dissertation.jdbc.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.TreeSet;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runner of the benchmarks. The runner accepts the same arguments as the
+ * default runner of JMH, but always adds the {@code GCProfiler} to report the
+ * allocation rates. The results of a run are written to a properties-file and
+ * compared to the results of a baseline, if one is available. The following
+ * system-properties can be used to configure the runner:
+ * <ul>
+ * <li>{@code benchmark.results} - the file to write the results to (default:
+ * {@code target/benchmark-results.properties})</li>
+ * <li>{@code benchmark.baseline} - the baseline to compare the results with
+ * (default: {@code benchmark/baseline.properties})</li>
+ * <li>{@code benchmark.updateBaseline} - {@code true} to replace the baseline
+ * with the results of the run (default: {@code false})</li>
+ * </ul>
+ * 
+ * @author pmeisen
+ * 
+ */
+public class BenchmarkRunner {
+	private final static String SUFFIX_SCORE = ".score";
+	private final static String SUFFIX_UNIT = ".unit";
+	private final static String SUFFIX_ALLOC = ".alloc";
+	private final static String GC_ALLOC_NORM = "gc.alloc.rate.norm";
+
+	/**
+	 * Runs the benchmarks.
+	 * 
+	 * @param args
+	 *            the arguments passed to JMH
+	 * 
+	 * @throws Exception
+	 *             if the benchmarks cannot be run
+	 */
+	public static void main(final String[] args) throws Exception {
+		final Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class).build();
+
+		final Collection<RunResult> results = new Runner(options).run();
+		final Properties current = toProperties(results);
+
+		// write the results
+		final File resultsFile = new File(System.getProperty(
+				"benchmark.results", "target/benchmark-results.properties"));
+		write(current, resultsFile);
+
+		// compare or update the baseline
+		final File baselineFile = new File(System.getProperty(
+				"benchmark.baseline", "benchmark/baseline.properties"));
+		if (Boolean.getBoolean("benchmark.updateBaseline")) {
+			write(current, baselineFile);
+			System.out.println("Baseline updated: "
+					+ baselineFile.getAbsolutePath());
+		} else if (baselineFile.exists()) {
+			compare(read(baselineFile), current);
+		} else {
+			System.out.println("No baseline found at '"
+					+ baselineFile.getAbsolutePath()
+					+ "', use -Dbenchmark.updateBaseline=true to create one.");
+		}
+	}
+
+	/**
+	 * Transforms the {@code results} into {@code Properties}. Each benchmark
+	 * is identified by its name and its parameters.
+	 * 
+	 * @param results
+	 *            the results to be transformed
+	 * 
+	 * @return the created {@code Properties}
+	 */
+	protected static Properties toProperties(final Collection<RunResult> results) {
+		final Properties properties = new Properties();
+
+		for (final RunResult result : results) {
+			final String id = createId(result.getParams());
+			final Result<?> primary = result.getPrimaryResult();
+
+			properties.setProperty(id + SUFFIX_SCORE,
+					String.valueOf(primary.getScore()));
+			properties.setProperty(id + SUFFIX_UNIT, primary.getScoreUnit());
+
+			for (final String name : result.getSecondaryResults().keySet()) {
+				if (name.endsWith(GC_ALLOC_NORM)) {
+					final Result<?> secondary = result.getSecondaryResults()
+							.get(name);
+					properties.setProperty(id + SUFFIX_ALLOC,
+							String.valueOf(secondary.getScore()));
+				}
+			}
+		}
+
+		return properties;
+	}
+
+	/**
+	 * Creates the identifier of a benchmark, i.e. the name of the benchmark
+	 * followed by the parameters.
+	 * 
+	 * @param params
+	 *            the parameters of the benchmark
+	 * 
+	 * @return the created identifier
+	 */
+	protected static String createId(final BenchmarkParams params) {
+		final StringBuilder sb = new StringBuilder(params.getBenchmark());
+
+		final Collection<String> keys = new TreeSet<String>(
+				params.getParamsKeys());
+		if (keys.size() > 0) {
+			String separator = "[";
+			for (final String key : keys) {
+				sb.append(separator).append(key).append("=")
+						.append(params.getParam(key));
+				separator = ";";
+			}
+			sb.append("]");
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Compares the {@code current} results with the {@code baseline} and
+	 * prints the differences.
+	 * 
+	 * @param baseline
+	 *            the results of the baseline
+	 * @param current
+	 *            the current results
+	 */
+	protected static void compare(final Properties baseline,
+			final Properties current) {
+
+		System.out.println();
+		System.out.println("Comparison with baseline (score/allocation):");
+
+		for (final String key : new TreeSet<String>(
+				current.stringPropertyNames())) {
+			if (!key.endsWith(SUFFIX_SCORE)) {
+				continue;
+			}
+			final String id = key.substring(0,
+					key.length() - SUFFIX_SCORE.length());
+
+			final String unit = current.getProperty(id + SUFFIX_UNIT);
+			System.out.println(id);
+			System.out.println("  score: "
+					+ formatDelta(baseline.getProperty(key),
+							current.getProperty(key), unit));
+			System.out.println("  alloc: "
+					+ formatDelta(baseline.getProperty(id + SUFFIX_ALLOC),
+							current.getProperty(id + SUFFIX_ALLOC), "B/op"));
+		}
+	}
+
+	/**
+	 * Formats the delta between the {@code baseline} and the {@code current}
+	 * value.
+	 * 
+	 * @param baseline
+	 *            the value of the baseline, can be {@code null}
+	 * @param current
+	 *            the current value, can be {@code null}
+	 * @param unit
+	 *            the unit of the values
+	 * 
+	 * @return the formatted delta
+	 */
+	protected static String formatDelta(final String baseline,
+			final String current, final String unit) {
+		if (current == null) {
+			return "n/a";
+		} else if (baseline == null) {
+			return String.format("%.3f %s (no baseline)",
+					Double.parseDouble(current), unit);
+		}
+
+		final double base = Double.parseDouble(baseline);
+		final double cur = Double.parseDouble(current);
+		final String delta = base == 0.0 ? "n/a" : String.format("%+.1f%%",
+				(cur - base) / base * 100.0);
+
+		return String.format("%.3f -> %.3f %s (%s)", base, cur, unit, delta);
+	}
+
+	/**
+	 * Reads the {@code Properties} from the specified {@code file}.
+	 * 
+	 * @param file
+	 *            the file to be read
+	 * 
+	 * @return the read {@code Properties}
+	 * 
+	 * @throws IOException
+	 *             if the file cannot be read
+	 */
+	protected static Properties read(final File file) throws IOException {
+		final Properties properties = new Properties();
+
+		final InputStream is = new FileInputStream(file);
+		try {
+			properties.load(is);
+		} finally {
+			is.close();
+		}
+
+		return properties;
+	}
+
+	/**
+	 * Writes the {@code properties} to the specified {@code file}.
+	 * 
+	 * @param properties
+	 *            the {@code Properties} to be written
+	 * @param file
+	 *            the file to write to
+	 * 
+	 * @throws IOException
+	 *             if the file cannot be written
+	 */
+	protected static void write(final Properties properties, final File file)
+			throws IOException {
+		final File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.exists()) {
+			parent.mkdirs();
+		}
+
+		final OutputStream os = new FileOutputStream(file);
+		try {
+			properties.store(os, "JMH results (score and allocation per op)");
+		} finally {
+			os.close();
+		}
+	}
+}
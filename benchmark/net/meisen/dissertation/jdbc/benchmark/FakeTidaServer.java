@@ -0,0 +1,508 @@
+package net.meisen.dissertation.jdbc.benchmark;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import net.meisen.dissertation.jdbc.Constants;
+import net.meisen.dissertation.jdbc.protocol.DataType;
+import net.meisen.dissertation.jdbc.protocol.Protocol;
+import net.meisen.dissertation.jdbc.protocol.QueryStatus;
+import net.meisen.dissertation.jdbc.protocol.QueryType;
+import net.meisen.dissertation.jdbc.protocol.ResponseType;
+import net.meisen.dissertation.jdbc.protocol.RetrievedValue;
+
+/**
+ * An in-process stand-in of a tida server. The server uses the server-side
+ * methods of the {@code Protocol} to answer queries of the driver with
+ * synthesized interval data (see {@link IntervalDataGenerator}). Any
+ * statement starting with {@code SELECT} is answered as
+ * {@link QueryType#QUERY}, any other statement as
+ * {@link QueryType#MANIPULATION}, the records of a {@code BULKLOAD} are read
+ * and acknowledged. The size, latency and rate of the answers
+ * are defined by the {@code FakeTidaServerSettings}. Each authenticated
+ * connection is issued a token, which can be used to resume the session
+ * without validating the credentials again.
+ * 
+ * @author pmeisen
+ * 
+ */
+public class FakeTidaServer implements Closeable {
+	private final FakeTidaServerSettings settings;
+	private final IntervalDataGenerator generator;
+
+	private final ServerSocket serverSocket;
+	private final ExecutorService handlers;
+	private final Set<Socket> sockets;
+	private final Thread acceptor;
+
+	private final AtomicLong queries;
+	private final AtomicLong rows;
+	private final AtomicLong loadedRecords;
+	private final AtomicLong cancellations;
+	private final AtomicLong authentications;
+	private final AtomicLong resumedSessions;
+	private final Map<String, String> sessions;
+
+	private volatile boolean closed;
+
+	/**
+	 * Creates a server with the specified {@code settings}, bound to the
+	 * loopback address. The server has to be started using {@link #start()}.
+	 * 
+	 * @param settings
+	 *            the settings of the server
+	 * 
+	 * @throws IOException
+	 *             if the server cannot be bound
+	 */
+	public FakeTidaServer(final FakeTidaServerSettings settings)
+			throws IOException {
+		this.settings = settings;
+		this.generator = new IntervalDataGenerator(settings.getColumns());
+
+		this.serverSocket = new ServerSocket(settings.getPort(), 50,
+				InetAddress.getLoopbackAddress());
+		this.handlers = Executors.newCachedThreadPool();
+		this.sockets = new HashSet<Socket>();
+		this.acceptor = new Thread("fake-tida-acceptor") {
+
+			@Override
+			public void run() {
+				accept();
+			}
+		};
+		this.acceptor.setDaemon(true);
+
+		this.queries = new AtomicLong();
+		this.rows = new AtomicLong();
+		this.loadedRecords = new AtomicLong();
+		this.cancellations = new AtomicLong();
+		this.authentications = new AtomicLong();
+		this.resumedSessions = new AtomicLong();
+		this.sessions = new ConcurrentHashMap<String, String>();
+
+		this.closed = false;
+	}
+
+	/**
+	 * Starts accepting connections.
+	 * 
+	 * @return {@code this}
+	 */
+	public FakeTidaServer start() {
+		acceptor.start();
+		return this;
+	}
+
+	/**
+	 * Gets the port the server is bound to.
+	 * 
+	 * @return the port the server is bound to
+	 */
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Gets the JDBC url to connect to {@code this} server.
+	 * 
+	 * @return the JDBC url
+	 */
+	public String getJdbcUrl() {
+		return Constants.URL_PREFIX + "localhost:" + getPort();
+	}
+
+	/**
+	 * Gets the amount of queries answered so far.
+	 * 
+	 * @return the amount of queries answered so far
+	 */
+	public long getQueries() {
+		return queries.get();
+	}
+
+	/**
+	 * Gets the amount of rows send so far.
+	 * 
+	 * @return the amount of rows send so far
+	 */
+	public long getRows() {
+		return rows.get();
+	}
+
+	/**
+	 * Gets the amount of records loaded by bulk-loads so far.
+	 * 
+	 * @return the amount of records loaded so far
+	 */
+	public long getLoadedRecords() {
+		return loadedRecords.get();
+	}
+
+	/**
+	 * Gets the amount of queries cancelled by the client so far.
+	 * 
+	 * @return the amount of queries cancelled so far
+	 */
+	public long getCancellations() {
+		return cancellations.get();
+	}
+
+	/**
+	 * Gets the amount of connections authenticated by validating the
+	 * credentials so far.
+	 * 
+	 * @return the amount of validated credentials
+	 */
+	public long getAuthentications() {
+		return authentications.get();
+	}
+
+	/**
+	 * Gets the amount of connections, which resumed a session using a token
+	 * issued by {@code this} so far.
+	 * 
+	 * @return the amount of resumed sessions
+	 */
+	public long getResumedSessions() {
+		return resumedSessions.get();
+	}
+
+	/**
+	 * Accepts connections until the server is closed.
+	 */
+	protected void accept() {
+		while (!closed) {
+			final Socket socket;
+			try {
+				socket = serverSocket.accept();
+			} catch (final IOException e) {
+				// the server socket is closed
+				break;
+			}
+
+			synchronized (sockets) {
+				sockets.add(socket);
+			}
+			handlers.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					handle(socket);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Handles the communication on the specified {@code socket}, i.e. reads
+	 * the credentials and answers messages until the socket is closed.
+	 * 
+	 * @param socket
+	 *            the socket to handle
+	 */
+	protected void handle(final Socket socket) {
+		final Random rnd = new Random(socket.getPort());
+
+		try {
+			socket.setTcpNoDelay(true);
+			final Protocol protocol = new Protocol(socket);
+
+			// the driver sends the credentials first, any is accepted
+			protocol.writeSessionToken(authenticate(protocol.readCredential()));
+
+			while (!closed) {
+				final String msg = protocol.waitForMessage();
+				answer(protocol, msg, rnd);
+			}
+		} catch (final EOFException e) {
+			// the client closed the connection
+		} catch (final SocketException e) {
+			// the connection was closed
+		} catch (final Exception e) {
+			if (!closed) {
+				e.printStackTrace();
+			}
+		} finally {
+			synchronized (sockets) {
+				sockets.remove(socket);
+			}
+			try {
+				socket.close();
+			} catch (final IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	/**
+	 * Authenticates the specified {@code credentials}, i.e. resumes the
+	 * session of the send token (if valid for the user), or validates the
+	 * user and the password, which accepts any.
+	 * 
+	 * @param credentials
+	 *            the user, the password and optionally the token of the
+	 *            session to be resumed
+	 * 
+	 * @return the token of the session
+	 */
+	protected String authenticate(final String[] credentials) {
+		final String user = credentials.length > 0 ? credentials[0] : "";
+
+		if (credentials.length > 2
+				&& user.equals(sessions.get(credentials[2]))) {
+			resumedSessions.incrementAndGet();
+			return credentials[2];
+		} else {
+			authentications.incrementAndGet();
+
+			final String sessionToken = UUID.randomUUID().toString();
+			sessions.put(sessionToken, user);
+			return sessionToken;
+		}
+	}
+
+	/**
+	 * Answers the specified {@code msg}.
+	 * 
+	 * @param protocol
+	 *            the {@code Protocol} to answer on
+	 * @param msg
+	 *            the message to be answered
+	 * @param rnd
+	 *            the {@code Random} of the connection
+	 * 
+	 * @throws IOException
+	 *             if the answer cannot be written
+	 */
+	protected void answer(final Protocol protocol, final String msg,
+			final Random rnd) throws IOException {
+		if ("GET MODELS".equalsIgnoreCase(msg.trim())) {
+			answerModels(protocol);
+			return;
+		} else if (msg.trim().toUpperCase().startsWith("BULKLOAD")) {
+			answerBulkLoad(protocol);
+			return;
+		}
+
+		final boolean query = msg.trim().toUpperCase().startsWith("SELECT");
+
+		// tell the client what kind of query it is, a query has its meta-data
+		if (query) {
+			protocol.writeMeta(QueryType.QUERY, generator.getHeaderClasses(),
+					generator.getHeaderNames());
+		} else {
+			protocol.writeQueryType(QueryType.MANIPULATION);
+		}
+
+		// check if the client wants the query to be processed
+		final QueryStatus status = protocol.readQueryStatus();
+		if (QueryStatus.CANCEL.equals(status)) {
+			protocol.writeEndOfResponse();
+			return;
+		}
+
+		queries.incrementAndGet();
+		if (delay(protocol, rnd)) {
+			cancellations.incrementAndGet();
+			protocol.writeEndOfResponse();
+			return;
+		}
+
+		if (query) {
+			protocol.writeEndOfMeta();
+
+			final int amount = settings.getRows();
+			final int rate = settings.getRowsPerSecond();
+			final int cancelCheck = Math.max(1,
+					settings.getCancelCheckInterval());
+			final long start = System.nanoTime();
+			for (int i = 0; i < amount; i++) {
+				if (i % cancelCheck == 0
+						&& Boolean.TRUE.equals(protocol.peekForCancel(null))) {
+					cancellations.incrementAndGet();
+					break;
+				}
+
+				if (rate > 0) {
+					final long due = start + i * 1000000000L / rate;
+					final long wait = due - System.nanoTime();
+					if (wait > 0) {
+						LockSupport.parkNanos(wait);
+					}
+				}
+
+				protocol.writeResult(generator.getHeader(),
+						generator.createRow(rnd, i));
+				rows.incrementAndGet();
+			}
+		} else if (QueryStatus.PROCESSANDGETIDS.equals(status)) {
+			protocol.writeInts(new int[] { (int) queries.get() });
+		} else if (!"ALIVE".equals(msg)) {
+			protocol.writeInt(1);
+		}
+
+		protocol.writeEndOfResponse();
+	}
+
+	/**
+	 * Answers a {@code GET MODELS} with the models defined by the settings.
+	 * 
+	 * @param protocol
+	 *            the {@code Protocol} to answer on
+	 * 
+	 * @throws IOException
+	 *             if the answer cannot be written
+	 */
+	protected void answerModels(final Protocol protocol) throws IOException {
+		protocol.writeMeta(QueryType.QUERY, new Class<?>[] { String.class },
+				new String[] { "ID" });
+
+		final QueryStatus status = protocol.readQueryStatus();
+		if (!QueryStatus.CANCEL.equals(status)) {
+			queries.incrementAndGet();
+			protocol.writeEndOfMeta();
+
+			final DataType[] header = new DataType[] { DataType.STRING };
+			for (final String model : settings.getModels().split(",")) {
+				if (!model.trim().isEmpty()) {
+					protocol.writeResult(header, new Object[] { model.trim() });
+				}
+			}
+		}
+
+		protocol.writeEndOfResponse();
+	}
+
+	/**
+	 * Answers a {@code BULKLOAD}, i.e. reads the records send by the client
+	 * and acknowledges each batch (see
+	 * {@link net.meisen.dissertation.jdbc.TidaBulkLoader}).
+	 * 
+	 * @param protocol
+	 *            the {@code Protocol} to answer on
+	 * 
+	 * @throws IOException
+	 *             if the records cannot be read
+	 */
+	protected void answerBulkLoad(final Protocol protocol) throws IOException {
+		protocol.writeQueryType(QueryType.MANIPULATION);
+
+		final QueryStatus status = protocol.readQueryStatus();
+		if (!QueryStatus.CANCEL.equals(status)) {
+			queries.incrementAndGet();
+
+			final DataType[] header = protocol.read().getHeader();
+			int batch = 0;
+			RetrievedValue value;
+			while (!(value = protocol.read()).isEOR()) {
+				if (value.is(ResponseType.RESULT)) {
+					protocol.readResult(header);
+					batch++;
+				} else if (value.is(ResponseType.EOB)) {
+					final long loaded = loadedRecords.addAndGet(batch);
+					if (QueryStatus.PROCESSANDGETIDS.equals(status)) {
+						final int[] ids = new int[batch];
+						for (int i = 0; i < batch; i++) {
+							ids[i] = (int) (loaded - batch + i);
+						}
+						protocol.writeInts(ids);
+					} else {
+						protocol.writeInt(batch);
+					}
+					protocol.flush();
+					batch = 0;
+				}
+			}
+		}
+
+		protocol.writeEndOfResponse();
+	}
+
+	/**
+	 * Delays the answer according to the latency and the jitter of the
+	 * settings. The delay is ended, if the client cancels the query.
+	 * 
+	 * @param protocol
+	 *            the {@code Protocol} to check for a cancellation
+	 * @param rnd
+	 *            the {@code Random} used to determine the jitter
+	 * 
+	 * @return {@code true} if the query was cancelled during the delay,
+	 *         otherwise {@code false}
+	 * 
+	 * @throws IOException
+	 *             if the cancellation cannot be checked
+	 */
+	protected boolean delay(final Protocol protocol, final Random rnd)
+			throws IOException {
+		final int jitter = settings.getJitterInMs();
+		final long delay = settings.getLatencyInMs()
+				+ (jitter > 0 ? rnd.nextInt(jitter + 1) : 0);
+
+		// wait in slices to notice a cancellation
+		final long end = System.nanoTime()
+				+ TimeUnit.MILLISECONDS.toNanos(delay);
+		long remaining = end - System.nanoTime();
+		while (delay > 0 && remaining > 0) {
+			if (Boolean.TRUE.equals(protocol.peekForCancel(null))) {
+				return true;
+			}
+
+			LockSupport.parkNanos(Math.min(remaining,
+					TimeUnit.MILLISECONDS.toNanos(1)));
+			remaining = end - System.nanoTime();
+		}
+
+		return false;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		serverSocket.close();
+		synchronized (sockets) {
+			for (final Socket socket : sockets) {
+				try {
+					socket.close();
+				} catch (final IOException e) {
+					// ignore
+				}
+			}
+			sockets.clear();
+		}
+
+		handlers.shutdownNow();
+		try {
+			acceptor.join(1000);
+			handlers.awaitTermination(1, TimeUnit.SECONDS);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "FakeTidaServer on " + getPort() + " (" + settings + ")";
+	}
+}
@@ -0,0 +1,222 @@
+package net.meisen.dissertation.jdbc.benchmark;
+
+/**
+ * The settings of a {@code FakeTidaServer}. The settings define the size of
+ * the synthesized interval data, as well as the latency and the rate with
+ * which the data is send to the client.
+ * 
+ * @author pmeisen
+ * 
+ * @see FakeTidaServer
+ */
+public class FakeTidaServerSettings {
+	private int port = 0;
+	private int rows = 1000;
+	private String columns = "STRING:16,DOUBLE";
+	private int latencyInMs = 0;
+	private int jitterInMs = 0;
+	private int rowsPerSecond = 0;
+	private int cancelCheckInterval = 100;
+	private String models = "";
+
+	/**
+	 * Gets the port the server listens on, {@code 0} to use any free port.
+	 * 
+	 * @return the port the server listens on
+	 */
+	public int getPort() {
+		return port;
+	}
+
+	/**
+	 * Sets the port the server listens on, {@code 0} to use any free port.
+	 * 
+	 * @param port
+	 *            the port the server listens on
+	 */
+	public void setPort(final int port) {
+		this.port = port;
+	}
+
+	/**
+	 * Gets the amount of rows answered for each query.
+	 * 
+	 * @return the amount of rows answered for each query
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Sets the amount of rows answered for each query.
+	 * 
+	 * @param rows
+	 *            the amount of rows answered for each query
+	 */
+	public void setRows(final int rows) {
+		this.rows = rows;
+	}
+
+	/**
+	 * Gets the additional columns of each interval, defined as
+	 * {@code RowShape}.
+	 * 
+	 * @return the additional columns of each interval
+	 * 
+	 * @see net.meisen.dissertation.jdbc.protocol.RowShape
+	 */
+	public String getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Sets the additional columns of each interval, defined as
+	 * {@code RowShape}. An empty or {@code null} value means that the
+	 * intervals do not have any additional columns.
+	 * 
+	 * @param columns
+	 *            the additional columns of each interval
+	 * 
+	 * @see net.meisen.dissertation.jdbc.protocol.RowShape
+	 */
+	public void setColumns(final String columns) {
+		this.columns = columns;
+	}
+
+	/**
+	 * Gets the latency (in milliseconds) before the server starts to answer a
+	 * query.
+	 * 
+	 * @return the latency (in milliseconds)
+	 */
+	public int getLatencyInMs() {
+		return latencyInMs;
+	}
+
+	/**
+	 * Sets the latency (in milliseconds) before the server starts to answer a
+	 * query.
+	 * 
+	 * @param latencyInMs
+	 *            the latency (in milliseconds)
+	 */
+	public void setLatencyInMs(final int latencyInMs) {
+		this.latencyInMs = latencyInMs;
+	}
+
+	/**
+	 * Gets the maximal random jitter (in milliseconds) added to the latency.
+	 * 
+	 * @return the maximal random jitter (in milliseconds)
+	 */
+	public int getJitterInMs() {
+		return jitterInMs;
+	}
+
+	/**
+	 * Sets the maximal random jitter (in milliseconds) added to the latency.
+	 * 
+	 * @param jitterInMs
+	 *            the maximal random jitter (in milliseconds)
+	 */
+	public void setJitterInMs(final int jitterInMs) {
+		this.jitterInMs = jitterInMs;
+	}
+
+	/**
+	 * Gets the amount of rows send per second and connection, {@code 0} if
+	 * the rows are send as fast as possible.
+	 * 
+	 * @return the amount of rows send per second and connection
+	 */
+	public int getRowsPerSecond() {
+		return rowsPerSecond;
+	}
+
+	/**
+	 * Sets the amount of rows send per second and connection, {@code 0} if
+	 * the rows should be send as fast as possible.
+	 * 
+	 * @param rowsPerSecond
+	 *            the amount of rows send per second and connection
+	 */
+	public void setRowsPerSecond(final int rowsPerSecond) {
+		this.rowsPerSecond = rowsPerSecond;
+	}
+
+	/**
+	 * Gets the amount of rows send before the server checks for a
+	 * cancellation of the client.
+	 * 
+	 * @return the amount of rows send before a check for a cancellation
+	 */
+	public int getCancelCheckInterval() {
+		return cancelCheckInterval;
+	}
+
+	/**
+	 * Sets the amount of rows send before the server checks for a
+	 * cancellation of the client.
+	 * 
+	 * @param cancelCheckInterval
+	 *            the amount of rows send before a check for a cancellation
+	 */
+	public void setCancelCheckInterval(final int cancelCheckInterval) {
+		this.cancelCheckInterval = cancelCheckInterval;
+	}
+
+	/**
+	 * Gets the models (separated by a comma) answered to a {@code GET MODELS}.
+	 * 
+	 * @return the models answered to a {@code GET MODELS}
+	 */
+	public String getModels() {
+		return models;
+	}
+
+	/**
+	 * Sets the models (separated by a comma) answered to a
+	 * {@code GET MODELS}, e.g. to simulate a server holding a part of the
+	 * models.
+	 * 
+	 * @param models
+	 *            the models answered to a {@code GET MODELS}
+	 */
+	public void setModels(final String models) {
+		this.models = models == null ? "" : models;
+	}
+
+	/**
+	 * Creates settings based on the system-properties prefixed with
+	 * {@code fake.}, e.g. {@code fake.rows} or {@code fake.latency}.
+	 * 
+	 * @return the created settings
+	 */
+	public static FakeTidaServerSettings fromSystemProperties() {
+		final FakeTidaServerSettings settings = new FakeTidaServerSettings();
+
+		settings.setPort(Integer.getInteger("fake.port", settings.getPort()));
+		settings.setRows(Integer.getInteger("fake.rows", settings.getRows()));
+		settings.setColumns(System.getProperty("fake.columns",
+				settings.getColumns()));
+		settings.setLatencyInMs(Integer.getInteger("fake.latency",
+				settings.getLatencyInMs()));
+		settings.setJitterInMs(Integer.getInteger("fake.jitter",
+				settings.getJitterInMs()));
+		settings.setRowsPerSecond(Integer.getInteger("fake.rate",
+				settings.getRowsPerSecond()));
+		settings.setCancelCheckInterval(Integer.getInteger(
+				"fake.cancelCheck", settings.getCancelCheckInterval()));
+		settings.setModels(System.getProperty("fake.models",
+				settings.getModels()));
+
+		return settings;
+	}
+
+	@Override
+	public String toString() {
+		return "rows: " + rows + ", columns: " + columns + ", latency: "
+				+ latencyInMs + "ms (+" + jitterInMs + "ms), rate: "
+				+ (rowsPerSecond == 0 ? "unlimited" : rowsPerSecond + "/s");
+	}
+}
@@ -0,0 +1,120 @@
+package net.meisen.dissertation.jdbc.benchmark;
+
+import java.util.Date;
+import java.util.Random;
+
+import net.meisen.dissertation.jdbc.protocol.DataType;
+import net.meisen.dissertation.jdbc.protocol.RowShape;
+
+/**
+ * Generator of synthetic interval data. Each interval has an identifier, a
+ * start and an end, followed by the additional columns defined by a
+ * {@code RowShape}. The intervals are ordered by their start, the duration of
+ * each interval is randomly chosen.
+ * 
+ * @author pmeisen
+ * 
+ */
+public class IntervalDataGenerator {
+	private final static long BASE = 1388534400000L;
+	private final static long STEP = 60000L;
+	private final static int MAX_DURATION = 120;
+
+	private final DataType[] header;
+	private final Class<?>[] headerClasses;
+	private final String[] headerNames;
+
+	private final Object[][] extraRows;
+	private final int extraColumns;
+
+	/**
+	 * Creates a generator with the specified additional {@code columns}.
+	 * 
+	 * @param columns
+	 *            the definition of the additional columns (see
+	 *            {@link RowShape}), can be {@code null} or empty if no
+	 *            additional columns are needed
+	 */
+	public IntervalDataGenerator(final String columns) {
+		final RowShape shape = columns == null || "".equals(columns.trim()) ? null
+				: new RowShape(columns);
+		this.extraColumns = shape == null ? 0 : shape.getHeader().length;
+
+		this.header = new DataType[3 + extraColumns];
+		this.headerClasses = new Class<?>[header.length];
+		this.headerNames = new String[header.length];
+
+		header[0] = DataType.INT;
+		header[1] = DataType.DATE;
+		header[2] = DataType.DATE;
+		headerNames[0] = "ID";
+		headerNames[1] = "START";
+		headerNames[2] = "END";
+		for (int i = 0; i < extraColumns; i++) {
+			header[3 + i] = shape.getHeader()[i];
+			headerNames[3 + i] = shape.getHeaderNames()[i];
+		}
+		for (int i = 0; i < header.length; i++) {
+			headerClasses[i] = header[i].getRepresentorClass();
+		}
+
+		/*
+		 * The additional values are pre-generated and reused, so that the
+		 * generation does not dominate the measured costs.
+		 */
+		this.extraRows = shape == null ? null : shape.createRows(1024);
+	}
+
+	/**
+	 * Gets the {@code DataType} of each column.
+	 * 
+	 * @return the {@code DataType} of each column
+	 */
+	public DataType[] getHeader() {
+		return header;
+	}
+
+	/**
+	 * Gets the classes of each column.
+	 * 
+	 * @return the classes of each column
+	 */
+	public Class<?>[] getHeaderClasses() {
+		return headerClasses;
+	}
+
+	/**
+	 * Gets the names of each column.
+	 * 
+	 * @return the names of each column
+	 */
+	public String[] getHeaderNames() {
+		return headerNames;
+	}
+
+	/**
+	 * Creates the interval with the specified {@code id}.
+	 * 
+	 * @param rnd
+	 *            the {@code Random} used to determine the duration
+	 * @param id
+	 *            the identifier of the interval
+	 * 
+	 * @return the created interval
+	 */
+	public Object[] createRow(final Random rnd, final int id) {
+		final Object[] row = new Object[header.length];
+
+		final long start = BASE + id * STEP;
+		row[0] = id;
+		row[1] = new Date(start);
+		row[2] = new Date(start + rnd.nextInt(MAX_DURATION) * STEP);
+
+		if (extraColumns > 0) {
+			final Object[] extra = extraRows[id & (extraRows.length - 1)];
+			System.arraycopy(extra, 0, row, 3, extraColumns);
+		}
+
+		return row;
+	}
+}
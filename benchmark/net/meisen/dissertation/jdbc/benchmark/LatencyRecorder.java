@@ -0,0 +1,123 @@
+package net.meisen.dissertation.jdbc.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Recorder of latencies (in nanoseconds). A recorder is not thread-safe, it
+ * is expected that each thread uses its own recorder and that the recorders
+ * are merged after the recording using {@link #merge(LatencyRecorder)}.
+ * 
+ * @author pmeisen
+ * 
+ */
+public class LatencyRecorder {
+	private long[] values;
+	private int size;
+	private boolean sorted;
+
+	/**
+	 * Default constructor.
+	 */
+	public LatencyRecorder() {
+		this.values = new long[1024];
+		this.size = 0;
+		this.sorted = true;
+	}
+
+	/**
+	 * Records the specified latency.
+	 * 
+	 * @param nanos
+	 *            the latency in nanoseconds
+	 */
+	public void record(final long nanos) {
+		ensureCapacity(size + 1);
+
+		values[size++] = nanos;
+		sorted = false;
+	}
+
+	/**
+	 * Adds all the latencies of the {@code other} recorder to {@code this}.
+	 * 
+	 * @param other
+	 *            the recorder to be merged
+	 */
+	public void merge(final LatencyRecorder other) {
+		ensureCapacity(size + other.size);
+
+		System.arraycopy(other.values, 0, values, size, other.size);
+		size += other.size;
+		sorted = false;
+	}
+
+	/**
+	 * Gets the amount of recorded latencies.
+	 * 
+	 * @return the amount of recorded latencies
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the latency (in nanoseconds) of the specified {@code percentile}
+	 * (e.g. {@code 99.9}).
+	 * 
+	 * @param percentile
+	 *            the percentile, a value within {@code [0, 100]}
+	 * 
+	 * @return the latency of the percentile, {@code -1} if nothing was
+	 *         recorded
+	 */
+	public long getPercentile(final double percentile) {
+		if (size == 0) {
+			return -1;
+		}
+		sort();
+
+		final int pos = (int) Math.ceil(percentile / 100.0 * size) - 1;
+		return values[Math.max(0, Math.min(size - 1, pos))];
+	}
+
+	/**
+	 * Gets the maximal recorded latency (in nanoseconds).
+	 * 
+	 * @return the maximal recorded latency, {@code -1} if nothing was recorded
+	 */
+	public long getMax() {
+		return getPercentile(100.0);
+	}
+
+	/**
+	 * Gets the mean of the recorded latencies (in nanoseconds).
+	 * 
+	 * @return the mean of the recorded latencies, {@code -1} if nothing was
+	 *         recorded
+	 */
+	public double getMean() {
+		if (size == 0) {
+			return -1;
+		}
+
+		double sum = 0.0;
+		for (int i = 0; i < size; i++) {
+			sum += values[i];
+		}
+		return sum / size;
+	}
+
+	private void sort() {
+		if (!sorted) {
+			Arrays.sort(values, 0, size);
+			sorted = true;
+		}
+	}
+
+	private void ensureCapacity(final int capacity) {
+		if (capacity > values.length) {
+			values = Arrays.copyOf(values,
+					Math.max(capacity, values.length * 2));
+		}
+	}
+}
@@ -0,0 +1,258 @@
+package net.meisen.dissertation.jdbc.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Load generator which drives several connections through the driver, each
+ * connection is used by its own thread. Each thread fires the query
+ * repeatedly, reads every value of every row and records the latency of the
+ * complete query (i.e. from firing until the last row was read). The
+ * generator is configured using system-properties:
+ * <ul>
+ * <li>{@code load.url} - the JDBC url to connect to, if not specified a
+ * {@code FakeTidaServer} is started (configured by
+ * {@link FakeTidaServerSettings#fromSystemProperties()})</li>
+ * <li>{@code load.sql} - the query fired (default:
+ * {@code SELECT RECORDS FROM load})</li>
+ * <li>{@code load.threads} - the amount of connections/threads (default:
+ * {@code 4})</li>
+ * <li>{@code load.warmup} - the warm-up in seconds, not recorded (default:
+ * {@code 5})</li>
+ * <li>{@code load.duration} - the measured duration in seconds (default:
+ * {@code 30})</li>
+ * </ul>
+ * 
+ * @author pmeisen
+ * 
+ */
+public class LoadGenerator {
+	private final String url;
+	private final String sql;
+	private final int threads;
+
+	/**
+	 * Creates a load generator firing the {@code sql} against the specified
+	 * {@code url} using {@code threads} connections.
+	 * 
+	 * @param url
+	 *            the JDBC url to connect to
+	 * @param sql
+	 *            the query to be fired
+	 * @param threads
+	 *            the amount of connections/threads
+	 */
+	public LoadGenerator(final String url, final String sql, final int threads) {
+		this.url = url;
+		this.sql = sql;
+		this.threads = threads;
+	}
+
+	/**
+	 * Runs the load for the specified {@code warmup} and {@code duration}.
+	 * 
+	 * @param warmup
+	 *            the warm-up time, the queries of the warm-up are not recorded
+	 * @param duration
+	 *            the duration to be recorded
+	 * @param unit
+	 *            the unit of {@code warmup} and {@code duration}
+	 * 
+	 * @return the report of the run
+	 * 
+	 * @throws SQLException
+	 *             if a connection cannot be established or a query fails
+	 * @throws InterruptedException
+	 *             if the waiting for the threads is interrupted
+	 */
+	public LoadReport run(final long warmup, final long duration,
+			final TimeUnit unit) throws SQLException, InterruptedException {
+		final List<Worker> workers = new ArrayList<Worker>();
+		final CountDownLatch ready = new CountDownLatch(threads);
+		final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+
+		final long now = System.nanoTime();
+		final long recordFrom = now + unit.toNanos(warmup);
+		final long recordUntil = recordFrom + unit.toNanos(duration);
+
+		for (int i = 0; i < threads; i++) {
+			final Worker worker = new Worker(i, ready, failure, recordFrom,
+					recordUntil);
+			workers.add(worker);
+			worker.start();
+		}
+
+		// wait for all the workers to finish
+		final LatencyRecorder latencies = new LatencyRecorder();
+		long rows = 0;
+		for (final Worker worker : workers) {
+			worker.join();
+
+			latencies.merge(worker.latencies);
+			rows += worker.rows.get();
+		}
+
+		final Exception e = failure.get();
+		if (e instanceof SQLException) {
+			throw (SQLException) e;
+		} else if (e != null) {
+			throw new IllegalStateException("The load generation failed.", e);
+		}
+
+		return new LoadReport(threads, unit.toNanos(duration), latencies, rows);
+	}
+
+	/**
+	 * A thread firing the queries on its own connection.
+	 * 
+	 * @author pmeisen
+	 * 
+	 */
+	protected class Worker extends Thread {
+		private final CountDownLatch ready;
+		private final AtomicReference<Exception> failure;
+		private final long recordFrom;
+		private final long recordUntil;
+
+		private final LatencyRecorder latencies;
+		private final AtomicLong rows;
+
+		/**
+		 * Creates a worker.
+		 * 
+		 * @param nr
+		 *            the number of the worker
+		 * @param ready
+		 *            the latch to signal that the connection is established
+		 * @param failure
+		 *            the reference to set a failure to
+		 * @param recordFrom
+		 *            the {@link System#nanoTime()} to start the recording at
+		 * @param recordUntil
+		 *            the {@link System#nanoTime()} to stop at
+		 */
+		public Worker(final int nr, final CountDownLatch ready,
+				final AtomicReference<Exception> failure,
+				final long recordFrom, final long recordUntil) {
+			super("load-worker-" + nr);
+
+			this.ready = ready;
+			this.failure = failure;
+			this.recordFrom = recordFrom;
+			this.recordUntil = recordUntil;
+
+			this.latencies = new LatencyRecorder();
+			this.rows = new AtomicLong();
+		}
+
+		@Override
+		public void run() {
+			Connection connection = null;
+			try {
+				connection = DriverManager.getConnection(url);
+				ready.countDown();
+				ready.await();
+
+				final Statement stmt = connection.createStatement();
+				long start;
+				while ((start = System.nanoTime()) < recordUntil
+						&& failure.get() == null) {
+					final long read = fire(stmt);
+					final long end = System.nanoTime();
+
+					if (start >= recordFrom && end <= recordUntil) {
+						latencies.record(end - start);
+						rows.addAndGet(read);
+					}
+				}
+				stmt.close();
+			} catch (final Exception e) {
+				failure.compareAndSet(null, e);
+				ready.countDown();
+			} finally {
+				if (connection != null) {
+					try {
+						connection.close();
+					} catch (final SQLException e) {
+						// ignore
+					}
+				}
+			}
+		}
+
+		/**
+		 * Fires the query and reads every value of every row.
+		 * 
+		 * @param stmt
+		 *            the statement used to fire the query
+		 * 
+		 * @return the amount of rows read
+		 * 
+		 * @throws SQLException
+		 *             if the query fails
+		 */
+		protected long fire(final Statement stmt) throws SQLException {
+			final ResultSet rs = stmt.executeQuery(sql);
+			final ResultSetMetaData meta = rs.getMetaData();
+			final int columns = meta.getColumnCount();
+
+			long read = 0;
+			while (rs.next()) {
+				for (int i = 1; i <= columns; i++) {
+					rs.getObject(i);
+				}
+				read++;
+			}
+			rs.close();
+
+			return read;
+		}
+	}
+
+	/**
+	 * Runs the load generator, see the documentation of the class for the
+	 * supported system-properties.
+	 * 
+	 * @param args
+	 *            not used
+	 * 
+	 * @throws Exception
+	 *             if the load cannot be generated
+	 */
+	public static void main(final String[] args) throws Exception {
+		String url = System.getProperty("load.url");
+		final String sql = System.getProperty("load.sql",
+				"SELECT RECORDS FROM load");
+		final int threads = Integer.getInteger("load.threads", 4);
+		final int warmup = Integer.getInteger("load.warmup", 5);
+		final int duration = Integer.getInteger("load.duration", 30);
+
+		FakeTidaServer server = null;
+		if (url == null) {
+			server = new FakeTidaServer(
+					FakeTidaServerSettings.fromSystemProperties()).start();
+			url = server.getJdbcUrl();
+			System.out.println("Started " + server);
+		}
+
+		try {
+			final LoadReport report = new LoadGenerator(url, sql, threads)
+					.run(warmup, duration, TimeUnit.SECONDS);
+			System.out.println(report);
+		} finally {
+			if (server != null) {
+				server.close();
+			}
+		}
+	}
+}
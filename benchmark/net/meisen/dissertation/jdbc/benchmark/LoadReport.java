@@ -0,0 +1,87 @@
+package net.meisen.dissertation.jdbc.benchmark;
+
+import java.util.Locale;
+
+/**
+ * The report of a run of the {@code LoadGenerator}.
+ * 
+ * @author pmeisen
+ * 
+ */
+public class LoadReport {
+	private final int threads;
+	private final long durationInNs;
+	private final LatencyRecorder latencies;
+	private final long rows;
+
+	/**
+	 * Creates a report.
+	 * 
+	 * @param threads
+	 *            the amount of threads used
+	 * @param durationInNs
+	 *            the recorded duration in nanoseconds
+	 * @param latencies
+	 *            the recorded latencies
+	 * @param rows
+	 *            the amount of rows read within the recorded duration
+	 */
+	public LoadReport(final int threads, final long durationInNs,
+			final LatencyRecorder latencies, final long rows) {
+		this.threads = threads;
+		this.durationInNs = durationInNs;
+		this.latencies = latencies;
+		this.rows = rows;
+	}
+
+	/**
+	 * Gets the amount of queries answered within the recorded duration.
+	 * 
+	 * @return the amount of queries
+	 */
+	public int getQueries() {
+		return latencies.size();
+	}
+
+	/**
+	 * Gets the throughput in queries per second.
+	 * 
+	 * @return the throughput in queries per second
+	 */
+	public double getQueriesPerSecond() {
+		return latencies.size() / (durationInNs / 1e9);
+	}
+
+	/**
+	 * Gets the throughput in rows per second.
+	 * 
+	 * @return the throughput in rows per second
+	 */
+	public double getRowsPerSecond() {
+		return rows / (durationInNs / 1e9);
+	}
+
+	/**
+	 * Gets the latency (in nanoseconds) of the specified {@code percentile}.
+	 * 
+	 * @param percentile
+	 *            the percentile, e.g. {@code 99.9}
+	 * 
+	 * @return the latency of the percentile
+	 */
+	public long getLatency(final double percentile) {
+		return latencies.getPercentile(percentile);
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.US,
+				"threads: %d, queries: %d, throughput: %.1f queries/s, %.1f rows/s%n"
+						+ "latency (ms): mean %.3f, p50 %.3f, p99 %.3f, "
+						+ "p999 %.3f, max %.3f", threads, getQueries(),
+				getQueriesPerSecond(), getRowsPerSecond(),
+				latencies.getMean() / 1e6, getLatency(50.0) / 1e6,
+				getLatency(99.0) / 1e6, getLatency(99.9) / 1e6,
+				latencies.getMax() / 1e6);
+	}
+}
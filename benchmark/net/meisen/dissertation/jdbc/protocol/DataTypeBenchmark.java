@@ -0,0 +1,106 @@
+package net.meisen.dissertation.jdbc.protocol;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of {@link DataType#read(java.io.DataInput)} and
+ * {@link DataType#write(java.io.DataOutput, Object)} for different
+ * {@link RowShape} instances.
+ * 
+ * @author pmeisen
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataTypeBenchmark {
+
+	@Param({ "INT,LONG,STRING:16,DATE,DOUBLE", "INT,INT,INT,INT",
+			"STRING:64,STRING:64,DATE,DATE" })
+	private String shape;
+
+	@Param({ "1000" })
+	private int rows;
+
+	private DataType[] header;
+	private Object[][] values;
+	private byte[] encoded;
+
+	/**
+	 * Creates the rows and the encoded bytes used by the benchmarks.
+	 * 
+	 * @throws IOException
+	 *             if the rows cannot be encoded
+	 */
+	@Setup
+	public void setup() throws IOException {
+		final RowShape rowShape = new RowShape(shape);
+
+		this.header = rowShape.getHeader();
+		this.values = rowShape.createRows(rows);
+		this.encoded = rowShape.encodeValues(values);
+	}
+
+	/**
+	 * Writes all the rows.
+	 * 
+	 * @return the stream written to
+	 * 
+	 * @throws IOException
+	 *             if a value cannot be written
+	 */
+	@Benchmark
+	public DataOutputStream write() throws IOException {
+		final DataOutputStream out = new DataOutputStream(
+				new NullOutputStream());
+
+		for (final Object[] row : values) {
+			for (int i = 0; i < header.length; i++) {
+				header[i].write(out, row[i]);
+			}
+		}
+
+		return out;
+	}
+
+	/**
+	 * Reads all the rows.
+	 * 
+	 * @param bh
+	 *            the {@code Blackhole} to consume the values
+	 * 
+	 * @throws IOException
+	 *             if a value cannot be read
+	 */
+	@Benchmark
+	public void read(final Blackhole bh) throws IOException {
+		final DataInputStream in = new DataInputStream(
+				new ByteArrayInputStream(encoded));
+
+		for (int k = 0; k < rows; k++) {
+			for (int i = 0; i < header.length; i++) {
+				bh.consume(header[i].read(in));
+			}
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package net.meisen.dissertation.jdbc.protocol;
+
+import java.io.OutputStream;
+
+/**
+ * An {@code OutputStream} which discards everything written to it. The
+ * benchmarks use it as the client-side output of an in-memory
+ * {@code Protocol}, whereby only the reading side is of interest.
+ *
+ * @author pmeisen
+ *
+ */
+public class NullOutputStream extends OutputStream {
+
+	@Override
+	public void write(final int b) {
+		// discard
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len) {
+		// discard
+	}
+}
@@ -0,0 +1,148 @@
+package net.meisen.dissertation.jdbc.protocol;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import net.meisen.dissertation.jdbc.QueryResponseHandler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of the client-side reading of a complete response, i.e.
+ * {@link Protocol#_read()} and {@link Protocol#handleResponse(IResponseHandler)}
+ * . The response is generated for a {@link RowShape} using the server-side
+ * methods of the {@code Protocol} and replayed using the in-memory
+ * {@link Protocol#Protocol(java.io.InputStream, java.io.OutputStream)}.
+ * 
+ * @author pmeisen
+ * 
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProtocolBenchmark {
+	private final static String QUERY = "SELECT TIMESERIES FROM benchmark";
+
+	@Param({ "INT,LONG,STRING:16,DATE,DOUBLE", "INT,INT,INT,INT",
+			"STRING:64,STRING:64,DATE,DATE" })
+	private String shape;
+
+	@Param({ "1", "1000" })
+	private int rows;
+
+	private byte[] response;
+	private int columns;
+
+	/**
+	 * Creates the response used by the benchmarks.
+	 * 
+	 * @throws IOException
+	 *             if the response cannot be created
+	 */
+	@Setup
+	public void setup() throws IOException {
+		final RowShape rowShape = new RowShape(shape);
+
+		this.response = rowShape.encodeResponse(rowShape.createRows(rows));
+		this.columns = rowShape.getHeader().length;
+	}
+
+	/**
+	 * Reads the plain frames of the response using {@link Protocol#_read()}
+	 * and {@link Protocol#readResult(DataType[])}.
+	 * 
+	 * @param bh
+	 *            the {@code Blackhole} to consume the values
+	 * 
+	 * @throws IOException
+	 *             if the response cannot be read
+	 */
+	@Benchmark
+	public void readFrames(final Blackhole bh) throws IOException {
+		final Protocol protocol = new Protocol(new ByteArrayInputStream(
+				response), new NullOutputStream());
+
+		// the QueryType is not a ResponseType and must be read separately
+		bh.consume(protocol.readQueryType());
+
+		DataType[] header = null;
+		RetrievedValue value;
+		while (!(value = protocol._read()).isEOR()) {
+			if (value.is(ResponseType.HEADER)) {
+				header = value.getHeader();
+			} else if (value.is(ResponseType.RESULT)) {
+				bh.consume(protocol.readResult(header));
+			}
+			bh.consume(value);
+		}
+	}
+
+	/**
+	 * Handles the complete response using a {@code QueryResponseHandler}, as
+	 * done by a {@code TidaResultSet}.
+	 * 
+	 * @param bh
+	 *            the {@code Blackhole} to consume the values
+	 * 
+	 * @throws IOException
+	 *             if the response cannot be handled
+	 */
+	@Benchmark
+	public void handleResponse(final Blackhole bh) throws IOException {
+		final QueryResponseHandler handler = new QueryResponseHandler();
+		final Protocol protocol = new Protocol(new ByteArrayInputStream(
+				response), new NullOutputStream());
+
+		protocol.initializeCommunication(QUERY, handler);
+		while (!protocol.handleResponse(handler)) {
+			bh.consume(handler.getLastResult());
+		}
+	}
+
+	/**
+	 * Handles the complete response using a {@code QueryResponseHandler} and
+	 * retrieves each value of each row as done by the getters of a
+	 * {@code TidaResultSet}, i.e. {@code getObject} and {@code getString}.
+	 * 
+	 * @param bh
+	 *            the {@code Blackhole} to consume the values
+	 * 
+	 * @throws IOException
+	 *             if the response cannot be handled
+	 */
+	@Benchmark
+	public void handleResponseAndGet(final Blackhole bh) throws IOException {
+		final QueryResponseHandler handler = new QueryResponseHandler();
+		final Protocol protocol = new Protocol(new ByteArrayInputStream(
+				response), new NullOutputStream());
+
+		protocol.initializeCommunication(QUERY, handler);
+		while (!protocol.handleResponse(handler)) {
+
+			// the end of the meta-data is reached without any result
+			if (handler.getLastResult() == null) {
+				continue;
+			}
+
+			for (int i = 0; i < columns; i++) {
+				bh.consume(handler.cast(i, Object.class));
+				bh.consume(handler.toString(i));
+			}
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package net.meisen.dissertation.jdbc.protocol;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Random;
+
+/**
+ * Helper used by the benchmarks to describe the shape of a row, i.e. the
+ * {@code DataType} of each column. A shape is defined by a comma-separated
+ * list of {@code DataType} names, whereby a {@code STRING} can be followed by
+ * the length of the generated strings (e.g.
+ * {@code INT,LONG,STRING:32,DATE,DOUBLE}).
+ *
+ * @author pmeisen
+ *
+ */
+public class RowShape {
+	private final DataType[] header;
+	private final Class<?>[] headerClasses;
+	private final String[] headerNames;
+	private final int[] stringLengths;
+
+	/**
+	 * Creates a {@code RowShape} for the specified {@code shape}.
+	 *
+	 * @param shape
+	 *            the definition of the shape
+	 */
+	public RowShape(final String shape) {
+		final String[] columns = shape.split(",");
+
+		this.header = new DataType[columns.length];
+		this.headerClasses = new Class<?>[columns.length];
+		this.headerNames = new String[columns.length];
+		this.stringLengths = new int[columns.length];
+
+		for (int i = 0; i < columns.length; i++) {
+			final String[] def = columns[i].trim().split(":");
+
+			header[i] = DataType.valueOf(def[0].toUpperCase());
+			headerClasses[i] = header[i].getRepresentorClass();
+			headerNames[i] = "COLUMN_" + i;
+			stringLengths[i] = def.length > 1 ? Integer.parseInt(def[1]) : 16;
+		}
+	}
+
+	/**
+	 * Gets the {@code DataType} of each column.
+	 *
+	 * @return the {@code DataType} of each column
+	 */
+	public DataType[] getHeader() {
+		return header;
+	}
+
+	/**
+	 * Gets the classes of the header as used by
+	 * {@link Protocol#writeHeader(Class[])}.
+	 *
+	 * @return the classes of the header
+	 */
+	public Class<?>[] getHeaderClasses() {
+		return headerClasses;
+	}
+
+	/**
+	 * Gets the generated names of the columns.
+	 *
+	 * @return the generated names of the columns
+	 */
+	public String[] getHeaderNames() {
+		return headerNames;
+	}
+
+	/**
+	 * Creates {@code amount} rows of {@code this} shape. The values are
+	 * generated using a fixed seed, so that each run uses the same data.
+	 *
+	 * @param amount
+	 *            the amount of rows to be created
+	 *
+	 * @return the created rows
+	 */
+	public Object[][] createRows(final int amount) {
+		final Random rnd = new Random(1981L);
+
+		final Object[][] rows = new Object[amount][];
+		for (int i = 0; i < amount; i++) {
+			final Object[] row = new Object[header.length];
+			for (int k = 0; k < header.length; k++) {
+				row[k] = createValue(rnd, header[k], stringLengths[k]);
+			}
+			rows[i] = row;
+		}
+
+		return rows;
+	}
+
+	/**
+	 * Encodes the specified {@code rows} as written by
+	 * {@link DataType#write(java.io.DataOutput, Object)}, i.e. without any
+	 * {@code ResponseType} marker.
+	 *
+	 * @param rows
+	 *            the rows to be encoded
+	 *
+	 * @return the encoded bytes
+	 *
+	 * @throws IOException
+	 *             if the rows cannot be encoded
+	 */
+	public byte[] encodeValues(final Object[][] rows) throws IOException {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(baos);
+
+		for (final Object[] row : rows) {
+			for (int i = 0; i < header.length; i++) {
+				header[i].write(out, row[i]);
+			}
+		}
+		out.flush();
+
+		return baos.toByteArray();
+	}
+
+	/**
+	 * Encodes a complete server-side response for a query, i.e. the
+	 * {@code QueryType}, the meta-data, the specified {@code rows} and the
+	 * end-of-response, using the server-side methods of {@code Protocol}.
+	 *
+	 * @param rows
+	 *            the rows to be encoded
+	 *
+	 * @return the bytes of the response
+	 *
+	 * @throws IOException
+	 *             if the response cannot be encoded
+	 */
+	public byte[] encodeResponse(final Object[][] rows) throws IOException {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		final Protocol serverSide = new Protocol(
+				new ByteArrayInputStream(new byte[0]), baos);
+
+		serverSide.writeMeta(QueryType.QUERY, headerClasses, headerNames);
+		serverSide.writeEndOfMeta();
+		for (final Object[] row : rows) {
+			serverSide.writeResult(header, row);
+		}
+		serverSide.writeEndOfResponse();
+
+		return baos.toByteArray();
+	}
+
+	/**
+	 * Creates a random value of the specified {@code type}.
+	 *
+	 * @param rnd
+	 *            the {@code Random} to be used
+	 * @param type
+	 *            the type of the value
+	 * @param stringLength
+	 *            the length of a string, if one has to be created
+	 *
+	 * @return the created value
+	 */
+	protected Object createValue(final Random rnd, final DataType type,
+			final int stringLength) {
+		switch (type) {
+		case BYTE:
+			return (byte) rnd.nextInt();
+		case SHORT:
+			return (short) rnd.nextInt();
+		case INT:
+			return rnd.nextInt();
+		case LONG:
+			return rnd.nextLong();
+		case DOUBLE:
+			return rnd.nextDouble();
+		case DATE:
+			return new Date(1388534400000L + rnd.nextInt(Integer.MAX_VALUE)
+					* 1000L);
+		case STRING:
+			final char[] chars = new char[stringLength];
+			for (int i = 0; i < stringLength; i++) {
+				chars[i] = (char) ('a' + rnd.nextInt(26));
+			}
+			return new String(chars);
+		default:
+			throw new IllegalArgumentException("Unsupported type '" + type
+					+ "'.");
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "RowShape " + Arrays.asList(header);
+	}
+}
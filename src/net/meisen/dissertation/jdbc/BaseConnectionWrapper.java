@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.net.SocketException;
 import java.sql.SQLException;
 
+import net.meisen.dissertation.jdbc.cluster.TidaHost;
 import net.meisen.dissertation.jdbc.protocol.IResponseHandler;
 import net.meisen.dissertation.jdbc.protocol.Protocol;
 import net.meisen.dissertation.jdbc.protocol.WrappedException;
@@ -21,10 +22,14 @@ public abstract class BaseConnectionWrapper extends BaseWrapper {
 
 	private final ProtocolManager manager;
 	private final BaseConnectionWrapper parent;
+	private final OwnerReference ownerReference;
 
 	private BaseConnectionWrapper blockedBy;
 	private boolean closed;
 	private Protocol protocol;
+	private boolean ownsProtocol;
+	private boolean protocolReplica;
+	private TidaHost protocolShard;
 
 	/**
 	 * Constructor to create an instance of a using {@code Connection} instance
@@ -61,9 +66,13 @@ public abstract class BaseConnectionWrapper extends BaseWrapper {
 			final BaseConnectionWrapper parent) {
 		this.manager = manager;
 		this.parent = parent;
+		this.ownerReference = manager.track(this, parent == null);
 
 		this.closed = false;
 		this.protocol = null;
+		this.ownsProtocol = false;
+		this.protocolReplica = false;
+		this.protocolShard = null;
 		this.blockedBy = null;
 	}
 
@@ -80,6 +89,7 @@ public abstract class BaseConnectionWrapper extends BaseWrapper {
 
 		release();
 		this.closed = true;
+		this.ownerReference.untrack();
 	}
 
 	/**
@@ -93,6 +103,7 @@ public abstract class BaseConnectionWrapper extends BaseWrapper {
 	public void closeAll() throws SQLException {
 		this.manager.close();
 		this.closed = true;
+		this.ownerReference.untrack();
 	}
 
 	/**
@@ -120,6 +131,7 @@ public abstract class BaseConnectionWrapper extends BaseWrapper {
 
 		// remove the protocol and release it to be used by others
 		this.protocol = null;
+		this.ownsProtocol = false;
 
 		if (parent.isUsedBy(this)) {
 			parent.setUser(null);
@@ -127,7 +139,10 @@ public abstract class BaseConnectionWrapper extends BaseWrapper {
 	}
 
 	/**
-	 * Gets the protocol to be used for communication by {@code this}.
+	 * Gets the protocol to be used for communication by {@code this}. The
+	 * protocol is routed to the host owning the used model (see
+	 * {@link #getShard()}), the replicas, or the primary hosts (see
+	 * {@link #isReplicaRouted()}).
 	 * 
 	 * @return the {@code Protocol} to be used
 	 * 
@@ -135,18 +150,61 @@ public abstract class BaseConnectionWrapper extends BaseWrapper {
 	 *             if no protocol can be created or non is available
 	 */
 	protected Protocol getProtocol() throws SQLException {
+		return getProtocol(isReplicaRouted(), getShard());
+	}
+
+	/**
+	 * Gets the protocol to be used for communication by {@code this}, which is
+	 * connected to the specified {@code shard}, or to a replica if
+	 * {@code replica} is {@code true} (and replicas are specified). An owned
+	 * protocol, which is not used by any other instance, is parked (see
+	 * {@link ProtocolManager#park(BaseConnectionWrapper)}) if it is routed
+	 * differently.
+	 * 
+	 * @param replica
+	 *            {@code true} if the protocol should be connected to a
+	 *            replica, otherwise {@code false}
+	 * @param shard
+	 *            the host owning the used model, can be {@code null}
+	 * 
+	 * @return the {@code Protocol} to be used
+	 * 
+	 * @throws SQLException
+	 *             if no protocol can be created or non is available
+	 */
+	protected Protocol getProtocol(final boolean replica, final TidaHost shard)
+			throws SQLException {
 		if (isClosed()) {
 			throw TidaSqlExceptions.createException(9003, getDriverProperties()
 					.getRawJdbc());
 		}
 
+		// a shard is used regardless of the replicas
+		final boolean useReplica = shard == null && replica
+				&& manager.hasReplicas();
+
+		// an owned and unused protocol is replaced if the routing changed
+		if (this.protocol != null && this.ownsProtocol
+				&& this.blockedBy == null
+				&& (this.protocolReplica != useReplica || !equals(
+						this.protocolShard, shard))) {
+			manager.park(this);
+			this.protocol = null;
+			this.ownsProtocol = false;
+		}
+
 		if (this.protocol != null) {
 			// do nothing we have a free protocol
 		} else if (parent != null && parent.isProtocolAvailable()) {
+			this.protocol = parent.getProtocol(useReplica, shard);
+			this.ownsProtocol = false;
 			parent.setUser(this);
-			this.protocol = parent.getProtocol();
 		} else if (this.protocol == null) {
-			this.protocol = manager.createProtocol(this, getProtocolScope());
+			this.protocol = manager.createProtocol(this, getProtocolScope(),
+					useReplica, shard);
+			this.ownsProtocol = true;
+			this.protocolReplica = useReplica;
+			this.protocolShard = shard;
 		} else if (!isProtocolAvailable()) {
 			throw TidaSqlExceptions.createException(9005, getDriverProperties()
 					.getRawJdbc());
@@ -155,6 +213,25 @@ public abstract class BaseConnectionWrapper extends BaseWrapper {
 		return this.protocol;
 	}
 
+	/**
+	 * Parks the {@code Protocol} owned by {@code this} to be reused by others
+	 * (see {@link ProtocolManager#park(BaseConnectionWrapper)}). The
+	 * {@code Protocol} is only parked, if it is not used by any other instance
+	 * and no response is pending.
+	 * 
+	 * @throws SQLException
+	 *             if the {@code Protocol} cannot be parked
+	 */
+	protected void parkProtocol() throws SQLException {
+		if (this.protocol != null && this.ownsProtocol
+				&& this.blockedBy == null
+				&& !this.protocol.isInCommunication()) {
+			manager.park(this);
+			this.protocol = null;
+			this.ownsProtocol = false;
+		}
+	}
+
 	/**
 	 * Fires the specified {@code sql} query using the specified {@code handler}
 	 * to handle the query with.
@@ -176,8 +253,9 @@ public abstract class BaseConnectionWrapper extends BaseWrapper {
 			return getProtocol().initializeCommunication(sql, handler);
 		} catch (final SocketException e) {
 
-			// close this one and re-query
-			close();
+			// drop the lost protocol and re-query using a new one
+			dropProtocol();
+			manager.getMetrics().reconnected();
 			return refireQuery(sql, handler);
 		} catch (final IOException e) {
 			throw TidaSqlExceptions.createException(9008, e, sql,
@@ -188,6 +266,31 @@ public abstract class BaseConnectionWrapper extends BaseWrapper {
 		}
 	}
 
+	/**
+	 * Drops the {@code Protocol} used by {@code this}, e.g. because the
+	 * connection of it was lost. An owned {@code Protocol} is released, a
+	 * {@code Protocol} of the parent is dropped by the parent. The next call
+	 * of {@link #getProtocol()} creates a new {@code Protocol}, which resumes
+	 * the session of the dropped one (see
+	 * {@link DriverProperties#isResumeSessions()}).
+	 * 
+	 * @throws SQLException
+	 *             if the {@code Protocol} cannot be released
+	 */
+	protected void dropProtocol() throws SQLException {
+		if (this.protocol == null) {
+			return;
+		} else if (this.ownsProtocol) {
+			manager.releaseOwned(this);
+		} else if (parent != null) {
+			parent.dropProtocol();
+			parent.setUser(null);
+		}
+
+		this.protocol = null;
+		this.ownsProtocol = false;
+	}
+
 	/**
 	 * Internally used method to re-fire a query based on a newly created
 	 * connection. It might occur that the connection used was time-outed and
@@ -284,6 +387,35 @@ public abstract class BaseConnectionWrapper extends BaseWrapper {
 		return manager.getDriverProperties();
 	}
 
+	/**
+	 * Checks if the statements of {@code this} are routed to the replicas. The
+	 * default implementation uses the routing of the parent, i.e. statements
+	 * are routed to the primary hosts if there is no parent. The routing is
+	 * only applied if replicas are specified.
+	 * 
+	 * @return {@code true} if the statements are routed to the replicas,
+	 *         otherwise {@code false}
+	 */
+	protected boolean isReplicaRouted() {
+		return parent != null && parent.isReplicaRouted();
+	}
+
+	/**
+	 * Gets the host owning the model used by the statements of {@code this}.
+	 * The default implementation uses the host of the parent, i.e.
+	 * {@code null} if there is no parent.
+	 * 
+	 * @return the host owning the used model, or {@code null} if the
+	 *         statements are not routed to a specific host
+	 */
+	protected TidaHost getShard() {
+		return parent == null ? null : parent.getShard();
+	}
+
+	private static boolean equals(final TidaHost host1, final TidaHost host2) {
+		return host1 == null ? host2 == null : host1.equals(host2);
+	}
+
 	/**
 	 * Gets the scope of {@code this}.
 	 * 
@@ -324,6 +456,16 @@ public abstract class BaseConnectionWrapper extends BaseWrapper {
 		return parent;
 	}
 
+	/**
+	 * Gets the {@code OwnerReference} tracking {@code this}, which is used by
+	 * the {@code ProtocolManager} to index the protocols of {@code this}.
+	 * 
+	 * @return the {@code OwnerReference} tracking {@code this}
+	 */
+	protected OwnerReference getOwnerReference() {
+		return ownerReference;
+	}
+
 	/**
 	 * Gets the {@code ProtocolManager} used by {@code this}.
 	 * 
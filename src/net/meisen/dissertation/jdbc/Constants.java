@@ -37,6 +37,16 @@ public class Constants {
 	 * The url-prefix used to mark a url to be a tida-url.
 	 */
 	public static final String URL_PREFIX = "jdbc:tida://";
+	/**
+	 * The separator used within a tida-url to specify several hosts, e.g.
+	 * {@code jdbc:tida://host1:7001,host2:7001}.
+	 */
+	public static final String URL_HOST_SEPARATOR = ",";
+	/**
+	 * The separator used to assign a model to the host owning it, e.g.
+	 * {@code model=host1:7001}.
+	 */
+	public static final String SHARD_SEPARATOR = "=";
 	/**
 	 * The complete syntax of a tida-url.
 	 */
@@ -1,8 +1,18 @@
 package net.meisen.dissertation.jdbc;
 
 import java.sql.DriverPropertyInfo;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Properties;
 
+import net.meisen.dissertation.jdbc.cluster.HostCluster;
+import net.meisen.dissertation.jdbc.cluster.TidaHost;
+import net.meisen.dissertation.jdbc.protocol.Protocol;
+
 /**
  * The {@code DriverProperties} contain the set properties for the server, i.e.
  * {@code host} and {@code port}.
@@ -47,9 +57,160 @@ public class DriverProperties {
 	 * Property used to retrieve the raw-url used.
 	 */
 	public static final String PROPERTY_RAWURL = "rawurl";
+	/**
+	 * Property to enable or disable the registration of the metrics as MBean.
+	 */
+	public static final String PROPERTY_JMX = "jmx";
+	/**
+	 * Property to specify a comma-separated list of {@code IStatementListener}
+	 * classes informed about the life-cycle of each statement.
+	 */
+	public static final String PROPERTY_LISTENERCLASSES = "listenerclasses";
+	/**
+	 * Property to specify the threshold (in milliseconds) of the slow-query
+	 * log, a negative value disables the log.
+	 */
+	public static final String PROPERTY_SLOWQUERYTHRESHOLD = "slowquerythreshold";
+	/**
+	 * Property to specify the sampling rate (0.0 to 1.0) of the slow-query log.
+	 */
+	public static final String PROPERTY_SLOWQUERYSAMPLING = "slowquerysampling";
+	/**
+	 * Property to enable or disable the TCP_NODELAY option of the socket.
+	 */
+	public static final String PROPERTY_TCPNODELAY = "tcpnodelay";
+	/**
+	 * Property to enable or disable the SO_KEEPALIVE option of the socket.
+	 */
+	public static final String PROPERTY_KEEPALIVE = "keepalive";
+	/**
+	 * Property to specify the size of the send buffer (SO_SNDBUF) of the socket.
+	 */
+	public static final String PROPERTY_SENDBUFFERSIZE = "sendbuffersize";
+	/**
+	 * Property to specify the size of the receive buffer (SO_RCVBUF) of the
+	 * socket.
+	 */
+	public static final String PROPERTY_RECEIVEBUFFERSIZE = "receivebuffersize";
+	/**
+	 * Property to specify the size of the buffers used by the streams of the
+	 * protocol.
+	 */
+	public static final String PROPERTY_STREAMBUFFERSIZE = "streambuffersize";
+	/**
+	 * Property to specify the strategy used to select one of several hosts,
+	 * i.e. {@code roundrobin}, {@code random}, {@code leastoutstanding}, or
+	 * the name of a class implementing {@code IHostSelector}.
+	 */
+	public static final String PROPERTY_LOADBALANCING = "loadbalancing";
+	/**
+	 * Property to specify the interval (in milliseconds) of the health checks of
+	 * several hosts.
+	 */
+	public static final String PROPERTY_HEALTHCHECKINTERVAL = "healthcheckinterval";
+	/**
+	 * Property to specify the time (in milliseconds) a failed host is ejected.
+	 */
+	public static final String PROPERTY_EJECTTIME = "ejecttime";
+	/**
+	 * Property to specify the hosts of the replicas (separated by a comma),
+	 * which are used for reading statements (see {@link #PROPERTY_ROUTEQUERIES})
+	 * and read-only connections.
+	 */
+	public static final String PROPERTY_REPLICAS = "replicas";
+	/**
+	 * Property to enable or disable the routing of queries to the replicas, even
+	 * if the connection is not read-only.
+	 */
+	public static final String PROPERTY_ROUTEQUERIES = "routequeries";
+	/**
+	 * Property to specify the hosts owning specific models (i.e.
+	 * {@code model=host:port}, separated by a comma). Statements referring to
+	 * such a model are routed to the host owning it.
+	 */
+	public static final String PROPERTY_SHARDS = "shards";
+	/**
+	 * Property to specify the interval (in milliseconds) the models of the hosts
+	 * are discovered (using {@code GET MODELS}), to route statements to the host
+	 * owning the referred model.
+	 */
+	public static final String PROPERTY_SHARDDISCOVERY = "sharddiscovery";
+	/**
+	 * Property to specify the maximal amount of idle protocols kept per host, to
+	 * be reused if a statement is routed to the host again.
+	 */
+	public static final String PROPERTY_MAXIDLE = "maxidle";
+	/**
+	 * Property to specify if the sessions established with a server are
+	 * resumed using the token issued by the server, instead of validating the
+	 * credentials again.
+	 */
+	public static final String PROPERTY_RESUMESESSIONS = "resumesessions";
+	/**
+	 * Property to specify the interval (in milliseconds) in which the unused
+	 * protocols are pinged to detect lost connections, a value of 0 or less
+	 * disables the pinging.
+	 */
+	public static final String PROPERTY_PINGINTERVAL = "pinginterval";
+	/**
+	 * Property to specify the time (in milliseconds) a cancelled statement has to
+	 * end its response, before the connection is closed, a value of 0 or less
+	 * waits infinitely.
+	 */
+	public static final String PROPERTY_CANCELTIMEOUT = "canceltimeout";
+	/**
+	 * Property specifying the maximal amount of bytes skipped when closing a
+	 * partially read result-set, before the connection is closed instead.
+	 */
+	public static final String PROPERTY_CLOSEDRAINLIMIT = "closedrainlimit";
+	/**
+	 * Property specifying the amount of results read ahead in the background by a
+	 * result-set.
+	 */
+	public static final String PROPERTY_PREFETCHDEPTH = "prefetchdepth";
+	/**
+	 * Property specifying the maximal amount of queries of a fan-out executed
+	 * concurrently.
+	 */
+	public static final String PROPERTY_FANOUTPARALLELISM = "fanoutparallelism";
+	/**
+	 * Property to define the amount of records send as one batch by a bulk-load.
+	 */
+	public static final String PROPERTY_BULKBATCHSIZE = "bulkbatchsize";
+	/**
+	 * Property to define the amount of batches of a bulk-load, which may be
+	 * unacknowledged.
+	 */
+	public static final String PROPERTY_BULKWINDOW = "bulkwindow";
+	/**
+	 * Property to enable the recording of the allocation of each connection,
+	 * statement and result-set, which is logged if the instance is reclaimed
+	 * without being closed.
+	 */
+	public static final String PROPERTY_LEAKDETECTION = "leakdetection";
+	/**
+	 * Property specifying the amount of threads encoding the rows of an export
+	 * concurrently.
+	 */
+	public static final String PROPERTY_EXPORTPARALLELISM = "exportparallelism";
+	/**
+	 * Property specifying the amount of rows the server may send ahead of the
+	 * rows consumed by a result-set, i.e. the default fetch-size.
+	 */
+	public static final String PROPERTY_CREDITWINDOW = "creditwindow";
+	/**
+	 * Property specifying if the capabilities of the protocol are negotiated
+	 * with the server.
+	 */
+	public static final String PROPERTY_NEGOTIATE = "negotiate";
+	/**
+	 * Property specifying the maximal size of a frame read from the server.
+	 */
+	public static final String PROPERTY_MAXFRAMESIZE = "maxframesize";
 
 	private final String host;
 	private final int port;
+	private final List<TidaHost> hosts;
 	private final String user;
 	private final String password;
 
@@ -59,6 +220,36 @@ public class DriverProperties {
 	private int timeout = 0;
 	private int lingerInSeconds = -1;
 	private boolean disableLinger = false;
+	private boolean jmx = true;
+	private String listenerClasses = "";
+	private int slowQueryThreshold = -1;
+	private double slowQuerySampling = 1.0;
+	private boolean tcpNoDelay = true;
+	private boolean keepAlive = false;
+	private int sendBufferSize = -1;
+	private int receiveBufferSize = -1;
+	private int streamBufferSize = Protocol.DEFAULT_BUFFER_SIZE;
+	private String loadBalancing = HostCluster.ROUNDROBIN;
+	private int healthCheckInterval = 5000;
+	private int ejectTime = 30000;
+	private List<TidaHost> replicas = Collections.emptyList();
+	private boolean routeQueries = true;
+	private Map<String, TidaHost> shards = Collections.emptyMap();
+	private int shardDiscoveryInterval = 0;
+	private int maxIdle = 4;
+	private boolean resumeSessions = true;
+	private int pingInterval = 0;
+	private int cancelTimeout = 1000;
+	private int closeDrainLimit = 1048576;
+	private int prefetchDepth = 0;
+	private int fanOutParallelism = 8;
+	private int bulkBatchSize = 1000;
+	private int bulkWindow = 4;
+	private boolean leakDetection = false;
+	private int exportParallelism = 0;
+	private int creditWindow = 0;
+	private boolean negotiate = true;
+	private int maxFrameSize = 0;
 
 	/**
 	 * Constructor defining the port and host of the server.
@@ -91,15 +282,53 @@ public class DriverProperties {
 	 */
 	public DriverProperties(final String rawJdbc, final String user,
 			final String password, final String host, final int port) {
+		this(rawJdbc, user, password, Collections.singletonList(new TidaHost(
+				host, port)));
+	}
+
+	/**
+	 * Constructor defining several servers holding the same models. The
+	 * connections are balanced between the servers and retried on another
+	 * server if one is not reachable.
+	 * 
+	 * @param rawJdbc
+	 *            the raw JDBC string used
+	 * @param user
+	 *            the username used for security
+	 * @param password
+	 *            the password used for security
+	 * @param hosts
+	 *            the hosts of the servers, at least one must be specified
+	 */
+	public DriverProperties(final String rawJdbc, final String user,
+			final String password, final List<TidaHost> hosts) {
+		if (hosts == null || hosts.isEmpty()) {
+			throw new IllegalArgumentException(
+					"At least one host must be specified.");
+		}
+
 		this.rawJdbc = rawJdbc;
-		this.port = port;
-		this.host = host;
+		this.hosts = Collections.unmodifiableList(new ArrayList<TidaHost>(
+				hosts));
+		this.port = hosts.get(0).getPort();
+		this.host = hosts.get(0).getHost();
 		this.user = user;
 		this.password = password;
 	}
 
 	/**
-	 * Gets the specified port.
+	 * Gets all the specified hosts, the first one is the one returned by
+	 * {@link #getHost()} and {@link #getPort()}.
+	 * 
+	 * @return the specified hosts
+	 */
+	public List<TidaHost> getHosts() {
+		return hosts;
+	}
+
+	/**
+	 * Gets the specified port, i.e. the port of the first host if several are
+	 * specified.
 	 * 
 	 * @return the specified port
 	 */
@@ -108,7 +337,7 @@ public class DriverProperties {
 	}
 
 	/**
-	 * Gets the specified host.
+	 * Gets the specified host, i.e. the first one if several are specified.
 	 * 
 	 * @return the specified host
 	 */
@@ -230,160 +459,1201 @@ public class DriverProperties {
 	}
 
 	/**
-	 * Get the raw jdbc-url used to connect to the driver.
+	 * Checks if the metrics of the connection should be registered as MBean.
 	 * 
-	 * @return the raw jdbc-url used to connect to the driver
+	 * @return {@code true} if the metrics should be registered, otherwise
+	 *         {@code false}
 	 */
-	public String getRawJdbc() {
-		return rawJdbc;
+	public boolean isJmx() {
+		return jmx;
 	}
 
 	/**
-	 * Gets {@code this} as {@code DriverPropertyInfo}.
+	 * Enables or disables the registration of the metrics of the connection as
+	 * MBean. The metrics are recorded anyways.
 	 * 
-	 * @return {@code this} as {@code DriverPropertyInfo}
+	 * @param jmx
+	 *            {@code true} to register the metrics, otherwise {@code false}
+	 */
+	public void setJmx(final boolean jmx) {
+		this.jmx = jmx;
+	}
+
+	/**
+	 * Gets the comma-separated list of the {@code IStatementListener} classes to
+	 * be informed about the life-cycle of the statements.
 	 * 
-	 * @see DriverPropertyInfo
+	 * @return the comma-separated list of classes, might be empty but never
+	 *         {@code null}
+	 * 
+	 * @see IStatementListener
 	 */
-	public DriverPropertyInfo[] getDriverPropertyInfo() {
-		final DriverPropertyInfo hostProp = new DriverPropertyInfo(
-				PROPERTY_HOST, getHost());
-		hostProp.required = true;
-		hostProp.description = "the host of the tida-server to connect to";
+	public String getListenerClasses() {
+		return listenerClasses;
+	}
 
-		final DriverPropertyInfo portProp = new DriverPropertyInfo(
-				PROPERTY_PORT, "" + getPort());
-		portProp.required = true;
-		portProp.description = "the port of the tida-server to connect to";
+	/**
+	 * Sets the comma-separated list of the {@code IStatementListener} classes.
+	 * Each class must provide a public constructor accepting the
+	 * {@code DriverProperties} or a public default constructor.
+	 * 
+	 * @param listenerClasses
+	 *            the comma-separated list of classes
+	 */
+	public void setListenerClasses(final String listenerClasses) {
+		this.listenerClasses = listenerClasses == null ? "" : listenerClasses;
+	}
 
-		final DriverPropertyInfo userProp = new DriverPropertyInfo(
-				PROPERTY_USER, getUser());
-		userProp.required = true;
-		userProp.description = "the user used to connect to the tida-server";
+	/**
+	 * Gets the threshold (in milliseconds) a statement has to exceed to be
+	 * logged by the {@code SlowQueryLogger}.
+	 * 
+	 * @return the threshold in milliseconds, a negative value if the slow-query
+	 *         log is disabled
+	 * 
+	 * @see SlowQueryLogger
+	 */
+	public int getSlowQueryThreshold() {
+		return slowQueryThreshold;
+	}
 
-		final DriverPropertyInfo passwordProp = new DriverPropertyInfo(
-				PROPERTY_PASSWORD, getPassword());
-		passwordProp.required = true;
-		passwordProp.description = "the password used to connect to the tida-server";
+	/**
+	 * Sets the threshold (in milliseconds) of the slow-query log. A negative
+	 * value disables the log.
+	 * 
+	 * @param slowQueryThreshold
+	 *            the threshold in milliseconds
+	 */
+	public void setSlowQueryThreshold(final int slowQueryThreshold) {
+		this.slowQueryThreshold = slowQueryThreshold;
+	}
 
-		final DriverPropertyInfo timeoutProp = new DriverPropertyInfo(
-				PROPERTY_TIMEOUT, "" + getTimeout());
-		timeoutProp.required = false;
-		timeoutProp.description = "the timeout of the client-connection in milliseconds";
+	/**
+	 * Gets the sampling rate of the slow-query log, i.e. the probability of a
+	 * slow statement to be logged.
+	 * 
+	 * @return the sampling rate, a value between {@code 0.0} and {@code 1.0}
+	 */
+	public double getSlowQuerySampling() {
+		return slowQuerySampling;
+	}
 
-		final DriverPropertyInfo disableLingerProp = new DriverPropertyInfo(
-				PROPERTY_DISABLELINGER, "" + disableLinger());
-		disableLingerProp.required = false;
-		disableLingerProp.description = "disables the time-wait of the tcp stack, i.e. the socket does not wait after closing";
+	/**
+	 * Sets the sampling rate of the slow-query log. The value is cut to the
+	 * range of {@code 0.0} to {@code 1.0}.
+	 * 
+	 * @param slowQuerySampling
+	 *            the sampling rate
+	 */
+	public void setSlowQuerySampling(final double slowQuerySampling) {
+		this.slowQuerySampling = Math.max(0.0,
+				Math.min(1.0, slowQuerySampling));
+	}
 
-		final DriverPropertyInfo lingerProp = new DriverPropertyInfo(
-				PROPERTY_LINGER, "" + getLingerInSeconds());
-		lingerProp.required = false;
-		lingerProp.description = "the amount of seconds to be waited after a close, if a negative value is specified the default value of the OS is used";
+	/**
+	 * Checks if the TCP_NODELAY option (i.e. disabling of Nagle's algorithm) is
+	 * enabled for the socket.
+	 * 
+	 * @return {@code true} if the option is enabled, otherwise {@code false}
+	 */
+	public boolean isTcpNoDelay() {
+		return tcpNoDelay;
+	}
 
-		final DriverPropertyInfo handlerProp = new DriverPropertyInfo(
-				DriverProperties.PROPERTY_HANDLERCLASS, getHandlerClass());
-		handlerProp.required = false;
-		handlerProp.description = "handler class used to handle resource requests";
+	/**
+	 * Enables or disables the TCP_NODELAY option of the socket. The driver writes
+	 * each logical exchange with a single flush, so that disabling Nagle's
+	 * algorithm does not lead to small segments.
+	 * 
+	 * @param tcpNoDelay
+	 *            {@code true} to enable the option, otherwise {@code false}
+	 */
+	public void setTcpNoDelay(final boolean tcpNoDelay) {
+		this.tcpNoDelay = tcpNoDelay;
+	}
 
-		// create the array and return it
-		return new DriverPropertyInfo[] { hostProp, portProp, userProp,
-				passwordProp, timeoutProp, handlerProp };
+	/**
+	 * Checks if the SO_KEEPALIVE option is enabled for the socket.
+	 * 
+	 * @return {@code true} if the option is enabled, otherwise {@code false}
+	 */
+	public boolean isKeepAlive() {
+		return keepAlive;
 	}
 
 	/**
-	 * Get the property for the specified {@code name}.
+	 * Enables or disables the SO_KEEPALIVE option of the socket.
 	 * 
-	 * @param name
-	 *            the property to get the value for
+	 * @param keepAlive
+	 *            {@code true} to enable the option, otherwise {@code false}
+	 */
+	public void setKeepAlive(final boolean keepAlive) {
+		this.keepAlive = keepAlive;
+	}
+
+	/**
+	 * Gets the size of the send buffer (SO_SNDBUF) of the socket.
 	 * 
-	 * @return the value of the property, or {@code null} if the property is
-	 *         unknown
+	 * @return the size of the send buffer, a value of {@code 0} or less if the
+	 *         default of the system is used
 	 */
-	public String get(final String name) {
-		if (PROPERTY_PORT.equals(name)) {
-			return "" + getPort();
-		} else if (PROPERTY_HOST.equals(name)) {
-			return getHost();
-		} else if (PROPERTY_USER.equals(name)) {
-			return getUser();
-		} else if (PROPERTY_RAWURL.equals(name)) {
-			return getRawJdbc();
-		} else if (PROPERTY_PASSWORD.equals(name)) {
-			return null;
-		} else if (PROPERTY_TIMEOUT.equals(name)) {
-			return "" + getTimeout();
-		} else if (PROPERTY_HANDLERCLASS.equals(name)) {
-			return getHandlerClass();
-		} else if (PROPERTY_DISABLELINGER.equals(name)) {
-			return "" + disableLinger();
-		} else if (PROPERTY_LINGER.equals(name)) {
-			return "" + getLingerInSeconds();
-		} else {
-			return null;
-		}
+	public int getSendBufferSize() {
+		return sendBufferSize;
 	}
 
 	/**
-	 * Gets the properties of {@code this} as {@code Properties}.
+	 * Sets the size of the send buffer (SO_SNDBUF) of the socket.
 	 * 
-	 * @return the properties of {@code this} as {@code Properties}
+	 * @param sendBufferSize
+	 *            the size of the send buffer, a value of {@code 0} or less to use
+	 *            the default of the system
+	 */
+	public void setSendBufferSize(final int sendBufferSize) {
+		this.sendBufferSize = sendBufferSize;
+	}
+
+	/**
+	 * Gets the size of the receive buffer (SO_RCVBUF) of the socket.
 	 * 
-	 * @see Properties
+	 * @return the size of the receive buffer, a value of {@code 0} or less if the
+	 *         default of the system is used
 	 */
-	public Properties getProperties() {
-		final Properties prop = new Properties();
-		prop.setProperty(PROPERTY_PORT, "" + getPort());
-		prop.setProperty(PROPERTY_HOST, getHost());
-		prop.setProperty(PROPERTY_USER, getUser());
-		prop.setProperty(PROPERTY_PASSWORD, get(PROPERTY_PASSWORD));
-		prop.setProperty(PROPERTY_RAWURL, getRawJdbc());
-		prop.setProperty(PROPERTY_TIMEOUT, "" + getTimeout());
-		prop.setProperty(PROPERTY_DISABLELINGER, "" + disableLinger());
-		prop.setProperty(PROPERTY_LINGER, "" + getLingerInSeconds());
-		prop.setProperty(PROPERTY_HANDLERCLASS, getHandlerClass());
+	public int getReceiveBufferSize() {
+		return receiveBufferSize;
+	}
 
-		return prop;
+	/**
+	 * Sets the size of the receive buffer (SO_RCVBUF) of the socket.
+	 * 
+	 * @param receiveBufferSize
+	 *            the size of the receive buffer, a value of {@code 0} or less to
+	 *            use the default of the system
+	 */
+	public void setReceiveBufferSize(final int receiveBufferSize) {
+		this.receiveBufferSize = receiveBufferSize;
 	}
 
 	/**
-	 * Applies the default properties to {@code this}.
+	 * Gets the size of the buffers used by the input- and output-stream of the
+	 * {@code Protocol}.
 	 * 
-	 * @param defaults
-	 *            the default properties to be applied
+	 * @return the size of the buffers used by the streams
 	 */
-	public void applyDefaults(final Properties defaults) {
-		if (defaults == null) {
-			return;
-		}
+	public int getStreamBufferSize() {
+		return streamBufferSize;
+	}
 
-		// get the timeout
-		final String defTimeout = defaults.getProperty(PROPERTY_TIMEOUT);
-		if (defTimeout != null) {
-			try {
-				this.setTimeout(Integer.parseInt(defTimeout));
-			} catch (final NumberFormatException e) {
-				// ignore the value
-			}
-		}
+	/**
+	 * Sets the size of the buffers used by the input- and output-stream of the
+	 * {@code Protocol}.
+	 * 
+	 * @param streamBufferSize
+	 *            the size of the buffers used by the streams
+	 */
+	public void setStreamBufferSize(final int streamBufferSize) {
+		this.streamBufferSize = streamBufferSize;
+	}
 
-		// get the disableLInger
-		final String defLinger = defaults.getProperty(PROPERTY_LINGER);
-		if (defLinger != null) {
-			try {
-				this.setLingerInSeconds(Integer.parseInt(defLinger));
-			} catch (final NumberFormatException e) {
-				// ignore the value
-			}
-		}
+	/**
+	 * Gets the strategy used to select the host to connect to, if several
+	 * hosts are specified.
+	 * 
+	 * @return the strategy used to select the host
+	 * 
+	 * @see HostCluster#createSelector(String)
+	 */
+	public String getLoadBalancing() {
+		return loadBalancing;
+	}
 
-		// get the disableLinger
-		final String defDisableLinger = defaults
-				.getProperty(PROPERTY_DISABLELINGER);
-		if (defDisableLinger != null) {
-			try {
-				this.setDisableLinger("true".equalsIgnoreCase(defDisableLinger));
-			} catch (final NumberFormatException e) {
+	/**
+	 * Sets the strategy used to select the host to connect to, i.e.
+	 * {@code roundrobin}, {@code random}, {@code leastoutstanding}, or the name
+	 * of a class implementing {@code IHostSelector}.
+	 * 
+	 * @param loadBalancing
+	 *            the strategy used to select the host
+	 */
+	public void setLoadBalancing(final String loadBalancing) {
+		this.loadBalancing = loadBalancing == null ? HostCluster.ROUNDROBIN
+				: loadBalancing;
+	}
+
+	/**
+	 * Gets the interval (in milliseconds) the health of the hosts is checked, if
+	 * several hosts are specified.
+	 * 
+	 * @return the interval in milliseconds, a value of {@code 0} or less if no
+	 *         checks are performed
+	 */
+	public int getHealthCheckInterval() {
+		return healthCheckInterval;
+	}
+
+	/**
+	 * Sets the interval (in milliseconds) the health of the hosts is checked. A
+	 * failed host is ejected, a reachable host is reinstated.
+	 * 
+	 * @param healthCheckInterval
+	 *            the interval in milliseconds, a value of {@code 0} or less to
+	 *            disable the checks
+	 */
+	public void setHealthCheckInterval(final int healthCheckInterval) {
+		this.healthCheckInterval = healthCheckInterval;
+	}
+
+	/**
+	 * Gets the time (in milliseconds) a host, which could not be reached, is not
+	 * used for new connections.
+	 * 
+	 * @return the time in milliseconds
+	 */
+	public int getEjectTime() {
+		return ejectTime;
+	}
+
+	/**
+	 * Sets the time (in milliseconds) a host, which could not be reached, is not
+	 * used for new connections.
+	 * 
+	 * @param ejectTime
+	 *            the time in milliseconds
+	 */
+	public void setEjectTime(final int ejectTime) {
+		this.ejectTime = ejectTime;
+	}
+
+	/**
+	 * Gets the hosts of the replicas, which are used for read-only connections
+	 * and (if enabled) for queries.
+	 * 
+	 * @return the hosts of the replicas, an empty list if no replicas are
+	 *         specified
+	 */
+	public List<TidaHost> getReplicas() {
+		return replicas;
+	}
+
+	/**
+	 * Sets the hosts of the replicas, which are used for read-only connections
+	 * and (if enabled) for queries.
+	 * 
+	 * @param replicas
+	 *            the hosts of the replicas, can be {@code null} or empty if no
+	 *            replicas are available
+	 */
+	public void setReplicas(final List<TidaHost> replicas) {
+		if (replicas == null || replicas.isEmpty()) {
+			this.replicas = Collections.emptyList();
+		} else {
+			this.replicas = Collections
+					.unmodifiableList(new ArrayList<TidaHost>(replicas));
+		}
+	}
+
+	/**
+	 * Gets the hosts of the replicas as string, i.e. the hosts (
+	 * {@code host:port}) separated by a comma.
+	 * 
+	 * @return the hosts of the replicas as string
+	 */
+	public String getReplicasAsString() {
+		final StringBuilder sb = new StringBuilder();
+		for (final TidaHost replica : replicas) {
+			if (sb.length() > 0) {
+				sb.append(Constants.URL_HOST_SEPARATOR);
+			}
+			sb.append(replica);
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Checks if replicas are specified.
+	 * 
+	 * @return {@code true} if at least one replica is specified, otherwise
+	 *         {@code false}
+	 */
+	public boolean hasReplicas() {
+		return !replicas.isEmpty();
+	}
+
+	/**
+	 * Checks if queries (i.e. statements executed using {@code executeQuery}) are
+	 * routed to the replicas, even if the connection is not read-only.
+	 * Modifications are always sent to the primary hosts.
+	 * 
+	 * @return {@code true} if queries are routed to the replicas, otherwise
+	 *         {@code false}
+	 */
+	public boolean isRouteQueries() {
+		return routeQueries;
+	}
+
+	/**
+	 * Enables or disables the routing of queries to the replicas, even if the
+	 * connection is not read-only.
+	 * 
+	 * @param routeQueries
+	 *            {@code true} to route queries to the replicas, otherwise
+	 *            {@code false}
+	 */
+	public void setRouteQueries(final boolean routeQueries) {
+		this.routeQueries = routeQueries;
+	}
+
+	/**
+	 * Gets the configured hosts owning specific models, i.e. the shards. The
+	 * key of the map is the identifier of the model.
+	 * 
+	 * @return the configured shards, an empty map if no shards are configured
+	 */
+	public Map<String, TidaHost> getShards() {
+		return shards;
+	}
+
+	/**
+	 * Sets the hosts owning specific models, i.e. the shards. The key of the
+	 * map is the identifier of the model.
+	 * 
+	 * @param shards
+	 *            the shards, can be {@code null} or empty if no shards are
+	 *            configured
+	 */
+	public void setShards(final Map<String, TidaHost> shards) {
+		if (shards == null || shards.isEmpty()) {
+			this.shards = Collections.emptyMap();
+		} else {
+			this.shards = Collections
+					.unmodifiableMap(new LinkedHashMap<String, TidaHost>(shards));
+		}
+	}
+
+	/**
+	 * Gets the configured shards as string, i.e. the entries (
+	 * {@code model=host:port}) separated by a comma.
+	 * 
+	 * @return the configured shards as string
+	 */
+	public String getShardsAsString() {
+		final StringBuilder sb = new StringBuilder();
+		for (final Entry<String, TidaHost> shard : shards.entrySet()) {
+			if (sb.length() > 0) {
+				sb.append(Constants.URL_HOST_SEPARATOR);
+			}
+			sb.append(shard.getKey()).append(Constants.SHARD_SEPARATOR)
+					.append(shard.getValue());
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Checks if statements are routed to the host owning the referred model,
+	 * i.e. if shards are configured or discovered.
+	 * 
+	 * @return {@code true} if statements are routed by model, otherwise
+	 *         {@code false}
+	 */
+	public boolean isSharded() {
+		return !shards.isEmpty() || shardDiscoveryInterval > 0;
+	}
+
+	/**
+	 * Gets the interval (in milliseconds) the models of the hosts are discovered,
+	 * to route statements to the host owning the referred model.
+	 * 
+	 * @return the interval in milliseconds, a value of {@code 0} or less if no
+	 *         discovery is performed
+	 */
+	public int getShardDiscoveryInterval() {
+		return shardDiscoveryInterval;
+	}
+
+	/**
+	 * Sets the interval (in milliseconds) the models of the hosts are discovered.
+	 * If enabled, the hosts of the url are assumed to hold different models.
+	 * 
+	 * @param shardDiscoveryInterval
+	 *            the interval in milliseconds, a value of {@code 0} or less to
+	 *            disable the discovery
+	 */
+	public void setShardDiscoveryInterval(final int shardDiscoveryInterval) {
+		this.shardDiscoveryInterval = shardDiscoveryInterval;
+	}
+
+	/**
+	 * Gets the maximal amount of idle protocols kept per host, to be reused if a
+	 * statement is routed to the host again.
+	 * 
+	 * @return the maximal amount of idle protocols kept per host
+	 */
+	public int getMaxIdle() {
+		return maxIdle;
+	}
+
+	/**
+	 * Sets the maximal amount of idle protocols kept per host, to be reused if a
+	 * statement is routed to the host again.
+	 * 
+	 * @param maxIdle
+	 *            the maximal amount of idle protocols kept per host, a value of
+	 *            {@code 0} or less disables the reuse
+	 */
+	public void setMaxIdle(final int maxIdle) {
+		this.maxIdle = maxIdle;
+	}
+
+	/**
+	 * Creates a copy of {@code this} connecting to the specified {@code hosts}.
+	 * All other properties are copied, i.e. the replicas and shards as well.
+	 * 
+	 * @param hosts
+	 *            the hosts of the copy
+	 * 
+	 * @return the created copy
+	 */
+	public DriverProperties copy(final List<TidaHost> hosts) {
+		final DriverProperties copy = new DriverProperties(rawJdbc, user,
+				password, hosts);
+
+		copy.handlerClass = handlerClass;
+		copy.timeout = timeout;
+		copy.lingerInSeconds = lingerInSeconds;
+		copy.disableLinger = disableLinger;
+		copy.jmx = jmx;
+		copy.listenerClasses = listenerClasses;
+		copy.slowQueryThreshold = slowQueryThreshold;
+		copy.slowQuerySampling = slowQuerySampling;
+		copy.tcpNoDelay = tcpNoDelay;
+		copy.keepAlive = keepAlive;
+		copy.sendBufferSize = sendBufferSize;
+		copy.receiveBufferSize = receiveBufferSize;
+		copy.streamBufferSize = streamBufferSize;
+		copy.loadBalancing = loadBalancing;
+		copy.healthCheckInterval = healthCheckInterval;
+		copy.ejectTime = ejectTime;
+		copy.replicas = replicas;
+		copy.routeQueries = routeQueries;
+		copy.shards = shards;
+		copy.shardDiscoveryInterval = shardDiscoveryInterval;
+		copy.maxIdle = maxIdle;
+		copy.resumeSessions = resumeSessions;
+		copy.pingInterval = pingInterval;
+		copy.cancelTimeout = cancelTimeout;
+		copy.closeDrainLimit = closeDrainLimit;
+		copy.prefetchDepth = prefetchDepth;
+		copy.fanOutParallelism = fanOutParallelism;
+		copy.bulkBatchSize = bulkBatchSize;
+		copy.bulkWindow = bulkWindow;
+		copy.leakDetection = leakDetection;
+		copy.exportParallelism = exportParallelism;
+		copy.creditWindow = creditWindow;
+		copy.negotiate = negotiate;
+		copy.maxFrameSize = maxFrameSize;
+
+		return copy;
+	}
+
+	/**
+	 * Checks if the sessions established with a server are resumed when
+	 * reconnecting, i.e. if the token issued by the server is send along with
+	 * the credentials.
+	 * 
+	 * @return {@code true} if sessions are resumed, otherwise {@code false}
+	 */
+	public boolean isResumeSessions() {
+		return resumeSessions;
+	}
+
+	/**
+	 * Specifies if the sessions established with a server are resumed when
+	 * reconnecting.
+	 * 
+	 * @param resumeSessions
+	 *            {@code true} if sessions should be resumed, otherwise {@code
+	 *            false}
+	 */
+	public void setResumeSessions(final boolean resumeSessions) {
+		this.resumeSessions = resumeSessions;
+	}
+
+	/**
+	 * Gets the interval (in milliseconds) in which the unused protocols are
+	 * pinged to detect lost connections.
+	 * 
+	 * @return the interval in which the unused protocols are pinged, a value of
+	 *         {@code 0} or less if disabled
+	 */
+	public int getPingInterval() {
+		return pingInterval;
+	}
+
+	/**
+	 * Sets the interval (in milliseconds) in which the unused protocols are
+	 * pinged to detect lost connections.
+	 * 
+	 * @param pingInterval
+	 *            the interval in which the unused protocols are pinged, a value
+	 *            of {@code 0} or less to disable the pinging
+	 */
+	public void setPingInterval(final int pingInterval) {
+		this.pingInterval = pingInterval;
+	}
+
+	/**
+	 * Gets the time (in milliseconds) a cancelled statement has to end its
+	 * response, before the connection used is closed.
+	 * 
+	 * @return the time a cancelled statement has to end its response, a value of
+	 *         {@code 0} or less if the end is awaited infinitely
+	 */
+	public int getCancelTimeout() {
+		return cancelTimeout;
+	}
+
+	/**
+	 * Sets the time (in milliseconds) a cancelled statement has to end its
+	 * response, before the connection used is closed.
+	 * 
+	 * @param cancelTimeout
+	 *            the time a cancelled statement has to end its response, a value
+	 *            of {@code 0} or less to await the end infinitely
+	 */
+	public void setCancelTimeout(final int cancelTimeout) {
+		this.cancelTimeout = cancelTimeout;
+	}
+
+	/**
+	 * Gets the maximal amount of bytes skipped when closing a partially read
+	 * result-set. If more bytes are pending, the connection is closed and
+	 * replaced instead of reading the remaining response.
+	 * 
+	 * @return the maximal amount of bytes skipped, a negative value to skip
+	 *         everything
+	 */
+	public int getCloseDrainLimit() {
+		return closeDrainLimit;
+	}
+
+	/**
+	 * Sets the maximal amount of bytes skipped when closing a partially read
+	 * result-set.
+	 * 
+	 * @param closeDrainLimit
+	 *            the maximal amount of bytes skipped, 0 to close the
+	 *            connection if any data is pending, or a negative value to
+	 *            never close it
+	 */
+	public void setCloseDrainLimit(final int closeDrainLimit) {
+		this.closeDrainLimit = closeDrainLimit;
+	}
+
+	/**
+	 * Gets the amount of results read ahead in the background by a result-set.
+	 * The results are read by a separate thread while the current ones are
+	 * processed, a value of 0 or less disables the prefetching.
+	 * 
+	 * @return the amount of results read ahead, 0 or less if disabled
+	 */
+	public int getPrefetchDepth() {
+		return prefetchDepth;
+	}
+
+	/**
+	 * Sets the amount of results read ahead in the background by a result-set.
+	 * 
+	 * @param prefetchDepth
+	 *            the amount of results read ahead, 0 or less to disable the
+	 *            prefetching
+	 */
+	public void setPrefetchDepth(final int prefetchDepth) {
+		this.prefetchDepth = prefetchDepth;
+	}
+
+	/**
+	 * Gets the maximal amount of queries of a fan-out executed concurrently
+	 * (see {@link TidaConnection#fanOut(List)}).
+	 * 
+	 * @return the maximal amount of queries executed concurrently, 0 or less if
+	 *         all queries are executed at once
+	 */
+	public int getFanOutParallelism() {
+		return fanOutParallelism;
+	}
+
+	/**
+	 * Sets the maximal amount of queries of a fan-out executed concurrently.
+	 * 
+	 * @param fanOutParallelism
+	 *            the maximal amount of queries executed concurrently, 0 or less
+	 *            to execute all queries at once
+	 */
+	public void setFanOutParallelism(final int fanOutParallelism) {
+		this.fanOutParallelism = fanOutParallelism;
+	}
+
+	/**
+	 * Gets the amount of records send as one batch by a bulk-load (see
+	 * {@link TidaBulkLoader}). Each batch is acknowledged by the server.
+	 * 
+	 * @return the amount of records of a batch
+	 */
+	public int getBulkBatchSize() {
+		return bulkBatchSize;
+	}
+
+	/**
+	 * Sets the amount of records send as one batch by a bulk-load.
+	 * 
+	 * @param bulkBatchSize
+	 *            the amount of records of a batch
+	 */
+	public void setBulkBatchSize(final int bulkBatchSize) {
+		this.bulkBatchSize = bulkBatchSize;
+	}
+
+	/**
+	 * Gets the maximal amount of batches of a bulk-load, which are not
+	 * acknowledged by the server so far. Further records are not send until the
+	 * server acknowledged a batch.
+	 * 
+	 * @return the maximal amount of unacknowledged batches
+	 */
+	public int getBulkWindow() {
+		return bulkWindow;
+	}
+
+	/**
+	 * Sets the maximal amount of batches of a bulk-load, which are not
+	 * acknowledged by the server so far.
+	 * 
+	 * @param bulkWindow
+	 *            the maximal amount of unacknowledged batches
+	 */
+	public void setBulkWindow(final int bulkWindow) {
+		this.bulkWindow = bulkWindow;
+	}
+
+	/**
+	 * Checks if the allocation of each connection, statement and result-set is
+	 * recorded, so that an instance reclaimed without being closed is logged
+	 * together with the stack-trace of its allocation.
+	 * 
+	 * @return {@code true} if the allocations are recorded, otherwise
+	 *         {@code false}
+	 */
+	public boolean isLeakDetection() {
+		return leakDetection;
+	}
+
+	/**
+	 * Enables or disables the recording of the allocation of each connection,
+	 * statement and result-set.
+	 * 
+	 * @param leakDetection
+	 *            {@code true} to record the allocations, otherwise
+	 *            {@code false}
+	 */
+	public void setLeakDetection(final boolean leakDetection) {
+		this.leakDetection = leakDetection;
+	}
+
+	/**
+	 * Gets the amount of threads encoding the rows of an export concurrently.
+	 * 
+	 * @return the amount of threads encoding the rows, 0 or less if the rows are
+	 *         encoded by the reading thread
+	 */
+	public int getExportParallelism() {
+		return exportParallelism;
+	}
+
+	/**
+	 * Sets the amount of threads encoding the rows of an export concurrently.
+	 * 
+	 * @param exportParallelism
+	 *            the amount of threads encoding the rows, 0 or less to encode the
+	 *            rows by the reading thread
+	 */
+	public void setExportParallelism(final int exportParallelism) {
+		this.exportParallelism = exportParallelism;
+	}
+
+	/**
+	 * Gets the amount of rows the server may send ahead of the rows consumed
+	 * by a result-set, i.e. the default and minimal fetch-size of a statement
+	 * (see {@link TidaStatement#getFetchSize()}).
+	 * 
+	 * @return the amount of rows the server may send ahead, 0 or less if the
+	 *         rows are not flow-controlled
+	 */
+	public int getCreditWindow() {
+		return creditWindow;
+	}
+
+	/**
+	 * Sets the amount of rows the server may send ahead of the rows consumed
+	 * by a result-set.
+	 * 
+	 * @param creditWindow
+	 *            the amount of rows the server may send ahead, 0 or less to not
+	 *            flow-control the rows
+	 */
+	public void setCreditWindow(final int creditWindow) {
+		this.creditWindow = creditWindow;
+	}
+
+	/**
+	 * Checks if the capabilities of the protocol (i.e. the version, the
+	 * features and the maximal size of a frame) are negotiated with the
+	 * server. Optional features (e.g. the flow control, see
+	 * {@link #getCreditWindow()}) are only used, if the server supports
+	 * those.
+	 * 
+	 * @return {@code true} if the capabilities are negotiated, otherwise
+	 *         {@code false}
+	 */
+	public boolean isNegotiate() {
+		return negotiate;
+	}
+
+	/**
+	 * Sets if the capabilities of the protocol are negotiated with the server.
+	 * 
+	 * @param negotiate
+	 *            {@code true} if the capabilities should be negotiated,
+	 *            otherwise {@code false}
+	 */
+	public void setNegotiate(final boolean negotiate) {
+		this.negotiate = negotiate;
+	}
+
+	/**
+	 * Gets the maximal size of a frame read from the server, a larger frame
+	 * is rejected.
+	 * 
+	 * @return the maximal size of a frame in bytes, 0 or less for no limit
+	 */
+	public int getMaxFrameSize() {
+		return maxFrameSize;
+	}
+
+	/**
+	 * Sets the maximal size of a frame read from the server.
+	 * 
+	 * @param maxFrameSize
+	 *            the maximal size of a frame in bytes, 0 or less for no limit
+	 */
+	public void setMaxFrameSize(final int maxFrameSize) {
+		this.maxFrameSize = maxFrameSize;
+	}
+
+	/**
+	 * Get the raw jdbc-url used to connect to the driver.
+	 * 
+	 * @return the raw jdbc-url used to connect to the driver
+	 */
+	public String getRawJdbc() {
+		return rawJdbc;
+	}
+
+	/**
+	 * Gets {@code this} as {@code DriverPropertyInfo}.
+	 * 
+	 * @return {@code this} as {@code DriverPropertyInfo}
+	 * 
+	 * @see DriverPropertyInfo
+	 */
+	public DriverPropertyInfo[] getDriverPropertyInfo() {
+		final DriverPropertyInfo hostProp = new DriverPropertyInfo(
+				PROPERTY_HOST, getHost());
+		hostProp.required = true;
+		hostProp.description = "the host of the tida-server to connect to";
+
+		final DriverPropertyInfo portProp = new DriverPropertyInfo(
+				PROPERTY_PORT, "" + getPort());
+		portProp.required = true;
+		portProp.description = "the port of the tida-server to connect to";
+
+		final DriverPropertyInfo userProp = new DriverPropertyInfo(
+				PROPERTY_USER, getUser());
+		userProp.required = true;
+		userProp.description = "the user used to connect to the tida-server";
+
+		final DriverPropertyInfo passwordProp = new DriverPropertyInfo(
+				PROPERTY_PASSWORD, getPassword());
+		passwordProp.required = true;
+		passwordProp.description = "the password used to connect to the tida-server";
+
+		final DriverPropertyInfo timeoutProp = new DriverPropertyInfo(
+				PROPERTY_TIMEOUT, "" + getTimeout());
+		timeoutProp.required = false;
+		timeoutProp.description = "the timeout of the client-connection in milliseconds";
+
+		final DriverPropertyInfo disableLingerProp = new DriverPropertyInfo(
+				PROPERTY_DISABLELINGER, "" + disableLinger());
+		disableLingerProp.required = false;
+		disableLingerProp.description = "disables the time-wait of the tcp stack, i.e. the socket does not wait after closing";
+
+		final DriverPropertyInfo lingerProp = new DriverPropertyInfo(
+				PROPERTY_LINGER, "" + getLingerInSeconds());
+		lingerProp.required = false;
+		lingerProp.description = "the amount of seconds to be waited after a close, if a negative value is specified the default value of the OS is used";
+
+		final DriverPropertyInfo handlerProp = new DriverPropertyInfo(
+				DriverProperties.PROPERTY_HANDLERCLASS, getHandlerClass());
+		handlerProp.required = false;
+		handlerProp.description = "handler class used to handle resource requests";
+
+		final DriverPropertyInfo jmxProp = new DriverPropertyInfo(
+				PROPERTY_JMX, "" + isJmx());
+		jmxProp.required = false;
+		jmxProp.description = "registers the metrics of the connection as MBean (net.meisen.dissertation.jdbc:type=ProtocolManager)";
+
+		final DriverPropertyInfo listenerProp = new DriverPropertyInfo(
+				PROPERTY_LISTENERCLASSES, getListenerClasses());
+		listenerProp.required = false;
+		listenerProp.description = "comma-separated list of IStatementListener classes informed about the life-cycle of each statement";
+
+		final DriverPropertyInfo slowQueryProp = new DriverPropertyInfo(
+				PROPERTY_SLOWQUERYTHRESHOLD, "" + getSlowQueryThreshold());
+		slowQueryProp.required = false;
+		slowQueryProp.description = "logs statements running longer than the specified amount of milliseconds, -1 to disable";
+
+		final DriverPropertyInfo samplingProp = new DriverPropertyInfo(
+				PROPERTY_SLOWQUERYSAMPLING, "" + getSlowQuerySampling());
+		samplingProp.required = false;
+		samplingProp.description = "the probability (0.0 - 1.0) of a slow statement to be logged";
+
+		final DriverPropertyInfo tcpNoDelayProp = new DriverPropertyInfo(
+				PROPERTY_TCPNODELAY, "" + isTcpNoDelay());
+		tcpNoDelayProp.required = false;
+		tcpNoDelayProp.description = "enables (true) or disables (false) the TCP_NODELAY option of the socket";
+
+		final DriverPropertyInfo keepAliveProp = new DriverPropertyInfo(
+				PROPERTY_KEEPALIVE, "" + isKeepAlive());
+		keepAliveProp.required = false;
+		keepAliveProp.description = "enables (true) or disables (false) the SO_KEEPALIVE option of the socket";
+
+		final DriverPropertyInfo sendBufferProp = new DriverPropertyInfo(
+				PROPERTY_SENDBUFFERSIZE, "" + getSendBufferSize());
+		sendBufferProp.required = false;
+		sendBufferProp.description = "the size of the send buffer (SO_SNDBUF) of the socket, -1 to use the system default";
+
+		final DriverPropertyInfo receiveBufferProp = new DriverPropertyInfo(
+				PROPERTY_RECEIVEBUFFERSIZE, "" + getReceiveBufferSize());
+		receiveBufferProp.required = false;
+		receiveBufferProp.description = "the size of the receive buffer (SO_RCVBUF) of the socket, -1 to use the system default";
+
+		final DriverPropertyInfo streamBufferProp = new DriverPropertyInfo(
+				PROPERTY_STREAMBUFFERSIZE, "" + getStreamBufferSize());
+		streamBufferProp.required = false;
+		streamBufferProp.description = "the size of the buffers (in bytes) used by the streams of the protocol";
+
+		final DriverPropertyInfo loadBalancingProp = new DriverPropertyInfo(
+				PROPERTY_LOADBALANCING, getLoadBalancing());
+		loadBalancingProp.required = false;
+		loadBalancingProp.description = "the strategy to select one of several hosts (roundrobin, random, leastoutstanding, or a class implementing IHostSelector)";
+
+		final DriverPropertyInfo healthCheckProp = new DriverPropertyInfo(
+				PROPERTY_HEALTHCHECKINTERVAL, "" + getHealthCheckInterval());
+		healthCheckProp.required = false;
+		healthCheckProp.description = "the interval (in milliseconds) the health of several hosts is checked, 0 to disable";
+
+		final DriverPropertyInfo ejectTimeProp = new DriverPropertyInfo(
+				PROPERTY_EJECTTIME, "" + getEjectTime());
+		ejectTimeProp.required = false;
+		ejectTimeProp.description = "the time (in milliseconds) a failed host is not used for new connections";
+
+		final DriverPropertyInfo replicasProp = new DriverPropertyInfo(
+				PROPERTY_REPLICAS, getReplicasAsString());
+		replicasProp.required = false;
+		replicasProp.description = "the hosts (host:port, separated by a comma) of the replicas used for read-only connections and queries";
+
+		final DriverPropertyInfo routeQueriesProp = new DriverPropertyInfo(
+				PROPERTY_ROUTEQUERIES, "" + isRouteQueries());
+		routeQueriesProp.required = false;
+		routeQueriesProp.description = "routes queries to the replicas (if specified), even if the connection is not read-only";
+
+		final DriverPropertyInfo shardsProp = new DriverPropertyInfo(
+				PROPERTY_SHARDS, getShardsAsString());
+		shardsProp.required = false;
+		shardsProp.description = "the hosts owning specific models (model=host:port, separated by a comma), statements referring to a model are routed to its host";
+
+		final DriverPropertyInfo shardDiscoveryProp = new DriverPropertyInfo(
+				PROPERTY_SHARDDISCOVERY, "" + getShardDiscoveryInterval());
+		shardDiscoveryProp.required = false;
+		shardDiscoveryProp.description = "the interval (in milliseconds) the models of the hosts are discovered to route statements by model, 0 to disable";
+
+		final DriverPropertyInfo maxIdleProp = new DriverPropertyInfo(
+				PROPERTY_MAXIDLE, "" + getMaxIdle());
+		maxIdleProp.required = false;
+		maxIdleProp.description = "the maximal amount of idle protocols kept per host for reuse, 0 to disable";
+
+		final DriverPropertyInfo resumeSessionsProp = new DriverPropertyInfo(
+				PROPERTY_RESUMESESSIONS, "" + isResumeSessions());
+		resumeSessionsProp.required = false;
+		resumeSessionsProp.description = "resumes the session established with a server when reconnecting, using the token issued by the server";
+
+		final DriverPropertyInfo pingIntervalProp = new DriverPropertyInfo(
+				PROPERTY_PINGINTERVAL, "" + getPingInterval());
+		pingIntervalProp.required = false;
+		pingIntervalProp.description = "the interval (in ms) in which unused connections are pinged to detect lost ones, 0 to disable";
+
+		final DriverPropertyInfo cancelTimeoutProp = new DriverPropertyInfo(
+				PROPERTY_CANCELTIMEOUT, "" + getCancelTimeout());
+		cancelTimeoutProp.required = false;
+		cancelTimeoutProp.description = "the time (in ms) a cancelled statement has to end its response before the connection is closed, 0 to wait infinitely";
+
+		final DriverPropertyInfo closeDrainLimitProp = new DriverPropertyInfo(
+				PROPERTY_CLOSEDRAINLIMIT, "" + getCloseDrainLimit());
+		closeDrainLimitProp.required = false;
+		closeDrainLimitProp.description = "the amount of bytes skipped when closing a partially read result-set, before the connection is replaced, -1 to skip everything";
+
+		final DriverPropertyInfo prefetchDepthProp = new DriverPropertyInfo(
+				PROPERTY_PREFETCHDEPTH, "" + getPrefetchDepth());
+		prefetchDepthProp.required = false;
+		prefetchDepthProp.description = "the amount of results read ahead in the background by a result-set, 0 to disable the prefetching";
+
+		final DriverPropertyInfo fanOutParallelismProp = new DriverPropertyInfo(
+				PROPERTY_FANOUTPARALLELISM, "" + getFanOutParallelism());
+		fanOutParallelismProp.required = false;
+		fanOutParallelismProp.description = "the maximal amount of queries of a fan-out executed concurrently, 0 to execute all at once";
+
+		final DriverPropertyInfo bulkBatchSizeProp = new DriverPropertyInfo(
+				PROPERTY_BULKBATCHSIZE, "" + getBulkBatchSize());
+		bulkBatchSizeProp.required = false;
+		bulkBatchSizeProp.description = "the amount of records send as one batch by a bulk-load";
+
+		final DriverPropertyInfo bulkWindowProp = new DriverPropertyInfo(
+				PROPERTY_BULKWINDOW, "" + getBulkWindow());
+		bulkWindowProp.required = false;
+		bulkWindowProp.description = "the maximal amount of unacknowledged batches of a bulk-load";
+
+		final DriverPropertyInfo leakDetectionProp = new DriverPropertyInfo(
+				PROPERTY_LEAKDETECTION, "" + isLeakDetection());
+		leakDetectionProp.required = false;
+		leakDetectionProp.description = "Flag to log the allocation of instances reclaimed without being closed (true or false)";
+
+		final DriverPropertyInfo exportParallelismProp = new DriverPropertyInfo(
+				PROPERTY_EXPORTPARALLELISM, "" + getExportParallelism());
+		exportParallelismProp.required = false;
+		exportParallelismProp.description = "the amount of threads encoding the rows of an export concurrently, 0 to encode the rows by the reading thread";
+
+		final DriverPropertyInfo creditWindowProp = new DriverPropertyInfo(
+				PROPERTY_CREDITWINDOW, "" + getCreditWindow());
+		creditWindowProp.required = false;
+		creditWindowProp.description = "the amount of rows the server may send ahead of the consumed rows of a result-set (the default fetch-size), 0 to disable the flow control";
+
+		final DriverPropertyInfo negotiateProp = new DriverPropertyInfo(
+				PROPERTY_NEGOTIATE, "" + isNegotiate());
+		negotiateProp.required = false;
+		negotiateProp.description = "true to negotiate the version, the features and the maximal frame size of the protocol with the server, false to not use any optional feature";
+
+		final DriverPropertyInfo maxFrameSizeProp = new DriverPropertyInfo(
+				PROPERTY_MAXFRAMESIZE, "" + getMaxFrameSize());
+		maxFrameSizeProp.required = false;
+		maxFrameSizeProp.description = "the maximal size in bytes of a frame read from the server, 0 for no limit";
+
+		// create the array and return it
+		return new DriverPropertyInfo[] { hostProp, portProp, userProp,
+				passwordProp, timeoutProp, handlerProp, jmxProp, listenerProp,
+				slowQueryProp, samplingProp, tcpNoDelayProp, keepAliveProp,
+				sendBufferProp, receiveBufferProp, streamBufferProp,
+				loadBalancingProp, healthCheckProp, ejectTimeProp, replicasProp,
+				routeQueriesProp, shardsProp, shardDiscoveryProp, maxIdleProp,
+				resumeSessionsProp, pingIntervalProp, cancelTimeoutProp,
+				closeDrainLimitProp, prefetchDepthProp, fanOutParallelismProp,
+				bulkBatchSizeProp, bulkWindowProp, leakDetectionProp,
+				exportParallelismProp, creditWindowProp, negotiateProp,
+				maxFrameSizeProp };
+	}
+
+	/**
+	 * Get the property for the specified {@code name}.
+	 * 
+	 * @param name
+	 *            the property to get the value for
+	 * 
+	 * @return the value of the property, or {@code null} if the property is
+	 *         unknown
+	 */
+	public String get(final String name) {
+		if (PROPERTY_PORT.equals(name)) {
+			return "" + getPort();
+		} else if (PROPERTY_HOST.equals(name)) {
+			return getHost();
+		} else if (PROPERTY_USER.equals(name)) {
+			return getUser();
+		} else if (PROPERTY_RAWURL.equals(name)) {
+			return getRawJdbc();
+		} else if (PROPERTY_PASSWORD.equals(name)) {
+			return null;
+		} else if (PROPERTY_TIMEOUT.equals(name)) {
+			return "" + getTimeout();
+		} else if (PROPERTY_HANDLERCLASS.equals(name)) {
+			return getHandlerClass();
+		} else if (PROPERTY_DISABLELINGER.equals(name)) {
+			return "" + disableLinger();
+		} else if (PROPERTY_LINGER.equals(name)) {
+			return "" + getLingerInSeconds();
+		} else if (PROPERTY_JMX.equals(name)) {
+			return "" + isJmx();
+		} else if (PROPERTY_LISTENERCLASSES.equals(name)) {
+			return getListenerClasses();
+		} else if (PROPERTY_SLOWQUERYTHRESHOLD.equals(name)) {
+			return "" + getSlowQueryThreshold();
+		} else if (PROPERTY_SLOWQUERYSAMPLING.equals(name)) {
+			return "" + getSlowQuerySampling();
+		} else if (PROPERTY_TCPNODELAY.equals(name)) {
+			return "" + isTcpNoDelay();
+		} else if (PROPERTY_KEEPALIVE.equals(name)) {
+			return "" + isKeepAlive();
+		} else if (PROPERTY_SENDBUFFERSIZE.equals(name)) {
+			return "" + getSendBufferSize();
+		} else if (PROPERTY_RECEIVEBUFFERSIZE.equals(name)) {
+			return "" + getReceiveBufferSize();
+		} else if (PROPERTY_STREAMBUFFERSIZE.equals(name)) {
+			return "" + getStreamBufferSize();
+		} else if (PROPERTY_LOADBALANCING.equals(name)) {
+			return getLoadBalancing();
+		} else if (PROPERTY_HEALTHCHECKINTERVAL.equals(name)) {
+			return "" + getHealthCheckInterval();
+		} else if (PROPERTY_EJECTTIME.equals(name)) {
+			return "" + getEjectTime();
+		} else if (PROPERTY_REPLICAS.equals(name)) {
+			return getReplicasAsString();
+		} else if (PROPERTY_ROUTEQUERIES.equals(name)) {
+			return "" + isRouteQueries();
+		} else if (PROPERTY_SHARDS.equals(name)) {
+			return getShardsAsString();
+		} else if (PROPERTY_SHARDDISCOVERY.equals(name)) {
+			return "" + getShardDiscoveryInterval();
+		} else if (PROPERTY_MAXIDLE.equals(name)) {
+			return "" + getMaxIdle();
+		} else if (PROPERTY_RESUMESESSIONS.equals(name)) {
+			return "" + isResumeSessions();
+		} else if (PROPERTY_PINGINTERVAL.equals(name)) {
+			return "" + getPingInterval();
+		} else if (PROPERTY_CANCELTIMEOUT.equals(name)) {
+			return "" + getCancelTimeout();
+		} else if (PROPERTY_CLOSEDRAINLIMIT.equals(name)) {
+			return "" + getCloseDrainLimit();
+		} else if (PROPERTY_PREFETCHDEPTH.equals(name)) {
+			return "" + getPrefetchDepth();
+		} else if (PROPERTY_FANOUTPARALLELISM.equals(name)) {
+			return "" + getFanOutParallelism();
+		} else if (PROPERTY_BULKBATCHSIZE.equals(name)) {
+			return "" + getBulkBatchSize();
+		} else if (PROPERTY_BULKWINDOW.equals(name)) {
+			return "" + getBulkWindow();
+		} else if (PROPERTY_LEAKDETECTION.equals(name)) {
+			return "" + isLeakDetection();
+		} else if (PROPERTY_EXPORTPARALLELISM.equals(name)) {
+			return "" + getExportParallelism();
+		} else if (PROPERTY_CREDITWINDOW.equals(name)) {
+			return "" + getCreditWindow();
+		} else if (PROPERTY_NEGOTIATE.equals(name)) {
+			return "" + isNegotiate();
+		} else if (PROPERTY_MAXFRAMESIZE.equals(name)) {
+			return "" + getMaxFrameSize();
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Gets the properties of {@code this} as {@code Properties}.
+	 * 
+	 * @return the properties of {@code this} as {@code Properties}
+	 * 
+	 * @see Properties
+	 */
+	public Properties getProperties() {
+		final Properties prop = new Properties();
+		prop.setProperty(PROPERTY_PORT, "" + getPort());
+		prop.setProperty(PROPERTY_HOST, getHost());
+		prop.setProperty(PROPERTY_USER, getUser());
+		prop.setProperty(PROPERTY_PASSWORD, get(PROPERTY_PASSWORD));
+		prop.setProperty(PROPERTY_RAWURL, getRawJdbc());
+		prop.setProperty(PROPERTY_TIMEOUT, "" + getTimeout());
+		prop.setProperty(PROPERTY_DISABLELINGER, "" + disableLinger());
+		prop.setProperty(PROPERTY_LINGER, "" + getLingerInSeconds());
+		prop.setProperty(PROPERTY_HANDLERCLASS, getHandlerClass());
+		prop.setProperty(PROPERTY_JMX, "" + isJmx());
+		prop.setProperty(PROPERTY_LISTENERCLASSES, getListenerClasses());
+		prop.setProperty(PROPERTY_SLOWQUERYTHRESHOLD, "" + getSlowQueryThreshold());
+		prop.setProperty(PROPERTY_SLOWQUERYSAMPLING, "" + getSlowQuerySampling());
+		prop.setProperty(PROPERTY_TCPNODELAY, "" + isTcpNoDelay());
+		prop.setProperty(PROPERTY_KEEPALIVE, "" + isKeepAlive());
+		prop.setProperty(PROPERTY_SENDBUFFERSIZE, "" + getSendBufferSize());
+		prop.setProperty(PROPERTY_RECEIVEBUFFERSIZE, "" + getReceiveBufferSize());
+		prop.setProperty(PROPERTY_STREAMBUFFERSIZE, "" + getStreamBufferSize());
+		prop.setProperty(PROPERTY_LOADBALANCING, getLoadBalancing());
+		prop.setProperty(PROPERTY_HEALTHCHECKINTERVAL, "" + getHealthCheckInterval());
+		prop.setProperty(PROPERTY_EJECTTIME, "" + getEjectTime());
+		prop.setProperty(PROPERTY_REPLICAS, getReplicasAsString());
+		prop.setProperty(PROPERTY_ROUTEQUERIES, "" + isRouteQueries());
+		prop.setProperty(PROPERTY_SHARDS, getShardsAsString());
+		prop.setProperty(PROPERTY_SHARDDISCOVERY, "" + getShardDiscoveryInterval());
+		prop.setProperty(PROPERTY_MAXIDLE, "" + getMaxIdle());
+		prop.setProperty(PROPERTY_RESUMESESSIONS, "" + isResumeSessions());
+		prop.setProperty(PROPERTY_PINGINTERVAL, "" + getPingInterval());
+		prop.setProperty(PROPERTY_CANCELTIMEOUT, "" + getCancelTimeout());
+		prop.setProperty(PROPERTY_CLOSEDRAINLIMIT, "" + getCloseDrainLimit());
+		prop.setProperty(PROPERTY_PREFETCHDEPTH, "" + getPrefetchDepth());
+		prop.setProperty(PROPERTY_FANOUTPARALLELISM, "" + getFanOutParallelism());
+		prop.setProperty(PROPERTY_BULKBATCHSIZE, "" + getBulkBatchSize());
+		prop.setProperty(PROPERTY_BULKWINDOW, "" + getBulkWindow());
+		prop.setProperty(PROPERTY_LEAKDETECTION, "" + isLeakDetection());
+		prop.setProperty(PROPERTY_EXPORTPARALLELISM, "" + getExportParallelism());
+		prop.setProperty(PROPERTY_CREDITWINDOW, "" + getCreditWindow());
+		prop.setProperty(PROPERTY_NEGOTIATE, "" + isNegotiate());
+		prop.setProperty(PROPERTY_MAXFRAMESIZE, "" + getMaxFrameSize());
+
+		return prop;
+	}
+
+	/**
+	 * Applies the default properties to {@code this}.
+	 * 
+	 * @param defaults
+	 *            the default properties to be applied
+	 */
+	public void applyDefaults(final Properties defaults) {
+		if (defaults == null) {
+			return;
+		}
+
+		// get the timeout
+		final String defTimeout = defaults.getProperty(PROPERTY_TIMEOUT);
+		if (defTimeout != null) {
+			try {
+				this.setTimeout(Integer.parseInt(defTimeout));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// get the disableLInger
+		final String defLinger = defaults.getProperty(PROPERTY_LINGER);
+		if (defLinger != null) {
+			try {
+				this.setLingerInSeconds(Integer.parseInt(defLinger));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// get the disableLinger
+		final String defDisableLinger = defaults
+				.getProperty(PROPERTY_DISABLELINGER);
+		if (defDisableLinger != null) {
+			try {
+				this.setDisableLinger("true".equalsIgnoreCase(defDisableLinger));
+			} catch (final NumberFormatException e) {
 				// ignore the value
 			}
 		}
@@ -393,5 +1663,274 @@ public class DriverProperties {
 		if (defHandler != null) {
 			this.setHandlerClass(defHandler);
 		}
+
+		// get the jmx flag
+		final String defJmx = defaults.getProperty(PROPERTY_JMX);
+		if (defJmx != null) {
+			this.setJmx("true".equalsIgnoreCase(defJmx));
+		}
+
+		// get the listeners
+		final String defListeners = defaults
+				.getProperty(PROPERTY_LISTENERCLASSES);
+		if (defListeners != null) {
+			this.setListenerClasses(defListeners);
+		}
+
+		// get the threshold of the slow-query log
+		final String defSlowQuery = defaults
+				.getProperty(PROPERTY_SLOWQUERYTHRESHOLD);
+		if (defSlowQuery != null) {
+			try {
+				this.setSlowQueryThreshold(Integer.parseInt(defSlowQuery));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// get the sampling of the slow-query log
+		final String defSampling = defaults
+				.getProperty(PROPERTY_SLOWQUERYSAMPLING);
+		if (defSampling != null) {
+			try {
+				this.setSlowQuerySampling(Double.parseDouble(defSampling));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// get the tcp-no-delay flag
+		final String defTcpNoDelay = defaults.getProperty(PROPERTY_TCPNODELAY);
+		if (defTcpNoDelay != null) {
+			this.setTcpNoDelay("true".equalsIgnoreCase(defTcpNoDelay));
+		}
+
+		// get the keep-alive flag
+		final String defKeepAlive = defaults.getProperty(PROPERTY_KEEPALIVE);
+		if (defKeepAlive != null) {
+			this.setKeepAlive("true".equalsIgnoreCase(defKeepAlive));
+		}
+
+		// get the size of the send buffer
+		final String defSendBufferSize = defaults
+				.getProperty(PROPERTY_SENDBUFFERSIZE);
+		if (defSendBufferSize != null) {
+			try {
+				this.setSendBufferSize(Integer.parseInt(defSendBufferSize));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// get the size of the receive buffer
+		final String defReceiveBufferSize = defaults
+				.getProperty(PROPERTY_RECEIVEBUFFERSIZE);
+		if (defReceiveBufferSize != null) {
+			try {
+				this.setReceiveBufferSize(Integer
+						.parseInt(defReceiveBufferSize));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// get the size of the stream buffers
+		final String defStreamBufferSize = defaults
+				.getProperty(PROPERTY_STREAMBUFFERSIZE);
+		if (defStreamBufferSize != null) {
+			try {
+				this.setStreamBufferSize(Integer.parseInt(defStreamBufferSize));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// get the load-balancing strategy
+		final String defLoadBalancing = defaults
+				.getProperty(PROPERTY_LOADBALANCING);
+		if (defLoadBalancing != null) {
+			this.setLoadBalancing(defLoadBalancing);
+		}
+
+		// get the interval of the health checks
+		final String defHealthCheckInterval = defaults
+				.getProperty(PROPERTY_HEALTHCHECKINTERVAL);
+		if (defHealthCheckInterval != null) {
+			try {
+				this.setHealthCheckInterval(Integer
+						.parseInt(defHealthCheckInterval));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// get the time a failed host is ejected
+		final String defEjectTime = defaults.getProperty(PROPERTY_EJECTTIME);
+		if (defEjectTime != null) {
+			try {
+				this.setEjectTime(Integer.parseInt(defEjectTime));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// get the routing of queries
+		final String defRouteQueries = defaults
+				.getProperty(PROPERTY_ROUTEQUERIES);
+		if (defRouteQueries != null) {
+			this.setRouteQueries("true".equalsIgnoreCase(defRouteQueries));
+		}
+
+		// get the interval of the discovery of the models
+		final String defShardDiscoveryInterval = defaults
+				.getProperty(PROPERTY_SHARDDISCOVERY);
+		if (defShardDiscoveryInterval != null) {
+			try {
+				this.setShardDiscoveryInterval(Integer
+						.parseInt(defShardDiscoveryInterval));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// get the maximal amount of idle protocols
+		final String defMaxIdle = defaults.getProperty(PROPERTY_MAXIDLE);
+		if (defMaxIdle != null) {
+			try {
+				this.setMaxIdle(Integer.parseInt(defMaxIdle));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// get the resumption of sessions
+		final String defResumeSessions = defaults
+				.getProperty(PROPERTY_RESUMESESSIONS);
+		if (defResumeSessions != null) {
+			this.setResumeSessions("true".equalsIgnoreCase(defResumeSessions));
+		}
+
+		// get the interval of the pings
+		final String defPingInterval = defaults
+				.getProperty(PROPERTY_PINGINTERVAL);
+		if (defPingInterval != null) {
+			try {
+				this.setPingInterval(Integer.parseInt(defPingInterval));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// get the time to end a cancelled response
+		final String defCancelTimeout = defaults
+				.getProperty(PROPERTY_CANCELTIMEOUT);
+		if (defCancelTimeout != null) {
+			try {
+				this.setCancelTimeout(Integer.parseInt(defCancelTimeout));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// the limit of bytes skipped on close
+		final String defCloseDrainLimit = defaults
+				.getProperty(PROPERTY_CLOSEDRAINLIMIT);
+		if (defCloseDrainLimit != null) {
+			try {
+				this.setCloseDrainLimit(Integer.parseInt(defCloseDrainLimit));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// the amount of results read ahead
+		final String defPrefetchDepth = defaults
+				.getProperty(PROPERTY_PREFETCHDEPTH);
+		if (defPrefetchDepth != null) {
+			try {
+				this.setPrefetchDepth(Integer.parseInt(defPrefetchDepth));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// the parallelism of a fan-out
+		final String defFanOutParallelism = defaults
+				.getProperty(PROPERTY_FANOUTPARALLELISM);
+		if (defFanOutParallelism != null) {
+			try {
+				this.setFanOutParallelism(Integer.parseInt(defFanOutParallelism));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// set the batch size of a bulk-load
+		final String defBulkBatchSize = defaults
+				.getProperty(PROPERTY_BULKBATCHSIZE);
+		if (defBulkBatchSize != null) {
+			try {
+				this.setBulkBatchSize(Integer.parseInt(defBulkBatchSize));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// set the window of unacknowledged batches
+		final String defBulkWindow = defaults
+				.getProperty(PROPERTY_BULKWINDOW);
+		if (defBulkWindow != null) {
+			try {
+				this.setBulkWindow(Integer.parseInt(defBulkWindow));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// get the leak-detection flag
+		final String defLeakDetection = defaults
+				.getProperty(PROPERTY_LEAKDETECTION);
+		if (defLeakDetection != null) {
+			this.setLeakDetection("true".equalsIgnoreCase(defLeakDetection));
+		}
+
+		// the parallelism of an export
+		final String defExportParallelism = defaults
+				.getProperty(PROPERTY_EXPORTPARALLELISM);
+		if (defExportParallelism != null) {
+			try {
+				this.setExportParallelism(Integer.parseInt(defExportParallelism));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// the window of the credit-based flow control
+		final String defCreditWindow = defaults
+				.getProperty(PROPERTY_CREDITWINDOW);
+		if (defCreditWindow != null) {
+			try {
+				this.setCreditWindow(Integer.parseInt(defCreditWindow));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
+
+		// the negotiation of the capabilities
+		final String defNegotiate = defaults.getProperty(PROPERTY_NEGOTIATE);
+		if (defNegotiate != null) {
+			this.setNegotiate("true".equalsIgnoreCase(defNegotiate));
+		}
+
+		// the maximal size of a frame
+		final String defMaxFrameSize = defaults
+				.getProperty(PROPERTY_MAXFRAMESIZE);
+		if (defMaxFrameSize != null) {
+			try {
+				this.setMaxFrameSize(Integer.parseInt(defMaxFrameSize));
+			} catch (final NumberFormatException e) {
+				// ignore the value
+			}
+		}
 	}
 }
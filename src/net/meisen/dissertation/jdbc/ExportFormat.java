@@ -0,0 +1,72 @@
+package net.meisen.dissertation.jdbc;
+
+/**
+ * The formats available to export the results of a query (see
+ * {@link TidaStatement#export(String, java.io.OutputStream, ExportFormat)}).
+ *
+ * @author pmeisen
+ *
+ */
+public enum ExportFormat {
+
+	/**
+	 * Comma separated values, a value containing a separator, a quote or a
+	 * line-break is quoted (see RFC 4180). The first line contains the names
+	 * of the columns, {@code null} values are exported as empty values.
+	 */
+	CSV(',', "csv"),
+	/**
+	 * Tab separated values, tabs, line-breaks and back-slashes within a value
+	 * are escaped (i.e. {@code \t}, {@code \n}, {@code \r} and {@code \\}).
+	 * The first line contains the names of the columns, {@code null} values
+	 * are exported as empty values.
+	 */
+	TSV('\t', "tsv"),
+	/**
+	 * A compact binary format. The format starts with the magic number
+	 * {@link ResultEncoder#MAGIC}, the version of the format, the amount of
+	 * columns, and the identifier of the data-type and the name of each
+	 * column. Each row is introduced by a byte {@code 1} followed by the
+	 * values written by their data-type (see
+	 * {@link net.meisen.dissertation.jdbc.protocol.DataType#write(java.io.DataOutput, Object)}
+	 * ), the last row is followed by a byte {@code 0}.
+	 */
+	BINARY((char) 0, "bin");
+
+	private final char separator;
+	private final String extension;
+
+	private ExportFormat(final char separator, final String extension) {
+		this.separator = separator;
+		this.extension = extension;
+	}
+
+	/**
+	 * Gets the separator of the values of a row.
+	 *
+	 * @return the separator of the values, {@code 0} if the format is not a
+	 *         text format
+	 */
+	public char getSeparator() {
+		return separator;
+	}
+
+	/**
+	 * Gets the file-extension typically used for the format.
+	 *
+	 * @return the file-extension of the format
+	 */
+	public String getExtension() {
+		return extension;
+	}
+
+	/**
+	 * Checks if the format is a text format.
+	 *
+	 * @return {@code true} if the format is a text format, otherwise
+	 *         {@code false}
+	 */
+	public boolean isText() {
+		return separator != 0;
+	}
+}
@@ -0,0 +1,66 @@
+package net.meisen.dissertation.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * A listener informed about the life-cycle of each statement fired by a
+ * {@code TidaConnection}. Listeners are registered using the
+ * {@link DriverProperties#PROPERTY_LISTENERCLASSES} property or
+ * programmatically using
+ * {@link TidaConnection#addStatementListener(IStatementListener)}.
+ *
+ * The methods are called synchronously by the thread executing or reading the
+ * statement, i.e. an implementation should return quickly. Exceptions thrown
+ * by a listener are ignored.
+ *
+ * @author pmeisen
+ *
+ * @see QueryEvent
+ * @see SlowQueryLogger
+ */
+public interface IStatementListener {
+
+	/**
+	 * Method called prior to sending the statement to the server.
+	 *
+	 * @param event
+	 *            the event of the statement
+	 */
+	public void beforeExecute(final QueryEvent event);
+
+	/**
+	 * Method called when the first row of a query is read.
+	 *
+	 * @param event
+	 *            the event of the statement
+	 */
+	public void firstRow(final QueryEvent event);
+
+	/**
+	 * Method called when the end of the response is reached, i.e. all rows of
+	 * a query are read or the modification is done.
+	 *
+	 * @param event
+	 *            the event of the statement
+	 */
+	public void endOfResponse(final QueryEvent event);
+
+	/**
+	 * Method called if the statement failed.
+	 *
+	 * @param event
+	 *            the event of the statement
+	 * @param exception
+	 *            the exception describing the failure
+	 */
+	public void error(final QueryEvent event, final SQLException exception);
+
+	/**
+	 * Method called if the statement was cancelled, e.g. by closing the
+	 * {@code ResultSet} before all rows are read.
+	 *
+	 * @param event
+	 *            the event of the statement
+	 */
+	public void cancel(final QueryEvent event);
+}
@@ -39,7 +39,7 @@ public class IntResultSet extends BaseWrapper implements ResultSet {
      */
     public final static String COL_LABEL = "KEY";
 
-    private final Integer[] ints;
+    private final int[] ints;
     private final TidaStatement statement;
 
     private boolean closed;
@@ -47,20 +47,14 @@ public class IntResultSet extends BaseWrapper implements ResultSet {
 
     /**
      * Constructor to create the {@code ResultSet} for the specified
-     * {@code statement} and the specified integers.
+     * {@code statement} and the specified integers. The integers are not
+     * copied, i.e. the array must not be modified afterwards.
      *
      * @param ints      the integers to create the {@code ResultSet} for
      * @param statement the statement creating the {@code ResultSet}
      */
     public IntResultSet(final int[] ints, final TidaStatement statement) {
-        if (ints == null) {
-            this.ints = new Integer[0];
-        } else {
-            this.ints = new Integer[ints.length];
-            for (int i = 0; i < ints.length; i++) {
-                this.ints[i] = ints[i];
-            }
-        }
+        this.ints = ints == null ? new int[0] : ints;
 
         this.closed = false;
         this.curPosition = -1;
@@ -76,10 +70,12 @@ public class IntResultSet extends BaseWrapper implements ResultSet {
      */
     public IntResultSet(final Integer[] ints, final TidaStatement statement) {
         if (ints == null) {
-            this.ints = new Integer[0];
+            this.ints = new int[0];
         } else {
-            this.ints = new Integer[ints.length];
-            System.arraycopy(ints, 0, this.ints, 0, ints.length);
+            this.ints = new int[ints.length];
+            for (int i = 0; i < ints.length; i++) {
+                this.ints[i] = ints[i];
+            }
         }
 
         this.closed = false;
@@ -0,0 +1,212 @@
+package net.meisen.dissertation.jdbc;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A reference used to track the lifecycle of a {@code BaseConnectionWrapper}
+ * (i.e. a connection, statement or result-set), which owns protocols or
+ * defines the scope of protocols (see {@link ProtocolManager}). The
+ * {@code ProtocolManager} indexes the protocols by the reference, i.e. the
+ * manager does not keep the instance reachable. An instance, which becomes
+ * unreachable without being closed, is reclaimed by a shared daemon thread,
+ * i.e. its protocols are released (see
+ * {@link ProtocolManager#reclaim(OwnerReference)}).<br/>
+ * <br/>
+ * If leak-detection is enabled (see
+ * {@link DriverProperties#isLeakDetection()}), the stack-trace of the
+ * allocation of the instance is recorded and logged, whenever the instance is
+ * reclaimed while holding a protocol.
+ *
+ * @author pmeisen
+ *
+ */
+public class OwnerReference extends PhantomReference<BaseConnectionWrapper> {
+	private final static Logger LOG = Logger.getLogger(OwnerReference.class
+			.getName());
+
+	private final static ReferenceQueue<BaseConnectionWrapper> QUEUE = new ReferenceQueue<BaseConnectionWrapper>();
+	private final static Set<OwnerReference> TRACKED = ConcurrentHashMap
+			.newKeySet();
+	private static Thread reaper = null;
+
+	private final ProtocolManager manager;
+	private final WeakReference<BaseConnectionWrapper> owner;
+	private final String type;
+	private final boolean root;
+	private final Throwable allocation;
+
+	/**
+	 * Constructor to create a reference tracking the specified {@code owner}.
+	 *
+	 * @param owner
+	 *            the instance to be tracked
+	 * @param manager
+	 *            the {@code ProtocolManager} used by the {@code owner}
+	 * @param root
+	 *            {@code true} if the {@code owner} created the
+	 *            {@code manager} (i.e. is a connection), otherwise
+	 *            {@code false}
+	 */
+	protected OwnerReference(final BaseConnectionWrapper owner,
+			final ProtocolManager manager, final boolean root) {
+		super(owner, QUEUE);
+
+		this.manager = manager;
+		this.owner = new WeakReference<BaseConnectionWrapper>(owner);
+		this.type = owner.getClass().getSimpleName();
+		this.root = root;
+
+		if (manager.getDriverProperties().isLeakDetection()) {
+			this.allocation = new Throwable("Allocation of " + type);
+		} else {
+			this.allocation = null;
+		}
+	}
+
+	/**
+	 * Creates a reference tracking the specified {@code owner}, until the
+	 * reference is untracked (see {@link #untrack()}) or the {@code owner} is
+	 * reclaimed.
+	 *
+	 * @param owner
+	 *            the instance to be tracked
+	 * @param manager
+	 *            the {@code ProtocolManager} used by the {@code owner}
+	 * @param root
+	 *            {@code true} if the {@code owner} created the
+	 *            {@code manager} (i.e. is a connection), otherwise
+	 *            {@code false}
+	 *
+	 * @return the created reference
+	 */
+	public static OwnerReference track(final BaseConnectionWrapper owner,
+			final ProtocolManager manager, final boolean root) {
+		final OwnerReference ref = new OwnerReference(owner, manager, root);
+		TRACKED.add(ref);
+		startReaper();
+
+		return ref;
+	}
+
+	/**
+	 * Starts the thread reclaiming the unreachable owners of all the
+	 * managers, if not started yet.
+	 */
+	protected synchronized static void startReaper() {
+		if (reaper != null) {
+			return;
+		}
+
+		reaper = new Thread("tida-reaper") {
+
+			@Override
+			public void run() {
+				while (true) {
+					try {
+						reclaim(QUEUE.remove());
+					} catch (final InterruptedException e) {
+						// ignore, the thread is a daemon
+					} catch (final Throwable t) {
+						LOG.log(Level.WARNING,
+								"Unable to reclaim an unclosed instance.", t);
+					}
+				}
+			}
+		};
+		reaper.setDaemon(true);
+		reaper.start();
+	}
+
+	/**
+	 * Reclaims the owner of the specified {@code ref}, i.e. the protocols of
+	 * the owner are released, if the owner was not closed.
+	 *
+	 * @param ref
+	 *            the reference of the unreachable owner
+	 *
+	 * @return {@code true} if the reference was tracked, otherwise
+	 *         {@code false}
+	 */
+	protected static boolean reclaim(
+			final Reference<? extends BaseConnectionWrapper> ref) {
+		if (!TRACKED.remove(ref)) {
+			return false;
+		}
+
+		final OwnerReference ownerRef = (OwnerReference) ref;
+		if (ownerRef.manager.reclaim(ownerRef)) {
+			if (ownerRef.allocation == null) {
+				LOG.warning("An unclosed " + ownerRef.type
+						+ " was reclaimed, enable the property '"
+						+ DriverProperties.PROPERTY_LEAKDETECTION
+						+ "' to record its allocation.");
+			} else {
+				LOG.log(Level.WARNING, "An unclosed " + ownerRef.type
+						+ " was reclaimed.", ownerRef.allocation);
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Stops tracking {@code this}, i.e. the owner was closed.
+	 */
+	public void untrack() {
+		TRACKED.remove(this);
+		clear();
+		owner.clear();
+	}
+
+	/**
+	 * Gets the tracked owner.
+	 *
+	 * @return the tracked owner, or {@code null} if the owner is not
+	 *         reachable anymore
+	 */
+	public BaseConnectionWrapper getOwner() {
+		return owner.get();
+	}
+
+	/**
+	 * Checks if the tracked owner created the {@code ProtocolManager}, i.e.
+	 * if it is a connection.
+	 *
+	 * @return {@code true} if the owner created the {@code ProtocolManager},
+	 *         otherwise {@code false}
+	 */
+	public boolean isRoot() {
+		return root;
+	}
+
+	/**
+	 * Gets the recorded allocation of the tracked owner.
+	 *
+	 * @return the recorded allocation, or {@code null} if leak-detection is
+	 *         disabled
+	 */
+	public Throwable getAllocation() {
+		return allocation;
+	}
+
+	/**
+	 * Gets the amount of tracked owners of all the managers.
+	 *
+	 * @return the amount of tracked owners
+	 */
+	public static int sizeOfTracked() {
+		return TRACKED.size();
+	}
+
+	@Override
+	public String toString() {
+		return type + "@" + Integer.toHexString(System.identityHashCode(this));
+	}
+}
@@ -1,15 +1,33 @@
 package net.meisen.dissertation.jdbc;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
+import javax.management.ObjectName;
+
+import net.meisen.dissertation.jdbc.cluster.ClusterNode;
+import net.meisen.dissertation.jdbc.cluster.HostCluster;
+import net.meisen.dissertation.jdbc.cluster.ShardRouter;
+import net.meisen.dissertation.jdbc.cluster.TidaHost;
+import net.meisen.dissertation.jdbc.metrics.DriverMetrics;
 import net.meisen.dissertation.jdbc.protocol.Protocol;
 
 /**
@@ -25,18 +43,75 @@ import net.meisen.dissertation.jdbc.protocol.Protocol;
  * {@code Protocol} instances. Whenever a scope dies (is closed) all the
  * contained {@code Protocol} instances are closed as well. Additionally, an
  * {@code owner} can be closed, if so the scope of the owning instance is closed
- * as well as the owner itself.
+ * as well as the owner itself.<br/>
+ * <br/>
+ * A {@code Protocol}, which is not needed by its owner anymore, because the
+ * owner's statements are routed to other hosts, can be parked (see
+ * {@link #park(BaseConnectionWrapper)}). The parked {@code Protocol} is kept
+ * idle and reused, whenever a {@code Protocol} to the same hosts is created.
+ * <br/>
+ * <br/>
+ * The credentials are send together with the first message of a new
+ * {@code Protocol}. If the server issued a token for the session established
+ * by a {@code Protocol}, the token is send along with the credentials of any
+ * further {@code Protocol} connected to the same host, so that the server can
+ * resume the session (see {@link DriverProperties#isResumeSessions()}).<br/>
+ * <br/>
+ * If a ping interval is defined (see
+ * {@link DriverProperties#getPingInterval()}), the unused protocols are pinged
+ * periodically. A {@code Protocol}, which does not answer, is released, so
+ * that a lost connection is replaced before a statement uses it.<br/>
+ * <br/>
+ * The communications of the protocols of a scope can be cancelled by any
+ * thread (see {@link #cancel(BaseConnectionWrapper)}). A {@code Protocol},
+ * which does not end the cancelled communication within the defined time
+ * (see {@link DriverProperties#getCancelTimeout()}), is released.<br/>
+ * <br/>
+ * The manager is used by all the statements of a connection concurrently. The
+ * relationships between protocols, owners and scopes are indexed in both
+ * directions, i.e. any lookup is done in constant time without scanning. The
+ * indexes are concurrent maps, which are read without any locking. Changes
+ * affecting several indexes are done while holding a lock, which is never
+ * held while communicating, i.e. connecting, authenticating and closing are
+ * done outside of the lock.<br/>
+ * <br/>
+ * The owners and scopes are indexed by their {@code OwnerReference}, i.e. the
+ * manager does not keep them reachable. The protocols of an owner or scope,
+ * which is reclaimed without being closed, are released (see
+ * {@link #reclaim(OwnerReference)}).
  * 
  * @author pmeisen
  * 
  */
 public class ProtocolManager {
+
+	/**
+	 * The message used to check a connection to a server, which does not
+	 * know any ping.
+	 */
+	public static final String ALIVE = "ALIVE";
+
+	private static ScheduledExecutorService keepAliver = null;
+
 	private final DriverProperties driverProperties;
+	private final ReentrantLock lock;
 	private final Map<Protocol, Socket> protocols;
-	private final Map<Protocol, BaseConnectionWrapper> owners;
-	private final Map<BaseConnectionWrapper, Set<Protocol>> scopes;
+	private final Map<Protocol, OwnerReference> owners;
+	private final Map<OwnerReference, Protocol> owned;
+	private final Map<OwnerReference, Set<Protocol>> scopes;
+	private final Map<Protocol, OwnerReference> protocolScopes;
+	private final Map<Protocol, ClusterNode> nodes;
+	private final Map<Protocol, HostCluster> routes;
+	private final Map<HostCluster, Deque<Protocol>> idle;
+	private final Map<TidaHost, HostCluster> shardClusters;
+	private final Map<TidaHost, String> sessionTokens;
+	private final DriverMetrics metrics;
+	private final ScheduledFuture<?> pinging;
 
-	private boolean closed;
+	private volatile HostCluster cluster;
+	private volatile HostCluster replicaCluster;
+	private volatile ShardRouter shardRouter;
+	private volatile boolean closed;
 
 	/**
 	 * Initializes the {@code ProtocolManager} with the specified
@@ -49,13 +124,164 @@ public class ProtocolManager {
 	public ProtocolManager(final DriverProperties driverProperties) {
 		this.driverProperties = driverProperties;
 
-		this.protocols = new HashMap<Protocol, Socket>();
-		this.owners = new HashMap<Protocol, BaseConnectionWrapper>();
-		this.scopes = new HashMap<BaseConnectionWrapper, Set<Protocol>>();
+		this.lock = new ReentrantLock();
+		this.protocols = new ConcurrentHashMap<Protocol, Socket>();
+		this.owners = new ConcurrentHashMap<Protocol, OwnerReference>();
+		this.owned = new ConcurrentHashMap<OwnerReference, Protocol>();
+		this.scopes = new ConcurrentHashMap<OwnerReference, Set<Protocol>>();
+		this.protocolScopes = new ConcurrentHashMap<Protocol, OwnerReference>();
+		this.nodes = new ConcurrentHashMap<Protocol, ClusterNode>();
+		this.routes = new ConcurrentHashMap<Protocol, HostCluster>();
+		this.idle = new ConcurrentHashMap<HostCluster, Deque<Protocol>>();
+		this.shardClusters = new ConcurrentHashMap<TidaHost, HostCluster>();
+		this.sessionTokens = new ConcurrentHashMap<TidaHost, String>();
+		this.cluster = null;
+		this.replicaCluster = null;
+		this.shardRouter = null;
+
+		// create the metrics, which are forwarded to the driver-wide ones
+		this.metrics = new DriverMetrics(DriverMetrics.getDriverMetrics());
+		if (driverProperties.isJmx()) {
+			this.metrics.register("ProtocolManager", "host="
+					+ ObjectName.quote(driverProperties.getHost()) + ",port="
+					+ driverProperties.getPort());
+		}
+
+		// ping the unused protocols periodically
+		final int pingInterval = driverProperties.getPingInterval();
+		if (pingInterval > 0) {
+			final Pinger pinger = new Pinger(this);
+			this.pinging = getKeepAliver().scheduleWithFixedDelay(pinger,
+					pingInterval, pingInterval, TimeUnit.MILLISECONDS);
+			pinger.future = this.pinging;
+		} else {
+			this.pinging = null;
+		}
 
 		this.closed = false;
 	}
 
+	/**
+	 * Gets the scheduler used to ping the unused protocols of all managers
+	 * (see {@link #pingUnused()}). The scheduler is not shared with the
+	 * health checks (see {@link HostCluster#getHealthChecker()}), i.e. a
+	 * server answering slowly does not delay those.
+	 * 
+	 * @return the scheduler used to ping the unused protocols
+	 */
+	public synchronized static ScheduledExecutorService getKeepAliver() {
+		if (keepAliver == null) {
+			keepAliver = Executors
+					.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+						@Override
+						public Thread newThread(final Runnable r) {
+							final Thread thread = new Thread(r,
+									"tida-keepalive");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+		}
+
+		return keepAliver;
+	}
+
+	/**
+	 * The task pinging the unused protocols of a manager. The task does not
+	 * keep the manager reachable, it is cancelled if the manager is reclaimed.
+	 * 
+	 * @author pmeisen
+	 * 
+	 */
+	protected static class Pinger implements Runnable {
+		private final WeakReference<ProtocolManager> manager;
+		private volatile ScheduledFuture<?> future;
+
+		/**
+		 * Constructor to create a task pinging the unused protocols of the
+		 * specified {@code manager}.
+		 * 
+		 * @param manager
+		 *            the manager to ping the unused protocols of
+		 */
+		public Pinger(final ProtocolManager manager) {
+			this.manager = new WeakReference<ProtocolManager>(manager);
+			this.future = null;
+		}
+
+		@Override
+		public void run() {
+			final ProtocolManager manager = this.manager.get();
+			if (manager != null) {
+				manager.pingUnused();
+			} else if (future != null) {
+				future.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Creates the {@code OwnerReference} tracking the specified {@code owner}
+	 * (see {@link OwnerReference#track(BaseConnectionWrapper, ProtocolManager,
+	 * boolean)}).
+	 * 
+	 * @param owner
+	 *            the instance using {@code this}
+	 * @param root
+	 *            {@code true} if the {@code owner} created {@code this} (i.e.
+	 *            is a connection), otherwise {@code false}
+	 * 
+	 * @return the created {@code OwnerReference}
+	 */
+	public OwnerReference track(final BaseConnectionWrapper owner,
+			final boolean root) {
+		return OwnerReference.track(owner, this, root);
+	}
+
+	/**
+	 * Reclaims the owner tracked by the specified {@code ref}, which is
+	 * unreachable without being closed, i.e. the {@code Protocol} owned by it
+	 * and the protocols within its scope are released. If the owner created
+	 * {@code this}, {@code this} is closed, i.e. all the protocols are
+	 * released.
+	 * 
+	 * @param ref
+	 *            the reference of the reclaimed owner
+	 * 
+	 * @return {@code true} if the owner leaked any {@code Protocol}, otherwise
+	 *         {@code false}
+	 */
+	protected boolean reclaim(final OwnerReference ref) {
+		if (ref.isRoot()) {
+			if (isClosed()) {
+				return false;
+			}
+
+			// the manager is closed, even if no protocol leaked
+			final boolean leaked = !protocols.isEmpty();
+			if (leaked) {
+				metrics.leaked();
+			}
+			try {
+				close();
+			} catch (final SQLException e) {
+				// ignore, the protocols are lost anyways
+			}
+			return leaked;
+		} else if (!owned.containsKey(ref) && !scopes.containsKey(ref)) {
+			return false;
+		}
+
+		metrics.leaked();
+		try {
+			release(ref);
+		} catch (final SQLException e) {
+			// ignore, the protocols are lost anyways
+		}
+		return true;
+	}
+
 	/**
 	 * This method closes all the {@code owners} which should be closed on
 	 * commit (i.e. {@link BaseConnectionWrapper#doCloseOnCommit()} return
@@ -64,16 +290,15 @@ public class ProtocolManager {
 	 * @throws SQLException
 	 *             if an error occurs while closing the owner
 	 */
-	public synchronized void closeOnCommit() throws SQLException {
+	public void closeOnCommit() throws SQLException {
 		if (isClosed()) {
 			return;
 		}
 
-		while (this.owners.size() > 0) {
-			final Entry<Protocol, BaseConnectionWrapper> entry = this.owners
-					.entrySet().iterator().next();
-			final BaseConnectionWrapper owner = entry.getValue();
-			if (owner.doCloseOnCommit()) {
+		for (final OwnerReference ref : new ArrayList<OwnerReference>(
+				this.owned.keySet())) {
+			final BaseConnectionWrapper owner = ref.getOwner();
+			if (owner != null && owner.doCloseOnCommit()) {
 				owner.close();
 			}
 		}
@@ -85,19 +310,44 @@ public class ProtocolManager {
 	 * @throws SQLException
 	 *             if the closing fails
 	 */
-	public synchronized void close() throws SQLException {
-		if (isClosed()) {
-			return;
+	public void close() throws SQLException {
+		lock.lock();
+		try {
+			if (isClosed()) {
+				return;
+			}
+
+			// no protocol is created from now on
+			this.closed = true;
+		} finally {
+			lock.unlock();
+		}
+
+		if (pinging != null) {
+			pinging.cancel(false);
 		}
 
 		// close all the protocols
-		while (protocols.size() > 0) {
-			releaseProtocol(protocols.keySet().iterator().next());
+		for (final Protocol protocol : new ArrayList<Protocol>(
+				protocols.keySet())) {
+			releaseProtocol(protocol);
 		}
 
 		// remove all the scopes, everything is closed from it
-		this.scopes.clear();
-		this.closed = true;
+		lock.lock();
+		try {
+			for (int i = 0; i < this.scopes.size(); i++) {
+				metrics.scopeClosed();
+			}
+			this.scopes.clear();
+			this.protocolScopes.clear();
+			this.idle.clear();
+		} finally {
+			lock.unlock();
+		}
+
+		// the metrics are not needed anymore
+		this.metrics.unregister();
 	}
 
 	/**
@@ -118,6 +368,15 @@ public class ProtocolManager {
 		return driverProperties;
 	}
 
+	/**
+	 * Gets the {@code DriverMetrics} of {@code this}.
+	 * 
+	 * @return the {@code DriverMetrics} of {@code this}
+	 */
+	public DriverMetrics getMetrics() {
+		return metrics;
+	}
+
 	/**
 	 * Release the specified {@code owner}. Releasing an owner implies to
 	 * release the {@code Protocol} instance owned (if one is owned), as well as
@@ -127,25 +386,42 @@ public class ProtocolManager {
 	 * @param owner
 	 * @throws SQLException
 	 */
-	public synchronized void release(final BaseConnectionWrapper owner)
+	public void release(final BaseConnectionWrapper owner)
 			throws SQLException {
 		if (owner == null) {
 			return;
 		}
 
+		release(owner.getOwnerReference());
+	}
+
+	/**
+	 * Releases the owner tracked by the specified {@code ref}, i.e. the
+	 * {@code Protocol} owned and all the {@code Protocol} instances within the
+	 * scope of the owner.
+	 * 
+	 * @param ref
+	 *            the reference of the owner to be released
+	 * 
+	 * @throws SQLException
+	 *             if releasing a {@code Protocol} led to an error
+	 */
+	protected void release(final OwnerReference ref) throws SQLException {
+
 		// cleanup the protocol owned
-		Protocol ownedProtocol = null;
-		for (final Entry<Protocol, BaseConnectionWrapper> entry : owners
-				.entrySet()) {
-			if (entry.getValue().equals(owner)) {
-				ownedProtocol = entry.getKey();
-				break;
-			}
-		}
-		releaseProtocol(ownedProtocol);
+		releaseProtocol(owned.get(ref));
 
 		// cleanup the managed protocol
-		final Set<Protocol> protocols = this.scopes.remove(owner);
+		final Set<Protocol> protocols;
+		lock.lock();
+		try {
+			protocols = this.scopes.remove(ref);
+			if (protocols != null) {
+				metrics.scopeClosed();
+			}
+		} finally {
+			lock.unlock();
+		}
 		if (protocols != null) {
 			for (final Protocol protocol : protocols) {
 				releaseProtocol(protocol);
@@ -153,6 +429,107 @@ public class ProtocolManager {
 		}
 	}
 
+	/**
+	 * Releases the {@code Protocol} owned by the specified {@code owner}. The
+	 * protocols within the scope of the {@code owner} are not released.
+	 * 
+	 * @param owner
+	 *            the owner to release the {@code Protocol} of
+	 * 
+	 * @throws SQLException
+	 *             if releasing the {@code Protocol} led to an error
+	 */
+	public void releaseOwned(final BaseConnectionWrapper owner)
+			throws SQLException {
+		if (owner == null) {
+			return;
+		}
+
+		releaseProtocol(owned.get(owner.getOwnerReference()));
+	}
+
+	/**
+	 * Parks the {@code Protocol} owned by the specified {@code owner}, i.e. the
+	 * {@code Protocol} is removed from the owner and its scope and kept idle to
+	 * be reused by {@link #createProtocol(BaseConnectionWrapper,
+	 * BaseConnectionWrapper, boolean, TidaHost)}. The {@code Protocol} is
+	 * released, if the maximal amount of idle protocols (see
+	 * {@link DriverProperties#getMaxIdle()}) is reached.<br/>
+	 * <br/>
+	 * The owner must ensure, that the communication of the {@code Protocol} is
+	 * completed, i.e. that no response is pending.
+	 * 
+	 * @param owner
+	 *            the owner to park the {@code Protocol} of
+	 * 
+	 * @throws SQLException
+	 *             if releasing the {@code Protocol} led to an error
+	 */
+	public void park(final BaseConnectionWrapper owner) throws SQLException {
+		if (owner == null) {
+			return;
+		}
+
+		final Protocol ownedProtocol;
+		lock.lock();
+		try {
+			ownedProtocol = owned.get(owner.getOwnerReference());
+			if (ownedProtocol == null) {
+				return;
+			}
+
+			// check if the protocol can be kept
+			final HostCluster route = routes.get(ownedProtocol);
+			Deque<Protocol> idleProtocols = route == null ? null : idle
+					.get(route);
+			if (route != null && idleProtocols == null) {
+				idleProtocols = new ArrayDeque<Protocol>();
+				idle.put(route, idleProtocols);
+			}
+
+			if (route != null
+					&& idleProtocols.size() < driverProperties.getMaxIdle()) {
+
+				// remove the protocol from the owner and the scope
+				unregister(ownedProtocol);
+
+				// the protocol is idle and not outstanding anymore
+				final ClusterNode node = this.nodes.get(ownedProtocol);
+				if (node != null) {
+					node.release();
+				}
+				idleProtocols.push(ownedProtocol);
+
+				return;
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		// the protocol cannot be kept
+		releaseProtocol(ownedProtocol);
+	}
+
+	/**
+	 * Gets the amount of idle protocols, i.e. of parked protocols which can be
+	 * reused.
+	 * 
+	 * @return the amount of idle protocols
+	 */
+	public int sizeOfIdle() {
+		lock.lock();
+		try {
+			int size = 0;
+			for (final Deque<Protocol> idleProtocols : idle.values()) {
+				size += idleProtocols.size();
+			}
+
+			return size;
+		} finally {
+			lock.unlock();
+		}
+	}
+
 	/**
 	 * Releases the {@code protocol} by closing it. Additionally the
 	 * {@code protocol's} socket is closed and it is removed from the scope it
@@ -169,38 +546,52 @@ public class ProtocolManager {
 			return;
 		}
 
+		// remove the protocol from all the indexes
+		final Socket socket;
+		final ClusterNode node;
+		lock.lock();
+		try {
+			socket = this.protocols.remove(protocol);
+
+			// the node of the protocol is not used anymore, unless it was idle
+			final HostCluster route = this.routes.remove(protocol);
+			final Deque<Protocol> idleProtocols = route == null ? null
+					: this.idle.get(route);
+			final boolean wasIdle = idleProtocols != null
+					&& idleProtocols.remove(protocol);
+			node = this.nodes.remove(protocol);
+			if (node != null && !wasIdle) {
+				node.release();
+			}
+
+			// remove the protocol from the owner and the scope
+			unregister(protocol);
+		} finally {
+			lock.unlock();
+		}
+
 		boolean exception = false;
 
-		// close the protocol first
+		// close the protocol
 		try {
 			protocol.close();
 		} catch (final IOException e) {
 			exception = true;
 		}
 
+		// keep the session of the protocol to be resumed
+		final String sessionToken = protocol.getSessionToken();
+		if (node != null && sessionToken != null) {
+			this.sessionTokens.put(node.getHost(), sessionToken);
+		}
+
 		// if there was a socket bound close it as well
-		final Socket socket = this.protocols.remove(protocol);
 		exception = closeSocket(socket);
-
-		// get the scope the protocol belongs to and remove it from there
-		for (final Entry<BaseConnectionWrapper, Set<Protocol>> entry : this.scopes
-				.entrySet()) {
-			final Set<Protocol> protocols = entry.getValue();
-
-			// remove the protocol from the set
-			if (protocols.remove(protocol)) {
-
-				// if it exists and the list is empty remove it
-				if (protocols.size() == 0) {
-					this.scopes.remove(protocol);
-				}
-				break;
-			}
+		if (socket != null) {
+			metrics.protocolClosed();
+			metrics.socketClosed();
 		}
 
-		// remove the protocol from the owners
-		this.owners.remove(protocol);
-
 		if (exception) {
 			throw TidaSqlExceptions.createException(2004);
 		}
@@ -245,25 +636,106 @@ public class ProtocolManager {
 	 * @throws SQLException
 	 *             if no {@code Protocol} instance could be created
 	 */
-	public synchronized Protocol createProtocol(
-			final BaseConnectionWrapper owner, final BaseConnectionWrapper scope)
-			throws SQLException {
+	public Protocol createProtocol(final BaseConnectionWrapper owner,
+			final BaseConnectionWrapper scope) throws SQLException {
+		return createProtocol(owner, scope, false, null);
+	}
+
+	/**
+	 * Creates a new {@code Protocol} for the specified {@code owner} within the
+	 * specified {@code scope}. The {@code Protocol} is connected to one of the
+	 * replicas, if {@code replica} is {@code true} and replicas are specified
+	 * (see {@link DriverProperties#getReplicas()}), otherwise to one of the
+	 * primary hosts.
+	 * 
+	 * @param owner
+	 *            the {@code BaseConnectionWrapper} instance owning the created
+	 *            {@code Protocol}
+	 * @param scope
+	 *            the {@code BaseConnectionWrapper} instance which defines the
+	 *            scope
+	 * @param replica
+	 *            {@code true} if the {@code Protocol} should be connected to a
+	 *            replica, otherwise {@code false}
+	 * @param shard
+	 *            the host owning the model used by the owner (see
+	 *            {@link #getShard(String)}), can be {@code null}; if specified
+	 *            the {@code Protocol} is connected to the {@code shard}
+	 *            regardless of {@code replica}
+	 * 
+	 * @return a created {@code Protocol}
+	 * 
+	 * @throws SQLException
+	 *             if no {@code Protocol} instance could be created
+	 */
+	public Protocol createProtocol(final BaseConnectionWrapper owner,
+			final BaseConnectionWrapper scope, final boolean replica,
+			final TidaHost shard) throws SQLException {
 		if (isClosed()) {
 			throw TidaSqlExceptions.createException(9004);
 		}
 
-		final Socket socket = new Socket();
+		final HostCluster cluster = getRoute(replica, shard);
+
+		// reuse an idle protocol connected to the same hosts
+		lock.lock();
 		try {
-			socket.connect(new InetSocketAddress(driverProperties.getHost(),
-					driverProperties.getPort()), driverProperties.getTimeout());
-		} catch (final IOException e) {
-			throw TidaSqlExceptions.createException(9001, e,
+			final Deque<Protocol> idleProtocols = idle.get(cluster);
+			if (idleProtocols != null && !idleProtocols.isEmpty()) {
+				final Protocol protocol = idleProtocols.pop();
+				final ClusterNode node = this.nodes.get(protocol);
+				if (node != null) {
+					node.acquire();
+				}
+				metrics.reused();
+
+				register(protocol, owner, scope);
+				return protocol;
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		final long connectStart = System.nanoTime();
+
+		// connect to one of the hosts, try another one if the host fails
+		final List<ClusterNode> tried = new ArrayList<ClusterNode>();
+		ClusterNode node = null;
+		Socket socket = null;
+		while (socket == null) {
+			node = cluster.select(tried);
+			if (node == null) {
+				break;
+			}
+
+			try {
+				socket = connect(node.getHost());
+				cluster.succeeded(node);
+			} catch (final IOException e) {
+				cluster.failed(node);
+				tried.add(node);
+				metrics.connectFailed();
+
+				// throw the exception if there is no other host
+				if (tried.size() >= cluster.getNodes().size()) {
+					throw TidaSqlExceptions.createException(9001, e,
+							getDriverProperties().getRawJdbc());
+				} else {
+					metrics.failedOver();
+				}
+			}
+		}
+		if (socket == null) {
+			throw TidaSqlExceptions.createException(9001,
 					getDriverProperties().getRawJdbc());
 		}
+		final long connectEnd = System.nanoTime();
 
-		// set the timeout and the linger of the socket
+		// set the timeout, the linger and the options of the socket
 		try {
 			socket.setSoTimeout(driverProperties.getTimeout());
+			socket.setTcpNoDelay(driverProperties.isTcpNoDelay());
+			socket.setKeepAlive(driverProperties.isKeepAlive());
 
 			if (driverProperties.disableLinger()) {
 				socket.setSoLinger(true, 0);
@@ -271,6 +743,7 @@ public class ProtocolManager {
 				socket.setSoLinger(true, driverProperties.getLingerInSeconds());
 			}
 		} catch (final IOException e) {
+			metrics.connectFailed();
 			closeSocket(socket);
 			throw TidaSqlExceptions.createException(9001, e,
 					getDriverProperties().getRawJdbc());
@@ -279,18 +752,36 @@ public class ProtocolManager {
 		// add the protocol
 		final Protocol protocol;
 		try {
-			protocol = new Protocol(socket);
+			protocol = new Protocol(socket,
+					driverProperties.getStreamBufferSize());
 		} catch (final IOException e) {
+			metrics.connectFailed();
 			closeSocket(socket);
 			throw TidaSqlExceptions.createException(9003, e,
 					getDriverProperties().getRawJdbc());
 		}
+		protocol.setObserver(metrics);
+		protocol.setMaxFrameSize(driverProperties.getMaxFrameSize());
 
-		// send the credentials to authenticate on the new socket
+		/*
+		 * Send the credentials to authenticate on the new socket, the
+		 * credentials are not flushed, i.e. those are send together with the
+		 * first message. The capabilities of the protocol are send along and
+		 * answered by the server with the first response.
+		 */
+		final long authStart = System.nanoTime();
+		final String sessionToken;
+		if (driverProperties.isResumeSessions()) {
+			sessionToken = getSessionToken(node.getHost());
+		} else {
+			sessionToken = null;
+		}
 		try {
 			protocol.writeCredential(driverProperties.getUser(),
-					driverProperties.getPassword());
+					driverProperties.getPassword(), sessionToken,
+					driverProperties.isNegotiate());
 		} catch (final IOException e) {
+			metrics.connectFailed();
 			try {
 				protocol.close();
 			} catch (final IOException ex) {
@@ -299,19 +790,533 @@ public class ProtocolManager {
 			closeSocket(socket);
 			throw TidaSqlExceptions.createException(9009, e);
 		}
+		metrics.connected(connectEnd - connectStart, System.nanoTime()
+				- authStart);
+		if (sessionToken != null) {
+			metrics.resumed();
+		}
+
+		// the manager may be closed while connecting
+		lock.lock();
+		try {
+			if (!isClosed()) {
+				this.protocols.put(protocol, socket);
+				this.nodes.put(protocol, node);
+				this.routes.put(protocol, cluster);
+				node.acquire();
 
-		this.owners.put(protocol, owner);
-		this.protocols.put(protocol, socket);
+				register(protocol, owner, scope);
+				return protocol;
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		try {
+			protocol.close();
+		} catch (final IOException e) {
+			// ignore
+		}
+		closeSocket(socket);
+		throw TidaSqlExceptions.createException(9004);
+	}
+
+	/**
+	 * Gets the token of the session established with the specified
+	 * {@code host}, i.e. the token issued to a {@code Protocol} connected to the
+	 * {@code host}, or to a released one.
+	 * 
+	 * @param host
+	 *            the host to get the token of the session for
+	 * 
+	 * @return the token of the session, or {@code null} if no session was
+	 *         established with the {@code host}
+	 */
+	public String getSessionToken(final TidaHost host) {
+		for (final Entry<Protocol, ClusterNode> entry : nodes.entrySet()) {
+			final String sessionToken = entry.getKey().getSessionToken();
+			if (sessionToken != null && entry.getValue() != null
+					&& host.equals(entry.getValue().getHost())) {
+				return sessionToken;
+			}
+		}
+
+		return sessionTokens.get(host);
+	}
+
+	/**
+	 * Pings the other side of the specified {@code protocol} (see
+	 * {@link Protocol#ping()}), i.e. checks if the connection is alive. The
+	 * pong has to be received within the specified {@code timeoutInMs}. A
+	 * server, which did not negotiate the capabilities (see
+	 * {@link Protocol#isNegotiated()}), may not know any ping, i.e. the
+	 * message {@code ALIVE} is send instead and its response is awaited.
+	 * 
+	 * @param protocol
+	 *            the {@code Protocol} to be pinged
+	 * @param timeoutInMs
+	 *            the time (in milliseconds) to wait for the pong, {@code 0}
+	 *            to wait infinitely
+	 * 
+	 * @return {@code true} if the connection is alive, or if the
+	 *         {@code protocol} is currently used for a communication,
+	 *         otherwise {@code false}
+	 */
+	public boolean ping(final Protocol protocol, final int timeoutInMs) {
+		final Socket socket = this.protocols.get(protocol);
+
+		// the timeout must not be changed during another communication
+		synchronized (protocol) {
+			if (protocol.isInCommunication()) {
+				return true;
+			}
+
+			try {
+				if (socket != null) {
+					socket.setSoTimeout(timeoutInMs);
+				}
+				if (protocol.isNegotiated()) {
+					protocol.ping();
+				} else {
+					alive(protocol);
+				}
+
+				return true;
+			} catch (final IOException e) {
+				return false;
+			} catch (final RuntimeException e) {
+				return false;
+			} finally {
+				if (socket != null) {
+					try {
+						socket.setSoTimeout(driverProperties.getTimeout());
+					} catch (final IOException e) {
+						// ignore, the socket is lost anyways
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sends the message {@code ALIVE} using the specified {@code protocol} and
+	 * awaits the end of the response. The communication is marked as final if
+	 * no response is read, i.e. the {@code protocol} is not used for a
+	 * communication afterwards.
+	 * 
+	 * @param protocol
+	 *            the {@code Protocol} to send the message with
+	 * 
+	 * @throws IOException
+	 *             if the response cannot be read
+	 */
+	protected void alive(final Protocol protocol) throws IOException {
+		boolean answered = false;
+		try {
+			protocol.writeAndHandle(ALIVE, null);
+			answered = true;
+		} finally {
+			if (!answered) {
+				protocol.markCommunicationAsFinal(null);
+			}
+		}
+	}
+
+	/**
+	 * Pings all the protocols, which are currently not used for a
+	 * communication. A {@code Protocol}, which does not answer, is released.
+	 * A {@code Protocol} of a server, which does not support any negotiation
+	 * (see {@link Protocol#isLegacy()}), is not pinged. The pong has to be
+	 * received within the ping-interval, but at most within two seconds,
+	 * independent of the timeout defined for the connection.
+	 */
+	public void pingUnused() {
+		if (isClosed()) {
+			return;
+		}
+		final List<Protocol> protocols = new ArrayList<Protocol>(
+				this.protocols.keySet());
+
+		// a ping must not wait infinitely, even if the timeout is disabled
+		final int pingInterval = driverProperties.getPingInterval();
+		final int timeout = pingInterval > 0 ? Math.min(pingInterval, 2000)
+				: 2000;
+
+		for (final Protocol protocol : protocols) {
+			if (protocol.isInCommunication() || protocol.isLegacy()
+					|| ping(protocol, timeout)) {
+				continue;
+			}
+
+			// the connection is lost, the owner reconnects if used again
+			releaseLost(protocol);
+		}
+	}
+
+	/**
+	 * Cancels the running communications of all the protocols within the
+	 * specified {@code scope} (see {@link Protocol#cancel()}). The method
+	 * returns immediately, i.e. it does not wait for the end of the cancelled
+	 * responses. A {@code Protocol}, which does not end the response within
+	 * the defined time (see {@link DriverProperties#getCancelTimeout()}), is
+	 * released.
+	 * 
+	 * @param scope
+	 *            the scope to cancel the communications of
+	 * 
+	 * @return {@code true} if at least one communication was cancelled,
+	 *         otherwise {@code false}
+	 */
+	public boolean cancel(final BaseConnectionWrapper scope) {
+		final Set<Protocol> scoped = scope == null ? null : this.scopes
+				.get(scope.getOwnerReference());
+		if (scoped == null) {
+			return false;
+		}
+		final List<Protocol> protocols = new ArrayList<Protocol>(scoped);
+
+		return cancel(protocols);
+	}
+
+	/**
+	 * Cancels the running communications of all the protocols managed by
+	 * {@code this}.
+	 * 
+	 * @return {@code true} if at least one communication was cancelled,
+	 *         otherwise {@code false}
+	 * 
+	 * @see #cancel(BaseConnectionWrapper)
+	 */
+	public boolean cancelAll() {
+		final List<Protocol> protocols = new ArrayList<Protocol>(
+				this.protocols.keySet());
+
+		return cancel(protocols);
+	}
+
+	/**
+	 * Cancels the running communications of the specified {@code protocols}
+	 * and schedules the release of the protocols, which do not end the
+	 * response in time.
+	 * 
+	 * @param protocols
+	 *            the protocols to be cancelled
+	 * 
+	 * @return {@code true} if at least one communication was cancelled,
+	 *         otherwise {@code false}
+	 */
+	protected boolean cancel(final List<Protocol> protocols) {
+		boolean cancelled = false;
+
+		for (final Protocol protocol : protocols) {
+			final long communication = protocol.getCommunications();
+			try {
+				if (!protocol.cancel()) {
+					continue;
+				}
+			} catch (final IOException e) {
+				releaseLost(protocol);
+				continue;
+			}
+			cancelled = true;
+
+			// release the protocol if the response does not end in time
+			final int cancelTimeout = driverProperties.getCancelTimeout();
+			if (cancelTimeout > 0) {
+				HostCluster.getHealthChecker().schedule(new Runnable() {
+
+					@Override
+					public void run() {
+						if (protocol.isInCommunication()
+								&& protocol.getCommunications() == communication) {
+							releaseLost(protocol);
+						}
+					}
+				}, cancelTimeout, TimeUnit.MILLISECONDS);
+			}
+		}
+
+		return cancelled;
+	}
+
+	/**
+	 * Releases the specified {@code protocol}, which is lost, i.e. which did
+	 * not answer a ping or did not end a cancelled response. The owner of the
+	 * {@code protocol} reconnects, if it is used again.
+	 * 
+	 * @param protocol
+	 *            the {@code Protocol} to be released
+	 */
+	protected void releaseLost(final Protocol protocol) {
+		if (this.protocols.containsKey(protocol)) {
+			metrics.lost();
+			try {
+				releaseProtocol(protocol);
+			} catch (final SQLException e) {
+				// ignore, the protocol is lost anyways
+			}
+		}
+	}
+
+	/**
+	 * Registers the {@code protocol} for the specified {@code owner} within
+	 * the specified {@code scope}. The lock of {@code this} must be held.
+	 * 
+	 * @param protocol
+	 *            the {@code Protocol} to be registered
+	 * @param owner
+	 *            the {@code BaseConnectionWrapper} instance owning the
+	 *            {@code protocol}
+	 * @param scope
+	 *            the {@code BaseConnectionWrapper} instance which defines the
+	 *            scope
+	 */
+	protected void register(final Protocol protocol,
+			final BaseConnectionWrapper owner, final BaseConnectionWrapper scope) {
+		final OwnerReference ownerRef = owner.getOwnerReference();
+		this.owners.put(protocol, ownerRef);
+		this.owned.put(ownerRef, protocol);
 
 		// add the scope
-		Set<Protocol> protocols = scopes.get(scope);
+		final OwnerReference scopeRef = scope.getOwnerReference();
+		Set<Protocol> protocols = scopes.get(scopeRef);
 		if (protocols == null) {
-			protocols = new HashSet<Protocol>();
-			this.scopes.put(scope, protocols);
+			protocols = ConcurrentHashMap.newKeySet();
+			this.scopes.put(scopeRef, protocols);
+			metrics.scopeOpened();
 		}
 		protocols.add(protocol);
+		this.protocolScopes.put(protocol, scopeRef);
+	}
 
-		return protocol;
+	/**
+	 * Removes the {@code protocol} from its owner and its scope. The scope is
+	 * removed, if it does not contain any other {@code Protocol}. The lock of
+	 * {@code this} must be held.
+	 * 
+	 * @param protocol
+	 *            the {@code Protocol} to be unregistered
+	 */
+	protected void unregister(final Protocol protocol) {
+		final OwnerReference owner = this.owners.remove(protocol);
+		if (owner != null) {
+			this.owned.remove(owner, protocol);
+		}
+
+		final OwnerReference scope = this.protocolScopes.remove(protocol);
+		final Set<Protocol> protocols = scope == null ? null : this.scopes
+				.get(scope);
+		if (protocols != null && protocols.remove(protocol)
+				&& protocols.isEmpty()) {
+			this.scopes.remove(scope);
+			metrics.scopeClosed();
+		}
+	}
+
+	/**
+	 * Creates a {@code Socket} connected to the specified {@code host}. The
+	 * buffers of the socket are set as defined by the
+	 * {@code DriverProperties}.
+	 * 
+	 * @param host
+	 *            the host to connect to
+	 * 
+	 * @return the connected {@code Socket}
+	 * 
+	 * @throws IOException
+	 *             if the socket cannot be connected
+	 */
+	protected Socket connect(final TidaHost host) throws IOException {
+		final Socket socket = new Socket();
+		try {
+
+			// the buffers have to be set prior to connecting the socket
+			if (driverProperties.getReceiveBufferSize() > 0) {
+				socket.setReceiveBufferSize(driverProperties
+						.getReceiveBufferSize());
+			}
+			if (driverProperties.getSendBufferSize() > 0) {
+				socket.setSendBufferSize(driverProperties.getSendBufferSize());
+			}
+
+			socket.connect(new InetSocketAddress(host.getHost(), host
+					.getPort()), driverProperties.getTimeout());
+		} catch (final IOException e) {
+			closeSocket(socket);
+			throw e;
+		}
+
+		return socket;
+	}
+
+	/**
+	 * Gets the {@code HostCluster} of the hosts defined by the
+	 * {@code DriverProperties}.
+	 * 
+	 * @return the {@code HostCluster} used to select the host to connect to
+	 * 
+	 * @throws SQLException
+	 *             if the selection strategy cannot be created
+	 */
+	public HostCluster getCluster() throws SQLException {
+		if (cluster == null) {
+			lock.lock();
+			try {
+				if (cluster == null) {
+					cluster = createCluster(driverProperties.getHosts());
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		return cluster;
+	}
+
+	/**
+	 * Gets the {@code HostCluster} of the replicas defined by the
+	 * {@code DriverProperties}.
+	 * 
+	 * @return the {@code HostCluster} used to select the replica to connect
+	 *         to, {@code null} if no replicas are specified
+	 * 
+	 * @throws SQLException
+	 *             if the selection strategy cannot be created
+	 */
+	public HostCluster getReplicaCluster() throws SQLException {
+		if (replicaCluster == null && hasReplicas()) {
+			lock.lock();
+			try {
+				if (replicaCluster == null) {
+					replicaCluster = createCluster(driverProperties
+							.getReplicas());
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		return replicaCluster;
+	}
+
+	/**
+	 * Gets the {@code HostCluster} a {@code Protocol} is connected to, i.e. the
+	 * {@code shard} (if specified), the replicas (if {@code replica} is
+	 * {@code true} and replicas are specified), or the primary hosts.
+	 * 
+	 * @param replica
+	 *            {@code true} if the replicas should be used, otherwise
+	 *            {@code false}
+	 * @param shard
+	 *            the host owning the used model, can be {@code null}
+	 * 
+	 * @return the {@code HostCluster} to connect to
+	 * 
+	 * @throws SQLException
+	 *             if the selection strategy cannot be created
+	 */
+	public HostCluster getRoute(final boolean replica, final TidaHost shard)
+			throws SQLException {
+		if (shard != null) {
+			HostCluster shardCluster = shardClusters.get(shard);
+			if (shardCluster == null) {
+				shardCluster = createCluster(Collections.singletonList(shard));
+				final HostCluster current = shardClusters.putIfAbsent(shard,
+						shardCluster);
+				shardCluster = current == null ? shardCluster : current;
+			}
+			return shardCluster;
+		} else if (replica && hasReplicas()) {
+			return getReplicaCluster();
+		} else {
+			return getCluster();
+		}
+	}
+
+	/**
+	 * Gets the {@code ShardRouter} used to determine the host owning the model
+	 * referred by a statement.
+	 * 
+	 * @return the {@code ShardRouter}, or {@code null} if no shards are
+	 *         specified (see {@link DriverProperties#isSharded()})
+	 */
+	public ShardRouter getShardRouter() {
+		if (shardRouter == null && driverProperties.isSharded()) {
+			lock.lock();
+			try {
+				if (shardRouter == null) {
+					shardRouter = ShardRouter.getRouter(driverProperties);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		return shardRouter;
+	}
+
+	/**
+	 * Determines the host owning the model referred by the specified
+	 * {@code sql}.
+	 * 
+	 * @param sql
+	 *            the statement to determine the host for
+	 * 
+	 * @return the host owning the referred model, or {@code null} if no shards
+	 *         are specified, or the model is unknown
+	 */
+	public TidaHost getShard(final String sql) {
+		final ShardRouter router = getShardRouter();
+		return router == null ? null : router.route(sql);
+	}
+
+	/**
+	 * Gets the {@code HostCluster} for the specified {@code hosts} using the
+	 * settings of the {@code DriverProperties}.
+	 * 
+	 * @param hosts
+	 *            the hosts of the cluster
+	 * 
+	 * @return the {@code HostCluster}
+	 * 
+	 * @throws SQLException
+	 *             if the selection strategy cannot be created
+	 */
+	protected HostCluster createCluster(final List<TidaHost> hosts)
+			throws SQLException {
+		try {
+			return HostCluster.getCluster(hosts,
+					driverProperties.getLoadBalancing(),
+					driverProperties.getHealthCheckInterval(),
+					driverProperties.getEjectTime());
+		} catch (final Exception e) {
+			throw TidaSqlExceptions.createException(9010, e,
+					driverProperties.getLoadBalancing());
+		}
+	}
+
+	/**
+	 * Checks if replicas are specified, i.e. if reading statements can be
+	 * routed to the replicas.
+	 * 
+	 * @return {@code true} if replicas are specified, otherwise {@code false}
+	 */
+	public boolean hasReplicas() {
+		return driverProperties.hasReplicas();
+	}
+
+	/**
+	 * Checks if the specified {@code protocol} is connected to a replica.
+	 * 
+	 * @param protocol
+	 *            the {@code Protocol} to be checked
+	 * 
+	 * @return {@code true} if the {@code protocol} is connected to a replica,
+	 *         otherwise {@code false}
+	 */
+	public boolean isReplica(final Protocol protocol) {
+		final HostCluster route = routes.get(protocol);
+		return route != null && route == replicaCluster;
 	}
 
 	/**
@@ -319,7 +1324,7 @@ public class ProtocolManager {
 	 * 
 	 * @return the amount of scopes
 	 */
-	public synchronized int sizeOfScopes() {
+	public int sizeOfScopes() {
 		return scopes.size();
 	}
 
@@ -331,8 +1336,9 @@ public class ProtocolManager {
 	 * 
 	 * @return the amount of associated protocols to the {@code scope}
 	 */
-	public synchronized int sizeOfProtocols(final BaseConnectionWrapper scope) {
-		final Set<Protocol> protocols = scopes.get(scope);
+	public int sizeOfProtocols(final BaseConnectionWrapper scope) {
+		final Set<Protocol> protocols = scope == null ? null : scopes
+				.get(scope.getOwnerReference());
 		if (protocols == null) {
 			return 0;
 		} else {
@@ -350,8 +1356,8 @@ public class ProtocolManager {
 	 * @return {@code true} if the {@code owner} owns a {@code Protocol},
 	 *         otherwise {@code false}
 	 */
-	public synchronized boolean isOwner(final BaseConnectionWrapper owner) {
-		return owners.containsValue(owner);
+	public boolean isOwner(final BaseConnectionWrapper owner) {
+		return owner != null && owned.containsKey(owner.getOwnerReference());
 	}
 
 	/**
@@ -359,7 +1365,7 @@ public class ProtocolManager {
 	 * 
 	 * @return the amount of owners, managed by {@code this}
 	 */
-	public synchronized int sizeOfOwners() {
+	public int sizeOfOwners() {
 		return owners.size();
 	}
 }
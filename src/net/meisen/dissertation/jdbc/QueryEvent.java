@@ -0,0 +1,367 @@
+package net.meisen.dissertation.jdbc;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.meisen.dissertation.jdbc.protocol.Protocol;
+
+/**
+ * The event passed to the {@code IStatementListener} instances. An event is
+ * created for each execution of a statement and is updated during the
+ * life-cycle of the execution, i.e. the timings as well as the amount of rows
+ * and bytes are available whenever a listener is called.
+ *
+ * @author pmeisen
+ *
+ * @see IStatementListener
+ */
+public class QueryEvent {
+	private final TidaStatement statement;
+	private final String sql;
+	private final List<IStatementListener> listeners;
+
+	private final long startTime;
+	private final long startNanos;
+
+	private volatile long firstRowNanos;
+	private volatile long endNanos;
+	private volatile long rows;
+
+	private Protocol protocol;
+	private long startBytesRead;
+	private long startBytesWritten;
+	private volatile long bytesRead;
+	private volatile long bytesWritten;
+
+	private volatile TidaResultSetType resultSetType;
+	private volatile SQLException exception;
+	private volatile boolean cancelled;
+	private boolean finished;
+
+	/**
+	 * Constructor of an event for the specified {@code sql} executed by the
+	 * specified {@code statement}.
+	 *
+	 * @param statement
+	 *            the statement executing the {@code sql}, might be {@code null}
+	 * @param sql
+	 *            the executed query
+	 * @param listeners
+	 *            the listeners to be informed
+	 */
+	public QueryEvent(final TidaStatement statement, final String sql,
+			final List<IStatementListener> listeners) {
+		this.statement = statement;
+		this.sql = sql;
+		this.listeners = listeners;
+
+		this.startTime = System.currentTimeMillis();
+		this.startNanos = System.nanoTime();
+
+		this.firstRowNanos = -1;
+		this.endNanos = -1;
+		this.rows = 0;
+
+		this.protocol = null;
+		this.bytesRead = 0;
+		this.bytesWritten = 0;
+
+		this.resultSetType = TidaResultSetType.UNKNOWN;
+		this.exception = null;
+		this.cancelled = false;
+		this.finished = false;
+	}
+
+	/**
+	 * Creates an event for the specified {@code sql}, if there are any
+	 * {@code listeners} to be informed.
+	 *
+	 * @param statement
+	 *            the statement executing the {@code sql}
+	 * @param sql
+	 *            the executed query
+	 * @param listeners
+	 *            the listeners to be informed
+	 *
+	 * @return the created event or {@code null} if no listener has to be
+	 *         informed
+	 */
+	public static QueryEvent create(final TidaStatement statement,
+			final String sql, final List<IStatementListener> listeners) {
+		if (listeners == null || listeners.isEmpty()) {
+			return null;
+		} else {
+			return new QueryEvent(statement, sql, listeners);
+		}
+	}
+
+	/**
+	 * Binds the event to the {@code Protocol} used to send the query, so that
+	 * the transferred bytes can be determined.
+	 *
+	 * @param protocol
+	 *            the {@code Protocol} used
+	 */
+	protected synchronized void bind(final Protocol protocol) {
+		this.protocol = protocol;
+		this.startBytesRead = protocol.getBytesRead();
+		this.startBytesWritten = protocol.getBytesWritten();
+	}
+
+	/**
+	 * Fires the {@link IStatementListener#beforeExecute(QueryEvent)} event.
+	 */
+	public void fireBeforeExecute() {
+		for (final IStatementListener listener : listeners) {
+			try {
+				listener.beforeExecute(this);
+			} catch (final RuntimeException e) {
+				// ignore any failure of a listener
+			}
+		}
+	}
+
+	/**
+	 * Counts a read row and fires the
+	 * {@link IStatementListener#firstRow(QueryEvent)} event, if it is the
+	 * first one.
+	 */
+	public void fireRow() {
+		rows++;
+		if (rows > 1) {
+			return;
+		}
+
+		firstRowNanos = System.nanoTime();
+		updateBytes();
+		for (final IStatementListener listener : listeners) {
+			try {
+				listener.firstRow(this);
+			} catch (final RuntimeException e) {
+				// ignore any failure of a listener
+			}
+		}
+	}
+
+	/**
+	 * Fires the {@link IStatementListener#endOfResponse(QueryEvent)} event.
+	 * The event is only fired if no other final event (i.e. end-of-response,
+	 * error, or cancel) was fired so far.
+	 *
+	 * @param resultSetType
+	 *            the type of the response
+	 */
+	public void fireEndOfResponse(final TidaResultSetType resultSetType) {
+		if (!finish()) {
+			return;
+		}
+
+		this.resultSetType = resultSetType;
+		for (final IStatementListener listener : listeners) {
+			try {
+				listener.endOfResponse(this);
+			} catch (final RuntimeException e) {
+				// ignore any failure of a listener
+			}
+		}
+	}
+
+	/**
+	 * Fires the {@link IStatementListener#error(QueryEvent, SQLException)}
+	 * event. The event is only fired if no other final event (i.e.
+	 * end-of-response, error, or cancel) was fired so far.
+	 *
+	 * @param exception
+	 *            the exception describing the failure
+	 */
+	public void fireError(final SQLException exception) {
+		if (!finish()) {
+			return;
+		}
+
+		this.exception = exception;
+		for (final IStatementListener listener : listeners) {
+			try {
+				listener.error(this, exception);
+			} catch (final RuntimeException e) {
+				// ignore any failure of a listener
+			}
+		}
+	}
+
+	/**
+	 * Fires the {@link IStatementListener#cancel(QueryEvent)} event. The event
+	 * is only fired if no other final event (i.e. end-of-response, error, or
+	 * cancel) was fired so far.
+	 */
+	public void fireCancel() {
+		if (!finish()) {
+			return;
+		}
+
+		this.cancelled = true;
+		for (final IStatementListener listener : listeners) {
+			try {
+				listener.cancel(this);
+			} catch (final RuntimeException e) {
+				// ignore any failure of a listener
+			}
+		}
+	}
+
+	/**
+	 * Marks the event as finished, the timings and counters are frozen.
+	 *
+	 * @return {@code true} if the event was finished by the call, otherwise
+	 *         {@code false}
+	 */
+	protected synchronized boolean finish() {
+		if (finished) {
+			return false;
+		}
+
+		finished = true;
+		endNanos = System.nanoTime();
+		updateBytes();
+
+		return true;
+	}
+
+	/**
+	 * Updates the amount of transferred bytes based on the bound
+	 * {@code Protocol}.
+	 */
+	protected synchronized void updateBytes() {
+		if (protocol != null) {
+			bytesRead = protocol.getBytesRead() - startBytesRead;
+			bytesWritten = protocol.getBytesWritten() - startBytesWritten;
+		}
+	}
+
+	/**
+	 * Gets the statement executing the query.
+	 *
+	 * @return the statement executing the query, might be {@code null}
+	 */
+	public TidaStatement getStatement() {
+		return statement;
+	}
+
+	/**
+	 * Gets the executed query.
+	 *
+	 * @return the executed query
+	 */
+	public String getSql() {
+		return sql;
+	}
+
+	/**
+	 * Gets the time (in milliseconds since epoch) the execution started.
+	 *
+	 * @return the time the execution started
+	 */
+	public long getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * Gets the time (in milliseconds) elapsed since the start of the
+	 * execution. If the execution is finished, the time needed for the
+	 * complete execution is returned.
+	 *
+	 * @return the elapsed time in milliseconds
+	 */
+	public long getElapsedTime() {
+		final long end = endNanos;
+		return TimeUnit.NANOSECONDS.toMillis((end == -1 ? System.nanoTime()
+				: end) - startNanos);
+	}
+
+	/**
+	 * Gets the time (in milliseconds) needed to retrieve the first row.
+	 *
+	 * @return the time needed to retrieve the first row, {@code -1} if no row
+	 *         was retrieved so far
+	 */
+	public long getTimeToFirstRow() {
+		final long first = firstRowNanos;
+		return first == -1 ? -1 : TimeUnit.NANOSECONDS.toMillis(first
+				- startNanos);
+	}
+
+	/**
+	 * Gets the amount of rows read so far.
+	 *
+	 * @return the amount of rows read so far
+	 */
+	public long getRows() {
+		return rows;
+	}
+
+	/**
+	 * Gets the amount of bytes read from the server for the execution. The
+	 * value is updated with the first row and when the execution is finished.
+	 *
+	 * @return the amount of bytes read
+	 */
+	public long getBytesRead() {
+		return bytesRead;
+	}
+
+	/**
+	 * Gets the amount of bytes written to the server for the execution. The
+	 * value is updated with the first row and when the execution is finished.
+	 *
+	 * @return the amount of bytes written
+	 */
+	public long getBytesWritten() {
+		return bytesWritten;
+	}
+
+	/**
+	 * Gets the type of the response, which is known when the end of the
+	 * response is reached.
+	 *
+	 * @return the type of the response
+	 */
+	public TidaResultSetType getResultSetType() {
+		return resultSetType;
+	}
+
+	/**
+	 * Gets the exception if the execution failed.
+	 *
+	 * @return the exception or {@code null} if the execution did not fail
+	 */
+	public SQLException getException() {
+		return exception;
+	}
+
+	/**
+	 * Checks if the execution was cancelled.
+	 *
+	 * @return {@code true} if the execution was cancelled, otherwise
+	 *         {@code false}
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Checks if the execution is finished, i.e. the end of the response was
+	 * reached, the execution failed or was cancelled.
+	 *
+	 * @return {@code true} if the execution is finished, otherwise
+	 *         {@code false}
+	 */
+	public synchronized boolean isFinished() {
+		return finished;
+	}
+
+	@Override
+	public String toString() {
+		return sql + " (" + getElapsedTime() + " ms, " + getRows() + " rows)";
+	}
+}
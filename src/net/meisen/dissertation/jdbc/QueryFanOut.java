@@ -0,0 +1,361 @@
+package net.meisen.dissertation.jdbc;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fan-out of independent queries executed concurrently (see
+ * {@link TidaConnection#fanOut(List)}). Each query is executed by its own
+ * {@code TidaStatement}, i.e. over its own (possibly reused) protocol. The
+ * amount of queries executed concurrently is limited (see
+ * {@link DriverProperties#getFanOutParallelism()}).<br/>
+ * <br/>
+ * The results can be retrieved in the order of the queries (see
+ * {@link #getResultSet(int)} and {@link #getResultSets()}), or in the order
+ * the queries complete (see {@link #nextCompleted()}). The fan-out must be
+ * closed to release the statements, the {@code ResultSet} instances are
+ * closed as well.
+ *
+ * @author pmeisen
+ *
+ */
+public class QueryFanOut implements AutoCloseable {
+	private static ExecutorService workers = null;
+
+	private final List<String> queries;
+	private final TidaStatement[] statements;
+	private final List<CompletableFuture<TidaResultSet>> futures;
+	private final BlockingQueue<Integer> completed;
+	private final AtomicInteger nextQuery;
+
+	private volatile boolean closed;
+	private int returned;
+
+	/**
+	 * Constructor to create and start a fan-out of the specified
+	 * {@code queries} executed by statements of the specified
+	 * {@code connection}.
+	 *
+	 * @param connection
+	 *            the connection to create the statements with
+	 * @param queries
+	 *            the queries to be executed
+	 * @param parallelism
+	 *            the maximal amount of queries executed concurrently, a value
+	 *            of {@code 0} or less to execute all the queries at once
+	 *
+	 * @throws SQLException
+	 *             if a statement cannot be created
+	 */
+	public QueryFanOut(final TidaConnection connection,
+			final List<String> queries, final int parallelism)
+			throws SQLException {
+		this.queries = Collections
+				.unmodifiableList(new ArrayList<String>(queries));
+
+		final int size = this.queries.size();
+		this.statements = new TidaStatement[size];
+		this.futures = new ArrayList<CompletableFuture<TidaResultSet>>(size);
+		this.completed = new LinkedBlockingQueue<Integer>();
+		this.nextQuery = new AtomicInteger();
+
+		this.closed = false;
+		this.returned = 0;
+
+		try {
+			for (int i = 0; i < size; i++) {
+				statements[i] = connection.createStatement();
+				futures.add(new CompletableFuture<TidaResultSet>());
+			}
+		} catch (final SQLException e) {
+
+			// none of the queries is executed, i.e. close must not wait
+			for (int i = 0; i < futures.size(); i++) {
+				futures.get(i).completeExceptionally(
+						TidaSqlExceptions.createException(1017,
+								this.queries.get(i)));
+			}
+
+			try {
+				close();
+			} catch (final SQLException closeException) {
+				e.addSuppressed(closeException);
+			}
+			throw e;
+		}
+
+		// start the workers, each one executes queries until none is left
+		final int amount = parallelism <= 0 ? size : Math.min(parallelism,
+				size);
+		for (int i = 0; i < amount; i++) {
+			getWorkers().execute(new Runnable() {
+
+				@Override
+				public void run() {
+					execute();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Gets the pool used to execute the queries of all the fan-outs.
+	 *
+	 * @return the pool used to execute the queries
+	 */
+	protected synchronized static ExecutorService getWorkers() {
+		if (workers == null) {
+			workers = Executors.newCachedThreadPool(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(final Runnable r) {
+					final Thread thread = new Thread(r, "tida-fan-out");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+
+		return workers;
+	}
+
+	/**
+	 * Executes the next queries, which are not executed so far.
+	 */
+	protected void execute() {
+		int idx;
+		while ((idx = nextQuery.getAndIncrement()) < queries.size()) {
+			final CompletableFuture<TidaResultSet> future = futures.get(idx);
+			final String query = queries.get(idx);
+
+			if (closed) {
+				future.completeExceptionally(TidaSqlExceptions
+						.createException(1017, query));
+			} else {
+				try {
+					future.complete(statements[idx].executeQuery(query));
+				} catch (final Throwable t) {
+					future.completeExceptionally(t);
+				}
+			}
+
+			completed.add(idx);
+		}
+	}
+
+	/**
+	 * Gets the amount of queries of {@code this}.
+	 *
+	 * @return the amount of queries
+	 */
+	public int size() {
+		return queries.size();
+	}
+
+	/**
+	 * Gets the query at the specified {@code index}.
+	 *
+	 * @param index
+	 *            the zero-based index of the query
+	 *
+	 * @return the query
+	 */
+	public String getQuery(final int index) {
+		return queries.get(index);
+	}
+
+	/**
+	 * Checks if the query at the specified {@code index} is completed, i.e.
+	 * if its result or its failure is available.
+	 *
+	 * @param index
+	 *            the zero-based index of the query
+	 *
+	 * @return {@code true} if the query is completed, otherwise {@code false}
+	 */
+	public boolean isCompleted(final int index) {
+		return futures.get(index).isDone();
+	}
+
+	/**
+	 * Gets the {@code ResultSet} of the query at the specified {@code index}.
+	 * The method waits until the query is completed.
+	 *
+	 * @param index
+	 *            the zero-based index of the query
+	 *
+	 * @return the {@code ResultSet} of the query
+	 *
+	 * @throws SQLException
+	 *             if the query failed, or the waiting was interrupted
+	 */
+	public TidaResultSet getResultSet(final int index) throws SQLException {
+		try {
+			return futures.get(index).get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw TidaSqlExceptions.createException(1016, e,
+					queries.get(index));
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof SQLException) {
+				throw (SQLException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new SQLException(cause);
+			}
+		}
+	}
+
+	/**
+	 * Gets the {@code ResultSet} instances of all the queries in the order of
+	 * the queries. The method waits until all the queries are completed.
+	 *
+	 * @return the {@code ResultSet} instances of all the queries
+	 *
+	 * @throws SQLException
+	 *             the failure of the first failed query, or if the waiting was
+	 *             interrupted
+	 */
+	public List<TidaResultSet> getResultSets() throws SQLException {
+		final List<TidaResultSet> resultSets = new ArrayList<TidaResultSet>(
+				size());
+		for (int i = 0; i < size(); i++) {
+			resultSets.add(getResultSet(i));
+		}
+
+		return resultSets;
+	}
+
+	/**
+	 * Gets the index of the next completed query, i.e. the queries are
+	 * returned in the order of their completion. The method waits until the
+	 * next query is completed. The result of the query can be retrieved using
+	 * {@link #getResultSet(int)} without any further waiting.
+	 *
+	 * @return the zero-based index of the next completed query, or {@code -1}
+	 *         if all queries were returned already
+	 *
+	 * @throws SQLException
+	 *             if the waiting was interrupted
+	 */
+	public synchronized int nextCompleted() throws SQLException {
+		if (returned >= size()) {
+			return -1;
+		}
+
+		try {
+			final int idx = completed.take();
+			returned++;
+
+			return idx;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw TidaSqlExceptions.createException(1016, e, "");
+		}
+	}
+
+	/**
+	 * Closes {@code this}, i.e. the queries not executed so far are not
+	 * executed anymore, running queries are cancelled, and all the
+	 * {@code ResultSet} instances and statements are closed. The protocols of
+	 * the statements are kept to be reused, if possible.
+	 *
+	 * @throws SQLException
+	 *             if a statement cannot be closed
+	 */
+	@Override
+	public void close() throws SQLException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		// cancel the running queries
+		for (int i = 0; i < futures.size(); i++) {
+			if (!futures.get(i).isDone()) {
+				statements[i].cancel();
+			}
+		}
+
+		SQLException exception = null;
+		for (int i = 0; i < statements.length; i++) {
+			if (statements[i] == null) {
+				continue;
+			}
+
+			try {
+
+				// wait for the query to be completed and close the result
+				if (i < futures.size()) {
+					final TidaResultSet rs = getCompleted(i);
+					if (rs != null) {
+						rs.close();
+					}
+				}
+
+				// keep the protocol to be reused and close the statement
+				statements[i].parkProtocol();
+				statements[i].close();
+			} catch (final SQLException e) {
+				if (exception == null) {
+					exception = e;
+				}
+			}
+		}
+
+		if (exception != null) {
+			throw exception;
+		}
+	}
+
+	/**
+	 * Waits for the completion of the query at the specified {@code index}.
+	 *
+	 * @param index
+	 *            the zero-based index of the query
+	 *
+	 * @return the {@code ResultSet} of the query, or {@code null} if the
+	 *         query failed
+	 */
+	protected TidaResultSet getCompleted(final int index) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return futures.get(index).get();
+				} catch (final InterruptedException e) {
+					interrupted = true;
+				} catch (final ExecutionException e) {
+					return null;
+				}
+			}
+		} finally {
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Checks if {@code this} is closed.
+	 *
+	 * @return {@code true} if {@code this} is closed, otherwise {@code false}
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+}
@@ -41,11 +41,12 @@ public class QueryResponseHandler implements IResponseHandler {
 	private TidaResultSetType expectedResultSetType;
 	private TidaResultSetType resultSetType;
 	private QueryStatus queryStatus;
+	private int creditWindow;
 
 	private DataType[] header;
 	private String[] headerNames;
 
-	private Integer[] generatedIds;
+	private int[] generatedIds;
 	private Integer countValue;
 
 	private Object[] lastResult;
@@ -478,7 +479,10 @@ public class QueryResponseHandler implements IResponseHandler {
 			throw new NullPointerException(
 					"The retrieved value cannot be null.");
 		} else if (ResponseType.INT_ARRAY.equals(type)) {
-			this.generatedIds = (Integer[]) value;
+			this.generatedIds = new int[value.length];
+			for (int i = 0; i < value.length; i++) {
+				this.generatedIds[i] = (Integer) value[i];
+			}
 		} else if (ResponseType.INT.equals(type)) {
 			this.countValue = (Integer) value[0];
 		} else if (ResponseType.RESULT.equals(type)) {
@@ -500,6 +504,16 @@ public class QueryResponseHandler implements IResponseHandler {
 				.equals(type));
 	}
 
+	@Override
+	public boolean handleInts(final ResponseType type, final int[] values) {
+		if (ResponseType.INT_ARRAY.equals(type)) {
+			this.generatedIds = values;
+			return true;
+		} else {
+			return IResponseHandler.super.handleInts(type, values);
+		}
+	}
+
 	/**
 	 * Method checks if the end-of-response was reached.
 	 * 
@@ -551,9 +565,10 @@ public class QueryResponseHandler implements IResponseHandler {
 	/**
 	 * Gets the generated identifiers received while handling.
 	 * 
-	 * @return the generated identifiers received
+	 * @return the generated identifiers received, or {@code null} if no
+	 *         identifiers were received
 	 */
-	public Integer[] getGeneratedIds() {
+	public int[] getGeneratedIds() {
 		return generatedIds;
 	}
 
@@ -576,6 +591,23 @@ public class QueryResponseHandler implements IResponseHandler {
 		this.queryStatus = queryStatus;
 	}
 
+	@Override
+	public int getCreditWindow() {
+		return creditWindow;
+	}
+
+	/**
+	 * Sets the amount of results the server may send ahead of the results
+	 * consumed by the handler.
+	 * 
+	 * @param creditWindow
+	 *            the amount of results the server may send ahead, {@code 0} or
+	 *            less to not flow-control the results
+	 */
+	public void setCreditWindow(final int creditWindow) {
+		this.creditWindow = creditWindow;
+	}
+
 	/**
 	 * Gets the retrieved count value of the handler.
 	 * 
@@ -0,0 +1,244 @@
+package net.meisen.dissertation.jdbc;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+import net.meisen.dissertation.jdbc.protocol.DataType;
+
+/**
+ * An encoder writing the rows of a result in a specific {@code ExportFormat}
+ * to an {@code OutputStream}. The rows are written as retrieved from the
+ * server (see {@link TidaResultSet#getLastResult()}), i.e. the values are
+ * formatted without any JDBC-getter. Dates are formatted like the
+ * {@code ResultSet} formats dates as string, i.e. using
+ * {@link #DATE_FORMAT} in UTC. Texts are encoded using UTF-8.<br/>
+ * <br/>
+ * An encoder is not thread-safe, concurrent encoders have to be used to
+ * encode rows concurrently. The encoder does not buffer, i.e. the
+ * {@code OutputStream} should be buffered.
+ *
+ * @author pmeisen
+ *
+ */
+public class ResultEncoder {
+
+	/**
+	 * The magic number introducing the {@link ExportFormat#BINARY} format,
+	 * i.e. {@code TIDA}.
+	 */
+	public static final int MAGIC = 0x54494441;
+	/**
+	 * The version of the {@link ExportFormat#BINARY} format.
+	 */
+	public static final byte VERSION = 1;
+	/**
+	 * The format used to export dates.
+	 */
+	public static final String DATE_FORMAT = "dd.MM.yyyy HH:mm:ss,SSS";
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final String LINE_BREAK_CSV = "\r\n";
+	private static final String LINE_BREAK_TSV = "\n";
+
+	private final ExportFormat format;
+	private final DataType[] types;
+	private final DataOutputStream out;
+
+	private final StringBuilder line;
+	private DateFormat dateFormat;
+
+	/**
+	 * Constructor to create an encoder writing rows of the specified
+	 * {@code types} to the specified {@code out}.
+	 *
+	 * @param format
+	 *            the format to write
+	 * @param types
+	 *            the types of the columns of the rows
+	 * @param out
+	 *            the stream to write to
+	 */
+	public ResultEncoder(final ExportFormat format, final DataType[] types,
+			final OutputStream out) {
+		this.format = format;
+		this.types = types;
+		this.out = out instanceof DataOutputStream ? (DataOutputStream) out
+				: new DataOutputStream(out);
+
+		this.line = new StringBuilder();
+		this.dateFormat = null;
+	}
+
+	/**
+	 * Writes the header, i.e. the names of the columns.
+	 *
+	 * @param names
+	 *            the names of the columns
+	 *
+	 * @throws IOException
+	 *             if the header cannot be written
+	 */
+	public void writeHeader(final String[] names) throws IOException {
+		if (format.isText()) {
+			line.setLength(0);
+			for (int i = 0; i < names.length; i++) {
+				if (i > 0) {
+					line.append(format.getSeparator());
+				}
+				appendText(names[i]);
+			}
+			writeLine();
+		} else {
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+			out.writeInt(types.length);
+			for (int i = 0; i < types.length; i++) {
+				out.writeByte(types[i].getId());
+				out.writeUTF(names[i] == null ? "" : names[i]);
+			}
+		}
+	}
+
+	/**
+	 * Writes the specified {@code row}.
+	 *
+	 * @param row
+	 *            the values of the row, in the order of the columns
+	 *
+	 * @throws IOException
+	 *             if the row cannot be written
+	 */
+	public void writeRow(final Object[] row) throws IOException {
+		if (format.isText()) {
+			line.setLength(0);
+			for (int i = 0; i < types.length; i++) {
+				if (i > 0) {
+					line.append(format.getSeparator());
+				}
+
+				final Object value = row[i];
+				if (value == null) {
+					// nothing to append
+				} else if (value instanceof Date) {
+					line.append(getDateFormat().format((Date) value));
+				} else if (value instanceof String) {
+					appendText((String) value);
+				} else {
+					line.append(value);
+				}
+			}
+			writeLine();
+		} else {
+			out.writeByte(1);
+			for (int i = 0; i < types.length; i++) {
+				types[i].write(out, row[i]);
+			}
+		}
+	}
+
+	/**
+	 * Writes the end of the rows, i.e. no further row can be written.
+	 *
+	 * @throws IOException
+	 *             if the end cannot be written
+	 */
+	public void writeEnd() throws IOException {
+		if (!format.isText()) {
+			out.writeByte(0);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Appends the specified {@code text} to the current line, the text is
+	 * quoted or escaped if needed.
+	 *
+	 * @param text
+	 *            the text to be appended
+	 */
+	protected void appendText(final String text) {
+		if (text == null) {
+			return;
+		}
+
+		final char separator = format.getSeparator();
+		if (ExportFormat.CSV.equals(format)) {
+			boolean quote = false;
+			for (int i = 0; i < text.length() && !quote; i++) {
+				final char c = text.charAt(i);
+				quote = c == separator || c == '"' || c == '\n' || c == '\r';
+			}
+
+			if (quote) {
+				line.append('"');
+				for (int i = 0; i < text.length(); i++) {
+					final char c = text.charAt(i);
+					if (c == '"') {
+						line.append('"');
+					}
+					line.append(c);
+				}
+				line.append('"');
+			} else {
+				line.append(text);
+			}
+		} else {
+			for (int i = 0; i < text.length(); i++) {
+				final char c = text.charAt(i);
+				if (c == '\t') {
+					line.append("\\t");
+				} else if (c == '\n') {
+					line.append("\\n");
+				} else if (c == '\r') {
+					line.append("\\r");
+				} else if (c == '\\') {
+					line.append("\\\\");
+				} else {
+					line.append(c);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the current line followed by a line-break.
+	 *
+	 * @throws IOException
+	 *             if the line cannot be written
+	 */
+	protected void writeLine() throws IOException {
+		line.append(ExportFormat.CSV.equals(format) ? LINE_BREAK_CSV
+				: LINE_BREAK_TSV);
+		out.write(line.toString().getBytes(UTF8));
+	}
+
+	/**
+	 * Gets the formatter used to format dates, the formatter is created when
+	 * needed the first time.
+	 *
+	 * @return the formatter used to format dates
+	 */
+	protected DateFormat getDateFormat() {
+		if (dateFormat == null) {
+			dateFormat = new SimpleDateFormat(DATE_FORMAT);
+			dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+		}
+
+		return dateFormat;
+	}
+
+	/**
+	 * Gets the format written by {@code this}.
+	 *
+	 * @return the format written
+	 */
+	public ExportFormat getFormat() {
+		return format;
+	}
+}
@@ -0,0 +1,273 @@
+package net.meisen.dissertation.jdbc;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import net.meisen.dissertation.jdbc.protocol.DataType;
+
+/**
+ * An exporter writing the rows of a {@code TidaResultSet} in a specific
+ * {@code ExportFormat} to an {@code OutputStream} (see
+ * {@link TidaStatement#export(String, OutputStream, ExportFormat)}). The
+ * decoded rows of the result (see {@link TidaResultSet#getLastResult()}) are
+ * passed to a {@code ResultEncoder} writing into a buffer, i.e. no
+ * JDBC-getter is called and no value is converted for a getter.<br/>
+ * <br/>
+ * The rows are encoded by the reading thread, or, if a parallelism is
+ * defined (see {@link DriverProperties#getExportParallelism()}), in batches
+ * of {@link #BATCH_SIZE} rows by a shared pool. The encoded batches are
+ * written in the order of the rows, the reading thread waits if too many
+ * batches are not written yet.
+ *
+ * @author pmeisen
+ *
+ */
+public class ResultExporter {
+
+	/**
+	 * The amount of rows encoded as one batch, if the rows are encoded
+	 * concurrently.
+	 */
+	public static final int BATCH_SIZE = 1024;
+	/**
+	 * The size of the buffer used to write to the {@code OutputStream}.
+	 */
+	public static final int BUFFER_SIZE = 65536;
+
+	private static ExecutorService encoders = null;
+
+	private final ExportFormat format;
+	private final int parallelism;
+
+	/**
+	 * Constructor to create an exporter writing the specified {@code format}.
+	 *
+	 * @param format
+	 *            the format to write
+	 * @param parallelism
+	 *            the amount of batches encoded concurrently, {@code 0} or
+	 *            less to encode the rows by the reading thread
+	 */
+	public ResultExporter(final ExportFormat format, final int parallelism) {
+		this.format = format;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Gets the pool used to encode the batches of all the exporters.
+	 *
+	 * @return the pool used to encode the batches
+	 */
+	protected synchronized static ExecutorService getEncoders() {
+		if (encoders == null) {
+			encoders = Executors.newCachedThreadPool(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(final Runnable r) {
+					final Thread thread = new Thread(r, "tida-export");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+
+		return encoders;
+	}
+
+	/**
+	 * Exports all the remaining rows of the specified {@code rs} to the
+	 * specified {@code out}. The {@code out} is flushed, but not closed.
+	 *
+	 * @param rs
+	 *            the {@code ResultSet} to be exported
+	 * @param out
+	 *            the stream to write to
+	 *
+	 * @return the amount of exported rows
+	 *
+	 * @throws SQLException
+	 *             if the rows cannot be retrieved
+	 * @throws IOException
+	 *             if the rows cannot be written
+	 */
+	public long export(final TidaResultSet rs, final OutputStream out)
+			throws SQLException, IOException {
+		final DataType[] types = rs.getHeaderTypes();
+		final String[] names = new String[types.length];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = rs.getHeaderLabel(i + 1);
+		}
+
+		final BufferedOutputStream buffer = new BufferedOutputStream(out,
+				BUFFER_SIZE);
+		final ResultEncoder encoder = new ResultEncoder(format, types, buffer);
+		encoder.writeHeader(names);
+
+		final long rows;
+		if (parallelism <= 0) {
+			long count = 0;
+			while (rs.next()) {
+				encoder.writeRow(rs.getLastResult());
+				count++;
+			}
+			rows = count;
+		} else {
+			rows = exportConcurrently(rs, types, buffer);
+		}
+
+		encoder.writeEnd();
+		return rows;
+	}
+
+	/**
+	 * Exports the rows of the specified {@code rs} by encoding batches of
+	 * rows concurrently.
+	 *
+	 * @param rs
+	 *            the {@code ResultSet} to be exported
+	 * @param types
+	 *            the types of the columns
+	 * @param out
+	 *            the stream to write the encoded batches to
+	 *
+	 * @return the amount of exported rows
+	 *
+	 * @throws SQLException
+	 *             if the rows cannot be retrieved
+	 * @throws IOException
+	 *             if the rows cannot be encoded or written
+	 */
+	protected long exportConcurrently(final TidaResultSet rs,
+			final DataType[] types, final OutputStream out)
+			throws SQLException, IOException {
+		final Deque<Future<byte[]>> pending = new ArrayDeque<Future<byte[]>>(
+				parallelism);
+
+		long rows = 0;
+		try {
+			List<Object[]> batch = new ArrayList<Object[]>(BATCH_SIZE);
+			while (rs.next()) {
+				batch.add(rs.getLastResult());
+				rows++;
+
+				if (batch.size() >= BATCH_SIZE) {
+					pending.add(encode(types, batch));
+					batch = new ArrayList<Object[]>(BATCH_SIZE);
+
+					// wait for the oldest batch, if too many are pending
+					if (pending.size() >= parallelism) {
+						out.write(get(pending.poll()));
+					}
+				}
+			}
+			if (batch.size() > 0) {
+				pending.add(encode(types, batch));
+			}
+
+			while (pending.size() > 0) {
+				out.write(get(pending.poll()));
+			}
+		} finally {
+			for (final Future<byte[]> future : pending) {
+				future.cancel(true);
+			}
+		}
+
+		return rows;
+	}
+
+	/**
+	 * Encodes the specified {@code batch} of rows using the shared pool.
+	 *
+	 * @param types
+	 *            the types of the columns
+	 * @param batch
+	 *            the rows to be encoded
+	 *
+	 * @return the future of the encoded rows
+	 */
+	protected Future<byte[]> encode(final DataType[] types,
+			final List<Object[]> batch) {
+		return getEncoders().submit(new Callable<byte[]>() {
+
+			@Override
+			public byte[] call() throws IOException {
+				final ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+						batch.size() * 16 * types.length);
+				final ResultEncoder encoder = new ResultEncoder(format, types,
+						bytes);
+				for (final Object[] row : batch) {
+					encoder.writeRow(row);
+				}
+
+				return bytes.toByteArray();
+			}
+		});
+	}
+
+	/**
+	 * Waits for the specified {@code future} of an encoded batch.
+	 *
+	 * @param future
+	 *            the future to wait for
+	 *
+	 * @return the encoded batch
+	 *
+	 * @throws IOException
+	 *             if the batch cannot be encoded, or the waiting was
+	 *             interrupted
+	 */
+	protected byte[] get(final Future<byte[]> future) throws IOException {
+		try {
+			return future.get();
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(
+					"Interrupted while waiting for an encoded batch.");
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			} else {
+				throw new IOException(cause);
+			}
+		}
+	}
+
+	/**
+	 * Gets the format written by {@code this}.
+	 *
+	 * @return the format written
+	 */
+	public ExportFormat getFormat() {
+		return format;
+	}
+
+	/**
+	 * Gets the amount of batches encoded concurrently.
+	 *
+	 * @return the amount of batches encoded concurrently, {@code 0} or less
+	 *         if the rows are encoded by the reading thread
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+}
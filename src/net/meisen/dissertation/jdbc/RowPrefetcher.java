@@ -0,0 +1,384 @@
+package net.meisen.dissertation.jdbc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import net.meisen.dissertation.jdbc.protocol.DataType;
+import net.meisen.dissertation.jdbc.protocol.IResponseHandler;
+import net.meisen.dissertation.jdbc.protocol.Protocol;
+import net.meisen.dissertation.jdbc.protocol.QueryStatus;
+import net.meisen.dissertation.jdbc.protocol.QueryType;
+import net.meisen.dissertation.jdbc.protocol.ResponseType;
+import net.meisen.dissertation.jdbc.protocol.WrappedException;
+
+/**
+ * Reader used to prefetch the results of a response in the background (see
+ * {@link DriverProperties#getPrefetchDepth()}). The results are read by a
+ * separate thread and put into a bounded ring, which is used by exactly one
+ * reading (i.e. the prefetching thread) and one consuming thread (i.e. the
+ * thread iterating the {@code ResultSet}). The positions of the ring are only
+ * written by one of the threads each, therefore no locking is needed. A
+ * thread waiting for a free slot or a result is parked until the other thread
+ * moved on, i.e. until half of the ring is free or filled again. A waiting
+ * consumer is woken up earlier, if the reading of the next result may block.
+ * A waiting producer checks periodically if the protocol was released (e.g.
+ * because the {@code ResultSet} was reclaimed without being closed), so that
+ * the prefetching thread is not parked forever.
+ *
+ * @author pmeisen
+ *
+ */
+public class RowPrefetcher implements Runnable, IResponseHandler {
+	private static final long MAX_WAIT = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long MAX_PRODUCER_WAIT = TimeUnit.MILLISECONDS
+			.toNanos(100);
+	private static ExecutorService readers = null;
+
+	private final Protocol protocol;
+	private final IResponseHandler handler;
+	private final DataType[] header;
+	private final long skipLimit;
+
+	private final Object[][] ring;
+	private final int threshold;
+	private volatile long head;
+	private volatile long tail;
+
+	private volatile Thread waitingConsumer;
+	private volatile Thread waitingProducer;
+
+	private volatile boolean closed;
+	private volatile boolean done;
+	private volatile boolean eor;
+	private volatile Throwable error;
+	private volatile long skipped;
+
+	private Object[] lastResult;
+
+	/**
+	 * Constructor to create a prefetcher reading the results of the current
+	 * response of the specified {@code protocol}. The header of the response
+	 * must be read already (i.e. must be known by the {@code handler}).
+	 *
+	 * @param protocol
+	 *            the protocol to read the results from
+	 * @param handler
+	 *            the handler knowing the header and used to retrieve any
+	 *            demanded resource
+	 * @param depth
+	 *            the maximal amount of results read ahead
+	 * @param skipLimit
+	 *            the maximal amount of bytes skipped if the prefetcher is
+	 *            closed prior to the end of the response (see
+	 *            {@link Protocol#skipResponse(IResponseHandler, long)})
+	 */
+	public RowPrefetcher(final Protocol protocol,
+			final IResponseHandler handler, final int depth,
+			final long skipLimit) {
+		if (depth < 1) {
+			throw new IllegalArgumentException(
+					"The depth of the prefetcher must be positive.");
+		}
+
+		this.protocol = protocol;
+		this.handler = handler;
+		this.header = handler.getHeader();
+		this.skipLimit = skipLimit;
+
+		this.ring = new Object[depth][];
+		this.threshold = Math.max(1, depth / 2);
+		this.head = 0;
+		this.tail = 0;
+
+		this.closed = false;
+		this.done = false;
+		this.eor = false;
+		this.error = null;
+		this.skipped = 0;
+	}
+
+	/**
+	 * Starts the prefetching using a shared pool of daemon threads.
+	 */
+	public void start() {
+		getReaders().execute(this);
+	}
+
+	/**
+	 * Gets the pool used to run the prefetching of all the result-sets.
+	 *
+	 * @return the pool used to run the prefetching
+	 */
+	protected synchronized static ExecutorService getReaders() {
+		if (readers == null) {
+			readers = Executors.newCachedThreadPool(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(final Runnable r) {
+					final Thread thread = new Thread(r, "tida-prefetch");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+
+		return readers;
+	}
+
+	@Override
+	public void run() {
+		try {
+			while (!closed) {
+				lastResult = null;
+				if (protocol.handleResponse(this)) {
+					eor = true;
+					break;
+				} else if (lastResult != null) {
+					put(lastResult);
+				}
+			}
+
+			// skip anything not read so far
+			if (!eor) {
+				skipped = protocol.skipResponse(this, skipLimit);
+			}
+		} catch (final Throwable t) {
+			error = t;
+		} finally {
+			done = true;
+
+			final Thread consumer = waitingConsumer;
+			if (consumer != null) {
+				LockSupport.unpark(consumer);
+			}
+		}
+	}
+
+	/**
+	 * Puts the specified {@code result} into the ring. The method waits as
+	 * long as the ring is full, unless {@code this} is closed or the protocol
+	 * is released (i.e. the protocol is not used for the communication
+	 * anymore).
+	 *
+	 * @param result
+	 *            the result to be added
+	 */
+	protected void put(final Object[] result) {
+		final long pos = tail;
+		while (pos - head >= ring.length) {
+			waitingProducer = Thread.currentThread();
+			if (closed || !protocol.isInCommunication()) {
+				waitingProducer = null;
+				return;
+			} else if (pos - head >= ring.length) {
+
+				// nobody wakes up the producer if the consumer is gone
+				LockSupport.parkNanos(this, MAX_PRODUCER_WAIT);
+			}
+			waitingProducer = null;
+		}
+
+		ring[(int) (pos % ring.length)] = result;
+		tail = pos + 1;
+
+		/*
+		 * Wake up a waiting consumer if enough results are available or if
+		 * the next read may block.
+		 */
+		final Thread consumer = waitingConsumer;
+		if (consumer != null
+				&& (pos + 1 - head >= threshold || !isDataAvailable())) {
+			LockSupport.unpark(consumer);
+		}
+	}
+
+	/**
+	 * Checks if the next result can be read without blocking.
+	 *
+	 * @return {@code true} if the next result can be read without blocking,
+	 *         otherwise {@code false}
+	 */
+	protected boolean isDataAvailable() {
+		try {
+			return protocol.isDataAvailable();
+		} catch (final IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Takes the next result from the ring. The method waits as long as no
+	 * result is available and the end of the response is not reached.
+	 *
+	 * @return the next result, or {@code null} if the end of the response was
+	 *         reached
+	 *
+	 * @throws SQLException
+	 *             if the reading of the results failed
+	 */
+	public Object[] take() throws SQLException {
+		final long pos = head;
+		while (pos == tail) {
+			if (done) {
+
+				// the last result may be added prior to finishing
+				if (pos != tail) {
+					break;
+				}
+				checkError();
+				return null;
+			}
+
+			/*
+			 * The producer may not wake up the consumer for every result,
+			 * therefore the waiting is limited and the ring checked again.
+			 */
+			waitingConsumer = Thread.currentThread();
+			if (pos == tail && !done) {
+				LockSupport.parkNanos(this, MAX_WAIT);
+			}
+			waitingConsumer = null;
+		}
+
+		final int idx = (int) (pos % ring.length);
+		final Object[] result = ring[idx];
+		ring[idx] = null;
+		head = pos + 1;
+
+		// wake up a waiting producer if enough slots are free again
+		final Thread producer = waitingProducer;
+		if (producer != null && ring.length - (tail - head) >= threshold) {
+			LockSupport.unpark(producer);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Closes {@code this}, i.e. the current response is cancelled and the
+	 * prefetching thread skips the remaining response. The method waits until
+	 * the prefetching ended.
+	 *
+	 * @return the amount of bytes skipped, or {@code -1} if more bytes than
+	 *         allowed had to be skipped, i.e. the protocol cannot be used
+	 *         anymore
+	 */
+	public long close() {
+		closed = true;
+
+		// let the other side end the response as fast as possible
+		try {
+			protocol.cancel();
+		} catch (final IOException e) {
+			// ignore, the reading will fail as well
+		}
+
+		final Thread producer = waitingProducer;
+		if (producer != null) {
+			LockSupport.unpark(producer);
+		}
+
+		// wait for the reader to finish
+		boolean interrupted = false;
+		while (!done) {
+			waitingConsumer = Thread.currentThread();
+			if (!done) {
+				LockSupport.park(this);
+				interrupted |= Thread.interrupted();
+			}
+			waitingConsumer = null;
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+
+		// release the prefetched results
+		for (int i = 0; i < ring.length; i++) {
+			ring[i] = null;
+		}
+
+		return error == null ? skipped : 0;
+	}
+
+	/**
+	 * Checks if an error occurred while reading, if so the error is thrown.
+	 *
+	 * @throws SQLException
+	 *             the error as {@code SQLException}
+	 */
+	protected void checkError() throws SQLException {
+		final Throwable t = error;
+		if (t == null) {
+			return;
+		} else if (t instanceof IOException || t instanceof WrappedException) {
+			throw TidaSqlExceptions.createException(9007, t.getMessage());
+		} else if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		} else if (t instanceof Error) {
+			throw (Error) t;
+		} else {
+			throw TidaSqlExceptions.createException(9007, t.getMessage());
+		}
+	}
+
+	/**
+	 * Checks if the end of the response was read by the prefetching thread.
+	 * Results may still be available within the ring.
+	 *
+	 * @return {@code true} if the end was read, otherwise {@code false}
+	 */
+	public boolean isEOR() {
+		return eor;
+	}
+
+	/**
+	 * Gets the amount of results currently available within the ring.
+	 *
+	 * @return the amount of results available
+	 */
+	public int available() {
+		return (int) (tail - head);
+	}
+
+	@Override
+	public QueryStatus doHandleQueryType(final QueryType queryType) {
+		throw new IllegalStateException(
+				"The prefetcher cannot be used to fire a query.");
+	}
+
+	@Override
+	public InputStream getResourceStream(final String resource) {
+		return handler.getResourceStream(resource);
+	}
+
+	@Override
+	public boolean handleResult(final ResponseType type, final Object[] value) {
+		if (ResponseType.RESULT.equals(type)) {
+			lastResult = value;
+			return false;
+		} else {
+			return true;
+		}
+	}
+
+	@Override
+	public DataType[] getHeader() {
+		return header;
+	}
+
+	@Override
+	public void signalEORReached() {
+		// the end is marked by the reading thread
+	}
+
+	@Override
+	public void resetHandler() {
+		// nothing to reset
+	}
+}
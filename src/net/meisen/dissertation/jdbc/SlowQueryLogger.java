@@ -0,0 +1,167 @@
+package net.meisen.dissertation.jdbc;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An {@code IStatementListener} logging any statement exceeding a specified
+ * threshold. The logger is added to each connection for which the
+ * {@link DriverProperties#PROPERTY_SLOWQUERYTHRESHOLD} is set to a
+ * non-negative value. To reduce the amount of log-entries under load, the
+ * {@link DriverProperties#PROPERTY_SLOWQUERYSAMPLING} can be used to log only
+ * a sample of the slow statements.
+ *
+ * The entries are logged using the {@code java.util.logging} logger named
+ * like {@code this} class.
+ *
+ * @author pmeisen
+ *
+ */
+public class SlowQueryLogger implements IStatementListener {
+	/**
+	 * The maximal length of the logged sql, longer statements are cut.
+	 */
+	public static final int MAX_SQL_LENGTH = 1000;
+
+	private final static Logger LOG = Logger.getLogger(SlowQueryLogger.class
+			.getName());
+
+	private final long thresholdInMs;
+	private final double sampling;
+
+	private final AtomicLong logged;
+	private final AtomicLong suppressed;
+
+	/**
+	 * Constructor using the threshold and the sampling defined by the
+	 * specified {@code DriverProperties}.
+	 *
+	 * @param driverProperties
+	 *            the properties to read the threshold and sampling from
+	 */
+	public SlowQueryLogger(final DriverProperties driverProperties) {
+		this(driverProperties.getSlowQueryThreshold(), driverProperties
+				.getSlowQuerySampling());
+	}
+
+	/**
+	 * Constructor specifying the {@code thresholdInMs} and the
+	 * {@code sampling}.
+	 *
+	 * @param thresholdInMs
+	 *            the threshold in milliseconds, a statement needing at least
+	 *            the specified time is logged
+	 * @param sampling
+	 *            the probability (0.0 - 1.0) of a slow statement to be logged
+	 */
+	public SlowQueryLogger(final long thresholdInMs, final double sampling) {
+		this.thresholdInMs = Math.max(0, thresholdInMs);
+		this.sampling = Math.max(0.0, Math.min(1.0, sampling));
+
+		this.logged = new AtomicLong(0);
+		this.suppressed = new AtomicLong(0);
+	}
+
+	@Override
+	public void beforeExecute(final QueryEvent event) {
+		// nothing to do
+	}
+
+	@Override
+	public void firstRow(final QueryEvent event) {
+		// nothing to do
+	}
+
+	@Override
+	public void endOfResponse(final QueryEvent event) {
+		log(event, "Slow query", null);
+	}
+
+	@Override
+	public void error(final QueryEvent event, final SQLException exception) {
+		log(event, "Slow failed query", exception);
+	}
+
+	@Override
+	public void cancel(final QueryEvent event) {
+		log(event, "Slow cancelled query", null);
+	}
+
+	/**
+	 * Logs the specified {@code event} if the threshold is reached and the
+	 * event is part of the sample.
+	 *
+	 * @param event
+	 *            the event to be logged
+	 * @param prefix
+	 *            the prefix of the message
+	 * @param exception
+	 *            the exception to be logged, can be {@code null}
+	 *
+	 * @return {@code true} if the event was logged, otherwise {@code false}
+	 */
+	protected boolean log(final QueryEvent event, final String prefix,
+			final Throwable exception) {
+		final long elapsed = event.getElapsedTime();
+		if (elapsed < thresholdInMs) {
+			return false;
+		} else if (sampling < 1.0
+				&& ThreadLocalRandom.current().nextDouble() >= sampling) {
+			suppressed.incrementAndGet();
+			return false;
+		} else if (!LOG.isLoggable(Level.WARNING)) {
+			return false;
+		}
+
+		final String sql = event.getSql();
+		final String msg = prefix + " (" + elapsed + " ms, first row after "
+				+ event.getTimeToFirstRow() + " ms, " + event.getRows()
+				+ " rows, " + event.getBytesRead() + " bytes read, "
+				+ event.getBytesWritten() + " bytes written): "
+				+ (sql == null || sql.length() <= MAX_SQL_LENGTH ? sql
+						: sql.substring(0, MAX_SQL_LENGTH) + "...");
+		LOG.log(Level.WARNING, msg, exception);
+		logged.incrementAndGet();
+
+		return true;
+	}
+
+	/**
+	 * Gets the threshold in milliseconds.
+	 *
+	 * @return the threshold in milliseconds
+	 */
+	public long getThresholdInMs() {
+		return thresholdInMs;
+	}
+
+	/**
+	 * Gets the sampling rate.
+	 *
+	 * @return the sampling rate
+	 */
+	public double getSampling() {
+		return sampling;
+	}
+
+	/**
+	 * Gets the amount of logged statements.
+	 *
+	 * @return the amount of logged statements
+	 */
+	public long getLogged() {
+		return logged.get();
+	}
+
+	/**
+	 * Gets the amount of slow statements not logged because of the sampling.
+	 *
+	 * @return the amount of slow statements not logged because of the sampling
+	 */
+	public long getSuppressed() {
+		return suppressed.get();
+	}
+}
@@ -0,0 +1,1845 @@
+package net.meisen.dissertation.jdbc;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Map;
+import java.util.TimeZone;
+
+import net.meisen.dissertation.jdbc.protocol.DataType;
+
+/**
+ * A read-only, scrollable {@code ResultSet} iterating the rows of a
+ * {@code TidaSnapshot} (see {@link TidaSnapshot#createResultSet()}). The
+ * values are read from the mapped columns of the snapshot when retrieved,
+ * i.e. primitive values are not boxed. The values are converted like the
+ * values of a {@code TidaResultSet}, e.g. dates are formatted as string
+ * using {@code dd.MM.yyyy HH:mm:ss,SSS} in UTC.
+ *
+ * @author pmeisen
+ */
+public class SnapshotResultSet extends BaseWrapper implements ResultSet {
+
+    private final TidaSnapshot snapshot;
+    private final int rows;
+
+    private boolean closed;
+    private boolean wasNull;
+    private int curPosition;
+    private DateFormat dateFormat;
+
+    /**
+     * Constructor to create the {@code ResultSet} for the specified
+     * {@code snapshot}.
+     *
+     * @param snapshot the snapshot to iterate
+     */
+    public SnapshotResultSet(final TidaSnapshot snapshot) {
+        this.snapshot = snapshot;
+        this.rows = snapshot.getRows();
+
+        this.closed = false;
+        this.wasNull = false;
+        this.curPosition = -1;
+        this.dateFormat = null;
+    }
+
+    /**
+     * Gets the snapshot iterated by {@code this}.
+     *
+     * @return the snapshot iterated
+     */
+    public TidaSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Checks if the {@code ResultSet} is closed and throws an exception if so.
+     *
+     * @throws SQLException if the {@code ResultSet} or the snapshot is closed
+     */
+    protected void checkClosed() throws SQLException {
+        if (closed || snapshot.isClosed()) {
+            throw TidaSqlExceptions.createException(10998);
+        }
+    }
+
+    /**
+     * Checks if the {@code ResultSet} has a column with the specified index.
+     *
+     * @param columnIndex the index to be checked
+     * @throws SQLException if the {@code ResultSet} does not have a column with the
+     *                      specified {@code columnIndex}.
+     */
+    protected void checkColumnIndex(final int columnIndex) throws SQLException {
+        if (columnIndex < 1 || columnIndex > snapshot.getColumnCount()) {
+            throw TidaSqlExceptions.createException(10000, ""
+                    + snapshot.getColumnCount());
+        }
+    }
+
+    /**
+     * Checks if the {@code ResultSet} has a column with the specified label.
+     *
+     * @param columnLabel the label to be checked
+     * @throws SQLException if the {@code ResultSet} does not have a column with the
+     *                      specified {@code columnLabel}.
+     */
+    protected void checkColumnLabel(final String columnLabel)
+            throws SQLException {
+        if (getColumnIndex(columnLabel) == -1) {
+            throw TidaSqlExceptions.createException(10002, columnLabel,
+                    Arrays.asList(snapshot.getNames()).toString());
+        }
+    }
+
+    /**
+     * Gets the index of the column with the specified {@code label}.
+     *
+     * @param columnLabel the label to get the index for
+     * @return the index of the column with the specified label, {@code -1} is
+     * returned if the label cannot be found
+     */
+    protected int getColumnIndex(final String columnLabel) {
+        final int column = snapshot.findColumn(columnLabel);
+        return column == -1 ? -1 : column + 1;
+    }
+
+    /**
+     * Gets the zero-based column of the snapshot for the specified
+     * {@code columnIndex} of the current row. The method also checks if the
+     * value is {@code null} (see {@link #wasNull()}).
+     *
+     * @param columnIndex the index of the column
+     * @return the zero-based column of the snapshot
+     * @throws SQLException if {@code this} is closed, the {@code columnIndex} is
+     *                      invalid, or if there is no current row
+     */
+    protected int getColumn(final int columnIndex) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        if (curPosition < 0 || curPosition >= rows) {
+            throw TidaSqlExceptions.createException(10001, ""
+                    + (curPosition + 1), "" + rows);
+        }
+
+        final int column = columnIndex - 1;
+        wasNull = snapshot.isNull(column, curPosition);
+
+        return column;
+    }
+
+    /**
+     * Creates the exception thrown if the value of the specified
+     * {@code column} cannot be retrieved as the specified {@code clazz}.
+     *
+     * @param column the zero-based column of the snapshot
+     * @param clazz  the requested type
+     * @return the created exception
+     */
+    protected SQLException createTypeException(final int column,
+                                               final Class<?> clazz) {
+        return TidaSqlExceptions.createException(10006, ""
+                + snapshot.getType(column), "" + (column + 1), clazz.getName());
+    }
+
+    /**
+     * Gets the integer value of the specified {@code column} of the current
+     * row, floating-point values are truncated.
+     *
+     * @param column the zero-based column of the snapshot
+     * @param clazz  the requested type used for a failure
+     * @return the value, {@code 0} if the value is {@code null}
+     * @throws SQLException if the column is not numeric
+     */
+    protected long getIntegerValue(final int column, final Class<?> clazz)
+            throws SQLException {
+        final DataType type = snapshot.getType(column);
+
+        if (type.isInteger()) {
+            return snapshot.getLong(column, curPosition);
+        } else if (DataType.DOUBLE.equals(type)) {
+            return (long) snapshot.getDouble(column, curPosition);
+        } else {
+            throw createTypeException(column, clazz);
+        }
+    }
+
+    /**
+     * Gets the floating-point value of the specified {@code column} of the
+     * current row.
+     *
+     * @param column the zero-based column of the snapshot
+     * @param clazz  the requested type used for a failure
+     * @return the value, {@code 0} if the value is {@code null}
+     * @throws SQLException if the column is not numeric
+     */
+    protected double getDoubleValue(final int column, final Class<?> clazz)
+            throws SQLException {
+        final DataType type = snapshot.getType(column);
+
+        if (type.isInteger() || DataType.DOUBLE.equals(type)) {
+            return snapshot.getDouble(column, curPosition);
+        } else {
+            throw createTypeException(column, clazz);
+        }
+    }
+
+    /**
+     * Gets the milliseconds of the {@link DataType#DATE} value of the
+     * specified {@code column} of the current row.
+     *
+     * @param column the zero-based column of the snapshot
+     * @param clazz  the requested type used for a failure
+     * @return the milliseconds, {@code -1} if the value is {@code null}
+     * @throws SQLException if the column is not a date
+     */
+    protected long getTimeValue(final int column, final Class<?> clazz)
+            throws SQLException {
+        if (!DataType.DATE.equals(snapshot.getType(column))) {
+            throw createTypeException(column, clazz);
+        }
+
+        return wasNull ? -1 : snapshot.getLong(column, curPosition);
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+        checkClosed();
+
+        if (curPosition < rows) {
+            curPosition++;
+        }
+        return curPosition < rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        this.closed = true;
+    }
+
+    @Override
+    public boolean wasNull() throws SQLException {
+        checkClosed();
+
+        return wasNull;
+    }
+
+    @Override
+    public String getString(final int columnIndex) throws SQLException {
+        final int column = getColumn(columnIndex);
+
+        if (wasNull) {
+            return null;
+        }
+
+        switch (snapshot.getType(column)) {
+            case STRING:
+                return snapshot.getString(column, curPosition);
+            case DATE:
+                if (dateFormat == null) {
+                    dateFormat = new SimpleDateFormat("dd.MM.yyyy HH:mm:ss,SSS");
+                    dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+                }
+                return dateFormat.format(new java.util.Date(snapshot.getLong(
+                        column, curPosition)));
+            case DOUBLE:
+                return Double.toString(snapshot.getDouble(column, curPosition));
+            default:
+                return Long.toString(snapshot.getLong(column, curPosition));
+        }
+    }
+
+    @Override
+    public boolean getBoolean(final int columnIndex) throws SQLException {
+        final int column = getColumn(columnIndex);
+
+        return getIntegerValue(column, Boolean.class) != 0;
+    }
+
+    @Override
+    public byte getByte(final int columnIndex) throws SQLException {
+        final int column = getColumn(columnIndex);
+
+        return (byte) getIntegerValue(column, Byte.class);
+    }
+
+    @Override
+    public short getShort(final int columnIndex) throws SQLException {
+        final int column = getColumn(columnIndex);
+
+        return (short) getIntegerValue(column, Short.class);
+    }
+
+    @Override
+    public int getInt(final int columnIndex) throws SQLException {
+        final int column = getColumn(columnIndex);
+
+        return (int) getIntegerValue(column, Integer.class);
+    }
+
+    @Override
+    public long getLong(final int columnIndex) throws SQLException {
+        final int column = getColumn(columnIndex);
+
+        return getIntegerValue(column, Long.class);
+    }
+
+    @Override
+    public float getFloat(final int columnIndex) throws SQLException {
+        final int column = getColumn(columnIndex);
+
+        return (float) getDoubleValue(column, Float.class);
+    }
+
+    @Override
+    public double getDouble(final int columnIndex) throws SQLException {
+        final int column = getColumn(columnIndex);
+
+        return getDoubleValue(column, Double.class);
+    }
+
+    @Override
+    @Deprecated
+    public BigDecimal getBigDecimal(final int columnIndex, final int scale)
+            throws SQLException {
+        final BigDecimal value = getBigDecimal(columnIndex);
+
+        return value == null ? null : value.setScale(scale,
+                RoundingMode.HALF_UP);
+    }
+
+    @Override
+    public byte[] getBytes(final int columnIndex) throws SQLException {
+        getColumn(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10999);
+    }
+
+    @Override
+    public Date getDate(final int columnIndex) throws SQLException {
+        final long time = getTimeValue(getColumn(columnIndex), Date.class);
+
+        return wasNull ? null : new Date(time);
+    }
+
+    @Override
+    public Time getTime(final int columnIndex) throws SQLException {
+        final long time = getTimeValue(getColumn(columnIndex), Time.class);
+
+        return wasNull ? null : new Time(time);
+    }
+
+    @Override
+    public Timestamp getTimestamp(final int columnIndex) throws SQLException {
+        final long time = getTimeValue(getColumn(columnIndex),
+                Timestamp.class);
+
+        return wasNull ? null : new Timestamp(time);
+    }
+
+    @Override
+    public InputStream getAsciiStream(final int columnIndex)
+            throws SQLException {
+        getColumn(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10999);
+    }
+
+    @Override
+    @Deprecated
+    public InputStream getUnicodeStream(final int columnIndex)
+            throws SQLException {
+        getColumn(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10999);
+    }
+
+    @Override
+    public InputStream getBinaryStream(final int columnIndex)
+            throws SQLException {
+        getColumn(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10999);
+    }
+
+    @Override
+    public String getString(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getString(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public boolean getBoolean(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getBoolean(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public byte getByte(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getByte(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public short getShort(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getShort(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public int getInt(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getInt(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public long getLong(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getLong(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public float getFloat(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getFloat(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public double getDouble(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getDouble(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    @Deprecated
+    public BigDecimal getBigDecimal(final String columnLabel, final int scale)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getBigDecimal(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public byte[] getBytes(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getBytes(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public Date getDate(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getDate(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public Time getTime(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getTime(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public Timestamp getTimestamp(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getTimestamp(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public InputStream getAsciiStream(final String columnLabel)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getAsciiStream(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    @Deprecated
+    public InputStream getUnicodeStream(final String columnLabel)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        //noinspection deprecation
+        return getUnicodeStream(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public InputStream getBinaryStream(final String columnLabel)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getBinaryStream(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        checkClosed();
+
+        return null;
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        checkClosed();
+    }
+
+    @Override
+    public String getCursorName() throws SQLException {
+        checkClosed();
+
+        return "" + curPosition;
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        checkClosed();
+
+        return new TidaResultSetMetaData(snapshot.getNames(),
+                snapshot.getTypes());
+    }
+
+    @Override
+    public Object getObject(final int columnIndex) throws SQLException {
+        final int column = getColumn(columnIndex);
+
+        return snapshot.getValue(column, curPosition);
+    }
+
+    @Override
+    public Object getObject(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getObject(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getObject(final int columnIndex, final Class<T> type) throws SQLException {
+        final int column = getColumn(columnIndex);
+
+        final Object value;
+        if (Object.class.equals(type)
+                || snapshot.getType(column).isClass(type)) {
+            value = snapshot.getValue(column, curPosition);
+        } else if (String.class.equals(type)) {
+            value = getString(columnIndex);
+        } else if (Byte.class.equals(type)) {
+            value = getByte(columnIndex);
+        } else if (Short.class.equals(type)) {
+            value = getShort(columnIndex);
+        } else if (Integer.class.equals(type)) {
+            value = getInt(columnIndex);
+        } else if (Long.class.equals(type)) {
+            value = getLong(columnIndex);
+        } else if (Float.class.equals(type)) {
+            value = getFloat(columnIndex);
+        } else if (Double.class.equals(type)) {
+            value = getDouble(columnIndex);
+        } else if (Boolean.class.equals(type)) {
+            value = getBoolean(columnIndex);
+        } else if (BigDecimal.class.equals(type)) {
+            value = getBigDecimal(columnIndex);
+        } else if (Timestamp.class.equals(type)) {
+            value = getTimestamp(columnIndex);
+        } else if (Date.class.equals(type)) {
+            value = getDate(columnIndex);
+        } else if (Time.class.equals(type)) {
+            value = getTime(columnIndex);
+        } else {
+            throw createTypeException(column, type);
+        }
+
+        return wasNull ? null : (T) value;
+    }
+
+    @Override
+    public <T> T getObject(final String columnLabel, final Class<T> type) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getObject(getColumnIndex(columnLabel), type);
+    }
+
+    @Override
+    public int findColumn(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getColumnIndex(columnLabel);
+    }
+
+    @Override
+    public Reader getCharacterStream(final int columnIndex) throws SQLException {
+        getColumn(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10999);
+    }
+
+    @Override
+    public Reader getCharacterStream(final String columnLabel)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getCharacterStream(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(final int columnIndex) throws SQLException {
+        final int column = getColumn(columnIndex);
+
+        if (DataType.DOUBLE.equals(snapshot.getType(column))) {
+            final double value = getDoubleValue(column, BigDecimal.class);
+            return wasNull ? null : BigDecimal.valueOf(value);
+        } else {
+            final long value = getIntegerValue(column, BigDecimal.class);
+            return wasNull ? null : BigDecimal.valueOf(value);
+        }
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(final String columnLabel)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getBigDecimal(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public boolean isBeforeFirst() throws SQLException {
+        checkClosed();
+
+        return curPosition == -1 && rows > 0;
+    }
+
+    @Override
+    public boolean isAfterLast() throws SQLException {
+        checkClosed();
+
+        return curPosition >= rows && rows > 0;
+    }
+
+    @Override
+    public boolean isFirst() throws SQLException {
+        checkClosed();
+
+        return curPosition == 0 && rows > 0;
+    }
+
+    @Override
+    public boolean isLast() throws SQLException {
+        checkClosed();
+
+        return curPosition == rows - 1;
+    }
+
+    @Override
+    public void beforeFirst() throws SQLException {
+        checkClosed();
+
+        curPosition = -1;
+    }
+
+    @Override
+    public void afterLast() throws SQLException {
+        checkClosed();
+
+        curPosition = rows;
+    }
+
+    @Override
+    public boolean first() throws SQLException {
+        return absolute(1);
+    }
+
+    @Override
+    public boolean last() throws SQLException {
+        return absolute(-1);
+    }
+
+    @Override
+    public int getRow() throws SQLException {
+        checkClosed();
+
+        return curPosition >= 0 && curPosition < rows ? curPosition + 1 : 0;
+    }
+
+    @Override
+    public boolean absolute(final int row) throws SQLException {
+        checkClosed();
+
+        final long position;
+        if (row < 0) {
+            position = (long) rows + row;
+        } else {
+            position = row - 1L;
+        }
+
+        return moveTo(position);
+    }
+
+    @Override
+    public boolean relative(final int rows) throws SQLException {
+        checkClosed();
+
+        return moveTo((long) curPosition + rows);
+    }
+
+    @Override
+    public boolean previous() throws SQLException {
+        return relative(-1);
+    }
+
+    /**
+     * Moves the cursor to the specified zero-based {@code position}, a
+     * position prior to the first row moves the cursor before the first row,
+     * a position after the last row moves the cursor after the last row.
+     *
+     * @param position the zero-based position to move to
+     * @return {@code true} if the cursor is on a row, otherwise {@code false}
+     */
+    protected boolean moveTo(final long position) {
+        if (position < 0) {
+            curPosition = -1;
+            return false;
+        } else if (position >= rows) {
+            curPosition = rows;
+            return false;
+        } else {
+            curPosition = (int) position;
+            return true;
+        }
+    }
+
+    @Override
+    public void setFetchDirection(final int direction) throws SQLException {
+        if (direction != ResultSet.FETCH_FORWARD) {
+            throw TidaSqlExceptions.createNotSupportedException(10003);
+        }
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return ResultSet.FETCH_FORWARD;
+    }
+
+    @Override
+    public void setFetchSize(final int rows) throws SQLException {
+        checkClosed();
+        // ignore
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        checkClosed();
+
+        return 1;
+    }
+
+    @Override
+    public int getType() throws SQLException {
+        checkClosed();
+
+        return ResultSet.TYPE_SCROLL_INSENSITIVE;
+    }
+
+    @Override
+    public int getConcurrency() throws SQLException {
+        checkClosed();
+
+        return ResultSet.CONCUR_READ_ONLY;
+    }
+
+    @Override
+    public boolean rowUpdated() throws SQLException {
+        checkClosed();
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public boolean rowInserted() throws SQLException {
+        checkClosed();
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public boolean rowDeleted() throws SQLException {
+        checkClosed();
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateNull(final int columnIndex) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBoolean(final int columnIndex, final boolean x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateByte(final int columnIndex, final byte x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateShort(final int columnIndex, final short x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateInt(final int columnIndex, final int x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateLong(final int columnIndex, final long x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateFloat(final int columnIndex, final float x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateDouble(final int columnIndex, final double x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBigDecimal(final int columnIndex, final BigDecimal x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateString(final int columnIndex, final String x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBytes(final int columnIndex, final byte[] x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateDate(final int columnIndex, final Date x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateTime(final int columnIndex, final Time x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateTimestamp(final int columnIndex, Timestamp x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateAsciiStream(final int columnIndex, final InputStream x,
+                                  int length) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBinaryStream(final int columnIndex, final InputStream x,
+                                   int length) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateCharacterStream(final int columnIndex, Reader x,
+                                      int length) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateObject(final int columnIndex, final Object x,
+                             final int scaleOrLength) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateObject(final int columnIndex, final Object x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateNull(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBoolean(final String columnLabel, final boolean x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateByte(final String columnLabel, final byte x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateShort(final String columnLabel, final short x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateInt(final String columnLabel, final int x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateLong(final String columnLabel, final long x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateFloat(final String columnLabel, final float x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateDouble(final String columnLabel, final double x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBigDecimal(final String columnLabel, final BigDecimal x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateString(final String columnLabel, final String x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBytes(final String columnLabel, final byte[] x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateDate(final String columnLabel, final Date x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateTime(final String columnLabel, final Time x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateTimestamp(final String columnLabel, final Timestamp x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateAsciiStream(final String columnLabel,
+                                  final InputStream x, final int length) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBinaryStream(final String columnLabel,
+                                   final InputStream x, final int length) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateCharacterStream(final String columnLabel,
+                                      final Reader reader, final int length) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateObject(final String columnLabel, final Object x,
+                             final int scaleOrLength) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateObject(final String columnLabel, final Object x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void insertRow() throws SQLException {
+        checkClosed();
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateRow() throws SQLException {
+        checkClosed();
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void deleteRow() throws SQLException {
+        checkClosed();
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void refreshRow() throws SQLException {
+        checkClosed();
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void cancelRowUpdates() throws SQLException {
+        checkClosed();
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void moveToInsertRow() throws SQLException {
+        checkClosed();
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void moveToCurrentRow() throws SQLException {
+        checkClosed();
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public Statement getStatement() throws SQLException {
+        return null;
+    }
+
+    @Override
+    public Object getObject(final int columnIndex,
+                            final Map<String, Class<?>> map) throws SQLException {
+        return getObject(columnIndex);
+    }
+
+    @Override
+    public Ref getRef(final int columnIndex) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10999);
+    }
+
+    @Override
+    public Blob getBlob(final int columnIndex) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10999);
+    }
+
+    @Override
+    public Clob getClob(final int columnIndex) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10999);
+    }
+
+    @Override
+    public Array getArray(final int columnIndex) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10999);
+    }
+
+    @Override
+    public Object getObject(final String columnLabel,
+                            final Map<String, Class<?>> map) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getObject(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public Ref getRef(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getRef(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public Blob getBlob(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getBlob(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public Clob getClob(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getClob(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public Array getArray(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getArray(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public Date getDate(final int columnIndex, final Calendar cal)
+            throws SQLException {
+        return getDate(columnIndex);
+    }
+
+    @Override
+    public Date getDate(final String columnLabel, final Calendar cal)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getDate(getColumnIndex(columnLabel), cal);
+    }
+
+    @Override
+    public Time getTime(final int columnIndex, final Calendar cal)
+            throws SQLException {
+        return getTime(columnIndex);
+    }
+
+    @Override
+    public Time getTime(final String columnLabel, final Calendar cal)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getTime(getColumnIndex(columnLabel), cal);
+    }
+
+    @Override
+    public Timestamp getTimestamp(final int columnIndex, final Calendar cal)
+            throws SQLException {
+        return getTimestamp(columnIndex);
+    }
+
+    @Override
+    public Timestamp getTimestamp(final String columnLabel, final Calendar cal)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getTimestamp(getColumnIndex(columnLabel), cal);
+    }
+
+    @Override
+    public URL getURL(final int columnIndex) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10999);
+    }
+
+    @Override
+    public URL getURL(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getURL(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public void updateRef(final int columnIndex, final Ref x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateRef(final String columnLabel, final Ref x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBlob(final int columnIndex, final Blob x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBlob(final String columnLabel, final Blob x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateClob(final int columnIndex, final Clob x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateClob(final String columnLabel, final Clob x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateArray(final int columnIndex, final Array x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateArray(final String columnLabel, final Array x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public RowId getRowId(final int columnIndex) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10005);
+    }
+
+    @Override
+    public RowId getRowId(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10005);
+    }
+
+    @Override
+    public void updateRowId(final int columnIndex, final RowId x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateRowId(final String columnLabel, final RowId x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        return ResultSet.HOLD_CURSORS_OVER_COMMIT;
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return closed;
+    }
+
+    @Override
+    public void updateNString(final int columnIndex, final String nString)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateNString(final String columnLabel, String nString)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateNClob(final int columnIndex, final NClob nClob)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateNClob(final String columnLabel, NClob nClob)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public NClob getNClob(final int columnIndex) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10999);
+    }
+
+    @Override
+    public NClob getNClob(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getNClob(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public SQLXML getSQLXML(final int columnIndex) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10999);
+    }
+
+    @Override
+    public SQLXML getSQLXML(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getSQLXML(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public void updateSQLXML(final int columnIndex, SQLXML xmlObject)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateSQLXML(final String columnLabel, SQLXML xmlObject)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public String getNString(final int columnIndex) throws SQLException {
+        return getString(columnIndex);
+    }
+
+    @Override
+    public String getNString(final String columnLabel) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getNString(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public Reader getNCharacterStream(final int columnIndex)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10999);
+    }
+
+    @Override
+    public Reader getNCharacterStream(final String columnLabel)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        return getNCharacterStream(getColumnIndex(columnLabel));
+    }
+
+    @Override
+    public void updateNCharacterStream(final int columnIndex, final Reader x,
+                                       final long length) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateNCharacterStream(final String columnLabel,
+                                       final Reader reader, final long length) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateAsciiStream(final int columnIndex, final InputStream x,
+                                  long length) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBinaryStream(final int columnIndex, final InputStream x,
+                                   final long length) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateCharacterStream(final int columnIndex, final Reader x,
+                                      final long length) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateAsciiStream(final String columnLabel,
+                                  final InputStream x, final long length) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBinaryStream(final String columnLabel,
+                                   final InputStream x, final long length) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateCharacterStream(final String columnLabel,
+                                      final Reader reader, final long length) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBlob(final int columnIndex,
+                           final InputStream inputStream, final long length)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBlob(final String columnLabel,
+                           final InputStream inputStream, final long length)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateClob(final int columnIndex, final Reader reader,
+                           final long length) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateClob(final String columnLabel, final Reader reader,
+                           final long length) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateNClob(final int columnIndex, final Reader reader,
+                            final long length) throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateNClob(final String columnLabel, final Reader reader,
+                            long length) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateNCharacterStream(final int columnIndex, final Reader x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateNCharacterStream(final String columnLabel,
+                                       final Reader reader) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateAsciiStream(final int columnIndex, final InputStream x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBinaryStream(final int columnIndex, final InputStream x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateCharacterStream(final int columnIndex, final Reader x)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateAsciiStream(final String columnLabel, final InputStream x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBinaryStream(final String columnLabel, final InputStream x)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateCharacterStream(final String columnLabel,
+                                      final Reader reader) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBlob(final int columnIndex, final InputStream inputStream)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateBlob(final String columnLabel,
+                           final InputStream inputStream) throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateClob(final int columnIndex, final Reader reader)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateClob(final String columnLabel, final Reader reader)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateNClob(final int columnIndex, final Reader reader)
+            throws SQLException {
+        checkClosed();
+        checkColumnIndex(columnIndex);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+
+    @Override
+    public void updateNClob(final String columnLabel, final Reader reader)
+            throws SQLException {
+        checkClosed();
+        checkColumnLabel(columnLabel);
+
+        throw TidaSqlExceptions.createNotSupportedException(10004);
+    }
+}
@@ -0,0 +1,458 @@
+package net.meisen.dissertation.jdbc;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.meisen.dissertation.jdbc.protocol.DataType;
+
+/**
+ * A writer persisting rows to a columnar snapshot (see {@link TidaSnapshot}
+ * for the format). The values of each column are spilled to a temporary
+ * file while the rows are added, the {@code null} values and the
+ * dictionaries of the string columns are kept in memory. Closing the writer
+ * concatenates the columns and writes the snapshot, a discarded writer (see
+ * {@link #discard()}) does not write anything.
+ *
+ * @author pmeisen
+ *
+ */
+public class SnapshotWriter implements AutoCloseable {
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	private static final int BUFFER_SIZE = 65536;
+
+	private final Path path;
+	private final String[] names;
+	private final DataType[] types;
+	private final Path[] spills;
+	private final DataOutputStream[] columns;
+	private final long[][] nulls;
+	private final List<Map<String, Integer>> dictionaries;
+
+	private int rows;
+	private boolean closed;
+
+	/**
+	 * Constructor to create a writer persisting rows of the specified
+	 * {@code types} to the specified {@code path}.
+	 *
+	 * @param path
+	 *            the file to write the snapshot to, an existing file is
+	 *            overwritten
+	 * @param names
+	 *            the names of the columns
+	 * @param types
+	 *            the types of the columns
+	 *
+	 * @throws IOException
+	 *             if the temporary files cannot be created
+	 */
+	public SnapshotWriter(final Path path, final String[] names,
+			final DataType[] types) throws IOException {
+		this.path = path;
+		this.names = names.clone();
+		this.types = types.clone();
+		this.spills = new Path[types.length];
+		this.columns = new DataOutputStream[types.length];
+		this.nulls = new long[types.length][];
+		this.dictionaries = new ArrayList<Map<String, Integer>>(
+				types.length);
+
+		this.rows = 0;
+		this.closed = false;
+
+		try {
+			for (int i = 0; i < types.length; i++) {
+				spills[i] = Files.createTempFile("tida-snapshot-", ".col");
+				columns[i] = new DataOutputStream(new BufferedOutputStream(
+						Files.newOutputStream(spills[i]), BUFFER_SIZE));
+				if (DataType.STRING.equals(types[i])) {
+					dictionaries.add(new HashMap<String, Integer>());
+				} else {
+					dictionaries.add(null);
+				}
+			}
+		} catch (final IOException e) {
+			discard();
+			throw e;
+		}
+	}
+
+	/**
+	 * Writes all the remaining rows of the specified {@code rs} to a
+	 * snapshot at the specified {@code path}. The rows are written as
+	 * retrieved from the server (see {@link TidaResultSet#getLastResult()}).
+	 * Nothing is written if the rows cannot be retrieved.
+	 *
+	 * @param rs
+	 *            the {@code ResultSet} to be persisted
+	 * @param path
+	 *            the file to write the snapshot to
+	 *
+	 * @return the amount of persisted rows
+	 *
+	 * @throws SQLException
+	 *             if the rows cannot be retrieved
+	 * @throws IOException
+	 *             if the snapshot cannot be written
+	 */
+	public static int write(final TidaResultSet rs, final Path path)
+			throws SQLException, IOException {
+		final DataType[] types = rs.getHeaderTypes();
+		final String[] names = new String[types.length];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = rs.getHeaderLabel(i + 1);
+		}
+
+		final SnapshotWriter writer = new SnapshotWriter(path, names, types);
+		boolean written = false;
+		try {
+			while (rs.next()) {
+				writer.add(rs.getLastResult());
+			}
+			writer.close();
+			written = true;
+		} finally {
+			if (!written) {
+				writer.discard();
+			}
+		}
+
+		return writer.getRows();
+	}
+
+	/**
+	 * Adds the specified {@code row} to the snapshot.
+	 *
+	 * @param row
+	 *            the values of the row, in the order of the columns
+	 *
+	 * @throws IOException
+	 *             if {@code this} is closed, or if the row cannot be spilled
+	 */
+	public void add(final Object[] row) throws IOException {
+		if (closed) {
+			throw new IOException("The snapshot '" + path
+					+ "' is already written.");
+		} else if (rows == Integer.MAX_VALUE) {
+			throw new IOException("The snapshot '" + path
+					+ "' cannot contain more than " + rows + " rows.");
+		}
+
+		for (int i = 0; i < types.length; i++) {
+			final Object value = row[i];
+			if (value == null) {
+				markNull(i);
+			}
+
+			final DataOutputStream out = columns[i];
+			switch (types[i]) {
+			case BYTE:
+				out.writeByte(value == null ? 0 : (Byte) value);
+				break;
+			case SHORT:
+				out.writeShort(value == null ? 0 : (Short) value);
+				break;
+			case INT:
+				out.writeInt(value == null ? 0 : (Integer) value);
+				break;
+			case LONG:
+				out.writeLong(value == null ? 0L : (Long) value);
+				break;
+			case DATE:
+				out.writeLong(value == null ? 0L : ((Date) value).getTime());
+				break;
+			case DOUBLE:
+				out.writeDouble(value == null ? 0.0 : (Double) value);
+				break;
+			case STRING:
+				out.writeInt(value == null ? 0 : lookUp(i, (String) value));
+				break;
+			default:
+				throw new IllegalStateException("The data-type '" + types[i]
+						+ "' is not supported by a snapshot.");
+			}
+		}
+		rows++;
+	}
+
+	/**
+	 * Marks the value of the specified {@code column} in the current row as
+	 * {@code null}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 */
+	protected void markNull(final int column) {
+		final int word = rows >>> 6;
+
+		long[] bitmap = nulls[column];
+		if (bitmap == null) {
+			bitmap = new long[Math.max(16, word + 1)];
+		} else if (word >= bitmap.length) {
+			bitmap = Arrays.copyOf(bitmap, Math.max(bitmap.length * 2,
+					word + 1));
+		}
+		bitmap[word] |= 1L << rows;
+		nulls[column] = bitmap;
+	}
+
+	/**
+	 * Gets the identifier of the dictionary entry of the specified
+	 * {@code value}, the entry is added if needed.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 * @param value
+	 *            the value to look up
+	 *
+	 * @return the identifier of the entry
+	 */
+	protected int lookUp(final int column, final String value) {
+		final Map<String, Integer> dictionary = dictionaries.get(column);
+
+		Integer id = dictionary.get(value);
+		if (id == null) {
+			id = dictionary.size();
+			dictionary.put(value, id);
+		}
+
+		return id;
+	}
+
+	/**
+	 * Writes the snapshot, i.e. the spilled columns, the bitmaps of the
+	 * {@code null} values, the dictionaries, and the footer are written to
+	 * the file. The temporary files are deleted.
+	 *
+	 * @throws IOException
+	 *             if the snapshot cannot be written
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+
+		final int amount = types.length;
+		final long[] valuesPos = new long[amount];
+		final long[] nullsPos = new long[amount];
+		final long[] dictionaryPos = new long[amount];
+		final int[] dictionaryLength = new int[amount];
+
+		try (final FileChannel out = FileChannel.open(path,
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			final ByteBuffer header = ByteBuffer
+					.allocate(TidaSnapshot.HEADER_SIZE);
+			header.putInt(TidaSnapshot.MAGIC).put(TidaSnapshot.VERSION);
+			header.position(TidaSnapshot.HEADER_SIZE);
+			long pos = write(out, 0, header);
+
+			// the values of the columns
+			for (int i = 0; i < amount; i++) {
+				columns[i].close();
+
+				valuesPos[i] = pos;
+				try (final FileChannel in = FileChannel.open(spills[i],
+						StandardOpenOption.READ)) {
+					final long size = in.size();
+					long transferred = 0;
+					while (transferred < size) {
+						transferred += in.transferTo(transferred, size
+								- transferred, out.position(pos + transferred));
+					}
+					pos = align(out, pos + size);
+				}
+			}
+
+			// the bitmaps of the null values
+			for (int i = 0; i < amount; i++) {
+				if (nulls[i] == null) {
+					nullsPos[i] = -1;
+				} else {
+					final int length = (int) TidaSnapshot.getBitmapLength(rows);
+					final ByteBuffer bitmap = ByteBuffer.allocate(length);
+					bitmap.asLongBuffer().put(nulls[i], 0,
+							Math.min(nulls[i].length, length >>> 3));
+					bitmap.position(length);
+
+					nullsPos[i] = pos;
+					pos = write(out, pos, bitmap);
+				}
+			}
+
+			// the dictionaries, i.e. the offsets followed by the entries
+			for (int i = 0; i < amount; i++) {
+				if (dictionaries.get(i) == null) {
+					dictionaryPos[i] = -1;
+				} else {
+					final ByteBuffer dictionary = createDictionary(i);
+
+					dictionaryPos[i] = pos;
+					dictionaryLength[i] = dictionary.position();
+					pos = write(out, pos, dictionary);
+				}
+			}
+
+			// the footer indexing the segments, followed by the trailer
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			final DataOutputStream footer = new DataOutputStream(bytes);
+			footer.writeInt(rows);
+			footer.writeInt(amount);
+			for (int i = 0; i < amount; i++) {
+				footer.writeByte(types[i].getId());
+				footer.writeUTF(names[i] == null ? "" : names[i]);
+				footer.writeLong(valuesPos[i]);
+				footer.writeLong(nullsPos[i]);
+				footer.writeLong(dictionaryPos[i]);
+				footer.writeInt(dictionaries.get(i) == null ? 0 : dictionaries
+						.get(i).size());
+				footer.writeInt(dictionaryLength[i]);
+			}
+			footer.writeLong(pos);
+			footer.writeInt(TidaSnapshot.MAGIC);
+			footer.flush();
+
+			final ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+			buffer.position(buffer.limit());
+
+			// the trailer has to end the file, i.e. it is not aligned
+			writeFully(out, pos, buffer);
+		} finally {
+			deleteSpills();
+		}
+	}
+
+	/**
+	 * Creates the dictionary of the specified {@code column}, i.e. the
+	 * offsets of the entries (relative to the first entry, including the end
+	 * of the last entry) followed by the UTF-8 encoded entries.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 *
+	 * @return the dictionary, positioned at its end
+	 */
+	protected ByteBuffer createDictionary(final int column) {
+		final Map<String, Integer> dictionary = dictionaries.get(column);
+
+		final byte[][] entries = new byte[dictionary.size()][];
+		int length = 0;
+		for (final Map.Entry<String, Integer> e : dictionary.entrySet()) {
+			final byte[] entry = e.getKey().getBytes(UTF8);
+			entries[e.getValue()] = entry;
+			length += entry.length;
+		}
+
+		final ByteBuffer buffer = ByteBuffer.allocate((entries.length + 1)
+				* 4 + length);
+		int offset = 0;
+		for (final byte[] entry : entries) {
+			buffer.putInt(offset);
+			offset += entry.length;
+		}
+		buffer.putInt(offset);
+		for (final byte[] entry : entries) {
+			buffer.put(entry);
+		}
+
+		return buffer;
+	}
+
+	private long write(final FileChannel out, final long pos,
+			final ByteBuffer buffer) throws IOException {
+		return align(out, writeFully(out, pos, buffer));
+	}
+
+	private long writeFully(final FileChannel out, final long pos,
+			final ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		long cur = pos;
+		while (buffer.hasRemaining()) {
+			cur += out.write(buffer, cur);
+		}
+
+		return cur;
+	}
+
+	private long align(final FileChannel out, final long pos)
+			throws IOException {
+		final int padding = (int) ((8 - (pos & 7)) & 7);
+		if (padding == 0) {
+			return pos;
+		}
+
+		final ByteBuffer zeros = ByteBuffer.allocate(padding);
+		long cur = pos;
+		while (zeros.hasRemaining()) {
+			cur += out.write(zeros, cur);
+		}
+
+		return cur;
+	}
+
+	/**
+	 * Discards {@code this}, i.e. the snapshot is not written and the
+	 * temporary files are deleted.
+	 */
+	public void discard() {
+		closed = true;
+
+		for (final DataOutputStream column : columns) {
+			if (column != null) {
+				try {
+					column.close();
+				} catch (final IOException e) {
+					// ignore
+				}
+			}
+		}
+		deleteSpills();
+	}
+
+	private void deleteSpills() {
+		for (final Path spill : spills) {
+			if (spill != null) {
+				try {
+					Files.deleteIfExists(spill);
+				} catch (final IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the amount of rows added so far.
+	 *
+	 * @return the amount of rows added
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Gets the file the snapshot is written to.
+	 *
+	 * @return the file of the snapshot
+	 */
+	public Path getPath() {
+		return path;
+	}
+}
@@ -0,0 +1,425 @@
+package net.meisen.dissertation.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import net.meisen.dissertation.jdbc.cluster.TidaHost;
+import net.meisen.dissertation.jdbc.protocol.DataType;
+import net.meisen.dissertation.jdbc.protocol.IResponseHandler;
+import net.meisen.dissertation.jdbc.protocol.Protocol;
+import net.meisen.dissertation.jdbc.protocol.QueryStatus;
+import net.meisen.dissertation.jdbc.protocol.QueryType;
+import net.meisen.dissertation.jdbc.protocol.ResponseType;
+
+/**
+ * A loader used to insert records into a model without creating any
+ * {@code INSERT} statement (see
+ * {@link TidaConnection#createBulkLoader(String, String[], Class[], boolean)}
+ * ). The records are send as binary results (see
+ * {@link Protocol#writeResult(DataType[], Object[])}) of the typed header of
+ * the loader, i.e. no value is formatted to or parsed from a text.<br/>
+ * <br/>
+ * The records are send in batches (see
+ * {@link DriverProperties#getBulkBatchSize()}), each batch is acknowledged by
+ * the server, optionally with the identifiers of the inserted records. The
+ * loader does not send further records, as long as too many batches are not
+ * acknowledged (see {@link DriverProperties#getBulkWindow()}), i.e. the
+ * loading is slowed down to the speed of the server. The loader has to be
+ * closed to send the last batch and to end the loading.<br/>
+ * <br/>
+ * The exchange is started like any other statement (i.e.
+ * {@code BULKLOAD INTO model (names)}, which is answered with
+ * {@link QueryType#MANIPULATION}), followed by the header of the records, the
+ * records and an end-of-batch (see {@link ResponseType#EOB}) for each batch,
+ * and an end-of-response. The server acknowledges each batch with the amount
+ * of inserted records, or the identifiers of the records, and ends the
+ * exchange with an end-of-response.
+ *
+ * @author pmeisen
+ *
+ */
+public class TidaBulkLoader extends BaseConnectionWrapper implements
+		IResponseHandler, AutoCloseable {
+	private final String model;
+	private final String sql;
+	private final DataType[] header;
+	private final boolean returnIds;
+	private final int batchSize;
+	private final int window;
+	private final TidaHost shard;
+
+	private int batched;
+	private int outstanding;
+	private long records;
+	private long acknowledged;
+	private int[] ids;
+	private int amountOfIds;
+	private boolean ended;
+
+	/**
+	 * Constructor to create and start a bulk-load of records of the specified
+	 * {@code types} into the specified {@code model}.
+	 *
+	 * @param connection
+	 *            the connection creating the loader
+	 * @param model
+	 *            the identifier of the model to load the records into
+	 * @param names
+	 *            the names of the values of a record (e.g. {@code [START]})
+	 * @param types
+	 *            the types of the values of a record
+	 * @param returnIds
+	 *            {@code true} if the identifiers of the inserted records
+	 *            should be retrieved, otherwise {@code false}
+	 *
+	 * @throws SQLException
+	 *             if the header is invalid, or if the bulk-load is not
+	 *             accepted by the server
+	 */
+	public TidaBulkLoader(final TidaConnection connection,
+			final String model, final String[] names, final Class<?>[] types,
+			final boolean returnIds) throws SQLException {
+		super(connection);
+
+		if (names.length != types.length || names.length == 0) {
+			throw TidaSqlExceptions.createException(3012, model, ""
+					+ types.length, "" + names.length);
+		}
+
+		// determine the header of the records
+		this.header = new DataType[types.length];
+		for (int i = 0; i < types.length; i++) {
+			header[i] = DataType.find(types[i]);
+			if (header[i] == null) {
+				throw TidaSqlExceptions.createNotSupportedException(3008,
+						types[i].getName());
+			}
+		}
+
+		final StringBuilder sb = new StringBuilder("BULKLOAD INTO ");
+		sb.append(model).append(" (");
+		for (int i = 0; i < names.length; i++) {
+			sb.append(i == 0 ? "" : ", ").append(names[i]);
+		}
+		sb.append(")");
+
+		this.model = model;
+		this.sql = sb.toString();
+		this.returnIds = returnIds;
+		this.batchSize = Math.max(1, getDriverProperties().getBulkBatchSize());
+		this.window = Math.max(1, getDriverProperties().getBulkWindow());
+		this.shard = getManager().getShard(sql);
+
+		this.batched = 0;
+		this.outstanding = 0;
+		this.records = 0;
+		this.acknowledged = 0;
+		this.ids = new int[returnIds ? batchSize : 0];
+		this.amountOfIds = 0;
+		this.ended = false;
+
+		// start the exchange and send the header of the records
+		try {
+			if (!fireQuery(sql, this)) {
+				ended = true;
+				close();
+				throw TidaSqlExceptions.createException(3014, model);
+			}
+			getProtocol().writeHeader(types);
+		} catch (final IOException e) {
+			throw fail(e);
+		} catch (final SQLException e) {
+			if (!isClosed()) {
+				ended = true;
+				dropProtocol();
+				close();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Adds the specified {@code values} as record. The record is send with the
+	 * current batch, the method waits if too many batches are not
+	 * acknowledged.
+	 *
+	 * @param values
+	 *            the values of the record, in the order of the header
+	 *
+	 * @throws SQLException
+	 *             if {@code this} is closed, if the values do not fit the
+	 *             header, or if the record cannot be send
+	 */
+	public void add(final Object... values) throws SQLException {
+		checkClosed();
+
+		if (values.length != header.length) {
+			throw TidaSqlExceptions.createException(3012, model, ""
+					+ header.length, "" + values.length);
+		}
+		for (int i = 0; i < values.length; i++) {
+			final Object value = values[i];
+			if (value != null && !header[i].isClass(value.getClass())) {
+				throw TidaSqlExceptions.createException(3013, "" + value, ""
+						+ (i + 1), header[i].toString());
+			}
+		}
+
+		try {
+			getProtocol().writeResult(header, values);
+		} catch (final IOException e) {
+			throw fail(e);
+		}
+		records++;
+
+		if (++batched >= batchSize) {
+			flush();
+		}
+	}
+
+	/**
+	 * Sends the current batch, even if it is not full. The method waits if too
+	 * many batches are not acknowledged.
+	 *
+	 * @throws SQLException
+	 *             if {@code this} is closed, or if the batch cannot be send
+	 */
+	public void flush() throws SQLException {
+		checkClosed();
+		if (batched == 0) {
+			return;
+		}
+
+		final Protocol protocol = getProtocol();
+		try {
+			protocol.writeEndOfBatch();
+			batched = 0;
+			outstanding++;
+
+			// read any available acknowledgement, wait if the window is full
+			while (!ended
+					&& (outstanding >= window || (outstanding > 0 && protocol
+							.isDataAvailable()))) {
+				readAcknowledgement();
+			}
+		} catch (final IOException e) {
+			throw fail(e);
+		}
+	}
+
+	/**
+	 * Reads the next acknowledgement of a batch.
+	 *
+	 * @throws SQLException
+	 *             if the batch failed on server-side or no acknowledgement can
+	 *             be read
+	 */
+	protected void readAcknowledgement() throws SQLException {
+		try {
+			handleResponse(this);
+		} catch (final SQLException e) {
+			ended = true;
+			dropProtocol();
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Drops the protocol of {@code this} and closes {@code this} after a
+	 * failed write.
+	 *
+	 * @param e
+	 *            the cause of the failure
+	 *
+	 * @return the exception to be thrown
+	 *
+	 * @throws SQLException
+	 *             if {@code this} cannot be closed
+	 */
+	protected SQLException fail(final IOException e) throws SQLException {
+		ended = true;
+		dropProtocol();
+		close();
+
+		return TidaSqlExceptions.createException(3015, e, model,
+				e.getMessage());
+	}
+
+	/**
+	 * Checks if {@code this} is closed, if so an exception is thrown.
+	 *
+	 * @throws SQLException
+	 *             if {@code this} is closed
+	 */
+	protected void checkClosed() throws SQLException {
+		if (isClosed()) {
+			throw TidaSqlExceptions.createException(3016, model);
+		}
+	}
+
+	/**
+	 * Closes {@code this}, i.e. the current batch is send, and all the batches
+	 * are acknowledged by the server prior to ending the bulk-load. The
+	 * protocol is kept to be reused.
+	 *
+	 * @throws SQLException
+	 *             if the last batch cannot be send, or if any batch failed
+	 */
+	@Override
+	public void close() throws SQLException {
+		if (isClosed()) {
+			return;
+		}
+
+		try {
+			if (!ended) {
+				flush();
+				getProtocol().writeEndOfResponse();
+				while (!ended) {
+					readAcknowledgement();
+				}
+			}
+		} catch (final IOException e) {
+			throw fail(e);
+		} finally {
+			if (!isClosed()) {
+				parkProtocol();
+				super.close();
+			}
+		}
+	}
+
+	/**
+	 * Gets the identifier of the model the records are loaded into.
+	 *
+	 * @return the identifier of the model
+	 */
+	public String getModel() {
+		return model;
+	}
+
+	/**
+	 * Gets the amount of records added so far.
+	 *
+	 * @return the amount of records added
+	 */
+	public long getRecords() {
+		return records;
+	}
+
+	/**
+	 * Gets the amount of records acknowledged by the server so far.
+	 *
+	 * @return the amount of records acknowledged
+	 */
+	public long getAcknowledged() {
+		return acknowledged;
+	}
+
+	/**
+	 * Gets the amount of batches not acknowledged so far.
+	 *
+	 * @return the amount of batches not acknowledged
+	 */
+	public int getOutstanding() {
+		return outstanding;
+	}
+
+	/**
+	 * Gets the identifiers of the records acknowledged so far, if the
+	 * identifiers are retrieved (see
+	 * {@link TidaConnection#createBulkLoader(String, String[], Class[], boolean)}
+	 * ).
+	 *
+	 * @return the identifiers of the records acknowledged so far
+	 */
+	public int[] getGeneratedIds() {
+		return Arrays.copyOf(ids, amountOfIds);
+	}
+
+	@Override
+	public QueryStatus doHandleQueryType(final QueryType queryType) {
+		if (QueryType.MANIPULATION.equals(queryType)) {
+			return returnIds ? QueryStatus.PROCESSANDGETIDS
+					: QueryStatus.PROCESS;
+		} else {
+			return QueryStatus.CANCEL;
+		}
+	}
+
+	@Override
+	public boolean handleResult(final ResponseType type, final Object[] result) {
+		if (ResponseType.INT.equals(type)) {
+			acknowledged += (Integer) result[0];
+		} else {
+			return true;
+		}
+
+		// stop reading after each acknowledgement
+		outstanding--;
+		return false;
+	}
+
+	@Override
+	public boolean handleInts(final ResponseType type, final int[] values) {
+		if (!ResponseType.INT_ARRAY.equals(type)) {
+			return IResponseHandler.super.handleInts(type, values);
+		}
+
+		if (amountOfIds + values.length > ids.length) {
+			ids = Arrays.copyOf(ids,
+					Math.max(ids.length * 2, amountOfIds + values.length));
+		}
+		System.arraycopy(values, 0, ids, amountOfIds, values.length);
+		amountOfIds += values.length;
+		acknowledged += values.length;
+
+		// stop reading after each acknowledgement
+		outstanding--;
+		return false;
+	}
+
+	@Override
+	public InputStream getResourceStream(final String resource) {
+		return new ByteArrayInputStream(new byte[0]);
+	}
+
+	@Override
+	public DataType[] getHeader() {
+		return header;
+	}
+
+	@Override
+	public void signalEORReached() {
+		ended = true;
+	}
+
+	@Override
+	public void resetHandler() {
+		ended = false;
+	}
+
+	@Override
+	protected BaseConnectionWrapper getProtocolScope() {
+		return this;
+	}
+
+	@Override
+	protected boolean doCloseOnCommit() {
+		return false;
+	}
+
+	@Override
+	protected boolean isReplicaRouted() {
+		return false;
+	}
+
+	@Override
+	protected TidaHost getShard() {
+		return shard;
+	}
+}
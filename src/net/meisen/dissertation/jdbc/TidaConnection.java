@@ -15,9 +15,12 @@ import java.sql.SQLXML;
 import java.sql.Savepoint;
 import java.sql.Statement;
 import java.sql.Struct;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 
 /**
@@ -31,7 +34,9 @@ public class TidaConnection extends BaseConnectionWrapper implements Connection
 	private final DriverProperties driverProperties;
 
 	private boolean readOnly;
+	private volatile boolean aborted;
 	private int holdability = -1;
+	private List<IStatementListener> statementListeners;
 
 	/**
 	 * Constructor to create a connection based on the specified
@@ -45,6 +50,105 @@ public class TidaConnection extends BaseConnectionWrapper implements Connection
 
 		this.driverProperties = driverProperties;
 		this.readOnly = false;
+		this.aborted = false;
+	}
+
+	/**
+	 * Gets the {@code IStatementListener} instances informed about the
+	 * statements of {@code this} connection. The listeners defined by the
+	 * {@code DriverProperties} are created with the first call.
+	 * 
+	 * @return the listeners of {@code this} connection
+	 * 
+	 * @throws SQLException
+	 *             if a listener cannot be created
+	 * 
+	 * @see DriverProperties#PROPERTY_LISTENERCLASSES
+	 * @see DriverProperties#PROPERTY_SLOWQUERYTHRESHOLD
+	 */
+	public synchronized List<IStatementListener> getStatementListeners()
+			throws SQLException {
+		if (statementListeners == null) {
+			final List<IStatementListener> listeners = new CopyOnWriteArrayList<IStatementListener>();
+
+			// add the slow-query log if enabled
+			if (driverProperties.getSlowQueryThreshold() >= 0) {
+				listeners.add(new SlowQueryLogger(driverProperties));
+			}
+
+			// add the defined listeners
+			for (final String listenerClass : driverProperties
+					.getListenerClasses().split(",")) {
+				if (!listenerClass.trim().isEmpty()) {
+					listeners.add(createStatementListener(listenerClass.trim()));
+				}
+			}
+
+			this.statementListeners = listeners;
+		}
+
+		return statementListeners;
+	}
+
+	/**
+	 * Creates the {@code IStatementListener} of the specified
+	 * {@code listenerClass}. The class is instantiated using a constructor
+	 * accepting the {@code DriverProperties}, if available, otherwise the
+	 * default constructor is used.
+	 * 
+	 * @param listenerClass
+	 *            the name of the class to be created
+	 * 
+	 * @return the created listener
+	 * 
+	 * @throws SQLException
+	 *             if the listener cannot be created
+	 */
+	protected IStatementListener createStatementListener(
+			final String listenerClass) throws SQLException {
+		try {
+			final Class<? extends IStatementListener> clazz = Class.forName(
+					listenerClass).asSubclass(IStatementListener.class);
+
+			try {
+				return clazz.getConstructor(DriverProperties.class)
+						.newInstance(driverProperties);
+			} catch (final NoSuchMethodException e) {
+				return clazz.getConstructor().newInstance();
+			}
+		} catch (final Exception e) {
+			throw TidaSqlExceptions.createException(1013, e, listenerClass);
+		}
+	}
+
+	/**
+	 * Adds the specified {@code listener} to {@code this} connection.
+	 * 
+	 * @param listener
+	 *            the listener to be added
+	 * 
+	 * @throws SQLException
+	 *             if a listener defined by the {@code DriverProperties} cannot
+	 *             be created
+	 */
+	public void addStatementListener(final IStatementListener listener)
+			throws SQLException {
+		getStatementListeners().add(listener);
+	}
+
+	/**
+	 * Removes the specified {@code listener} from {@code this} connection.
+	 * 
+	 * @param listener
+	 *            the listener to be removed
+	 * 
+	 * @throws SQLException
+	 *             if a listener defined by the {@code DriverProperties} cannot
+	 *             be created
+	 */
+	public void removeStatementListener(final IStatementListener listener)
+			throws SQLException {
+		getStatementListeners().remove(listener);
 	}
 
 	@Override
@@ -57,6 +161,11 @@ public class TidaConnection extends BaseConnectionWrapper implements Connection
 		return false;
 	}
 
+	@Override
+	protected boolean isReplicaRouted() {
+		return readOnly && getManager().hasReplicas();
+	}
+
 	@Override
 	public boolean isProtocolAvailable() {
 		return false;
@@ -69,6 +178,11 @@ public class TidaConnection extends BaseConnectionWrapper implements Connection
 		super.closeAll();
 	}
 
+	@Override
+	public boolean isClosed() {
+		return aborted || super.isClosed();
+	}
+
 	@Override
 	public TidaStatement createStatement() throws SQLException {
 		return createStatement(ResultSet.TYPE_FORWARD_ONLY,
@@ -93,6 +207,105 @@ public class TidaConnection extends BaseConnectionWrapper implements Connection
 				Statement.NO_GENERATED_KEYS);
 	}
 
+	/**
+	 * Executes the specified independent {@code queries} concurrently. Each
+	 * query is executed by its own statement, the amount of queries executed
+	 * concurrently is limited (see
+	 * {@link DriverProperties#getFanOutParallelism()}). The method returns
+	 * immediately, the results are retrieved from the returned
+	 * {@code QueryFanOut}, which must be closed after usage. The method is
+	 * available by unwrapping a {@code Connection}, i.e.
+	 * {@code connection.unwrap(TidaConnection.class).fanOut(queries)}.
+	 * 
+	 * @param queries
+	 *            the queries to be executed
+	 * 
+	 * @return the {@code QueryFanOut} providing the results of the queries
+	 * 
+	 * @throws SQLException
+	 *             if {@code this} is closed or the statements cannot be
+	 *             created
+	 */
+	public QueryFanOut fanOut(final List<String> queries) throws SQLException {
+		checkClosed();
+
+		return new QueryFanOut(this, queries,
+				driverProperties.getFanOutParallelism());
+	}
+
+	/**
+	 * Executes the specified independent {@code queries} concurrently (see
+	 * {@link #fanOut(List)}).
+	 * 
+	 * @param queries
+	 *            the queries to be executed
+	 * 
+	 * @return the {@code QueryFanOut} providing the results of the queries
+	 * 
+	 * @throws SQLException
+	 *             if {@code this} is closed or the statements cannot be
+	 *             created
+	 */
+	public QueryFanOut fanOut(final String... queries) throws SQLException {
+		return fanOut(Arrays.asList(queries));
+	}
+
+	/**
+	 * Creates a {@code TidaBulkLoader} loading records of the specified
+	 * {@code types} into the specified {@code model}. The records are send as
+	 * binary values, i.e. without creating any {@code INSERT} statement. The
+	 * loader must be closed to end the loading. The method is available by
+	 * unwrapping a {@code Connection}, i.e.
+	 * {@code connection.unwrap(TidaConnection.class).createBulkLoader(...)}.
+	 * 
+	 * @param model
+	 *            the identifier of the model to load the records into
+	 * @param names
+	 *            the names of the values of a record (e.g. {@code [START]})
+	 * @param types
+	 *            the types of the values of a record
+	 * @param returnIds
+	 *            {@code true} if the identifiers of the inserted records
+	 *            should be retrieved, otherwise {@code false}
+	 * 
+	 * @return the created {@code TidaBulkLoader}
+	 * 
+	 * @throws SQLException
+	 *             if {@code this} is closed, or if the loading cannot be
+	 *             started
+	 */
+	public TidaBulkLoader createBulkLoader(final String model,
+			final String[] names, final Class<?>[] types,
+			final boolean returnIds) throws SQLException {
+		checkClosed();
+
+		return new TidaBulkLoader(this, model, names, types, returnIds);
+	}
+
+	/**
+	 * Creates a {@code TidaBulkLoader} loading records of the specified
+	 * {@code types} into the specified {@code model}, without retrieving the
+	 * identifiers of the records (see
+	 * {@link #createBulkLoader(String, String[], Class[], boolean)}).
+	 * 
+	 * @param model
+	 *            the identifier of the model to load the records into
+	 * @param names
+	 *            the names of the values of a record (e.g. {@code [START]})
+	 * @param types
+	 *            the types of the values of a record
+	 * 
+	 * @return the created {@code TidaBulkLoader}
+	 * 
+	 * @throws SQLException
+	 *             if {@code this} is closed, or if the loading cannot be
+	 *             started
+	 */
+	public TidaBulkLoader createBulkLoader(final String model,
+			final String[] names, final Class<?>[] types) throws SQLException {
+		return createBulkLoader(model, names, types, false);
+	}
+
 	@Override
 	public String nativeSQL(final String sql) throws SQLException {
 		return sql;
@@ -135,6 +348,12 @@ public class TidaConnection extends BaseConnectionWrapper implements Connection
 		return new TidaDatabaseMetaData(this);
 	}
 
+	/**
+	 * Sets {@code this} connection to read-only mode. The statements of a
+	 * read-only connection are routed to the replicas, if replicas are
+	 * specified (see {@link DriverProperties#getReplicas()}). Modifications are
+	 * always routed to the primary hosts.
+	 */
 	@Override
 	public void setReadOnly(final boolean readOnly) throws SQLException {
 		this.readOnly = readOnly;
@@ -313,42 +532,16 @@ public class TidaConnection extends BaseConnectionWrapper implements Connection
 			return false;
 		}
 
-		// create a thread to fire a query
-		final boolean[] flag = new boolean[] { true };
-		final Thread t = new Thread() {
-
-			public void run() {
-				try {
-					getProtocol().writeAndHandle("ALIVE", null);
-				} catch (final Throwable e) {
-					flag[0] = false;
-				}
-			}
-		};
-
-		// start the thread with a timeout in ms
-		final int timeoutInMs = timeout * 1000;
+		// ping (or ask) the server within the timeout on the calling thread
+		boolean valid;
 		try {
-			t.start();
-			final long start = System.currentTimeMillis();
-			t.join(timeoutInMs);
-
-			try {
-				t.setContextClassLoader(null);
-			} catch (final Throwable th) {
-				// nothing to do
-			}
-
-			if (timeout != 0) {
-				flag[0] = flag[0]
-						&& (System.currentTimeMillis() - start) < timeout;
-			}
-		} catch (final Throwable e) {
-			flag[0] = false;
+			valid = getManager().ping(getProtocol(), timeout * 1000);
+		} catch (final SQLException e) {
+			valid = false;
 		}
 
 		// check the result and close the connection completely
-		if (flag[0]) {
+		if (valid) {
 			return true;
 		} else {
 			close();
@@ -414,7 +607,28 @@ public class TidaConnection extends BaseConnectionWrapper implements Connection
 
 	@Override
 	public void abort(final Executor executor) throws SQLException {
-		// we just ignore the call :(
+		if (executor == null) {
+			throw TidaSqlExceptions.createException(1015);
+		} else if (isClosed()) {
+			return;
+		}
+
+		// mark the connection as closed and cancel any running query
+		this.aborted = true;
+		getManager().cancelAll();
+
+		// release everything using the executor
+		executor.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					closeAll();
+				} catch (final SQLException e) {
+					// ignore, the connection is aborted anyways
+				}
+			}
+		});
 	}
 
 	@Override
@@ -5,9 +5,15 @@ import java.sql.DriverManager;
 import java.sql.DriverPropertyInfo;
 import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.logging.Logger;
 
+import net.meisen.dissertation.jdbc.cluster.TidaHost;
+
 /**
  * The driver of a JDBC for a tida-server.
  * 
@@ -77,7 +83,8 @@ public class TidaDriver implements Driver {
 	/**
 	 * Method used to parse the {@code url} into the different
 	 * {@code DriverProperties}. The additional {@code defaults} can be used to
-	 * set not specified values.
+	 * set not specified values. Several hosts can be specified separated by a
+	 * comma (see {@link Constants#URL_HOST_SEPARATOR}).
 	 * 
 	 * @param rawUrl
 	 *            the url to be parsed
@@ -131,12 +138,130 @@ public class TidaDriver implements Driver {
 			password = null;
 		}
 
+		// check for defaults of the credentials
+		if (user == null || user.trim().isEmpty()) {
+			user = defaults == null ? null : defaults
+					.getProperty(DriverProperties.PROPERTY_USER);
+		}
+		if (password == null || password.trim().isEmpty()) {
+			password = defaults == null ? null : defaults
+					.getProperty(DriverProperties.PROPERTY_PASSWORD);
+		}
+
+		// get all the hosts, several are separated by a comma
+		final List<TidaHost> hosts = parseHosts(server.toString(), defaults);
+
+		// create the properties
+		final DriverProperties properties = new DriverProperties(rawUrl, user,
+				password, hosts);
+
+		// apply other defaults
+		properties.applyDefaults(defaults);
+
+		// get the replicas, which are parsed like the hosts
+		final String replicas = defaults == null ? null : defaults
+				.getProperty(DriverProperties.PROPERTY_REPLICAS);
+		if (replicas != null && !replicas.trim().isEmpty()) {
+			properties.setReplicas(parseHosts(replicas, defaults));
+		}
+
+		// get the shards, i.e. the models assigned to a host
+		final String shards = defaults == null ? null : defaults
+				.getProperty(DriverProperties.PROPERTY_SHARDS);
+		if (shards != null && !shards.trim().isEmpty()) {
+			properties.setShards(parseShards(shards, defaults));
+		}
+
+		return properties;
+	}
+
+	/**
+	 * Parses several hosts separated by a comma (see
+	 * {@link Constants#URL_HOST_SEPARATOR}).
+	 * 
+	 * @param servers
+	 *            the hosts to be parsed
+	 * @param defaults
+	 *            the defaults to be used if not specified within the
+	 *            {@code servers}, can be {@code null}
+	 * 
+	 * @return the parsed hosts
+	 * 
+	 * @throws SQLException
+	 *             if one of the hosts or ports is invalid
+	 * 
+	 * @see #parseHost(String, Properties)
+	 */
+	protected List<TidaHost> parseHosts(final String servers,
+			final Properties defaults) throws SQLException {
+		final List<TidaHost> hosts = new ArrayList<TidaHost>();
+		for (final String entry : servers.split(Constants.URL_HOST_SEPARATOR,
+				-1)) {
+			hosts.add(parseHost(entry.trim(), defaults));
+		}
+
+		return hosts;
+	}
+
+	/**
+	 * Parses the shards, i.e. the models assigned to the host owning it (
+	 * {@code model=host:port}), separated by a comma.
+	 * 
+	 * @param shards
+	 *            the shards to be parsed
+	 * @param defaults
+	 *            the defaults to be used if not specified within the
+	 *            {@code shards}, can be {@code null}
+	 * 
+	 * @return the parsed shards
+	 * 
+	 * @throws SQLException
+	 *             if one of the shards is invalid
+	 */
+	protected Map<String, TidaHost> parseShards(final String shards,
+			final Properties defaults) throws SQLException {
+		final Map<String, TidaHost> result = new LinkedHashMap<String, TidaHost>();
+		for (final String entry : shards.split(Constants.URL_HOST_SEPARATOR,
+				-1)) {
+			final int separator = entry.indexOf(Constants.SHARD_SEPARATOR);
+			if (separator < 1) {
+				throw TidaSqlExceptions.createException(2005, entry.trim());
+			}
+
+			final String model = entry.substring(0, separator).trim();
+			final String host = entry.substring(separator + 1).trim();
+			if (model.isEmpty()) {
+				throw TidaSqlExceptions.createException(2005, entry.trim());
+			}
+			result.put(model, parseHost(host, defaults));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Parses a single host (i.e. {@code host:port}) of the url.
+	 * 
+	 * @param server
+	 *            the host to be parsed
+	 * @param defaults
+	 *            the defaults to be used if not specified within the
+	 *            {@code server}, can be {@code null}
+	 * 
+	 * @return the parsed {@code TidaHost}
+	 * 
+	 * @throws SQLException
+	 *             if the host or port is invalid
+	 */
+	protected TidaHost parseHost(final String server, final Properties defaults)
+			throws SQLException {
+
 		// check for a portSeparator
 		final int portSeparator = server.lastIndexOf(":");
 		String host;
 		String port;
 		if (portSeparator < 0) {
-			host = server.toString();
+			host = server;
 			port = null;
 		} else {
 			host = server.substring(0, portSeparator);
@@ -152,14 +277,6 @@ public class TidaDriver implements Driver {
 			port = defaults == null ? null : defaults
 					.getProperty(DriverProperties.PROPERTY_PORT);
 		}
-		if (user == null || user.trim().isEmpty()) {
-			user = defaults == null ? null : defaults
-					.getProperty(DriverProperties.PROPERTY_USER);
-		}
-		if (password == null || password.trim().isEmpty()) {
-			password = defaults == null ? null : defaults
-					.getProperty(DriverProperties.PROPERTY_PASSWORD);
-		}
 
 		// throw exception if invalid
 		final int portNr;
@@ -175,13 +292,6 @@ public class TidaDriver implements Driver {
 			}
 		}
 
-		// create the properties
-		final DriverProperties properties = new DriverProperties(rawUrl, user,
-				password, host, portNr);
-
-		// apply other defaults
-		properties.applyDefaults(defaults);
-
-		return properties;
+		return new TidaHost(host, portNr);
 	}
 }
@@ -1,9 +1,12 @@
 package net.meisen.dissertation.jdbc;
 
+import net.meisen.dissertation.jdbc.cluster.TidaHost;
 import net.meisen.dissertation.jdbc.protocol.DataType;
 import net.meisen.dissertation.jdbc.protocol.Protocol;
 import net.meisen.dissertation.jdbc.protocol.QueryStatus;
+import net.meisen.dissertation.jdbc.protocol.ResponseType;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
@@ -40,6 +43,13 @@ public class TidaResultSet extends BaseConnectionWrapper implements ResultSet {
     private final int resultSetType;
     private final int resultSetConcurrency;
 
+    private final long firedAt;
+    private boolean firstRowRead;
+    private final QueryEvent event;
+    private final boolean replicaRouted;
+    private final TidaHost shard;
+    private RowPrefetcher prefetcher;
+
     /**
      * The constructor of the {@code TidaResultSet}. The constructor verifies if
      * the created {@code ResultSet} is of the {@code expectedType} if not an
@@ -68,7 +78,42 @@ public class TidaResultSet extends BaseConnectionWrapper implements ResultSet {
                          final int resultSetConcurrency, final int resultSetHoldability,
                          final int autoGeneratedKeys, final int[] columnIndexes,
                          final String[] columnNames) throws SQLException {
+        this(statement, sql, expectedType, resultSetType, resultSetConcurrency,
+                resultSetHoldability, autoGeneratedKeys, columnIndexes,
+                columnNames, null);
+    }
+
+    /**
+     * The constructor of the {@code TidaResultSet}, which informs the
+     * {@code IStatementListener} instances of the specified {@code event}
+     * about the life-cycle of the result-set.
+     *
+     * @param statement            the {@code TidaStatement} which created the result-set
+     * @param sql                  the query to be fired
+     * @param expectedType         the expected {@code TidaResultSetType}, which might be
+     *                             {@link TidaResultSetType#UNKNOWN}
+     * @param resultSetType        the type, only {@link #TYPE_FORWARD_ONLY} is supported
+     * @param resultSetConcurrency the concurrency, only {@link #CONCUR_READ_ONLY} is supported
+     * @param resultSetHoldability the holdability, only {@link #CLOSE_CURSORS_AT_COMMIT} or
+     *                             {@link #HOLD_CURSORS_OVER_COMMIT } is supported
+     * @param autoGeneratedKeys    a value of {@link Statement#RETURN_GENERATED_KEYS} or
+     *                             {@link Statement#NO_GENERATED_KEYS}
+     * @param columnIndexes        the indexes of the columns to retrieve the key from, must be
+     *                             empty or null
+     * @param columnNames          the names of the columns to retrieve the key from, must be
+     *                             empty or null
+     * @param event                the {@code QueryEvent} to be updated, can be {@code null}
+     * @throws SQLException if the connection cannot be established, if the
+     *                      {@code expectedType} is not valid, if an invalid value is
+     *                      used for type, concurrency, or holdability
+     */
+    public TidaResultSet(final TidaStatement statement, final String sql,
+                         final TidaResultSetType expectedType, final int resultSetType,
+                         final int resultSetConcurrency, final int resultSetHoldability,
+                         final int autoGeneratedKeys, final int[] columnIndexes,
+                         final String[] columnNames, final QueryEvent event) throws SQLException {
         super(statement);
+        this.event = event;
 
         // check the query
         if (sql == null) {
@@ -146,7 +191,29 @@ public class TidaResultSet extends BaseConnectionWrapper implements ResultSet {
         handler.setExpectedResultSetType(expectedType);
         handler.setQueryStatus(status);
 
+        // the fetch-size may enlarge the window of the flow control
+        if (!TidaResultSetType.MODIFY.equals(expectedType)) {
+            handler.setCreditWindow(determineCreditWindow(statement
+                    .getFetchSize()));
+        }
+
+        // modifications are always send to the primary hosts
+        if (TidaResultSetType.MODIFY.equals(expectedType)) {
+            this.replicaRouted = false;
+        } else if (TidaResultSetType.QUERY.equals(expectedType)
+                && statement.getDriverProperties().isRouteQueries()
+                && getManager().hasReplicas()) {
+            this.replicaRouted = true;
+        } else {
+            this.replicaRouted = statement.isReplicaRouted();
+        }
+
+        // statements referring a model are send to the host owning it
+        this.shard = getManager().getShard(sql);
+
         // fire the query
+        this.firedAt = System.nanoTime();
+        this.firstRowRead = false;
         try {
             initialize(sql);
         } catch (final SQLException e) {
@@ -160,6 +227,18 @@ public class TidaResultSet extends BaseConnectionWrapper implements ResultSet {
             // keep the exception to be thrown
             throw e;
         }
+
+        // read the results ahead in the background if enabled
+        final int depth = statement.getDriverProperties().getPrefetchDepth();
+        if (depth > 0
+                && TidaResultSetType.QUERY.equals(handler.getResultSetType())
+                && !handler.isEOR()) {
+            this.prefetcher = new RowPrefetcher(getProtocol(), handler, depth,
+                    statement.getDriverProperties().getCloseDrainLimit());
+            this.prefetcher.start();
+        } else {
+            this.prefetcher = null;
+        }
     }
 
     @Override
@@ -175,22 +254,36 @@ public class TidaResultSet extends BaseConnectionWrapper implements ResultSet {
         if (TidaResultSetType.QUERY.equals(handler.getResultSetType())
                 && !handler.isEOR()) {
 
-            // make sure that the protocol cancels if needed
-            Thread.currentThread().interrupt();
+            // cancel the query and skip the remaining response
+            getManager().getMetrics().cancelled();
+            if (event != null) {
+                event.fireCancel();
+            }
 
-            // wait until the protocol tells the system that the connection is
-            // closed
+            /*
+             * Skip the remaining response without reading the values, if too
+             * much is pending the connection is replaced instead.
+             */
             final Protocol protocol = getProtocol();
+            final int limit = getDriverProperties().getCloseDrainLimit();
+            long skipped;
             try {
-                while (!protocol.handleResponse(handler)) {
-                    // just read the next one, the end must be reached
-                }
+                skipped = prefetcher == null ? protocol.skipResponse(handler,
+                        limit) : prefetcher.close();
             } catch (final Exception e) {
                 /*
 				 * Ignore it, the connection is closed from server side, or an
 				 * exception was thrown from server side. In both cases
 				 * everything should be fine and handled later on.
 				 */
+                skipped = 0;
+            }
+
+            // the limit was exceeded, the connection cannot be used anymore
+            if (skipped < 0) {
+                handler.signalEORReached();
+                getManager().getMetrics().dropped();
+                dropProtocol();
             }
         }
 
@@ -204,6 +297,11 @@ public class TidaResultSet extends BaseConnectionWrapper implements ResultSet {
      * @throws SQLException if the query fails or cannot be initialized
      */
     protected void initialize(final String sql) throws SQLException {
+        final Protocol protocol = getProtocol();
+        if (event != null) {
+            event.bind(protocol);
+        }
+        getManager().getMetrics().routed(getManager().isReplica(protocol));
 
         if (fireQuery(sql, handler)) {
             if (TidaResultSetType.MODIFY.equals(handler.getResultSetType())) {
@@ -214,6 +312,11 @@ public class TidaResultSet extends BaseConnectionWrapper implements ResultSet {
                 while (!handler.isEOR()) {
                     handleResponse(handler);
                 }
+                getManager().getMetrics().endOfResponse(
+                        System.nanoTime() - firedAt);
+                if (event != null) {
+                    event.fireEndOfResponse(handler.getResultSetType());
+                }
 
                 // we don't need the connection anymore, so just release it
                 release();
@@ -268,6 +371,16 @@ public class TidaResultSet extends BaseConnectionWrapper implements ResultSet {
         return getParent();
     }
 
+    @Override
+    protected boolean isReplicaRouted() {
+        return replicaRouted;
+    }
+
+    @Override
+    protected TidaHost getShard() {
+        return shard == null ? super.getShard() : shard;
+    }
+
     @Override
     protected boolean doCloseOnCommit() {
         return resultSetHoldability == ResultSet.CLOSE_CURSORS_AT_COMMIT;
@@ -295,13 +408,87 @@ public class TidaResultSet extends BaseConnectionWrapper implements ResultSet {
         } else {
 
             // read the next one
-            handleResponse(handler);
+            if (event == null) {
+                nextResponse();
+            } else {
+                try {
+                    nextResponse();
+                } catch (final SQLException e) {
+                    event.fireError(e);
+                    throw e;
+                }
+            }
 
             // if no eor there was a next
-            return !handler.reachedEOR();
+            if (handler.reachedEOR()) {
+                getManager().getMetrics().endOfResponse(
+                        System.nanoTime() - firedAt);
+                if (event != null) {
+                    event.fireEndOfResponse(handler.getResultSetType());
+                }
+                return false;
+            } else {
+                if (!firstRowRead) {
+                    firstRowRead = true;
+                    getManager().getMetrics().firstRow(
+                            System.nanoTime() - firedAt);
+                }
+                if (event != null) {
+                    event.fireRow();
+                }
+                if (handler.getCreditWindow() > 0) {
+                    acknowledgeResult();
+                }
+                return true;
+            }
         }
     }
 
+    /**
+     * Acknowledges the consumption of the current row, i.e. grants the
+     * server to send further rows if the rows are flow-controlled (see
+     * {@link #getFetchSize()}).
+     *
+     * @throws SQLException if the credit cannot be send
+     */
+    protected void acknowledgeResult() throws SQLException {
+        try {
+            getProtocol().acknowledgeResult();
+        } catch (final IOException e) {
+            throw TidaSqlExceptions.createException(9007, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the next result into the handler, either directly from the
+     * protocol or from the results read ahead (see {@link RowPrefetcher}).
+     *
+     * @throws SQLException if the next result cannot be read
+     */
+    protected void nextResponse() throws SQLException {
+        if (prefetcher == null) {
+            handleResponse(handler);
+        } else {
+            final Object[] result = prefetcher.take();
+            if (result == null) {
+                handler.signalEORReached();
+            } else {
+                handler.handleResult(ResponseType.RESULT, result);
+            }
+        }
+    }
+
+    /**
+     * Checks if the results are read ahead in the background (see
+     * {@link DriverProperties#getPrefetchDepth()}).
+     *
+     * @return {@code true} if the results are read ahead, otherwise
+     * {@code false}
+     */
+    public boolean isPrefetching() {
+        return prefetcher != null;
+    }
+
     /**
      * Gets the last result retrieved from {@code this}.
      *
@@ -736,23 +923,68 @@ public class TidaResultSet extends BaseConnectionWrapper implements ResultSet {
         return ResultSet.FETCH_FORWARD;
     }
 
+    /**
+     * Sets the amount of rows the server may send ahead of the consumed rows.
+     * The fetch-size can only be changed, if the rows are flow-controlled
+     * (see {@link DriverProperties#getCreditWindow()}), otherwise only a
+     * fetch-size of {@code 0} or {@code 1} is accepted and ignored. The window
+     * is never reduced below the {@code creditwindow}.
+     *
+     * @param rows the amount of rows the server may send ahead
+     * @throws SQLException if the value is invalid, or the rows are not
+     *                      flow-controlled
+     */
     @Override
     public void setFetchSize(final int rows) throws SQLException {
         checkClosed();
 
-        if (rows > 1) {
-            throw TidaSqlExceptions
-                    .createNotSupportedException(4001, "" + rows);
-        } else if (rows < 0) {
+        if (rows < 0) {
             throw TidaSqlExceptions.createException(4002, "" + rows);
+        } else if (handler.getCreditWindow() <= 0) {
+            if (rows > 1) {
+                throw TidaSqlExceptions.createNotSupportedException(4001, ""
+                        + rows);
+            }
+            return;
         }
+
+        final int window = determineCreditWindow(rows);
+        if (window == handler.getCreditWindow()) {
+            return;
+        }
+
+        // the new window is only of interest for a running response
+        handler.setCreditWindow(window);
+        if (!handler.isEOR()) {
+            try {
+                getProtocol().resizeCreditWindow(window);
+            } catch (final IOException e) {
+                throw TidaSqlExceptions.createException(9007, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Determines the window of the flow control for the specified fetch-size.
+     * The rows are only flow-controlled, if a {@code creditwindow} is defined
+     * (see {@link DriverProperties#getCreditWindow()}), which is the minimal
+     * window, i.e. a small fetch-size (e.g. {@code 1}) does not lead to a
+     * round trip per row.
+     *
+     * @param rows the fetch-size
+     * @return the window of the flow control, {@code 0} if the rows are not
+     * flow-controlled
+     */
+    protected int determineCreditWindow(final int rows) {
+        final int window = getDriverProperties().getCreditWindow();
+        return window > 0 ? Math.max(window, rows) : 0;
     }
 
     @Override
     public int getFetchSize() throws SQLException {
         checkClosed();
 
-        return 1;
+        return handler.getCreditWindow();
     }
 
     @Override
@@ -1707,7 +1939,7 @@ public class TidaResultSet extends BaseConnectionWrapper implements ResultSet {
      *
      * @return the generated keys
      */
-    public Integer[] getGeneratedKeys() {
+    public int[] getGeneratedKeys() {
         return handler.getGeneratedIds();
     }
 }
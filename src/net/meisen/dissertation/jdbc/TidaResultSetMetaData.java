@@ -15,6 +15,8 @@ public class TidaResultSetMetaData extends BaseWrapper implements
 		ResultSetMetaData {
 
 	private final TidaResultSet resultSet;
+	private final String[] labels;
+	private final DataType[] types;
 
 	/**
 	 * The {@code ResultSet} the meta-data instance is created for.
@@ -23,12 +25,67 @@ public class TidaResultSetMetaData extends BaseWrapper implements
 	 */
 	public TidaResultSetMetaData(final TidaResultSet resultSet) {
 		this.resultSet = resultSet;
+		this.labels = null;
+		this.types = null;
+	}
+
+	/**
+	 * Constructor to create meta-data for a result, which is not retrieved
+	 * from the server (e.g. a {@code SnapshotResultSet}).
+	 * 
+	 * @param labels
+	 *            the labels of the columns
+	 * @param types
+	 *            the types of the columns
+	 */
+	public TidaResultSetMetaData(final String[] labels, final DataType[] types) {
+		this.resultSet = null;
+		this.labels = labels;
+		this.types = types;
+	}
+
+	/**
+	 * Gets the type of the specified {@code column}.
+	 * 
+	 * @param column
+	 *            the one-based index of the column
+	 * 
+	 * @return the type of the column, {@code null} if the column is invalid
+	 */
+	protected DataType getHeaderType(final int column) {
+		if (resultSet != null) {
+			return resultSet.getHeaderType(column);
+		} else if (column < 1 || column > types.length) {
+			return null;
+		} else {
+			return types[column - 1];
+		}
+	}
+
+	/**
+	 * Gets the label of the specified {@code column}.
+	 * 
+	 * @param column
+	 *            the one-based index of the column
+	 * 
+	 * @return the label of the column, {@code null} if the column is invalid
+	 */
+	protected String getHeaderLabel(final int column) {
+		if (resultSet != null) {
+			return resultSet.getHeaderLabel(column);
+		} else if (column < 1 || column > labels.length) {
+			return null;
+		} else {
+			return labels[column - 1];
+		}
 	}
 
 	@Override
 	public int getColumnCount() throws SQLException {
-
-		if (TidaResultSetType.MODIFY.equals(resultSet.getResultSetType())) {
+		if (resultSet == null) {
+			return types.length;
+		} else if (TidaResultSetType.MODIFY.equals(resultSet
+				.getResultSetType())) {
 			throw TidaSqlExceptions.createException(6001);
 		}
 
@@ -67,7 +124,7 @@ public class TidaResultSetMetaData extends BaseWrapper implements
 
 	@Override
 	public boolean isSigned(final int column) throws SQLException {
-		final DataType type = resultSet.getHeaderType(column);
+		final DataType type = getHeaderType(column);
 
 		if (type == null) {
 			throw TidaSqlExceptions.createException(6002, "" + column);
@@ -78,7 +135,7 @@ public class TidaResultSetMetaData extends BaseWrapper implements
 
 	@Override
 	public int getColumnDisplaySize(final int column) throws SQLException {
-		final DataType type = resultSet.getHeaderType(column);
+		final DataType type = getHeaderType(column);
 
 		if (type == null) {
 			throw TidaSqlExceptions.createException(6002, "" + column);
@@ -93,7 +150,7 @@ public class TidaResultSetMetaData extends BaseWrapper implements
 
 	@Override
 	public String getColumnLabel(final int column) throws SQLException {
-		final String name = resultSet.getHeaderLabel(column);
+		final String name = getHeaderLabel(column);
 
 		if (name == null) {
 			throw TidaSqlExceptions.createException(6002, "" + column);
@@ -114,7 +171,7 @@ public class TidaResultSetMetaData extends BaseWrapper implements
 
 	@Override
 	public int getPrecision(final int column) throws SQLException {
-		final DataType type = resultSet.getHeaderType(column);
+		final DataType type = getHeaderType(column);
 
 		if (type == null) {
 			throw TidaSqlExceptions.createException(6002, "" + column);
@@ -125,7 +182,7 @@ public class TidaResultSetMetaData extends BaseWrapper implements
 
 	@Override
 	public int getScale(final int column) throws SQLException {
-		final DataType type = resultSet.getHeaderType(column);
+		final DataType type = getHeaderType(column);
 
 		if (type == null) {
 			throw TidaSqlExceptions.createException(6002, "" + column);
@@ -146,7 +203,7 @@ public class TidaResultSetMetaData extends BaseWrapper implements
 
 	@Override
 	public int getColumnType(final int column) throws SQLException {
-		final DataType type = resultSet.getHeaderType(column);
+		final DataType type = getHeaderType(column);
 
 		if (type == null) {
 			throw TidaSqlExceptions.createException(6002, "" + column);
@@ -157,7 +214,7 @@ public class TidaResultSetMetaData extends BaseWrapper implements
 
 	@Override
 	public String getColumnTypeName(final int column) throws SQLException {
-		final DataType type = resultSet.getHeaderType(column);
+		final DataType type = getHeaderType(column);
 
 		if (type == null) {
 			throw TidaSqlExceptions.createException(6002, "" + column);
@@ -183,7 +240,7 @@ public class TidaResultSetMetaData extends BaseWrapper implements
 
 	@Override
 	public String getColumnClassName(final int column) throws SQLException {
-		final DataType type = resultSet.getHeaderType(column);
+		final DataType type = getHeaderType(column);
 
 		if (type == null) {
 			throw TidaSqlExceptions.createException(6002, "" + column);
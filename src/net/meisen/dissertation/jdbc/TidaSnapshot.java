@@ -0,0 +1,710 @@
+package net.meisen.dissertation.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+
+import net.meisen.dissertation.jdbc.protocol.DataType;
+
+/**
+ * A columnar snapshot of a result persisted to a file (see
+ * {@link TidaStatement#snapshot(String, Path)} and {@link SnapshotWriter}).
+ * The snapshot is opened without reading the values, i.e. the segments of
+ * the file are memory-mapped and the values are read when accessed. The
+ * server is never contacted.<br/>
+ * <br/>
+ * The values of a column are available row by row (e.g.
+ * {@link #getLong(int, int)}), as read-only view of the whole column (e.g.
+ * {@link #getLongs(int)}), or as {@code ResultSet} (see
+ * {@link #createResultSet()}). The columns are zero-based (unlike the
+ * columns of a {@code ResultSet}). A view contains {@code 0} for a
+ * {@code null} value, the {@code null} values are available using
+ * {@link #isNull(int, int)}. The values of a {@link DataType#STRING} column
+ * are the identifiers of the entries of the column's dictionary (see
+ * {@link #getDictionaryEntry(int, int)}), the values of a
+ * {@link DataType#DATE} column are milliseconds since the epoch.<br/>
+ * <br/>
+ * The file starts with the magic number {@link #MAGIC} and the
+ * {@link #VERSION} of the format, followed by the segments of the columns
+ * (i.e. the fixed-width values, the bitmap of the {@code null} values, and
+ * the dictionary of a string column), the footer indexing the segments, and
+ * the position of the footer followed by the magic number. All the segments
+ * are aligned to 8 bytes.<br/>
+ * <br/>
+ * A snapshot can be read by several threads concurrently. The mapped
+ * segments cannot be unmapped explicitly, i.e. closing the snapshot closes
+ * the file, but the views stay valid until those are unreachable.
+ *
+ * @author pmeisen
+ *
+ */
+public class TidaSnapshot implements AutoCloseable {
+
+	/**
+	 * The magic number of a snapshot, i.e. {@code TIDS}.
+	 */
+	public static final int MAGIC = 0x54494453;
+	/**
+	 * The version of the format of a snapshot.
+	 */
+	public static final byte VERSION = 1;
+	/**
+	 * The size of the header of a snapshot, i.e. the magic number, the
+	 * version and the padding to 8 bytes.
+	 */
+	public static final int HEADER_SIZE = 8;
+	/**
+	 * The size of the trailer of a snapshot, i.e. the position of the footer
+	 * and the magic number.
+	 */
+	public static final int TRAILER_SIZE = 12;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final Path path;
+	private final FileChannel channel;
+	private final int rows;
+	private final String[] names;
+	private final DataType[] types;
+	private final ByteBuffer[] values;
+	private final LongBuffer[] nulls;
+	private final ByteBuffer[] dictionaries;
+	private final int[] dictionarySizes;
+	private final String[][] entries;
+
+	private volatile boolean closed;
+
+	/**
+	 * Constructor to open the snapshot persisted at the specified
+	 * {@code path}.
+	 *
+	 * @param path
+	 *            the file of the snapshot
+	 *
+	 * @throws IOException
+	 *             if the file cannot be read or is not a valid snapshot
+	 */
+	public TidaSnapshot(final Path path) throws IOException {
+		this.path = path;
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+
+		try {
+			final long size = channel.size();
+			if (size < HEADER_SIZE + TRAILER_SIZE) {
+				throw new IOException("The file '" + path
+						+ "' is not a snapshot.");
+			}
+
+			// validate the header and the trailer
+			final ByteBuffer header = read(0, HEADER_SIZE);
+			final ByteBuffer trailer = read(size - TRAILER_SIZE, TRAILER_SIZE);
+			final long footerPos = trailer.getLong();
+			if (header.getInt() != MAGIC || trailer.getInt() != MAGIC
+					|| footerPos < HEADER_SIZE
+					|| footerPos > size - TRAILER_SIZE) {
+				throw new IOException("The file '" + path
+						+ "' is not a snapshot.");
+			}
+			final byte version = header.get();
+			if (version != VERSION) {
+				throw new IOException("The version '" + version
+						+ "' of the snapshot '" + path
+						+ "' is not supported.");
+			}
+
+			// read the footer and map the segments of each column
+			final ByteBuffer footer = read(footerPos,
+					(int) (size - TRAILER_SIZE - footerPos));
+			final DataInputStream in = new DataInputStream(
+					new ByteArrayInputStream(footer.array()));
+			this.rows = in.readInt();
+			final int columns = in.readInt();
+
+			this.names = new String[columns];
+			this.types = new DataType[columns];
+			this.values = new ByteBuffer[columns];
+			this.nulls = new LongBuffer[columns];
+			this.dictionaries = new ByteBuffer[columns];
+			this.dictionarySizes = new int[columns];
+			this.entries = new String[columns][];
+			for (int i = 0; i < columns; i++) {
+				types[i] = DataType.find(in.readByte());
+				if (types[i] == null) {
+					throw new IOException("The snapshot '" + path
+							+ "' contains an unsupported data-type.");
+				}
+				names[i] = in.readUTF();
+
+				final long valuesPos = in.readLong();
+				final long nullsPos = in.readLong();
+				final long dictionaryPos = in.readLong();
+				final int dictionarySize = in.readInt();
+				final int dictionaryLength = in.readInt();
+
+				values[i] = map(valuesPos, (long) rows * getWidth(types[i]));
+				if (nullsPos >= 0) {
+					nulls[i] = map(nullsPos, getBitmapLength(rows))
+							.asLongBuffer();
+				}
+				if (dictionaryPos >= 0) {
+					dictionaries[i] = map(dictionaryPos, dictionaryLength);
+					dictionarySizes[i] = dictionarySize;
+					entries[i] = new String[dictionarySize];
+				}
+			}
+		} catch (final IOException e) {
+			channel.close();
+			throw e;
+		} catch (final RuntimeException e) {
+			channel.close();
+			throw new IOException("The snapshot '" + path
+					+ "' is corrupted.", e);
+		}
+
+		this.closed = false;
+	}
+
+	/**
+	 * Opens the snapshot persisted at the specified {@code path}.
+	 *
+	 * @param path
+	 *            the file of the snapshot
+	 *
+	 * @return the opened snapshot
+	 *
+	 * @throws IOException
+	 *             if the file cannot be read or is not a valid snapshot
+	 */
+	public static TidaSnapshot open(final Path path) throws IOException {
+		return new TidaSnapshot(path);
+	}
+
+	/**
+	 * Gets the width in bytes of a value of the specified {@code type} within
+	 * a snapshot.
+	 *
+	 * @param type
+	 *            the type to get the width for
+	 *
+	 * @return the width of a value
+	 */
+	public static int getWidth(final DataType type) {
+		switch (type) {
+		case BYTE:
+			return 1;
+		case SHORT:
+			return 2;
+		case INT:
+		case STRING:
+			return 4;
+		default:
+			return 8;
+		}
+	}
+
+	/**
+	 * Gets the length in bytes of the bitmap marking the {@code null} values
+	 * of the specified amount of {@code rows}.
+	 *
+	 * @param rows
+	 *            the amount of rows
+	 *
+	 * @return the length of the bitmap
+	 */
+	public static long getBitmapLength(final int rows) {
+		return ((rows + 63L) >>> 6) * 8L;
+	}
+
+	private ByteBuffer read(final long pos, final int length)
+			throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, pos + buffer.position()) < 0) {
+				throw new IOException("The snapshot '" + path
+						+ "' is truncated.");
+			}
+		}
+		buffer.flip();
+
+		return buffer;
+	}
+
+	private ByteBuffer map(final long pos, final long length)
+			throws IOException {
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("The segment of the snapshot '" + path
+					+ "' is too large to be mapped.");
+		}
+
+		return channel.map(MapMode.READ_ONLY, pos, length);
+	}
+
+	/**
+	 * Gets the amount of rows of the snapshot.
+	 *
+	 * @return the amount of rows
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Gets the amount of columns of the snapshot.
+	 *
+	 * @return the amount of columns
+	 */
+	public int getColumnCount() {
+		return types.length;
+	}
+
+	/**
+	 * Gets the name of the specified {@code column}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 *
+	 * @return the name of the column
+	 */
+	public String getName(final int column) {
+		return names[column];
+	}
+
+	/**
+	 * Gets the type of the specified {@code column}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 *
+	 * @return the type of the column
+	 */
+	public DataType getType(final int column) {
+		return types[column];
+	}
+
+	/**
+	 * Gets the names of all the columns.
+	 *
+	 * @return the names of the columns
+	 */
+	public String[] getNames() {
+		return names.clone();
+	}
+
+	/**
+	 * Gets the types of all the columns.
+	 *
+	 * @return the types of the columns
+	 */
+	public DataType[] getTypes() {
+		return types.clone();
+	}
+
+	/**
+	 * Gets the index of the column with the specified {@code name}.
+	 *
+	 * @param name
+	 *            the name of the column
+	 *
+	 * @return the zero-based index of the column, {@code -1} if no column has
+	 *         the specified {@code name}
+	 */
+	public int findColumn(final String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name)) {
+				return i;
+			}
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Checks if the value of the specified {@code column} is {@code null} in
+	 * the specified {@code row}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 * @param row
+	 *            the zero-based index of the row
+	 *
+	 * @return {@code true} if the value is {@code null}, otherwise
+	 *         {@code false}
+	 */
+	public boolean isNull(final int column, final int row) {
+		final LongBuffer bitmap = nulls[column];
+		return bitmap != null && (bitmap.get(row >>> 6) & (1L << row)) != 0;
+	}
+
+	/**
+	 * Checks if the specified {@code column} contains any {@code null} value.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 *
+	 * @return {@code true} if the column contains a {@code null} value,
+	 *         otherwise {@code false}
+	 */
+	public boolean hasNulls(final int column) {
+		return nulls[column] != null;
+	}
+
+	/**
+	 * Gets the value of the specified {@code column} of the type
+	 * {@link DataType#BYTE} in the specified {@code row}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 * @param row
+	 *            the zero-based index of the row
+	 *
+	 * @return the value, {@code 0} if the value is {@code null}
+	 */
+	public byte getByte(final int column, final int row) {
+		checkType(column, DataType.BYTE);
+		return values[column].get(row);
+	}
+
+	/**
+	 * Gets the value of the specified {@code column} of the type
+	 * {@link DataType#SHORT} in the specified {@code row}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 * @param row
+	 *            the zero-based index of the row
+	 *
+	 * @return the value, {@code 0} if the value is {@code null}
+	 */
+	public short getShort(final int column, final int row) {
+		checkType(column, DataType.SHORT);
+		return values[column].getShort(row << 1);
+	}
+
+	/**
+	 * Gets the value of the specified {@code column} of the type
+	 * {@link DataType#INT} in the specified {@code row}. The value of a
+	 * {@link DataType#STRING} column is the identifier of the entry of the
+	 * dictionary.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 * @param row
+	 *            the zero-based index of the row
+	 *
+	 * @return the value, {@code 0} if the value is {@code null}
+	 */
+	public int getInt(final int column, final int row) {
+		checkType(column, DataType.INT, DataType.STRING);
+		return values[column].getInt(row << 2);
+	}
+
+	/**
+	 * Gets the value of the specified integer or {@link DataType#DATE}
+	 * {@code column} in the specified {@code row}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 * @param row
+	 *            the zero-based index of the row
+	 *
+	 * @return the value, {@code 0} if the value is {@code null}
+	 */
+	public long getLong(final int column, final int row) {
+		final ByteBuffer buffer = values[column];
+
+		switch (types[column]) {
+		case BYTE:
+			return buffer.get(row);
+		case SHORT:
+			return buffer.getShort(row << 1);
+		case INT:
+			return buffer.getInt(row << 2);
+		case LONG:
+		case DATE:
+			return buffer.getLong(row << 3);
+		default:
+			throw createTypeException(column, "long");
+		}
+	}
+
+	/**
+	 * Gets the value of the specified numeric {@code column} in the specified
+	 * {@code row}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 * @param row
+	 *            the zero-based index of the row
+	 *
+	 * @return the value, {@code 0} if the value is {@code null}
+	 */
+	public double getDouble(final int column, final int row) {
+		if (DataType.DOUBLE.equals(types[column])) {
+			return values[column].getDouble(row << 3);
+		} else if (types[column].isInteger()) {
+			return getLong(column, row);
+		} else {
+			throw createTypeException(column, "double");
+		}
+	}
+
+	/**
+	 * Gets the value of the specified {@link DataType#STRING} {@code column}
+	 * in the specified {@code row}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 * @param row
+	 *            the zero-based index of the row
+	 *
+	 * @return the value, {@code null} if the value is {@code null}
+	 */
+	public String getString(final int column, final int row) {
+		checkType(column, DataType.STRING);
+
+		if (isNull(column, row)) {
+			return null;
+		} else {
+			return getDictionaryEntry(column, values[column].getInt(row << 2));
+		}
+	}
+
+	/**
+	 * Gets the value of the specified {@code column} in the specified
+	 * {@code row} as instance of the representing class of the column's type
+	 * (see {@link DataType#getRepresentorClass()}).
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 * @param row
+	 *            the zero-based index of the row
+	 *
+	 * @return the value, {@code null} if the value is {@code null}
+	 */
+	public Object getValue(final int column, final int row) {
+		if (isNull(column, row)) {
+			return null;
+		}
+
+		final ByteBuffer buffer = values[column];
+		switch (types[column]) {
+		case BYTE:
+			return buffer.get(row);
+		case SHORT:
+			return buffer.getShort(row << 1);
+		case INT:
+			return buffer.getInt(row << 2);
+		case LONG:
+			return buffer.getLong(row << 3);
+		case DATE:
+			return new Date(buffer.getLong(row << 3));
+		case DOUBLE:
+			return buffer.getDouble(row << 3);
+		case STRING:
+			return getDictionaryEntry(column, buffer.getInt(row << 2));
+		default:
+			throw createTypeException(column, "Object");
+		}
+	}
+
+	/**
+	 * Gets the values of the specified {@link DataType#BYTE} {@code column}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 *
+	 * @return a read-only view of the values
+	 */
+	public ByteBuffer getBytes(final int column) {
+		checkType(column, DataType.BYTE);
+		return values[column].asReadOnlyBuffer();
+	}
+
+	/**
+	 * Gets the values of the specified {@link DataType#SHORT} {@code column}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 *
+	 * @return a read-only view of the values
+	 */
+	public ShortBuffer getShorts(final int column) {
+		checkType(column, DataType.SHORT);
+		return values[column].asShortBuffer().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Gets the values of the specified {@link DataType#INT} {@code column}, or
+	 * the identifiers of the dictionary entries of the specified
+	 * {@link DataType#STRING} {@code column}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 *
+	 * @return a read-only view of the values
+	 */
+	public IntBuffer getInts(final int column) {
+		checkType(column, DataType.INT, DataType.STRING);
+		return values[column].asIntBuffer().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Gets the values of the specified {@link DataType#LONG} or
+	 * {@link DataType#DATE} {@code column}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 *
+	 * @return a read-only view of the values
+	 */
+	public LongBuffer getLongs(final int column) {
+		checkType(column, DataType.LONG, DataType.DATE);
+		return values[column].asLongBuffer().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Gets the values of the specified {@link DataType#DOUBLE}
+	 * {@code column}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 *
+	 * @return a read-only view of the values
+	 */
+	public DoubleBuffer getDoubles(final int column) {
+		checkType(column, DataType.DOUBLE);
+		return values[column].asDoubleBuffer().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Gets the amount of entries of the dictionary of the specified
+	 * {@link DataType#STRING} {@code column}.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 *
+	 * @return the amount of entries of the dictionary
+	 */
+	public int getDictionarySize(final int column) {
+		checkType(column, DataType.STRING);
+		return dictionarySizes[column];
+	}
+
+	/**
+	 * Gets the entry of the dictionary of the specified
+	 * {@link DataType#STRING} {@code column}. The entry is decoded when
+	 * retrieved the first time.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 * @param id
+	 *            the identifier of the entry
+	 *
+	 * @return the entry
+	 */
+	public String getDictionaryEntry(final int column, final int id) {
+		checkType(column, DataType.STRING);
+
+		final String[] cache = entries[column];
+		String entry = cache[id];
+		if (entry == null) {
+
+			// the offsets of the entries are followed by the entries
+			final ByteBuffer dictionary = dictionaries[column];
+			final int base = (dictionarySizes[column] + 1) << 2;
+			final int start = dictionary.getInt(id << 2);
+			final int end = dictionary.getInt((id + 1) << 2);
+
+			final byte[] bytes = new byte[end - start];
+			final ByteBuffer source = dictionary.duplicate();
+			source.position(base + start);
+			source.get(bytes);
+
+			entry = new String(bytes, UTF8);
+			cache[id] = entry;
+		}
+
+		return entry;
+	}
+
+	/**
+	 * Creates a read-only {@code ResultSet} iterating the rows of the
+	 * snapshot. Closing the {@code ResultSet} does not close the snapshot.
+	 *
+	 * @return the created {@code ResultSet}
+	 */
+	public SnapshotResultSet createResultSet() {
+		return new SnapshotResultSet(this);
+	}
+
+	/**
+	 * Checks if the specified {@code column} is of one of the specified
+	 * {@code expected} types.
+	 *
+	 * @param column
+	 *            the zero-based index of the column
+	 * @param expected
+	 *            the expected types
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the column is of another type
+	 */
+	protected void checkType(final int column, final DataType... expected)
+			throws IllegalArgumentException {
+		for (final DataType type : expected) {
+			if (type.equals(types[column])) {
+				return;
+			}
+		}
+
+		throw createTypeException(column, expected[0].toString());
+	}
+
+	private IllegalArgumentException createTypeException(final int column,
+			final String requested) {
+		return new IllegalArgumentException("The column '" + names[column]
+				+ "' of type '" + types[column] + "' cannot be read as '"
+				+ requested + "'.");
+	}
+
+	/**
+	 * Gets the file of the snapshot.
+	 *
+	 * @return the file of the snapshot
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Checks if the snapshot is closed.
+	 *
+	 * @return {@code true} if the snapshot is closed, otherwise {@code false}
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Closes the file of the snapshot. Views retrieved so far stay valid.
+	 *
+	 * @throws IOException
+	 *             if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		channel.close();
+	}
+}
@@ -173,6 +173,17 @@ public class TidaSqlExceptions {
 			return "The connection does not support BLOB.";
 		case 1012:
 			return "The connection does not support NLOB.";
+		case 1013:
+			return "Cannot create the statement listener '" + parameter[0]
+					+ "'.";
+		case 1015:
+			return "The connection cannot be aborted without an executor.";
+		case 1016:
+			return "Interrupted while waiting for the query '" + parameter[0]
+					+ "' of a fan-out.";
+		case 1017:
+			return "The fan-out was closed before the query '" + parameter[0]
+					+ "' was executed.";
 		case 1999:
 			return "The connection is already closed.";
 		case 2000:
@@ -185,12 +196,13 @@ public class TidaSqlExceptions {
 			return "The specified port '" + parameter[0]
 					+ "' is not a valid number, please use: "
 					+ Constants.URL_FULL_SYNTAX;
+		case 2005:
+			return "The shard '" + parameter[0]
+					+ "' is invalid, please use: model" + Constants.SHARD_SEPARATOR
+					+ "host:port";
 		case 3000:
 			return "The fetch-direction cannot be changed to '" + parameter[0]
 					+ "'.";
-		case 3001:
-			return "Changing the fetch-size is not supported, therefore the value '"
-					+ parameter[0] + "' is ignored.";
 		case 3002:
 			return "The value '" + parameter[0]
 					+ "' is an invalid value considering the fetch-size.";
@@ -215,14 +227,44 @@ public class TidaSqlExceptions {
 					+ parameter[0] + "'.";
 		case 3009:
 			return "The date '" + parameter[0] + "' cannot be parsed to UTC.";
+		case 3010:
+			return "The execution of statement '" + parameter[0]
+					+ "' was cancelled.";
+		case 3011:
+			return "The time-window from '" + parameter[0] + "' to '"
+					+ parameter[1] + "' cannot be split into '" + parameter[2]
+					+ "' windows.";
+		case 3012:
+			return "The bulk-load into '" + parameter[0] + "' expects '"
+					+ parameter[1] + "' values, got '" + parameter[2] + "'.";
+		case 3013:
+			return "The value '" + parameter[0] + "' at position '"
+					+ parameter[1] + "' is not of the type '" + parameter[2]
+					+ "'.";
+		case 3014:
+			return "The bulk-load into '" + parameter[0]
+					+ "' was not accepted by the server.";
+		case 3015:
+			return "The records cannot be loaded into '" + parameter[0]
+					+ "': " + parameter[1];
+		case 3016:
+			return "The bulk-load into '" + parameter[0]
+					+ "' is already closed.";
+		case 3017:
+			return "The results of '" + parameter[0]
+					+ "' cannot be exported: " + parameter[1];
+		case 3018:
+			return "The results of '" + parameter[0]
+					+ "' cannot be written to a snapshot: " + parameter[1];
 		case 3999:
 			return "The statement is already closed.";
 		case 4000:
 			return "The fetch-direction cannot be changed to '" + parameter[0]
 					+ "'.";
 		case 4001:
-			return "Changing the fetch-size is not supported, therefore the value '"
-					+ parameter[0] + "' is ignored.";
+			return "Changing the fetch-size to '"
+					+ parameter[0]
+					+ "' is only supported, if the rows are flow-controlled (see 'creditwindow').";
 		case 4002:
 			return "The value '" + parameter[0]
 					+ "' is an invalid value considering the fetch-size.";
@@ -378,6 +420,34 @@ public class TidaSqlExceptions {
 					+ "' from the server: " + parameter[1];
 		case 9009:
 			return "Unable to send credentials.";
+		case 9010:
+			return "Cannot create the host selection strategy '"
+					+ parameter[0] + "'.";
+
+		case 10000:
+			return "The column-index of the snapshot starts with 1 and ends with "
+					+ parameter[0] + ".";
+		case 10001:
+			return "The snapshot does not have a row at position "
+					+ parameter[0] + ", it contains " + parameter[1]
+					+ " rows.";
+		case 10002:
+			return "The snapshot does not have any column labeled '"
+					+ parameter[0] + "' use one of: " + parameter[1];
+		case 10003:
+			return "The setting of a fetch-direction other than ResultSet.FETCH_FORWARD is not supported.";
+		case 10004:
+			return "The snapshot does not support manipulation of any kind.";
+		case 10005:
+			return "The snapshot does not support rowIds.";
+		case 10006:
+			return "The value of type '" + parameter[0]
+					+ "' at columnIndex '" + parameter[1]
+					+ "' cannot be retrieved as '" + parameter[2] + "'.";
+		case 10998:
+			return "The snapshot is closed.";
+		case 10999:
+			return "The snapshot does not support the retrieval of streams, bytes, references, large objects, arrays or urls.";
 		default:
 			return "Unknown exception.";
 		}
@@ -1,9 +1,13 @@
 package net.meisen.dissertation.jdbc;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Array;
 import java.sql.Blob;
 import java.sql.Clob;
@@ -207,8 +211,11 @@ public class TidaStatement extends BaseConnectionWrapper implements Statement, P
 
     private List<String> batch;
     private int queryTimeoutInMs;
+    private int fetchSize;
     private TidaResultSet currentResultSet;
     private CurrentResultSetType currentResultSetType;
+    private volatile QueryEvent currentEvent;
+    private volatile boolean cancelled;
 
     /**
      * Creating a {@code Statement} for the specified {@code connection} and the
@@ -344,6 +351,7 @@ public class TidaStatement extends BaseConnectionWrapper implements Statement, P
         // set defaults
         this.batch = new ArrayList<>();
         this.queryTimeoutInMs = 0;
+        this.fetchSize = Math.max(0, getDriverProperties().getCreditWindow());
         this.currentResultSet = null;
         this.currentResultSetType = null;
 
@@ -532,11 +540,19 @@ public class TidaStatement extends BaseConnectionWrapper implements Statement, P
         // get the sql to be used
         final String query = sql == null ? replacePlaceholder() : sql;
 
+        // inform the listeners
+        final QueryEvent event = createQueryEvent(query);
+        this.currentEvent = event;
+        this.cancelled = false;
+        if (event != null) {
+            event.fireBeforeExecute();
+        }
+
         // create a thread to fire a query
         final Callable<TidaResultSet> executeTask = () -> new TidaResultSet(TidaStatement.this, query, type,
                 getResultSetType(), getResultSetConcurrency(),
                 getResultSetHoldability(), autoGeneratedKeys,
-                columnIndexes, columnNames);
+                columnIndexes, columnNames, event);
 
         // run the query
         final Future<TidaResultSet> future = executor.submit(executeTask);
@@ -548,18 +564,31 @@ public class TidaStatement extends BaseConnectionWrapper implements Statement, P
                 resultSet = future.get(queryTimeoutInMs, TimeUnit.MILLISECONDS);
             }
         } catch (final InterruptedException e) {
-            throw TidaSqlExceptions
-                    .createException(3006, query, e.getMessage());
+            throw fireError(event, TidaSqlExceptions
+                    .createException(3006, query, e.getMessage()));
         } catch (final ExecutionException e) {
-            if (e.getCause() instanceof SQLException) {
-                throw (SQLException) e.getCause();
+            if (cancelled) {
+                throw fireError(event, TidaSqlExceptions.createException(3010,
+                        e, query));
+            } else if (e.getCause() instanceof SQLException) {
+                throw fireError(event, (SQLException) e.getCause());
             } else {
+                fireError(event, new SQLException(e.getCause()));
                 throw (RuntimeException) e.getCause();
             }
         } catch (final TimeoutException e) {
+            getManager().cancel(this);
             future.cancel(true);
-            throw TidaSqlExceptions.createException(3005, query, ""
-                    + getQueryTimeout());
+            getManager().getMetrics().timedOut();
+            throw fireError(event, TidaSqlExceptions.createException(3005,
+                    query, "" + getQueryTimeout()));
+        }
+
+        // the statement was cancelled while the query was initialized
+        if (cancelled) {
+            resultSet.close();
+            throw fireError(event, TidaSqlExceptions.createException(3010,
+                    query));
         }
 
         // if the generated keys are needed than keep those
@@ -569,6 +598,39 @@ public class TidaStatement extends BaseConnectionWrapper implements Statement, P
         return resultSet;
     }
 
+    /**
+     * Creates the {@code QueryEvent} for the specified {@code sql}, if any
+     * {@code IStatementListener} is registered.
+     *
+     * @param sql the query to create the event for
+     * @return the created event, or {@code null} if no listener is registered
+     * @throws SQLException if the listeners cannot be created
+     */
+    protected QueryEvent createQueryEvent(final String sql) throws SQLException {
+        final Connection connection = getConnection();
+        if (connection instanceof TidaConnection) {
+            return QueryEvent.create(this, sql,
+                    ((TidaConnection) connection).getStatementListeners());
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Informs the listeners about the failure of the statement.
+     *
+     * @param event     the event of the statement, can be {@code null}
+     * @param exception the exception describing the failure
+     * @return the specified {@code exception}
+     */
+    protected SQLException fireError(final QueryEvent event,
+                                     final SQLException exception) {
+        if (event != null) {
+            event.fireError(exception);
+        }
+        return exception;
+    }
+
     @Override
     public TidaResultSet executeQuery() throws SQLException {
         return executeQuery(null);
@@ -602,6 +664,185 @@ public class TidaStatement extends BaseConnectionWrapper implements Statement, P
                 columnIndexes, columnNames);
     }
 
+    /**
+     * Executes the query of {@code this} partitioned into time-windows (see
+     * {@link #executeWindowed(int, int, java.util.Date, java.util.Date, int)}).
+     * The amount of windows is the amount of queries executed concurrently
+     * (see {@link DriverProperties#getFanOutParallelism()}).
+     *
+     * @param startIndex the index of the place-holder of the window's start (1-based)
+     * @param endIndex   the index of the place-holder of the window's end (1-based)
+     * @param start      the start of the requested time-window
+     * @param end        the end of the requested time-window
+     * @return the {@code ResultSet} stitching the results of the windows
+     * @throws SQLException if the windows cannot be created or executed
+     */
+    public WindowedResultSet executeWindowed(final int startIndex,
+                                             final int endIndex, final java.util.Date start,
+                                             final java.util.Date end) throws SQLException {
+        final TidaConnection connection = (TidaConnection) getConnection();
+        final int windows = connection.getDriverProperties()
+                .getFanOutParallelism();
+
+        return executeWindowed(startIndex, endIndex, start, end,
+                Math.max(1, windows));
+    }
+
+    /**
+     * Executes the query of {@code this} partitioned into time-windows. The
+     * query must define the bounds of the requested time-window using two
+     * place-holders, e.g. {@code SELECT RECORDS FROM model WITHIN [?, ?)}.
+     * The requested window is split into {@code windows} sub-windows of equal
+     * size (aligned to seconds), a query is created for each sub-window
+     * (using the values of the other place-holders), and the queries are
+     * executed concurrently using separate protocols (see
+     * {@link TidaConnection#fanOut(List)}). The results are returned in the
+     * order of the sub-windows, i.e. in time order.<br/>
+     * <br/>
+     * The sub-windows are adjacent, i.e. the end of a sub-window is the start
+     * of the next one. Therefore the query should use a half-open interval
+     * (i.e. {@code [?, ?)}), otherwise records at the bounds are returned
+     * twice. The bounds are interpreted like {@link #setTimestamp(int, Timestamp)}.
+     *
+     * @param startIndex the index of the place-holder of the window's start (1-based)
+     * @param endIndex   the index of the place-holder of the window's end (1-based)
+     * @param start      the start of the requested time-window
+     * @param end        the end of the requested time-window
+     * @param windows    the amount of sub-windows to split the window into
+     * @return the {@code ResultSet} stitching the results of the windows
+     * @throws SQLException if the windows cannot be created or executed
+     */
+    public WindowedResultSet executeWindowed(final int startIndex,
+                                             final int endIndex, final java.util.Date start,
+                                             final java.util.Date end, final int windows)
+            throws SQLException {
+        checkClosed();
+
+        final Placeholder startPh = placeholders.get(checkParameter(startIndex));
+        final Placeholder endPh = placeholders.get(checkParameter(endIndex));
+        if (startIndex == endIndex || start == null || end == null
+                || !start.before(end) || windows < 1) {
+            throw TidaSqlExceptions.createException(3011, "" + start, ""
+                    + end, "" + windows);
+        }
+
+        // create the query of each window, keep the values set by the user
+        final Object startValue = startPh.get();
+        final Object endValue = endPh.get();
+        final List<String> queries = new ArrayList<>(windows);
+        try {
+            _setDate(startIndex, start, null);
+            _setDate(endIndex, end, null);
+
+            final long from = ((java.util.Date) startPh.get()).getTime();
+            final long to = ((java.util.Date) endPh.get()).getTime();
+            final double size = (to - from) / (double) windows;
+
+            long windowStart = from;
+            for (int i = 1; i <= windows; i++) {
+                long windowEnd = i == windows ? to : from + (long) (size * i);
+                windowEnd -= Math.floorMod(windowEnd, 1000L);
+
+                // skip windows which are empty because of the alignment
+                if (windowEnd > windowStart || i == windows) {
+                    startPh.set(new java.util.Date(windowStart));
+                    endPh.set(new java.util.Date(windowEnd));
+                    queries.add(replacePlaceholder());
+
+                    windowStart = windowEnd;
+                }
+            }
+        } finally {
+            startPh.set(startValue);
+            endPh.set(endValue);
+        }
+
+        final TidaConnection connection = (TidaConnection) getConnection();
+        return new WindowedResultSet(this, connection.fanOut(queries));
+    }
+
+    /**
+     * Executes the specified {@code sql} query and exports all rows of the
+     * result in the specified {@code format} to the specified {@code out}.
+     * The decoded rows are written by a buffered encoder (see
+     * {@link ResultExporter}), i.e. no JDBC-getter is called per value. The
+     * rows are encoded concurrently, if a parallelism is defined (see
+     * {@link DriverProperties#getExportParallelism()}). The {@code out} is
+     * flushed, but not closed.
+     *
+     * @param sql    the query to be executed, {@code null} to execute the
+     *               prepared query of {@code this}
+     * @param out    the stream to write to
+     * @param format the format to write
+     * @return the amount of exported rows
+     * @throws SQLException if the query cannot be executed, or the rows
+     *                      cannot be written
+     */
+    public long export(final String sql, final OutputStream out,
+                       final ExportFormat format) throws SQLException {
+        final TidaResultSet rs = executeQuery(sql);
+        try {
+            return new ResultExporter(format, getDriverProperties()
+                    .getExportParallelism()).export(rs, out);
+        } catch (final IOException e) {
+            throw TidaSqlExceptions.createException(3017, e,
+                    sql == null ? this.sql : sql, e.getMessage());
+        } finally {
+            rs.close();
+        }
+    }
+
+    /**
+     * Executes the specified {@code sql} query and exports all rows of the
+     * result in the specified {@code format} to the file at the specified
+     * {@code path} (see {@link #export(String, OutputStream, ExportFormat)}).
+     * An existing file is overwritten.
+     *
+     * @param sql    the query to be executed, {@code null} to execute the
+     *               prepared query of {@code this}
+     * @param path   the file to write to
+     * @param format the format to write
+     * @return the amount of exported rows
+     * @throws SQLException if the query cannot be executed, or the file
+     *                      cannot be written
+     */
+    public long export(final String sql, final Path path,
+                       final ExportFormat format) throws SQLException {
+        try (final OutputStream out = Files.newOutputStream(path)) {
+            return export(sql, out, format);
+        } catch (final IOException e) {
+            throw TidaSqlExceptions.createException(3017, e,
+                    sql == null ? this.sql : sql, e.getMessage());
+        }
+    }
+
+    /**
+     * Executes the specified {@code sql} query and persists all rows of the
+     * result to a columnar snapshot at the specified {@code path}. The
+     * snapshot can be re-opened (see {@link TidaSnapshot#open(Path)}) without
+     * contacting the server. An existing file is overwritten, nothing is
+     * written if the query fails.
+     *
+     * @param sql  the query to be executed, {@code null} to execute the
+     *             prepared query of {@code this}
+     * @param path the file to write the snapshot to
+     * @return the amount of persisted rows
+     * @throws SQLException if the query cannot be executed, or the snapshot
+     *                      cannot be written
+     */
+    public int snapshot(final String sql, final Path path)
+            throws SQLException {
+        final TidaResultSet rs = executeQuery(sql);
+        try {
+            return SnapshotWriter.write(rs, path);
+        } catch (final IOException e) {
+            throw TidaSqlExceptions.createException(3018, e,
+                    sql == null ? this.sql : sql, e.getMessage());
+        } finally {
+            rs.close();
+        }
+    }
+
     @Override
     public boolean execute() throws SQLException {
         return execute(null);
@@ -777,9 +1018,25 @@ public class TidaStatement extends BaseConnectionWrapper implements Statement, P
         setQueryTimeoutInMs(seconds * 1000);
     }
 
+    /**
+     * Cancels the running query of {@code this}. The cancellation is written
+     * immediately to the server (see
+     * {@link ProtocolManager#cancel(BaseConnectionWrapper)}), i.e. the server
+     * stops processing the query. The method does not wait
+     * until the query is ended, the statement can be used again afterwards.
+     *
+     * @throws SQLException if the statement cannot be cancelled
+     */
     @Override
     public void cancel() throws SQLException {
-        executor.shutdownNow();
+        getManager().getMetrics().cancelled();
+        final QueryEvent event = currentEvent;
+        if (event != null) {
+            event.fireCancel();
+        }
+
+        this.cancelled = true;
+        getManager().cancel(this);
     }
 
     @Override
@@ -862,23 +1119,33 @@ public class TidaStatement extends BaseConnectionWrapper implements Statement, P
         return ResultSet.FETCH_FORWARD;
     }
 
+    /**
+     * Sets the amount of rows the server may send ahead of the rows consumed
+     * by a result-set created by {@code this}. The server pauses if the rows
+     * are not consumed, i.e. the rows are flow-controlled using credits. The
+     * rows are only flow-controlled, if a window is defined by
+     * {@link DriverProperties#getCreditWindow()}, which is the default and the
+     * minimum of the fetch-size, i.e. the fetch-size can only enlarge the
+     * window. Otherwise the fetch-size is ignored.
+     *
+     * @param rows the amount of rows the server may send ahead
+     * @throws SQLException if the value is invalid
+     */
     @Override
     public void setFetchSize(final int rows) throws SQLException {
         checkClosed();
 
-        if (rows > 1) {
-            throw TidaSqlExceptions
-                    .createNotSupportedException(3001, "" + rows);
-        } else if (rows < 0) {
+        if (rows < 0) {
             throw TidaSqlExceptions.createException(3002, "" + rows);
         }
+        this.fetchSize = rows;
     }
 
     @Override
     public int getFetchSize() throws SQLException {
         checkClosed();
 
-        return 1;
+        return fetchSize;
     }
 
     @Override
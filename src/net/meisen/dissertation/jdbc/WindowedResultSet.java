@@ -0,0 +1,1210 @@
+package net.meisen.dissertation.jdbc;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+/**
+ * A {@code ResultSet} stitching the results of the sub-windows of a
+ * time-window partitioned query (see
+ * {@link TidaStatement#executeWindowed(int, int, java.util.Date, java.util.Date, int)}
+ * ). The sub-windows are queried concurrently using a {@code QueryFanOut},
+ * the rows are returned window by window in the order of the windows, i.e.
+ * in time order. The rows of a window are available as soon as the window's
+ * query is answered, even if an earlier window is still being read.<br/>
+ * <br/>
+ * All the values are retrieved from the {@code ResultSet} of the current
+ * window, the meta-data is the one of the first window.
+ *
+ * @author pmeisen
+ *
+ */
+public class WindowedResultSet extends BaseWrapper implements ResultSet {
+	private final TidaStatement statement;
+	private final QueryFanOut fanOut;
+
+	private int window;
+	private TidaResultSet current;
+	private boolean started;
+	private boolean afterLast;
+
+	/**
+	 * Constructor to create a {@code ResultSet} stitching the results of the
+	 * queries of the specified {@code fanOut}, which queries the windows in
+	 * time order.
+	 *
+	 * @param statement
+	 *            the statement which created the windows
+	 * @param fanOut
+	 *            the fan-out executing the query of each window
+	 */
+	public WindowedResultSet(final TidaStatement statement,
+			final QueryFanOut fanOut) {
+		this.statement = statement;
+		this.fanOut = fanOut;
+
+		this.window = 0;
+		this.current = null;
+		this.started = false;
+		this.afterLast = fanOut.size() == 0;
+	}
+
+	/**
+	 * Gets the amount of windows stitched together.
+	 *
+	 * @return the amount of windows
+	 */
+	public int getWindows() {
+		return fanOut.size();
+	}
+
+	/**
+	 * Gets the zero-based index of the window of the current row.
+	 *
+	 * @return the index of the window of the current row
+	 */
+	public int getWindow() {
+		return window;
+	}
+
+	/**
+	 * Gets the query fired for the window at the specified {@code index}.
+	 *
+	 * @param index
+	 *            the zero-based index of the window
+	 *
+	 * @return the query of the window
+	 */
+	public String getWindowQuery(final int index) {
+		return fanOut.getQuery(index);
+	}
+
+	/**
+	 * Gets the {@code ResultSet} of the current window. The method waits until
+	 * the query of the window is answered.
+	 *
+	 * @return the {@code ResultSet} of the current window
+	 *
+	 * @throws SQLException
+	 *             if {@code this} is closed, or if the query of the window
+	 *             failed
+	 */
+	protected TidaResultSet current() throws SQLException {
+		checkClosed();
+
+		if (current == null) {
+			current = fanOut.getResultSet(Math.min(window, fanOut.size() - 1));
+		}
+		return current;
+	}
+
+	/**
+	 * Checks if {@code this} is closed, if so an exception is thrown.
+	 *
+	 * @throws SQLException
+	 *             if {@code this} is closed
+	 */
+	protected void checkClosed() throws SQLException {
+		if (isClosed()) {
+			throw TidaSqlExceptions.createException(4999);
+		}
+	}
+
+	@Override
+	public boolean next() throws SQLException {
+		checkClosed();
+		started = true;
+
+		while (!afterLast) {
+			if (current().next()) {
+				return true;
+			}
+
+			// the window is read completely, release it and move on
+			current.close();
+			if (window + 1 < fanOut.size()) {
+				window++;
+				current = null;
+			} else {
+				afterLast = true;
+			}
+		}
+
+		return false;
+	}
+
+	@Override
+	public void close() throws SQLException {
+		fanOut.close();
+	}
+
+	@Override
+	public boolean isClosed() throws SQLException {
+		return fanOut.isClosed();
+	}
+
+	@Override
+	public Statement getStatement() throws SQLException {
+		return statement;
+	}
+
+	@Override
+	public ResultSetMetaData getMetaData() throws SQLException {
+		checkClosed();
+
+		return fanOut.getResultSet(0).getMetaData();
+	}
+
+	@Override
+	public boolean isBeforeFirst() throws SQLException {
+		checkClosed();
+
+		return !started;
+	}
+
+	@Override
+	public boolean isAfterLast() throws SQLException {
+		checkClosed();
+
+		return afterLast;
+	}
+
+	@Override
+	public SQLWarning getWarnings() throws SQLException {
+		checkClosed();
+
+		return new SQLWarning();
+	}
+
+	@Override
+	public void clearWarnings() throws SQLException {
+		checkClosed();
+	}
+
+	@Override
+	public boolean wasNull() throws SQLException {
+		return current().wasNull();
+	}
+
+	@Override
+	public String getString(final int columnIndex) throws SQLException {
+		return current().getString(columnIndex);
+	}
+
+	@Override
+	public boolean getBoolean(final int columnIndex) throws SQLException {
+		return current().getBoolean(columnIndex);
+	}
+
+	@Override
+	public byte getByte(final int columnIndex) throws SQLException {
+		return current().getByte(columnIndex);
+	}
+
+	@Override
+	public short getShort(final int columnIndex) throws SQLException {
+		return current().getShort(columnIndex);
+	}
+
+	@Override
+	public int getInt(final int columnIndex) throws SQLException {
+		return current().getInt(columnIndex);
+	}
+
+	@Override
+	public long getLong(final int columnIndex) throws SQLException {
+		return current().getLong(columnIndex);
+	}
+
+	@Override
+	public float getFloat(final int columnIndex) throws SQLException {
+		return current().getFloat(columnIndex);
+	}
+
+	@Override
+	public double getDouble(final int columnIndex) throws SQLException {
+		return current().getDouble(columnIndex);
+	}
+
+	@Override
+	@Deprecated
+	public BigDecimal getBigDecimal(final int columnIndex, final int scale)
+			throws SQLException {
+		return current().getBigDecimal(columnIndex, scale);
+	}
+
+	@Override
+	public byte[] getBytes(final int columnIndex) throws SQLException {
+		return current().getBytes(columnIndex);
+	}
+
+	@Override
+	public Date getDate(final int columnIndex) throws SQLException {
+		return current().getDate(columnIndex);
+	}
+
+	@Override
+	public Time getTime(final int columnIndex) throws SQLException {
+		return current().getTime(columnIndex);
+	}
+
+	@Override
+	public Timestamp getTimestamp(final int columnIndex) throws SQLException {
+		return current().getTimestamp(columnIndex);
+	}
+
+	@Override
+	public InputStream getAsciiStream(final int columnIndex)
+			throws SQLException {
+		return current().getAsciiStream(columnIndex);
+	}
+
+	@Override
+	@Deprecated
+	public InputStream getUnicodeStream(final int columnIndex)
+			throws SQLException {
+		return current().getUnicodeStream(columnIndex);
+	}
+
+	@Override
+	public InputStream getBinaryStream(final int columnIndex)
+			throws SQLException {
+		return current().getBinaryStream(columnIndex);
+	}
+
+	@Override
+	public String getString(final String columnLabel) throws SQLException {
+		return current().getString(columnLabel);
+	}
+
+	@Override
+	public boolean getBoolean(final String columnLabel) throws SQLException {
+		return current().getBoolean(columnLabel);
+	}
+
+	@Override
+	public byte getByte(final String columnLabel) throws SQLException {
+		return current().getByte(columnLabel);
+	}
+
+	@Override
+	public short getShort(final String columnLabel) throws SQLException {
+		return current().getShort(columnLabel);
+	}
+
+	@Override
+	public int getInt(final String columnLabel) throws SQLException {
+		return current().getInt(columnLabel);
+	}
+
+	@Override
+	public long getLong(final String columnLabel) throws SQLException {
+		return current().getLong(columnLabel);
+	}
+
+	@Override
+	public float getFloat(final String columnLabel) throws SQLException {
+		return current().getFloat(columnLabel);
+	}
+
+	@Override
+	public double getDouble(final String columnLabel) throws SQLException {
+		return current().getDouble(columnLabel);
+	}
+
+	@Override
+	@Deprecated
+	public BigDecimal getBigDecimal(final String columnLabel, final int scale)
+			throws SQLException {
+		return current().getBigDecimal(columnLabel, scale);
+	}
+
+	@Override
+	public byte[] getBytes(final String columnLabel) throws SQLException {
+		return current().getBytes(columnLabel);
+	}
+
+	@Override
+	public Date getDate(final String columnLabel) throws SQLException {
+		return current().getDate(columnLabel);
+	}
+
+	@Override
+	public Time getTime(final String columnLabel) throws SQLException {
+		return current().getTime(columnLabel);
+	}
+
+	@Override
+	public Timestamp getTimestamp(final String columnLabel)
+			throws SQLException {
+		return current().getTimestamp(columnLabel);
+	}
+
+	@Override
+	public InputStream getAsciiStream(final String columnLabel)
+			throws SQLException {
+		return current().getAsciiStream(columnLabel);
+	}
+
+	@Override
+	@Deprecated
+	public InputStream getUnicodeStream(final String columnLabel)
+			throws SQLException {
+		return current().getUnicodeStream(columnLabel);
+	}
+
+	@Override
+	public InputStream getBinaryStream(final String columnLabel)
+			throws SQLException {
+		return current().getBinaryStream(columnLabel);
+	}
+
+	@Override
+	public String getCursorName() throws SQLException {
+		return current().getCursorName();
+	}
+
+	@Override
+	public Object getObject(final int columnIndex) throws SQLException {
+		return current().getObject(columnIndex);
+	}
+
+	@Override
+	public Object getObject(final String columnLabel) throws SQLException {
+		return current().getObject(columnLabel);
+	}
+
+	@Override
+	public <T> T getObject(final int columnIndex, final Class<T> type)
+			throws SQLException {
+		return current().getObject(columnIndex, type);
+	}
+
+	@Override
+	public <T> T getObject(final String columnLabel, final Class<T> type)
+			throws SQLException {
+		return current().getObject(columnLabel, type);
+	}
+
+	@Override
+	public int findColumn(final String columnLabel) throws SQLException {
+		return current().findColumn(columnLabel);
+	}
+
+	@Override
+	public Reader getCharacterStream(final int columnIndex)
+			throws SQLException {
+		return current().getCharacterStream(columnIndex);
+	}
+
+	@Override
+	public Reader getCharacterStream(final String columnLabel)
+			throws SQLException {
+		return current().getCharacterStream(columnLabel);
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(final int columnIndex) throws SQLException {
+		return current().getBigDecimal(columnIndex);
+	}
+
+	@Override
+	public BigDecimal getBigDecimal(final String columnLabel)
+			throws SQLException {
+		return current().getBigDecimal(columnLabel);
+	}
+
+	@Override
+	public boolean isFirst() throws SQLException {
+		return current().isFirst();
+	}
+
+	@Override
+	public boolean isLast() throws SQLException {
+		return current().isLast();
+	}
+
+	@Override
+	public void beforeFirst() throws SQLException {
+		current().beforeFirst();
+	}
+
+	@Override
+	public void afterLast() throws SQLException {
+		current().afterLast();
+	}
+
+	@Override
+	public boolean first() throws SQLException {
+		return current().first();
+	}
+
+	@Override
+	public boolean last() throws SQLException {
+		return current().last();
+	}
+
+	@Override
+	public int getRow() throws SQLException {
+		return current().getRow();
+	}
+
+	@Override
+	public boolean absolute(final int row) throws SQLException {
+		return current().absolute(row);
+	}
+
+	@Override
+	public boolean relative(final int rows) throws SQLException {
+		return current().relative(rows);
+	}
+
+	@Override
+	public boolean previous() throws SQLException {
+		return current().previous();
+	}
+
+	@Override
+	public void setFetchDirection(final int direction) throws SQLException {
+		current().setFetchDirection(direction);
+	}
+
+	@Override
+	public int getFetchDirection() throws SQLException {
+		return current().getFetchDirection();
+	}
+
+	@Override
+	public void setFetchSize(final int rows) throws SQLException {
+		current().setFetchSize(rows);
+	}
+
+	@Override
+	public int getFetchSize() throws SQLException {
+		return current().getFetchSize();
+	}
+
+	@Override
+	public int getType() throws SQLException {
+		return current().getType();
+	}
+
+	@Override
+	public int getConcurrency() throws SQLException {
+		return current().getConcurrency();
+	}
+
+	@Override
+	public boolean rowUpdated() throws SQLException {
+		return current().rowUpdated();
+	}
+
+	@Override
+	public boolean rowInserted() throws SQLException {
+		return current().rowInserted();
+	}
+
+	@Override
+	public boolean rowDeleted() throws SQLException {
+		return current().rowDeleted();
+	}
+
+	@Override
+	public void updateNull(final int columnIndex) throws SQLException {
+		current().updateNull(columnIndex);
+	}
+
+	@Override
+	public void updateBoolean(final int columnIndex, final boolean x)
+			throws SQLException {
+		current().updateBoolean(columnIndex, x);
+	}
+
+	@Override
+	public void updateByte(final int columnIndex, final byte x)
+			throws SQLException {
+		current().updateByte(columnIndex, x);
+	}
+
+	@Override
+	public void updateShort(final int columnIndex, final short x)
+			throws SQLException {
+		current().updateShort(columnIndex, x);
+	}
+
+	@Override
+	public void updateInt(final int columnIndex, final int x)
+			throws SQLException {
+		current().updateInt(columnIndex, x);
+	}
+
+	@Override
+	public void updateLong(final int columnIndex, final long x)
+			throws SQLException {
+		current().updateLong(columnIndex, x);
+	}
+
+	@Override
+	public void updateFloat(final int columnIndex, final float x)
+			throws SQLException {
+		current().updateFloat(columnIndex, x);
+	}
+
+	@Override
+	public void updateDouble(final int columnIndex, final double x)
+			throws SQLException {
+		current().updateDouble(columnIndex, x);
+	}
+
+	@Override
+	public void updateBigDecimal(final int columnIndex, final BigDecimal x)
+			throws SQLException {
+		current().updateBigDecimal(columnIndex, x);
+	}
+
+	@Override
+	public void updateString(final int columnIndex, final String x)
+			throws SQLException {
+		current().updateString(columnIndex, x);
+	}
+
+	@Override
+	public void updateBytes(final int columnIndex, final byte[] x)
+			throws SQLException {
+		current().updateBytes(columnIndex, x);
+	}
+
+	@Override
+	public void updateDate(final int columnIndex, final Date x)
+			throws SQLException {
+		current().updateDate(columnIndex, x);
+	}
+
+	@Override
+	public void updateTime(final int columnIndex, final Time x)
+			throws SQLException {
+		current().updateTime(columnIndex, x);
+	}
+
+	@Override
+	public void updateTimestamp(final int columnIndex, final Timestamp x)
+			throws SQLException {
+		current().updateTimestamp(columnIndex, x);
+	}
+
+	@Override
+	public void updateAsciiStream(final int columnIndex, final InputStream x,
+			final int length) throws SQLException {
+		current().updateAsciiStream(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateBinaryStream(final int columnIndex, final InputStream x,
+			final int length) throws SQLException {
+		current().updateBinaryStream(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateCharacterStream(final int columnIndex, final Reader x,
+			final int length) throws SQLException {
+		current().updateCharacterStream(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateObject(final int columnIndex, final Object x,
+			final int scaleOrLength) throws SQLException {
+		current().updateObject(columnIndex, x, scaleOrLength);
+	}
+
+	@Override
+	public void updateObject(final int columnIndex, final Object x)
+			throws SQLException {
+		current().updateObject(columnIndex, x);
+	}
+
+	@Override
+	public void updateNull(final String columnLabel) throws SQLException {
+		current().updateNull(columnLabel);
+	}
+
+	@Override
+	public void updateBoolean(final String columnLabel, final boolean x)
+			throws SQLException {
+		current().updateBoolean(columnLabel, x);
+	}
+
+	@Override
+	public void updateByte(final String columnLabel, final byte x)
+			throws SQLException {
+		current().updateByte(columnLabel, x);
+	}
+
+	@Override
+	public void updateShort(final String columnLabel, final short x)
+			throws SQLException {
+		current().updateShort(columnLabel, x);
+	}
+
+	@Override
+	public void updateInt(final String columnLabel, final int x)
+			throws SQLException {
+		current().updateInt(columnLabel, x);
+	}
+
+	@Override
+	public void updateLong(final String columnLabel, final long x)
+			throws SQLException {
+		current().updateLong(columnLabel, x);
+	}
+
+	@Override
+	public void updateFloat(final String columnLabel, final float x)
+			throws SQLException {
+		current().updateFloat(columnLabel, x);
+	}
+
+	@Override
+	public void updateDouble(final String columnLabel, final double x)
+			throws SQLException {
+		current().updateDouble(columnLabel, x);
+	}
+
+	@Override
+	public void updateBigDecimal(final String columnLabel, final BigDecimal x)
+			throws SQLException {
+		current().updateBigDecimal(columnLabel, x);
+	}
+
+	@Override
+	public void updateString(final String columnLabel, final String x)
+			throws SQLException {
+		current().updateString(columnLabel, x);
+	}
+
+	@Override
+	public void updateBytes(final String columnLabel, final byte[] x)
+			throws SQLException {
+		current().updateBytes(columnLabel, x);
+	}
+
+	@Override
+	public void updateDate(final String columnLabel, final Date x)
+			throws SQLException {
+		current().updateDate(columnLabel, x);
+	}
+
+	@Override
+	public void updateTime(final String columnLabel, final Time x)
+			throws SQLException {
+		current().updateTime(columnLabel, x);
+	}
+
+	@Override
+	public void updateTimestamp(final String columnLabel, final Timestamp x)
+			throws SQLException {
+		current().updateTimestamp(columnLabel, x);
+	}
+
+	@Override
+	public void updateAsciiStream(final String columnLabel, final InputStream x,
+			final int length) throws SQLException {
+		current().updateAsciiStream(columnLabel, x, length);
+	}
+
+	@Override
+	public void updateBinaryStream(final String columnLabel,
+			final InputStream x, final int length) throws SQLException {
+		current().updateBinaryStream(columnLabel, x, length);
+	}
+
+	@Override
+	public void updateCharacterStream(final String columnLabel,
+			final Reader reader, final int length) throws SQLException {
+		current().updateCharacterStream(columnLabel, reader, length);
+	}
+
+	@Override
+	public void updateObject(final String columnLabel, final Object x,
+			final int scaleOrLength) throws SQLException {
+		current().updateObject(columnLabel, x, scaleOrLength);
+	}
+
+	@Override
+	public void updateObject(final String columnLabel, final Object x)
+			throws SQLException {
+		current().updateObject(columnLabel, x);
+	}
+
+	@Override
+	public void insertRow() throws SQLException {
+		current().insertRow();
+	}
+
+	@Override
+	public void updateRow() throws SQLException {
+		current().updateRow();
+	}
+
+	@Override
+	public void deleteRow() throws SQLException {
+		current().deleteRow();
+	}
+
+	@Override
+	public void refreshRow() throws SQLException {
+		current().refreshRow();
+	}
+
+	@Override
+	public void cancelRowUpdates() throws SQLException {
+		current().cancelRowUpdates();
+	}
+
+	@Override
+	public void moveToInsertRow() throws SQLException {
+		current().moveToInsertRow();
+	}
+
+	@Override
+	public void moveToCurrentRow() throws SQLException {
+		current().moveToCurrentRow();
+	}
+
+	@Override
+	public Object getObject(final int columnIndex,
+			final Map<String, Class<?>> map) throws SQLException {
+		return current().getObject(columnIndex, map);
+	}
+
+	@Override
+	public Ref getRef(final int columnIndex) throws SQLException {
+		return current().getRef(columnIndex);
+	}
+
+	@Override
+	public Blob getBlob(final int columnIndex) throws SQLException {
+		return current().getBlob(columnIndex);
+	}
+
+	@Override
+	public Clob getClob(final int columnIndex) throws SQLException {
+		return current().getClob(columnIndex);
+	}
+
+	@Override
+	public Array getArray(final int columnIndex) throws SQLException {
+		return current().getArray(columnIndex);
+	}
+
+	@Override
+	public Object getObject(final String columnLabel,
+			final Map<String, Class<?>> map) throws SQLException {
+		return current().getObject(columnLabel, map);
+	}
+
+	@Override
+	public Ref getRef(final String columnLabel) throws SQLException {
+		return current().getRef(columnLabel);
+	}
+
+	@Override
+	public Blob getBlob(final String columnLabel) throws SQLException {
+		return current().getBlob(columnLabel);
+	}
+
+	@Override
+	public Clob getClob(final String columnLabel) throws SQLException {
+		return current().getClob(columnLabel);
+	}
+
+	@Override
+	public Array getArray(final String columnLabel) throws SQLException {
+		return current().getArray(columnLabel);
+	}
+
+	@Override
+	public Date getDate(final int columnIndex, final Calendar cal)
+			throws SQLException {
+		return current().getDate(columnIndex, cal);
+	}
+
+	@Override
+	public Date getDate(final String columnLabel, final Calendar cal)
+			throws SQLException {
+		return current().getDate(columnLabel, cal);
+	}
+
+	@Override
+	public Time getTime(final int columnIndex, final Calendar cal)
+			throws SQLException {
+		return current().getTime(columnIndex, cal);
+	}
+
+	@Override
+	public Time getTime(final String columnLabel, final Calendar cal)
+			throws SQLException {
+		return current().getTime(columnLabel, cal);
+	}
+
+	@Override
+	public Timestamp getTimestamp(final int columnIndex, final Calendar cal)
+			throws SQLException {
+		return current().getTimestamp(columnIndex, cal);
+	}
+
+	@Override
+	public Timestamp getTimestamp(final String columnLabel, final Calendar cal)
+			throws SQLException {
+		return current().getTimestamp(columnLabel, cal);
+	}
+
+	@Override
+	public URL getURL(final int columnIndex) throws SQLException {
+		return current().getURL(columnIndex);
+	}
+
+	@Override
+	public URL getURL(final String columnLabel) throws SQLException {
+		return current().getURL(columnLabel);
+	}
+
+	@Override
+	public void updateRef(final int columnIndex, final Ref x)
+			throws SQLException {
+		current().updateRef(columnIndex, x);
+	}
+
+	@Override
+	public void updateRef(final String columnLabel, final Ref x)
+			throws SQLException {
+		current().updateRef(columnLabel, x);
+	}
+
+	@Override
+	public void updateBlob(final int columnIndex, final Blob x)
+			throws SQLException {
+		current().updateBlob(columnIndex, x);
+	}
+
+	@Override
+	public void updateBlob(final String columnLabel, final Blob x)
+			throws SQLException {
+		current().updateBlob(columnLabel, x);
+	}
+
+	@Override
+	public void updateClob(final int columnIndex, final Clob x)
+			throws SQLException {
+		current().updateClob(columnIndex, x);
+	}
+
+	@Override
+	public void updateClob(final String columnLabel, final Clob x)
+			throws SQLException {
+		current().updateClob(columnLabel, x);
+	}
+
+	@Override
+	public void updateArray(final int columnIndex, final Array x)
+			throws SQLException {
+		current().updateArray(columnIndex, x);
+	}
+
+	@Override
+	public void updateArray(final String columnLabel, final Array x)
+			throws SQLException {
+		current().updateArray(columnLabel, x);
+	}
+
+	@Override
+	public RowId getRowId(final int columnIndex) throws SQLException {
+		return current().getRowId(columnIndex);
+	}
+
+	@Override
+	public RowId getRowId(final String columnLabel) throws SQLException {
+		return current().getRowId(columnLabel);
+	}
+
+	@Override
+	public void updateRowId(final int columnIndex, final RowId x)
+			throws SQLException {
+		current().updateRowId(columnIndex, x);
+	}
+
+	@Override
+	public void updateRowId(final String columnLabel, final RowId x)
+			throws SQLException {
+		current().updateRowId(columnLabel, x);
+	}
+
+	@Override
+	public int getHoldability() throws SQLException {
+		return current().getHoldability();
+	}
+
+	@Override
+	public void updateNString(final int columnIndex, final String nString)
+			throws SQLException {
+		current().updateNString(columnIndex, nString);
+	}
+
+	@Override
+	public void updateNString(final String columnLabel, final String nString)
+			throws SQLException {
+		current().updateNString(columnLabel, nString);
+	}
+
+	@Override
+	public void updateNClob(final int columnIndex, final NClob nClob)
+			throws SQLException {
+		current().updateNClob(columnIndex, nClob);
+	}
+
+	@Override
+	public void updateNClob(final String columnLabel, final NClob nClob)
+			throws SQLException {
+		current().updateNClob(columnLabel, nClob);
+	}
+
+	@Override
+	public NClob getNClob(final int columnIndex) throws SQLException {
+		return current().getNClob(columnIndex);
+	}
+
+	@Override
+	public NClob getNClob(final String columnLabel) throws SQLException {
+		return current().getNClob(columnLabel);
+	}
+
+	@Override
+	public SQLXML getSQLXML(final int columnIndex) throws SQLException {
+		return current().getSQLXML(columnIndex);
+	}
+
+	@Override
+	public SQLXML getSQLXML(final String columnLabel) throws SQLException {
+		return current().getSQLXML(columnLabel);
+	}
+
+	@Override
+	public void updateSQLXML(final int columnIndex, final SQLXML xmlObject)
+			throws SQLException {
+		current().updateSQLXML(columnIndex, xmlObject);
+	}
+
+	@Override
+	public void updateSQLXML(final String columnLabel, final SQLXML xmlObject)
+			throws SQLException {
+		current().updateSQLXML(columnLabel, xmlObject);
+	}
+
+	@Override
+	public String getNString(final int columnIndex) throws SQLException {
+		return current().getNString(columnIndex);
+	}
+
+	@Override
+	public String getNString(final String columnLabel) throws SQLException {
+		return current().getNString(columnLabel);
+	}
+
+	@Override
+	public Reader getNCharacterStream(final int columnIndex)
+			throws SQLException {
+		return current().getNCharacterStream(columnIndex);
+	}
+
+	@Override
+	public Reader getNCharacterStream(final String columnLabel)
+			throws SQLException {
+		return current().getNCharacterStream(columnLabel);
+	}
+
+	@Override
+	public void updateNCharacterStream(final int columnIndex, final Reader x,
+			final long length) throws SQLException {
+		current().updateNCharacterStream(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateNCharacterStream(final String columnLabel,
+			final Reader reader, final long length) throws SQLException {
+		current().updateNCharacterStream(columnLabel, reader, length);
+	}
+
+	@Override
+	public void updateAsciiStream(final int columnIndex, final InputStream x,
+			final long length) throws SQLException {
+		current().updateAsciiStream(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateBinaryStream(final int columnIndex, final InputStream x,
+			final long length) throws SQLException {
+		current().updateBinaryStream(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateCharacterStream(final int columnIndex, final Reader x,
+			final long length) throws SQLException {
+		current().updateCharacterStream(columnIndex, x, length);
+	}
+
+	@Override
+	public void updateAsciiStream(final String columnLabel, final InputStream x,
+			final long length) throws SQLException {
+		current().updateAsciiStream(columnLabel, x, length);
+	}
+
+	@Override
+	public void updateBinaryStream(final String columnLabel,
+			final InputStream x, final long length) throws SQLException {
+		current().updateBinaryStream(columnLabel, x, length);
+	}
+
+	@Override
+	public void updateCharacterStream(final String columnLabel,
+			final Reader reader, final long length) throws SQLException {
+		current().updateCharacterStream(columnLabel, reader, length);
+	}
+
+	@Override
+	public void updateBlob(final int columnIndex, final InputStream inputStream,
+			final long length) throws SQLException {
+		current().updateBlob(columnIndex, inputStream, length);
+	}
+
+	@Override
+	public void updateBlob(final String columnLabel,
+			final InputStream inputStream, final long length)
+			throws SQLException {
+		current().updateBlob(columnLabel, inputStream, length);
+	}
+
+	@Override
+	public void updateClob(final int columnIndex, final Reader reader,
+			final long length) throws SQLException {
+		current().updateClob(columnIndex, reader, length);
+	}
+
+	@Override
+	public void updateClob(final String columnLabel, final Reader reader,
+			final long length) throws SQLException {
+		current().updateClob(columnLabel, reader, length);
+	}
+
+	@Override
+	public void updateNClob(final int columnIndex, final Reader reader,
+			final long length) throws SQLException {
+		current().updateNClob(columnIndex, reader, length);
+	}
+
+	@Override
+	public void updateNClob(final String columnLabel, final Reader reader,
+			final long length) throws SQLException {
+		current().updateNClob(columnLabel, reader, length);
+	}
+
+	@Override
+	public void updateNCharacterStream(final int columnIndex, final Reader x)
+			throws SQLException {
+		current().updateNCharacterStream(columnIndex, x);
+	}
+
+	@Override
+	public void updateNCharacterStream(final String columnLabel,
+			final Reader reader) throws SQLException {
+		current().updateNCharacterStream(columnLabel, reader);
+	}
+
+	@Override
+	public void updateAsciiStream(final int columnIndex, final InputStream x)
+			throws SQLException {
+		current().updateAsciiStream(columnIndex, x);
+	}
+
+	@Override
+	public void updateBinaryStream(final int columnIndex, final InputStream x)
+			throws SQLException {
+		current().updateBinaryStream(columnIndex, x);
+	}
+
+	@Override
+	public void updateCharacterStream(final int columnIndex, final Reader x)
+			throws SQLException {
+		current().updateCharacterStream(columnIndex, x);
+	}
+
+	@Override
+	public void updateAsciiStream(final String columnLabel, final InputStream x)
+			throws SQLException {
+		current().updateAsciiStream(columnLabel, x);
+	}
+
+	@Override
+	public void updateBinaryStream(final String columnLabel,
+			final InputStream x) throws SQLException {
+		current().updateBinaryStream(columnLabel, x);
+	}
+
+	@Override
+	public void updateCharacterStream(final String columnLabel,
+			final Reader reader) throws SQLException {
+		current().updateCharacterStream(columnLabel, reader);
+	}
+
+	@Override
+	public void updateBlob(final int columnIndex, final InputStream inputStream)
+			throws SQLException {
+		current().updateBlob(columnIndex, inputStream);
+	}
+
+	@Override
+	public void updateBlob(final String columnLabel,
+			final InputStream inputStream) throws SQLException {
+		current().updateBlob(columnLabel, inputStream);
+	}
+
+	@Override
+	public void updateClob(final int columnIndex, final Reader reader)
+			throws SQLException {
+		current().updateClob(columnIndex, reader);
+	}
+
+	@Override
+	public void updateClob(final String columnLabel, final Reader reader)
+			throws SQLException {
+		current().updateClob(columnLabel, reader);
+	}
+
+	@Override
+	public void updateNClob(final int columnIndex, final Reader reader)
+			throws SQLException {
+		current().updateNClob(columnIndex, reader);
+	}
+
+	@Override
+	public void updateNClob(final String columnLabel, final Reader reader)
+			throws SQLException {
+		current().updateNClob(columnLabel, reader);
+	}
+}
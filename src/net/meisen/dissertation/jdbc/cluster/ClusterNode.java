@@ -0,0 +1,111 @@
+package net.meisen.dissertation.jdbc.cluster;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A node of a {@code HostCluster}, i.e. a {@code TidaHost} together with its
+ * state. The state contains the amount of outstanding queries (i.e. the
+ * protocols currently opened to the node) and the information if the node is
+ * ejected, because it failed.
+ *
+ * @author pmeisen
+ *
+ */
+public class ClusterNode {
+	private final TidaHost host;
+	private final AtomicInteger outstanding;
+	private final AtomicInteger failures;
+
+	private volatile long ejectedUntil;
+
+	/**
+	 * Constructor to create a node for the specified {@code host}.
+	 *
+	 * @param host
+	 *            the host represented by the node
+	 */
+	public ClusterNode(final TidaHost host) {
+		this.host = host;
+		this.outstanding = new AtomicInteger(0);
+		this.failures = new AtomicInteger(0);
+		this.ejectedUntil = 0;
+	}
+
+	/**
+	 * Gets the host represented by {@code this}.
+	 *
+	 * @return the host represented by {@code this}
+	 */
+	public TidaHost getHost() {
+		return host;
+	}
+
+	/**
+	 * Marks the start of a query (or protocol) using {@code this} node.
+	 */
+	public void acquire() {
+		outstanding.incrementAndGet();
+	}
+
+	/**
+	 * Marks the end of a query (or protocol) using {@code this} node.
+	 */
+	public void release() {
+		outstanding.decrementAndGet();
+	}
+
+	/**
+	 * Gets the amount of outstanding queries, i.e. queries started but not
+	 * ended.
+	 *
+	 * @return the amount of outstanding queries
+	 */
+	public int getOutstanding() {
+		return outstanding.get();
+	}
+
+	/**
+	 * Ejects {@code this} node for the specified amount of
+	 * {@code milliseconds}.
+	 *
+	 * @param milliseconds
+	 *            the time to eject the node
+	 */
+	public void eject(final long milliseconds) {
+		failures.incrementAndGet();
+		ejectedUntil = System.currentTimeMillis() + milliseconds;
+	}
+
+	/**
+	 * Reinstates {@code this} node, i.e. the node is available again.
+	 */
+	public void reinstate() {
+		failures.set(0);
+		ejectedUntil = 0;
+	}
+
+	/**
+	 * Checks if {@code this} node is available, i.e. not ejected.
+	 *
+	 * @return {@code true} if the node is available, otherwise {@code false}
+	 */
+	public boolean isAvailable() {
+		final long until = ejectedUntil;
+		return until == 0 || until <= System.currentTimeMillis();
+	}
+
+	/**
+	 * Gets the amount of consecutive failures of {@code this} node.
+	 *
+	 * @return the amount of consecutive failures
+	 */
+	public int getFailures() {
+		return failures.get();
+	}
+
+	@Override
+	public String toString() {
+		return host + " (outstanding: " + getOutstanding() + ", "
+				+ (isAvailable() ? "available" : "ejected") + ")";
+	}
+}
@@ -0,0 +1,311 @@
+package net.meisen.dissertation.jdbc.cluster;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A cluster of tida-servers holding the same models. The cluster selects the
+ * node to connect to using an {@code IHostSelector}, ejects nodes which could
+ * not be reached for a specified amount of time, and checks the health of the
+ * nodes in the background (if more than one node is available).<br/>
+ * <br/>
+ * A cluster is shared by all connections using the same hosts and settings
+ * (see {@link #getCluster(List, String, long, long)}), so that the state of
+ * the nodes is known across connections.
+ *
+ * @author pmeisen
+ *
+ */
+public class HostCluster {
+	/**
+	 * Name of the round-robin selection strategy.
+	 */
+	public static final String ROUNDROBIN = "roundrobin";
+	/**
+	 * Name of the random selection strategy.
+	 */
+	public static final String RANDOM = "random";
+	/**
+	 * Name of the least-outstanding-queries selection strategy.
+	 */
+	public static final String LEASTOUTSTANDING = "leastoutstanding";
+
+	private static final Map<String, HostCluster> clusters = new HashMap<String, HostCluster>();
+	private static ScheduledExecutorService healthChecker = null;
+
+	private final List<ClusterNode> nodes;
+	private final IHostSelector selector;
+	private final long ejectTimeInMs;
+	private final ScheduledFuture<?> healthCheck;
+
+	/**
+	 * Constructor to create a cluster of the specified {@code hosts}.
+	 *
+	 * @param hosts
+	 *            the hosts of the cluster
+	 * @param selector
+	 *            the {@code IHostSelector} used to select the node to connect
+	 *            to
+	 * @param healthCheckIntervalInMs
+	 *            the interval of the health checks, a value of {@code 0} or
+	 *            less disables the checks
+	 * @param ejectTimeInMs
+	 *            the time a failed node is ejected
+	 */
+	public HostCluster(final List<TidaHost> hosts,
+			final IHostSelector selector, final long healthCheckIntervalInMs,
+			final long ejectTimeInMs) {
+		if (hosts == null || hosts.isEmpty()) {
+			throw new IllegalArgumentException(
+					"A cluster needs at least one host.");
+		}
+
+		final List<ClusterNode> nodes = new ArrayList<ClusterNode>();
+		for (final TidaHost host : hosts) {
+			nodes.add(new ClusterNode(host));
+		}
+		this.nodes = Collections.unmodifiableList(nodes);
+		this.selector = selector;
+		this.ejectTimeInMs = Math.max(0, ejectTimeInMs);
+
+		// a health check is only useful if there is an alternative
+		if (nodes.size() > 1 && healthCheckIntervalInMs > 0) {
+			this.healthCheck = getHealthChecker().scheduleWithFixedDelay(
+					new Runnable() {
+
+						@Override
+						public void run() {
+							checkHealth((int) Math.min(
+									healthCheckIntervalInMs, 2000));
+						}
+					}, healthCheckIntervalInMs, healthCheckIntervalInMs,
+					TimeUnit.MILLISECONDS);
+		} else {
+			this.healthCheck = null;
+		}
+	}
+
+	/**
+	 * Gets the cluster for the specified {@code hosts} and settings. If no
+	 * such cluster exists, a new one is created.
+	 *
+	 * @param hosts
+	 *            the hosts of the cluster
+	 * @param selector
+	 *            the name of the selection strategy (i.e. {@link #ROUNDROBIN},
+	 *            {@link #RANDOM}, {@link #LEASTOUTSTANDING}) or the name of a
+	 *            class implementing {@code IHostSelector}
+	 * @param healthCheckIntervalInMs
+	 *            the interval of the health checks, a value of {@code 0} or
+	 *            less disables the checks
+	 * @param ejectTimeInMs
+	 *            the time a failed node is ejected
+	 *
+	 * @return the cluster
+	 *
+	 * @throws ReflectiveOperationException
+	 *             if the selector cannot be created
+	 */
+	public synchronized static HostCluster getCluster(
+			final List<TidaHost> hosts, final String selector,
+			final long healthCheckIntervalInMs, final long ejectTimeInMs)
+			throws ReflectiveOperationException {
+		final String key = hosts + ";" + selector + ";"
+				+ healthCheckIntervalInMs + ";" + ejectTimeInMs;
+
+		HostCluster cluster = clusters.get(key);
+		if (cluster == null) {
+			cluster = new HostCluster(hosts, createSelector(selector),
+					healthCheckIntervalInMs, ejectTimeInMs);
+			clusters.put(key, cluster);
+		}
+
+		return cluster;
+	}
+
+	/**
+	 * Creates the {@code IHostSelector} for the specified {@code selector}.
+	 *
+	 * @param selector
+	 *            the name of the selection strategy (i.e. {@link #ROUNDROBIN},
+	 *            {@link #RANDOM}, {@link #LEASTOUTSTANDING}) or the name of a
+	 *            class implementing {@code IHostSelector}
+	 *
+	 * @return the created selector
+	 *
+	 * @throws ReflectiveOperationException
+	 *             if the selector cannot be created
+	 */
+	public static IHostSelector createSelector(final String selector)
+			throws ReflectiveOperationException {
+		if (selector == null || selector.trim().isEmpty()
+				|| ROUNDROBIN.equalsIgnoreCase(selector)) {
+			return new RoundRobinHostSelector();
+		} else if (RANDOM.equalsIgnoreCase(selector)) {
+			return new RandomHostSelector();
+		} else if (LEASTOUTSTANDING.equalsIgnoreCase(selector)) {
+			return new LeastOutstandingHostSelector();
+		} else {
+			return Class.forName(selector.trim())
+					.asSubclass(IHostSelector.class).getConstructor()
+					.newInstance();
+		}
+	}
+
+	/**
+	 * Gets the scheduler used to run the health checks of all clusters. The
+	 * scheduler is also used to run other periodic checks of the driver, e.g.
+	 * the discovery of models or the release of cancelled connections.
+	 *
+	 * @return the scheduler used to run the health checks
+	 */
+	public synchronized static ScheduledExecutorService getHealthChecker() {
+		if (healthChecker == null) {
+			healthChecker = Executors
+					.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+						@Override
+						public Thread newThread(final Runnable r) {
+							final Thread thread = new Thread(r,
+									"tida-health-check");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+		}
+
+		return healthChecker;
+	}
+
+	/**
+	 * Selects the node to connect to. The node is selected from the available
+	 * nodes not contained in {@code excluded}. If all those nodes are ejected,
+	 * the ejected nodes are used as candidates, i.e. a connect is tried
+	 * anyways.
+	 *
+	 * @param excluded
+	 *            the nodes not to be selected (e.g. because a connect was
+	 *            already tried), can be {@code null}
+	 *
+	 * @return the selected node, or {@code null} if all nodes are excluded
+	 */
+	public ClusterNode select(final Collection<ClusterNode> excluded) {
+		final List<ClusterNode> available = new ArrayList<ClusterNode>(
+				nodes.size());
+		final List<ClusterNode> ejected = new ArrayList<ClusterNode>(
+				nodes.size());
+
+		for (final ClusterNode node : nodes) {
+			if (excluded != null && excluded.contains(node)) {
+				continue;
+			} else if (node.isAvailable()) {
+				available.add(node);
+			} else {
+				ejected.add(node);
+			}
+		}
+
+		if (!available.isEmpty()) {
+			return available.size() == 1 ? available.get(0) : selector
+					.select(available);
+		} else if (!ejected.isEmpty()) {
+			return ejected.get(0);
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Marks the specified {@code node} as failed, i.e. the node is ejected.
+	 *
+	 * @param node
+	 *            the failed node
+	 */
+	public void failed(final ClusterNode node) {
+		node.eject(ejectTimeInMs);
+	}
+
+	/**
+	 * Marks the specified {@code node} as reachable, i.e. the node is
+	 * reinstated if it was ejected.
+	 *
+	 * @param node
+	 *            the reachable node
+	 */
+	public void succeeded(final ClusterNode node) {
+		if (node.getFailures() > 0) {
+			node.reinstate();
+		}
+	}
+
+	/**
+	 * Checks the health of each node, by connecting to it. Reachable nodes are
+	 * reinstated, unreachable nodes are ejected.
+	 *
+	 * @param timeoutInMs
+	 *            the timeout used to connect
+	 */
+	public void checkHealth(final int timeoutInMs) {
+		for (final ClusterNode node : nodes) {
+			final TidaHost host = node.getHost();
+			final Socket socket = new Socket();
+			try {
+				socket.connect(new InetSocketAddress(host.getHost(),
+						host.getPort()), timeoutInMs);
+				succeeded(node);
+			} catch (final IOException e) {
+				failed(node);
+			} finally {
+				try {
+					socket.close();
+				} catch (final IOException e) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the nodes of the cluster.
+	 *
+	 * @return the nodes of the cluster
+	 */
+	public List<ClusterNode> getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Gets the {@code IHostSelector} used by {@code this}.
+	 *
+	 * @return the {@code IHostSelector} used by {@code this}
+	 */
+	public IHostSelector getSelector() {
+		return selector;
+	}
+
+	/**
+	 * Checks if the health of the nodes is checked in the background.
+	 *
+	 * @return {@code true} if the health is checked, otherwise {@code false}
+	 */
+	public boolean isHealthChecked() {
+		return healthCheck != null;
+	}
+
+	@Override
+	public String toString() {
+		return "HostCluster " + nodes;
+	}
+}
@@ -0,0 +1,25 @@
+package net.meisen.dissertation.jdbc.cluster;
+
+import java.util.List;
+
+/**
+ * A strategy used to select the {@code ClusterNode} to connect to. An
+ * instance is shared by all connections using the same {@code HostCluster},
+ * i.e. an implementation has to be thread-safe.
+ *
+ * @author pmeisen
+ *
+ * @see HostCluster
+ */
+public interface IHostSelector {
+
+	/**
+	 * Selects one of the specified {@code candidates}.
+	 *
+	 * @param candidates
+	 *            the available nodes to select from, never empty
+	 *
+	 * @return the selected node
+	 */
+	public ClusterNode select(final List<ClusterNode> candidates);
+}
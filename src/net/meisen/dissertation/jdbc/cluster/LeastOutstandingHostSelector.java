@@ -0,0 +1,37 @@
+package net.meisen.dissertation.jdbc.cluster;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selector selecting the candidate with the least outstanding queries. If
+ * several candidates have the same amount of outstanding queries, those are
+ * selected one after another.
+ *
+ * @author pmeisen
+ *
+ */
+public class LeastOutstandingHostSelector implements IHostSelector {
+	private final AtomicInteger counter = new AtomicInteger(0);
+
+	@Override
+	public ClusterNode select(final List<ClusterNode> candidates) {
+		final int size = candidates.size();
+		final int offset = (counter.getAndIncrement() & Integer.MAX_VALUE)
+				% size;
+
+		ClusterNode selected = null;
+		int least = Integer.MAX_VALUE;
+		for (int i = 0; i < size; i++) {
+			final ClusterNode node = candidates.get((offset + i) % size);
+			final int outstanding = node.getOutstanding();
+
+			if (outstanding < least) {
+				least = outstanding;
+				selected = node;
+			}
+		}
+
+		return selected;
+	}
+}
@@ -0,0 +1,19 @@
+package net.meisen.dissertation.jdbc.cluster;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Selector selecting one of the candidates randomly.
+ *
+ * @author pmeisen
+ *
+ */
+public class RandomHostSelector implements IHostSelector {
+
+	@Override
+	public ClusterNode select(final List<ClusterNode> candidates) {
+		return candidates.get(ThreadLocalRandom.current().nextInt(
+				candidates.size()));
+	}
+}
@@ -0,0 +1,20 @@
+package net.meisen.dissertation.jdbc.cluster;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Selector selecting the candidates one after another.
+ *
+ * @author pmeisen
+ *
+ */
+public class RoundRobinHostSelector implements IHostSelector {
+	private final AtomicInteger counter = new AtomicInteger(0);
+
+	@Override
+	public ClusterNode select(final List<ClusterNode> candidates) {
+		final int pos = counter.getAndIncrement() & Integer.MAX_VALUE;
+		return candidates.get(pos % candidates.size());
+	}
+}
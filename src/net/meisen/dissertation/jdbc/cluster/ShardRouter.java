@@ -0,0 +1,308 @@
+package net.meisen.dissertation.jdbc.cluster;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.meisen.dissertation.jdbc.DriverProperties;
+import net.meisen.dissertation.jdbc.TidaConnection;
+import net.meisen.dissertation.jdbc.TidaResultSet;
+import net.meisen.dissertation.jdbc.TidaStatement;
+
+/**
+ * Router used to determine the host owning the model referred by a statement.
+ * The models are assigned to the hosts by configuration (see
+ * {@link DriverProperties#getShards()}), or are discovered by firing
+ * {@code GET MODELS} against each host of the url periodically (see
+ * {@link DriverProperties#getShardDiscoveryInterval()}). A configured
+ * assignment is preferred to a discovered one.<br/>
+ * <br/>
+ * A router is shared by all connections using the same hosts and settings
+ * (see {@link #getRouter(DriverProperties)}).
+ *
+ * @author pmeisen
+ *
+ */
+public class ShardRouter {
+	private final static Logger LOG = Logger.getLogger(ShardRouter.class
+			.getName());
+
+	private static final Map<String, ShardRouter> routers = new HashMap<String, ShardRouter>();
+
+	private final DriverProperties driverProperties;
+	private final Map<String, TidaHost> configured;
+	private final ScheduledFuture<?> discovery;
+
+	private volatile Map<String, TidaHost> discovered;
+
+	/**
+	 * Constructor to create a router for the specified
+	 * {@code driverProperties}. If a discovery interval is defined, the models
+	 * are discovered once prior to returning.
+	 *
+	 * @param driverProperties
+	 *            the properties defining the hosts and the shards
+	 */
+	public ShardRouter(final DriverProperties driverProperties) {
+		this.driverProperties = driverProperties;
+
+		final Map<String, TidaHost> configured = new HashMap<String, TidaHost>();
+		for (final Entry<String, TidaHost> entry : driverProperties
+				.getShards().entrySet()) {
+			configured.put(normalize(entry.getKey()), entry.getValue());
+		}
+		this.configured = Collections.unmodifiableMap(configured);
+		this.discovered = Collections.emptyMap();
+
+		final long interval = driverProperties.getShardDiscoveryInterval();
+		if (interval > 0) {
+			discover();
+
+			this.discovery = HostCluster.getHealthChecker()
+					.scheduleWithFixedDelay(new Runnable() {
+
+						@Override
+						public void run() {
+							discover();
+						}
+					}, interval, interval, TimeUnit.MILLISECONDS);
+		} else {
+			this.discovery = null;
+		}
+	}
+
+	/**
+	 * Gets the router for the specified {@code driverProperties}. If no such
+	 * router exists, a new one is created.
+	 *
+	 * @param driverProperties
+	 *            the properties defining the hosts and the shards
+	 *
+	 * @return the router, or {@code null} if the {@code driverProperties} do
+	 *         not define any shards (see {@link DriverProperties#isSharded()})
+	 */
+	public synchronized static ShardRouter getRouter(
+			final DriverProperties driverProperties) {
+		if (!driverProperties.isSharded()) {
+			return null;
+		}
+
+		final String key = driverProperties.getHosts() + ";"
+				+ driverProperties.getUser() + ";"
+				+ driverProperties.getShardsAsString() + ";"
+				+ driverProperties.getShardDiscoveryInterval();
+
+		ShardRouter router = routers.get(key);
+		if (router == null) {
+			router = new ShardRouter(driverProperties);
+			routers.put(key, router);
+		}
+
+		return router;
+	}
+
+	/**
+	 * Determines the host owning the model referred by the specified
+	 * {@code sql}.
+	 *
+	 * @param sql
+	 *            the statement to determine the host for
+	 *
+	 * @return the host owning the referred model, or {@code null} if no model
+	 *         is referred or the model is unknown
+	 */
+	public TidaHost route(final String sql) {
+		final String model = extractModel(sql);
+		return model == null ? null : getHost(model);
+	}
+
+	/**
+	 * Gets the host owning the specified {@code model}.
+	 *
+	 * @param model
+	 *            the identifier of the model
+	 *
+	 * @return the host owning the model, or {@code null} if the model is
+	 *         unknown
+	 */
+	public TidaHost getHost(final String model) {
+		final String key = normalize(model);
+
+		final TidaHost host = configured.get(key);
+		return host == null ? discovered.get(key) : host;
+	}
+
+	/**
+	 * Gets the discovered models and the host owning them.
+	 *
+	 * @return the discovered models
+	 */
+	public Map<String, TidaHost> getDiscovered() {
+		return discovered;
+	}
+
+	/**
+	 * Checks if the models are discovered periodically.
+	 *
+	 * @return {@code true} if the models are discovered periodically,
+	 *         otherwise {@code false}
+	 */
+	public boolean isDiscovering() {
+		return discovery != null;
+	}
+
+	/**
+	 * Discovers the models of each host. The models of a host, which cannot be
+	 * reached, are kept as discovered previously.
+	 */
+	public void discover() {
+		final Map<String, TidaHost> previous = this.discovered;
+		final Map<String, TidaHost> discovered = new HashMap<String, TidaHost>();
+
+		for (final TidaHost host : driverProperties.getHosts()) {
+			try {
+				for (final String model : getModels(host)) {
+					discovered.put(normalize(model), host);
+				}
+			} catch (final SQLException e) {
+				if (LOG.isLoggable(Level.FINE)) {
+					LOG.log(Level.FINE, "Cannot discover the models of '"
+							+ host + "'.", e);
+				}
+
+				for (final Entry<String, TidaHost> entry : previous.entrySet()) {
+					if (host.equals(entry.getValue())
+							&& !discovered.containsKey(entry.getKey())) {
+						discovered.put(entry.getKey(), host);
+					}
+				}
+			}
+		}
+
+		this.discovered = Collections.unmodifiableMap(discovered);
+	}
+
+	/**
+	 * Gets the models of the specified {@code host} by firing
+	 * {@code GET MODELS}.
+	 *
+	 * @param host
+	 *            the host to get the models of
+	 *
+	 * @return the identifiers of the models
+	 *
+	 * @throws SQLException
+	 *             if the models cannot be retrieved
+	 */
+	protected List<String> getModels(final TidaHost host) throws SQLException {
+		final DriverProperties props = driverProperties.copy(Collections
+				.singletonList(host));
+		props.setShards(null);
+		props.setShardDiscoveryInterval(0);
+		props.setReplicas(null);
+		props.setJmx(false);
+		props.setListenerClasses("");
+		props.setSlowQueryThreshold(-1);
+
+		final List<String> models = new ArrayList<String>();
+		final TidaConnection conn = new TidaConnection(props);
+		try {
+			final TidaStatement statement = conn.createStatement();
+			final TidaResultSet res = statement.executeQuery("GET MODELS");
+			while (res.next()) {
+				models.add(res.getString(1));
+			}
+			res.close();
+			statement.close();
+		} finally {
+			conn.close();
+		}
+
+		return models;
+	}
+
+	/**
+	 * Extracts the identifier of the model referred by the specified
+	 * {@code sql}, i.e. the identifier following {@code FROM} (e.g.
+	 * {@code SELECT}, {@code DELETE}), {@code INTO} (i.e. {@code INSERT}), or
+	 * {@code LOAD} and {@code UNLOAD}. Quoted values are ignored.
+	 *
+	 * @param sql
+	 *            the statement to extract the model from
+	 *
+	 * @return the identifier of the model, or {@code null} if no model is
+	 *         referred
+	 */
+	public static String extractModel(final String sql) {
+		if (sql == null) {
+			return null;
+		}
+
+		final int length = sql.length();
+		String previous = null;
+		int pos = 0;
+		while (pos < length) {
+			final char c = sql.charAt(pos);
+
+			// skip quoted values
+			if (c == '\'' || c == '"') {
+				pos++;
+				while (pos < length && sql.charAt(pos) != c) {
+					if (sql.charAt(pos) == '\\') {
+						pos++;
+					}
+					pos++;
+				}
+				pos++;
+				previous = null;
+				continue;
+			} else if (!isIdentifierPart(c)) {
+				pos++;
+				continue;
+			}
+
+			// read the next token
+			final int start = pos;
+			while (pos < length && isIdentifierPart(sql.charAt(pos))) {
+				pos++;
+			}
+			final String token = sql.substring(start, pos);
+
+			// the model follows the keywords
+			if ("FROM".equalsIgnoreCase(previous)
+					|| "INTO".equalsIgnoreCase(previous)) {
+				return token;
+			} else if (("LOAD".equalsIgnoreCase(previous) || "UNLOAD"
+					.equalsIgnoreCase(previous))
+					&& !"FROM".equalsIgnoreCase(token)) {
+				return token;
+			}
+			previous = token;
+		}
+
+		return null;
+	}
+
+	private static boolean isIdentifierPart(final char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '-'
+				|| c == '.';
+	}
+
+	private static String normalize(final String model) {
+		return model.toLowerCase(Locale.ENGLISH);
+	}
+
+	@Override
+	public String toString() {
+		return "ShardRouter " + configured + " " + discovered;
+	}
+}
@@ -0,0 +1,70 @@
+package net.meisen.dissertation.jdbc.cluster;
+
+/**
+ * The address (i.e. host and port) of a tida-server.
+ *
+ * @author pmeisen
+ *
+ */
+public class TidaHost {
+	private final String host;
+	private final int port;
+
+	/**
+	 * Constructor specifying the {@code host} and the {@code port} of the
+	 * server.
+	 *
+	 * @param host
+	 *            the host of the server
+	 * @param port
+	 *            the port of the server
+	 */
+	public TidaHost(final String host, final int port) {
+		if (host == null) {
+			throw new NullPointerException("The host cannot be null.");
+		}
+
+		this.host = host;
+		this.port = port;
+	}
+
+	/**
+	 * Gets the host of the server.
+	 *
+	 * @return the host of the server
+	 */
+	public String getHost() {
+		return host;
+	}
+
+	/**
+	 * Gets the port of the server.
+	 *
+	 * @return the port of the server
+	 */
+	public int getPort() {
+		return port;
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (obj == this) {
+			return true;
+		} else if (obj instanceof TidaHost) {
+			final TidaHost h = (TidaHost) obj;
+			return port == h.port && host.equals(h.host);
+		} else {
+			return false;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * host.hashCode() + port;
+	}
+
+	@Override
+	public String toString() {
+		return host + ":" + port;
+	}
+}
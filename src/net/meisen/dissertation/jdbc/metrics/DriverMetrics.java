@@ -0,0 +1,716 @@
+package net.meisen.dissertation.jdbc.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import net.meisen.dissertation.jdbc.protocol.IProtocolObserver;
+import net.meisen.dissertation.jdbc.protocol.QueryType;
+import net.meisen.dissertation.jdbc.protocol.ResponseType;
+
+/**
+ * The metrics of the driver. An instance is created for each
+ * {@code ProtocolManager}, which forwards each recorded value to the
+ * driver-wide instance (see {@link #getDriverMetrics()}). All counters are
+ * based on {@code LongAdder}, so that the recording is cheap and contention
+ * free. The metrics can be exposed as MBean using
+ * {@link #register(String)}.
+ * 
+ * @author pmeisen
+ * 
+ */
+public class DriverMetrics implements IProtocolObserver, DriverMetricsMXBean {
+	/**
+	 * The domain of the {@code ObjectName} of the registered MBeans.
+	 */
+	public final static String DOMAIN = "net.meisen.dissertation.jdbc";
+	/**
+	 * The key used for control markers, i.e. {@code QueryType} and
+	 * {@code QueryStatus}, within the maps of bytes and frames.
+	 */
+	public final static String CONTROL = "CONTROL";
+
+	private final static ResponseType[] RESPONSE_TYPES = ResponseType.values();
+	private final static QueryType[] QUERY_TYPES = QueryType.values();
+	private final static AtomicLong IDS = new AtomicLong();
+
+	private static DriverMetrics driverMetrics = null;
+
+	private final DriverMetrics parent;
+
+	private final LongAdder openProtocols;
+	private final LongAdder openSockets;
+	private final LongAdder liveScopes;
+	private final LongAdder connects;
+	private final LongAdder connectFailures;
+	private final LongAdder reconnects;
+	private final LongAdder failovers;
+	private final LongAdder primaryQueries;
+	private final LongAdder replicaQueries;
+	private final LongAdder reuses;
+	private final LongAdder resumptions;
+	private final LongAdder lostConnections;
+	private final LongAdder droppedConnections;
+	private final LongAdder timeouts;
+	private final LongAdder cancellations;
+	private final LongAdder leaks;
+
+	private final LongAdder[] bytesIn;
+	private final LongAdder[] bytesOut;
+	private final LongAdder[] framesIn;
+	private final LongAdder[] framesOut;
+	private final LongAdder[] queries;
+
+	private final LatencyHistogram connectTime;
+	private final LatencyHistogram authenticationTime;
+	private final LatencyHistogram timeToFirstRow;
+	private final LatencyHistogram timeToEndOfResponse;
+
+	private ObjectName objectName;
+
+	/**
+	 * Creates metrics forwarding each recorded value to the specified
+	 * {@code parent}.
+	 * 
+	 * @param parent
+	 *            the parent to forward the values to, can be {@code null}
+	 */
+	public DriverMetrics(final DriverMetrics parent) {
+		this.parent = parent;
+
+		this.openProtocols = new LongAdder();
+		this.openSockets = new LongAdder();
+		this.liveScopes = new LongAdder();
+		this.connects = new LongAdder();
+		this.connectFailures = new LongAdder();
+		this.reconnects = new LongAdder();
+		this.failovers = new LongAdder();
+		this.primaryQueries = new LongAdder();
+		this.replicaQueries = new LongAdder();
+		this.reuses = new LongAdder();
+		this.resumptions = new LongAdder();
+		this.lostConnections = new LongAdder();
+		this.droppedConnections = new LongAdder();
+		this.timeouts = new LongAdder();
+		this.cancellations = new LongAdder();
+		this.leaks = new LongAdder();
+
+		// the last position is used for control markers
+		this.bytesIn = createAdders(RESPONSE_TYPES.length + 1);
+		this.bytesOut = createAdders(RESPONSE_TYPES.length + 1);
+		this.framesIn = createAdders(RESPONSE_TYPES.length + 1);
+		this.framesOut = createAdders(RESPONSE_TYPES.length + 1);
+		this.queries = createAdders(QUERY_TYPES.length);
+
+		this.connectTime = new LatencyHistogram();
+		this.authenticationTime = new LatencyHistogram();
+		this.timeToFirstRow = new LatencyHistogram();
+		this.timeToEndOfResponse = new LatencyHistogram();
+
+		this.objectName = null;
+	}
+
+	/**
+	 * Gets the driver-wide metrics. The metrics are registered as MBean,
+	 * whenever the first {@code ProtocolManager} registers its metrics.
+	 * 
+	 * @return the driver-wide metrics
+	 */
+	public synchronized static DriverMetrics getDriverMetrics() {
+		if (driverMetrics == null) {
+			driverMetrics = new DriverMetrics(null);
+		}
+
+		return driverMetrics;
+	}
+
+	/**
+	 * Registers {@code this} as MBean using the specified {@code type} and
+	 * {@code properties} for the {@code ObjectName}. The driver-wide metrics
+	 * are registered as well, if not done so far. A failure of the
+	 * registration is ignored, the metrics are recorded anyways.
+	 * 
+	 * @param type
+	 *            the type of the MBean
+	 * @param properties
+	 *            additional key-value pairs of the {@code ObjectName}, e.g.
+	 *            {@code host=localhost}, can be {@code null}
+	 * 
+	 * @return {@code true} if the registration was successful, otherwise
+	 *         {@code false}
+	 */
+	public synchronized boolean register(final String type,
+			final String properties) {
+		if (objectName != null) {
+			return true;
+		}
+
+		// make sure the driver-wide metrics are registered first
+		if (parent != null) {
+			parent.register("Driver", null);
+		}
+
+		try {
+			final MBeanServer server = ManagementFactory
+					.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(DOMAIN + ":type=" + type
+					+ (parent == null ? "" : ",id=" + IDS.incrementAndGet())
+					+ (properties == null ? "" : "," + properties));
+
+			// another instance (e.g. of another class-loader) is registered
+			if (server.isRegistered(name)) {
+				return false;
+			}
+
+			server.registerMBean(this, name);
+			objectName = name;
+
+			return true;
+		} catch (final JMException e) {
+			return false;
+		} catch (final SecurityException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Registers {@code this} as MBean of the specified {@code type}.
+	 * 
+	 * @param type
+	 *            the type of the MBean
+	 * 
+	 * @return {@code true} if the registration was successful, otherwise
+	 *         {@code false}
+	 * 
+	 * @see #register(String, String)
+	 */
+	public boolean register(final String type) {
+		return register(type, null);
+	}
+
+	/**
+	 * Unregisters {@code this} if it was registered as MBean.
+	 */
+	public synchronized void unregister() {
+		if (objectName == null) {
+			return;
+		}
+
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(
+					objectName);
+		} catch (final JMException e) {
+			// ignore
+		} catch (final SecurityException e) {
+			// ignore
+		}
+		objectName = null;
+	}
+
+	/**
+	 * Gets the {@code ObjectName} {@code this} is registered with.
+	 * 
+	 * @return the {@code ObjectName}, {@code null} if not registered
+	 */
+	public synchronized ObjectName getObjectName() {
+		return objectName;
+	}
+
+	/**
+	 * Records a successfully established connection, i.e. an opened socket
+	 * and {@code Protocol}.
+	 * 
+	 * @param connectNanos
+	 *            the time needed to connect the socket
+	 * @param authenticationNanos
+	 *            the time needed to authenticate
+	 */
+	public void connected(final long connectNanos,
+			final long authenticationNanos) {
+		connects.increment();
+		openSockets.increment();
+		openProtocols.increment();
+		connectTime.record(connectNanos);
+		authenticationTime.record(authenticationNanos);
+
+		if (parent != null) {
+			parent.connected(connectNanos, authenticationNanos);
+		}
+	}
+
+	/**
+	 * Records a connection which could not be established.
+	 */
+	public void connectFailed() {
+		connectFailures.increment();
+
+		if (parent != null) {
+			parent.connectFailed();
+		}
+	}
+
+	/**
+	 * Records the close of a {@code Protocol}.
+	 */
+	public void protocolClosed() {
+		openProtocols.decrement();
+
+		if (parent != null) {
+			parent.protocolClosed();
+		}
+	}
+
+	/**
+	 * Records the close of a socket.
+	 */
+	public void socketClosed() {
+		openSockets.decrement();
+
+		if (parent != null) {
+			parent.socketClosed();
+		}
+	}
+
+	/**
+	 * Records the creation of a scope, i.e. the first {@code Protocol} added
+	 * to a scope.
+	 */
+	public void scopeOpened() {
+		liveScopes.increment();
+
+		if (parent != null) {
+			parent.scopeOpened();
+		}
+	}
+
+	/**
+	 * Records the removal of a scope, i.e. the last {@code Protocol} of a
+	 * scope was removed.
+	 */
+	public void scopeClosed() {
+		liveScopes.decrement();
+
+		if (parent != null) {
+			parent.scopeClosed();
+		}
+	}
+
+	/**
+	 * Records a reconnect.
+	 */
+	public void reconnected() {
+		reconnects.increment();
+
+		if (parent != null) {
+			parent.reconnected();
+		}
+	}
+
+	/**
+	 * Records a failover, i.e. a connect retried on another host, because the
+	 * selected one was not reachable.
+	 */
+	public void failedOver() {
+		failovers.increment();
+
+		if (parent != null) {
+			parent.failedOver();
+		}
+	}
+
+	/**
+	 * Records a statement fired, which was routed to the primary hosts or to
+	 * the replicas.
+	 * 
+	 * @param replica
+	 *            {@code true} if the statement was routed to a replica,
+	 *            {@code false} if it was routed to a primary host
+	 */
+	public void routed(final boolean replica) {
+		if (replica) {
+			replicaQueries.increment();
+		} else {
+			primaryQueries.increment();
+		}
+
+		if (parent != null) {
+			parent.routed(replica);
+		}
+	}
+
+	/**
+	 * Records the reuse of an idle protocol, i.e. a connect which was not
+	 * needed.
+	 */
+	public void reused() {
+		reuses.increment();
+
+		if (parent != null) {
+			parent.reused();
+		}
+	}
+
+	/**
+	 * Records a connect, which tries to resume a session established
+	 * previously, instead of validating the credentials again.
+	 */
+	public void resumed() {
+		resumptions.increment();
+
+		if (parent != null) {
+			parent.resumed();
+		}
+	}
+
+	/**
+	 * Records a lost connection, i.e. a connection which did not answer a
+	 * ping, or did not end a cancelled response in time.
+	 */
+	public void lost() {
+		lostConnections.increment();
+
+		if (parent != null) {
+			parent.lost();
+		}
+	}
+
+	/**
+	 * Records a dropped connection, i.e. a connection which was closed instead
+	 * of skipping the remaining response of a closed result-set.
+	 */
+	public void dropped() {
+		droppedConnections.increment();
+
+		if (parent != null) {
+			parent.dropped();
+		}
+	}
+
+	/**
+	 * Records a timed out query.
+	 */
+	public void timedOut() {
+		timeouts.increment();
+
+		if (parent != null) {
+			parent.timedOut();
+		}
+	}
+
+	/**
+	 * Records a cancelled query.
+	 */
+	public void cancelled() {
+		cancellations.increment();
+
+		if (parent != null) {
+			parent.cancelled();
+		}
+	}
+
+	/**
+	 * Records a leak, i.e. an owner of a {@code Protocol} which was reclaimed
+	 * without being closed.
+	 */
+	public void leaked() {
+		leaks.increment();
+
+		if (parent != null) {
+			parent.leaked();
+		}
+	}
+
+	/**
+	 * Records the time needed from firing a query until the first row was
+	 * available.
+	 * 
+	 * @param nanos
+	 *            the time-to-first-row in nanoseconds
+	 */
+	public void firstRow(final long nanos) {
+		timeToFirstRow.record(nanos);
+
+		if (parent != null) {
+			parent.firstRow(nanos);
+		}
+	}
+
+	/**
+	 * Records the time needed from firing a query until the end-of-response
+	 * was read.
+	 * 
+	 * @param nanos
+	 *            the time-to-end-of-response in nanoseconds
+	 */
+	public void endOfResponse(final long nanos) {
+		timeToEndOfResponse.record(nanos);
+
+		if (parent != null) {
+			parent.endOfResponse(nanos);
+		}
+	}
+
+	@Override
+	public void frameRead(final ResponseType type, final long bytes) {
+		final int pos = type == null ? RESPONSE_TYPES.length : type.ordinal();
+		framesIn[pos].increment();
+		bytesIn[pos].add(bytes);
+
+		if (parent != null) {
+			parent.frameRead(type, bytes);
+		}
+	}
+
+	@Override
+	public void frameWritten(final ResponseType type, final long bytes) {
+		final int pos = type == null ? RESPONSE_TYPES.length : type.ordinal();
+		framesOut[pos].increment();
+		bytesOut[pos].add(bytes);
+
+		if (parent != null) {
+			parent.frameWritten(type, bytes);
+		}
+	}
+
+	@Override
+	public void queryTypeRead(final QueryType type) {
+		queries[type.ordinal()].increment();
+
+		if (parent != null) {
+			parent.queryTypeRead(type);
+		}
+	}
+
+	@Override
+	public long getOpenProtocols() {
+		return openProtocols.sum();
+	}
+
+	@Override
+	public long getOpenSockets() {
+		return openSockets.sum();
+	}
+
+	@Override
+	public long getLiveScopes() {
+		return liveScopes.sum();
+	}
+
+	@Override
+	public long getConnects() {
+		return connects.sum();
+	}
+
+	@Override
+	public long getConnectFailures() {
+		return connectFailures.sum();
+	}
+
+	@Override
+	public long getReconnects() {
+		return reconnects.sum();
+	}
+
+	@Override
+	public long getFailovers() {
+		return failovers.sum();
+	}
+
+	@Override
+	public long getPrimaryQueries() {
+		return primaryQueries.sum();
+	}
+
+	@Override
+	public long getReplicaQueries() {
+		return replicaQueries.sum();
+	}
+
+	@Override
+	public long getReuses() {
+		return reuses.sum();
+	}
+
+	@Override
+	public long getResumptions() {
+		return resumptions.sum();
+	}
+
+	@Override
+	public long getLostConnections() {
+		return lostConnections.sum();
+	}
+
+	@Override
+	public long getDroppedConnections() {
+		return droppedConnections.sum();
+	}
+
+	@Override
+	public HistogramSnapshot getConnectTime() {
+		return connectTime.snapshot();
+	}
+
+	@Override
+	public HistogramSnapshot getAuthenticationTime() {
+		return authenticationTime.snapshot();
+	}
+
+	@Override
+	public Map<String, Long> getBytesIn() {
+		return toResponseTypeMap(bytesIn);
+	}
+
+	@Override
+	public Map<String, Long> getBytesOut() {
+		return toResponseTypeMap(bytesOut);
+	}
+
+	@Override
+	public Map<String, Long> getFramesIn() {
+		return toResponseTypeMap(framesIn);
+	}
+
+	@Override
+	public Map<String, Long> getFramesOut() {
+		return toResponseTypeMap(framesOut);
+	}
+
+	@Override
+	public Map<String, Long> getQueries() {
+		final Map<String, Long> map = new LinkedHashMap<String, Long>();
+		for (final QueryType type : QUERY_TYPES) {
+			map.put(type.name(), queries[type.ordinal()].sum());
+		}
+		return map;
+	}
+
+	@Override
+	public long getRowsDecoded() {
+		return framesIn[ResponseType.RESULT.ordinal()].sum();
+	}
+
+	@Override
+	public HistogramSnapshot getTimeToFirstRow() {
+		return timeToFirstRow.snapshot();
+	}
+
+	@Override
+	public HistogramSnapshot getTimeToEndOfResponse() {
+		return timeToEndOfResponse.snapshot();
+	}
+
+	@Override
+	public long getTimeouts() {
+		return timeouts.sum();
+	}
+
+	@Override
+	public long getCancellations() {
+		return cancellations.sum();
+	}
+
+	@Override
+	public long getLeaks() {
+		return leaks.sum();
+	}
+
+	/**
+	 * Gets the total amount of bytes read.
+	 * 
+	 * @return the total amount of bytes read
+	 */
+	public long getTotalBytesIn() {
+		return sum(bytesIn);
+	}
+
+	/**
+	 * Gets the total amount of bytes written.
+	 * 
+	 * @return the total amount of bytes written
+	 */
+	public long getTotalBytesOut() {
+		return sum(bytesOut);
+	}
+
+	@Override
+	public void reset() {
+		connects.reset();
+		connectFailures.reset();
+		reconnects.reset();
+		failovers.reset();
+		primaryQueries.reset();
+		replicaQueries.reset();
+		reuses.reset();
+		resumptions.reset();
+		lostConnections.reset();
+		droppedConnections.reset();
+		timeouts.reset();
+		cancellations.reset();
+		leaks.reset();
+
+		reset(bytesIn);
+		reset(bytesOut);
+		reset(framesIn);
+		reset(framesOut);
+		reset(queries);
+
+		connectTime.reset();
+		authenticationTime.reset();
+		timeToFirstRow.reset();
+		timeToEndOfResponse.reset();
+	}
+
+	/**
+	 * Creates a map of the {@code adders} by the name of the
+	 * {@code ResponseType}.
+	 * 
+	 * @param adders
+	 *            the adders indexed by the ordinal of the {@code ResponseType}
+	 * 
+	 * @return the created map
+	 */
+	protected Map<String, Long> toResponseTypeMap(final LongAdder[] adders) {
+		final Map<String, Long> map = new LinkedHashMap<String, Long>();
+		for (final ResponseType type : RESPONSE_TYPES) {
+			map.put(type.name(), adders[type.ordinal()].sum());
+		}
+		map.put(CONTROL, adders[RESPONSE_TYPES.length].sum());
+
+		return map;
+	}
+
+	private static LongAdder[] createAdders(final int size) {
+		final LongAdder[] adders = new LongAdder[size];
+		for (int i = 0; i < size; i++) {
+			adders[i] = new LongAdder();
+		}
+		return adders;
+	}
+
+	private static long sum(final LongAdder[] adders) {
+		long sum = 0;
+		for (final LongAdder adder : adders) {
+			sum += adder.sum();
+		}
+		return sum;
+	}
+
+	private static void reset(final LongAdder[] adders) {
+		for (final LongAdder adder : adders) {
+			adder.reset();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "DriverMetrics"
+				+ (objectName == null ? "" : " (" + objectName + ")");
+	}
+}
@@ -0,0 +1,219 @@
+package net.meisen.dissertation.jdbc.metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface of the {@code DriverMetrics}. All the latencies
+ * are in microseconds.
+ * 
+ * @author pmeisen
+ * 
+ */
+public interface DriverMetricsMXBean {
+
+	/**
+	 * Gets the amount of currently open protocols.
+	 * 
+	 * @return the amount of currently open protocols
+	 */
+	public long getOpenProtocols();
+
+	/**
+	 * Gets the amount of currently open sockets.
+	 * 
+	 * @return the amount of currently open sockets
+	 */
+	public long getOpenSockets();
+
+	/**
+	 * Gets the amount of currently live scopes, i.e. of connections,
+	 * statements and result-sets holding at least one protocol.
+	 * 
+	 * @return the amount of currently live scopes
+	 */
+	public long getLiveScopes();
+
+	/**
+	 * Gets the amount of established connections.
+	 * 
+	 * @return the amount of established connections
+	 */
+	public long getConnects();
+
+	/**
+	 * Gets the amount of connections which could not be established.
+	 * 
+	 * @return the amount of failed connects
+	 */
+	public long getConnectFailures();
+
+	/**
+	 * Gets the amount of reconnects, i.e. queries re-fired on a new
+	 * connection, because the used one was closed.
+	 * 
+	 * @return the amount of reconnects
+	 */
+	public long getReconnects();
+
+	/**
+	 * Gets the amount of failovers, i.e. connects retried on another host,
+	 * because the selected one was not reachable.
+	 * 
+	 * @return the amount of failovers
+	 */
+	public long getFailovers();
+
+	/**
+	 * Gets the amount of statements routed to the primary hosts.
+	 * 
+	 * @return the amount of statements routed to the primary hosts
+	 */
+	public long getPrimaryQueries();
+
+	/**
+	 * Gets the amount of statements routed to the replicas, i.e. fired by
+	 * read-only connections or as queries (if enabled).
+	 * 
+	 * @return the amount of statements routed to the replicas
+	 */
+	public long getReplicaQueries();
+
+	/**
+	 * Gets the amount of idle protocols reused, instead of connecting a new
+	 * one.
+	 * 
+	 * @return the amount of reused protocols
+	 */
+	public long getReuses();
+
+	/**
+	 * Gets the amount of connects, which tried to resume a session using the
+	 * token issued by the server.
+	 * 
+	 * @return the amount of connects resuming a session
+	 */
+	public long getResumptions();
+
+	/**
+	 * Gets the amount of lost connections, i.e. of connections which did not
+	 * answer a ping or did not end a cancelled response in time.
+	 * 
+	 * @return the amount of lost connections
+	 */
+	public long getLostConnections();
+
+	/**
+	 * Gets the amount of dropped connections, i.e. of connections which were
+	 * closed instead of skipping the remaining response of a closed
+	 * result-set (see {@code DriverProperties#getCloseDrainLimit()}).
+	 * 
+	 * @return the amount of dropped connections
+	 */
+	public long getDroppedConnections();
+
+	/**
+	 * Gets the histogram of the time needed to connect a socket.
+	 * 
+	 * @return the histogram of the time needed to connect
+	 */
+	public HistogramSnapshot getConnectTime();
+
+	/**
+	 * Gets the histogram of the time needed to authenticate on a new socket.
+	 * 
+	 * @return the histogram of the time needed to authenticate
+	 */
+	public HistogramSnapshot getAuthenticationTime();
+
+	/**
+	 * Gets the bytes read by {@code ResponseType}, the bytes of
+	 * {@code QueryType} and {@code QueryStatus} markers are listed as
+	 * {@code CONTROL}.
+	 * 
+	 * @return the bytes read by {@code ResponseType}
+	 */
+	public Map<String, Long> getBytesIn();
+
+	/**
+	 * Gets the bytes written by {@code ResponseType}, the bytes of
+	 * {@code QueryType} and {@code QueryStatus} markers are listed as
+	 * {@code CONTROL}.
+	 * 
+	 * @return the bytes written by {@code ResponseType}
+	 */
+	public Map<String, Long> getBytesOut();
+
+	/**
+	 * Gets the frames read by {@code ResponseType}.
+	 * 
+	 * @return the frames read by {@code ResponseType}
+	 */
+	public Map<String, Long> getFramesIn();
+
+	/**
+	 * Gets the frames written by {@code ResponseType}.
+	 * 
+	 * @return the frames written by {@code ResponseType}
+	 */
+	public Map<String, Long> getFramesOut();
+
+	/**
+	 * Gets the amount of queries by {@code QueryType}.
+	 * 
+	 * @return the amount of queries by {@code QueryType}
+	 */
+	public Map<String, Long> getQueries();
+
+	/**
+	 * Gets the amount of decoded rows.
+	 * 
+	 * @return the amount of decoded rows
+	 */
+	public long getRowsDecoded();
+
+	/**
+	 * Gets the histogram of the time from firing a query until the first row
+	 * is available.
+	 * 
+	 * @return the histogram of the time-to-first-row
+	 */
+	public HistogramSnapshot getTimeToFirstRow();
+
+	/**
+	 * Gets the histogram of the time from firing a query until the
+	 * end-of-response is read.
+	 * 
+	 * @return the histogram of the time-to-end-of-response
+	 */
+	public HistogramSnapshot getTimeToEndOfResponse();
+
+	/**
+	 * Gets the amount of queries which timed out.
+	 * 
+	 * @return the amount of queries which timed out
+	 */
+	public long getTimeouts();
+
+	/**
+	 * Gets the amount of cancelled queries, i.e. cancelled statements or
+	 * result-sets closed before the end-of-response was reached.
+	 * 
+	 * @return the amount of cancelled queries
+	 */
+	public long getCancellations();
+
+	/**
+	 * Gets the amount of leaks, i.e. of connections, statements and
+	 * result-sets which were reclaimed without being closed, while holding a
+	 * protocol.
+	 * 
+	 * @return the amount of leaks
+	 */
+	public long getLeaks();
+
+	/**
+	 * Resets all the counters and histograms, except the amount of open
+	 * protocols, sockets and live scopes.
+	 */
+	public void reset();
+}
@@ -0,0 +1,107 @@
+package net.meisen.dissertation.jdbc.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A snapshot of a {@code LatencyHistogram}. All the latencies are in
+ * microseconds.
+ * 
+ * @author pmeisen
+ * 
+ */
+public class HistogramSnapshot {
+	private final long count;
+	private final double mean;
+	private final long p50;
+	private final long p99;
+	private final long p999;
+	private final long max;
+
+	/**
+	 * Creates a snapshot.
+	 * 
+	 * @param count
+	 *            the amount of recorded latencies
+	 * @param mean
+	 *            the mean latency
+	 * @param p50
+	 *            the 50th percentile
+	 * @param p99
+	 *            the 99th percentile
+	 * @param p999
+	 *            the 99.9th percentile
+	 * @param max
+	 *            the maximal latency
+	 */
+	@ConstructorProperties({ "count", "mean", "p50", "p99", "p999", "max" })
+	public HistogramSnapshot(final long count, final double mean,
+			final long p50, final long p99, final long p999, final long max) {
+		this.count = count;
+		this.mean = mean;
+		this.p50 = p50;
+		this.p99 = p99;
+		this.p999 = p999;
+		this.max = max;
+	}
+
+	/**
+	 * Gets the amount of recorded latencies.
+	 * 
+	 * @return the amount of recorded latencies
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the mean latency.
+	 * 
+	 * @return the mean latency
+	 */
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * Gets the 50th percentile.
+	 * 
+	 * @return the 50th percentile
+	 */
+	public long getP50() {
+		return p50;
+	}
+
+	/**
+	 * Gets the 99th percentile.
+	 * 
+	 * @return the 99th percentile
+	 */
+	public long getP99() {
+		return p99;
+	}
+
+	/**
+	 * Gets the 99.9th percentile.
+	 * 
+	 * @return the 99.9th percentile
+	 */
+	public long getP999() {
+		return p999;
+	}
+
+	/**
+	 * Gets the maximal latency.
+	 * 
+	 * @return the maximal latency
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	@Override
+	public String toString() {
+		return "count: " + count + ", mean: " + mean + "us, p50: " + p50
+				+ "us, p99: " + p99 + "us, p999: " + p999 + "us, max: " + max
+				+ "us";
+	}
+}
@@ -0,0 +1,137 @@
+package net.meisen.dissertation.jdbc.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies. The latencies are recorded in
+ * microseconds within buckets of exponentially growing size (i.e. the bucket
+ * {@code i} contains the latencies within {@code [2^(i-1), 2^i)}), so that
+ * recording is cheap and the memory used is constant. The percentiles are
+ * therefore approximated by the upper bound of the bucket.
+ * 
+ * @author pmeisen
+ * 
+ */
+public class LatencyHistogram {
+	private final static int BUCKETS = 64;
+
+	private final LongAdder[] buckets;
+	private final LongAdder count;
+	private final LongAdder sum;
+	private final LongAccumulator max;
+
+	/**
+	 * Default constructor.
+	 */
+	public LatencyHistogram() {
+		this.buckets = new LongAdder[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++) {
+			this.buckets[i] = new LongAdder();
+		}
+		this.count = new LongAdder();
+		this.sum = new LongAdder();
+		this.max = new LongAccumulator(Math::max, 0L);
+	}
+
+	/**
+	 * Records the specified latency.
+	 * 
+	 * @param nanos
+	 *            the latency in nanoseconds
+	 */
+	public void record(final long nanos) {
+		final long micros = Math.max(0L, nanos / 1000L);
+
+		buckets[BUCKETS - Long.numberOfLeadingZeros(micros)].increment();
+		count.increment();
+		sum.add(micros);
+		max.accumulate(micros);
+	}
+
+	/**
+	 * Gets the amount of recorded latencies.
+	 * 
+	 * @return the amount of recorded latencies
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Gets the mean of the recorded latencies in microseconds.
+	 * 
+	 * @return the mean in microseconds, {@code 0} if nothing was recorded
+	 */
+	public double getMean() {
+		final long c = count.sum();
+		return c == 0 ? 0.0 : sum.sum() / (double) c;
+	}
+
+	/**
+	 * Gets the maximal recorded latency in microseconds.
+	 * 
+	 * @return the maximal recorded latency in microseconds
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Gets the approximated latency (in microseconds) of the specified
+	 * {@code percentile}, i.e. the upper bound of the bucket containing the
+	 * percentile.
+	 * 
+	 * @param percentile
+	 *            the percentile, a value within {@code [0, 100]}
+	 * 
+	 * @return the approximated latency in microseconds, {@code 0} if nothing
+	 *         was recorded
+	 */
+	public long getPercentile(final double percentile) {
+		final long[] counts = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = buckets[i].sum();
+			total += counts[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+
+		final long rank = Math.max(1L,
+				(long) Math.ceil(percentile / 100.0 * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				final long upper = i == 0 ? 0L : (1L << i) - 1;
+				return Math.min(upper, getMax());
+			}
+		}
+
+		return getMax();
+	}
+
+	/**
+	 * Creates a snapshot of the current state.
+	 * 
+	 * @return the created snapshot
+	 */
+	public HistogramSnapshot snapshot() {
+		return new HistogramSnapshot(getCount(), getMean(), getPercentile(50),
+				getPercentile(99), getPercentile(99.9), getMax());
+	}
+
+	/**
+	 * Resets the histogram.
+	 */
+	public void reset() {
+		for (final LongAdder bucket : buckets) {
+			bucket.reset();
+		}
+		count.reset();
+		sum.reset();
+		max.reset();
+	}
+}
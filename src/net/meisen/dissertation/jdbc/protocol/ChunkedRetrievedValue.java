@@ -1,7 +1,5 @@
 package net.meisen.dissertation.jdbc.protocol;
 
-import java.io.ByteArrayInputStream;
-import java.io.DataInputStream;
 import java.io.IOException;
 
 /**
@@ -15,6 +13,7 @@ import java.io.IOException;
 public class ChunkedRetrievedValue extends RetrievedValue {
 
 	private final byte[][] chunks;
+	private final int[] ints;
 
 	/**
 	 * Creates the {@code ChunkedRetrievedValue} of the specified {@code type}
@@ -28,6 +27,24 @@ public class ChunkedRetrievedValue extends RetrievedValue {
 	public ChunkedRetrievedValue(final ResponseType type, final byte[][] bytes) {
 		super(type, bytes == null || bytes.length == 0 ? new byte[0] : bytes[0]);
 		chunks = bytes;
+		ints = null;
+	}
+
+	/**
+	 * Creates the {@code ChunkedRetrievedValue} of the specified {@code type}
+	 * with the already decoded integers, i.e. each integer is one chunk. The
+	 * integers are not copied.
+	 * 
+	 * @param type
+	 *            the {@code ResponseType} of the integers, i.e.
+	 *            {@link ResponseType#INT_ARRAY}
+	 * @param ints
+	 *            the decoded integers
+	 */
+	public ChunkedRetrievedValue(final ResponseType type, final int[] ints) {
+		super(type, new byte[0]);
+		this.chunks = null;
+		this.ints = ints;
 	}
 
 	@Override
@@ -36,36 +53,52 @@ public class ChunkedRetrievedValue extends RetrievedValue {
 
 		if (this.getType().equals(ResponseType.INT)) {
 			return new int[] { getInt() };
+		} else if (ints != null) {
+			return ints;
 		} else {
-			final int[] ints = new int[chunks.length];
+			final int[] decoded = new int[chunks.length];
 			for (int i = 0; i < chunks.length; i++) {
-				final DataInputStream dis = new DataInputStream(
-						new ByteArrayInputStream(chunks[i]));
-				ints[i] = dis.readInt();
-				dis.close();
+				final byte[] chunk = chunks[i];
+				decoded[i] = (chunk[0] & 0xFF) << 24 | (chunk[1] & 0xFF) << 16
+						| (chunk[2] & 0xFF) << 8 | (chunk[3] & 0xFF);
 			}
 
-			return ints;
+			return decoded;
 		}
 	}
 
 	@Override
 	public Integer[] getIntegers() throws IOException {
-		checkType(ResponseType.INT, ResponseType.INT_ARRAY);
-
-		if (this.getType().equals(ResponseType.INT)) {
-			return new Integer[] { getInt() };
-		} else {
-			final Integer[] ints = new Integer[chunks.length];
-			for (int i = 0; i < chunks.length; i++) {
-				final DataInputStream dis = new DataInputStream(
-						new ByteArrayInputStream(chunks[i]));
-				ints[i] = dis.readInt();
-				dis.close();
-			}
+		final int[] values = getInts();
 
-			return ints;
+		final Integer[] integers = new Integer[values.length];
+		for (int i = 0; i < values.length; i++) {
+			integers[i] = values[i];
 		}
+
+		return integers;
+	}
+
+	/**
+	 * Gets the amount of chunks retrieved.
+	 * 
+	 * @return the amount of chunks retrieved
+	 */
+	public int getChunkCount() {
+		return chunks == null ? 0 : chunks.length;
+	}
+
+	/**
+	 * Gets the raw bytes of the chunk with the specified {@code index}.
+	 * 
+	 * @param index
+	 *            the zero-based index of the chunk
+	 * 
+	 * @return the bytes of the chunk, or {@code null} if no such chunk was
+	 *         retrieved
+	 */
+	public byte[] getChunk(final int index) {
+		return index < 0 || index >= getChunkCount() ? null : chunks[index];
 	}
 
 	/**
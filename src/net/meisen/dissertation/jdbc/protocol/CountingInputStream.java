@@ -0,0 +1,72 @@
+package net.meisen.dissertation.jdbc.protocol;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An {@code InputStream} which counts the bytes read from the underlying
+ * stream. The counter is not thread-safe, it should only be used by the
+ * thread reading from the stream.
+ * 
+ * @author pmeisen
+ * 
+ */
+public class CountingInputStream extends FilterInputStream {
+	private long count;
+
+	/**
+	 * Creates a {@code CountingInputStream} reading from the specified
+	 * {@code in}.
+	 * 
+	 * @param in
+	 *            the stream to read from
+	 */
+	public CountingInputStream(final InputStream in) {
+		super(in);
+
+		this.count = 0;
+	}
+
+	@Override
+	public int read() throws IOException {
+		final int b = in.read();
+		if (b != -1) {
+			count++;
+		}
+		return b;
+	}
+
+	@Override
+	public int read(final byte[] b, final int off, final int len)
+			throws IOException {
+		final int read = in.read(b, off, len);
+		if (read > 0) {
+			count += read;
+		}
+		return read;
+	}
+
+	@Override
+	public long skip(final long n) throws IOException {
+		final long skipped = in.skip(n);
+		if (skipped > 0) {
+			count += skipped;
+		}
+		return skipped;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	/**
+	 * Gets the amount of bytes read so far.
+	 * 
+	 * @return the amount of bytes read so far
+	 */
+	public long getCount() {
+		return count;
+	}
+}
@@ -0,0 +1,52 @@
+package net.meisen.dissertation.jdbc.protocol;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An {@code OutputStream} which counts the bytes written to the underlying
+ * stream. The counter is not thread-safe, it should only be used by the
+ * thread writing to the stream.
+ * 
+ * @author pmeisen
+ * 
+ */
+public class CountingOutputStream extends FilterOutputStream {
+	private long count;
+
+	/**
+	 * Creates a {@code CountingOutputStream} writing to the specified
+	 * {@code out}.
+	 * 
+	 * @param out
+	 *            the stream to write to
+	 */
+	public CountingOutputStream(final OutputStream out) {
+		super(out);
+
+		this.count = 0;
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		out.write(b);
+		count++;
+	}
+
+	@Override
+	public void write(final byte[] b, final int off, final int len)
+			throws IOException {
+		out.write(b, off, len);
+		count += len;
+	}
+
+	/**
+	 * Gets the amount of bytes written so far.
+	 * 
+	 * @return the amount of bytes written so far
+	 */
+	public long getCount() {
+		return count;
+	}
+}
@@ -190,6 +190,52 @@ public enum DataType {
 		}
 	}
 
+	/**
+	 * Skips {@code this} data-type within the specified {@code in}, i.e. the
+	 * bytes of the value are read without creating the value.
+	 * 
+	 * @param in
+	 *            the {@code DataInput} to skip the value of
+	 * 
+	 * @throws IOException
+	 *             if an IO-exception occurs
+	 */
+	public void skip(final DataInput in) throws IOException {
+		byte nullIndicator = in.readByte();
+		if (nullIndicator == 0) {
+			return;
+		}
+
+		final int size;
+		if (BYTE.equals(this)) {
+			size = 1;
+		} else if (SHORT.equals(this)) {
+			size = 2;
+		} else if (INT.equals(this)) {
+			size = 4;
+		} else if (LONG.equals(this) || DATE.equals(this)
+				|| DOUBLE.equals(this)) {
+			size = 8;
+		} else if (STRING.equals(this)) {
+			size = in.readInt();
+		} else {
+			throw new IllegalStateException("The skip-method of dataType '"
+					+ this + "' is not implemented.");
+		}
+
+		// skipBytes may skip less, e.g. if the buffer is empty
+		int skipped = 0;
+		while (skipped < size) {
+			final int s = in.skipBytes(size - skipped);
+			if (s > 0) {
+				skipped += s;
+			} else {
+				in.readByte();
+				skipped++;
+			}
+		}
+	}
+
 	/**
 	 * Writes {@code this} data-type from the specified {@code os}.
 	 * 
@@ -0,0 +1,47 @@
+package net.meisen.dissertation.jdbc.protocol;
+
+/**
+ * An observer of a {@code Protocol}, which is informed about every frame read
+ * or written by the {@code Protocol}. The methods are called by the thread
+ * using the {@code Protocol} and must therefore be cheap.
+ * 
+ * @author pmeisen
+ * 
+ * @see Protocol#setObserver(IProtocolObserver)
+ */
+public interface IProtocolObserver {
+
+	/**
+	 * Informs the observer that a frame of the specified {@code type} was
+	 * read. A frame of the type {@link ResponseType#RESULT} includes the read
+	 * values, i.e. each such frame is a decoded row.
+	 * 
+	 * @param type
+	 *            the type of the frame, {@code null} if a control marker (i.e.
+	 *            a {@code QueryType} or a {@code QueryStatus}) was read
+	 * @param bytes
+	 *            the amount of bytes of the frame
+	 */
+	public void frameRead(final ResponseType type, final long bytes);
+
+	/**
+	 * Informs the observer that a frame of the specified {@code type} was
+	 * written.
+	 * 
+	 * @param type
+	 *            the type of the frame, {@code null} if a control marker (i.e.
+	 *            a {@code QueryType} or a {@code QueryStatus}) was written
+	 * @param bytes
+	 *            the amount of bytes of the frame
+	 */
+	public void frameWritten(final ResponseType type, final long bytes);
+
+	/**
+	 * Informs the observer that the other side announced a query of the
+	 * specified {@code type}.
+	 * 
+	 * @param type
+	 *            the {@code QueryType} read
+	 */
+	public void queryTypeRead(final QueryType type);
+}
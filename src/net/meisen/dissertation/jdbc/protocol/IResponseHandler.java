@@ -40,6 +40,32 @@ public interface IResponseHandler {
 	 */
 	public boolean handleResult(final ResponseType type, final Object[] result);
 
+	/**
+	 * Handles the received {@code values} of the specified {@code type}, i.e.
+	 * integers decoded without boxing (e.g. the identifiers of inserted
+	 * records, see {@link ResponseType#INT_ARRAY}). The default implementation
+	 * boxes the {@code values} and calls
+	 * {@link #handleResult(ResponseType, Object[])}, a handler should override
+	 * the method to keep the primitive values.
+	 * 
+	 * @param type
+	 *            the {@code ResponseType} to be handled
+	 * @param values
+	 *            the decoded integers, which must not be modified
+	 * 
+	 * @return {@code true} if the reading should be continued or {@code false}
+	 *         if it should be interrupted and programmatically triggered again
+	 */
+	public default boolean handleInts(final ResponseType type,
+			final int[] values) {
+		final Integer[] result = new Integer[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = values[i];
+		}
+
+		return handleResult(type, result);
+	}
+
 	/**
 	 * This method is called to inform the {@code ResponseHandler} about the
 	 * receiving of an end-of-response reached.
@@ -75,4 +101,17 @@ public interface IResponseHandler {
 	 * @return the header-types
 	 */
 	public DataType[] getHeader();
+
+	/**
+	 * Gets the amount of results the other side may send ahead of the
+	 * results consumed by the handler (see {@link ResponseType#CREDIT}). The
+	 * default implementation returns {@code 0}, i.e. the results are not
+	 * flow-controlled.
+	 * 
+	 * @return the amount of results the other side may send ahead, {@code 0}
+	 *         or less if the results are not flow-controlled
+	 */
+	public default int getCreditWindow() {
+		return 0;
+	}
 }
@@ -12,8 +12,12 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.Socket;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * A {@code Protocol} to communicate with the server.
@@ -22,6 +26,26 @@ import java.util.Set;
  * 
  */
 public class Protocol implements Closeable {
+	/**
+	 * The default size of the buffers used for the streams.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+	/**
+	 * The default amount of results written before the written data is
+	 * flushed.
+	 */
+	public static final int DEFAULT_FLUSH_INTERVAL = 128;
+	/**
+	 * The version of the {@code Protocol} exchanged with the capabilities
+	 * (see {@link ResponseType#HELLO}).
+	 */
+	public static final byte VERSION = 1;
+
+	/*
+	 * The index of the chunk of the credentials containing the capabilities,
+	 * i.e. the chunk following the token of the session.
+	 */
+	private static final int HELLO_CHUNK = 3;
 
 	/*
 	 * Do a validation by checking all used byte-identifiers. The identifiers
@@ -41,11 +65,48 @@ public class Protocol implements Closeable {
 		}
 	}
 
-	private boolean inCommunication;
+	private volatile boolean inCommunication;
+	private volatile boolean cancellable;
+	private volatile boolean cancelRequested;
+	private volatile boolean cancelled;
+	private volatile long communications;
+	private final Object cancelLock = new Object();
 
+	private final CountingInputStream countingIs;
+	private final CountingOutputStream countingOs;
 	private final DataInputStream is;
 	private final DataOutputStream os;
 
+	private IProtocolObserver observer;
+	private String sessionToken;
+	private long readMark;
+	private long writeMark;
+
+	private int flushInterval;
+	private int unflushedResults;
+	private boolean unflushed;
+
+	private volatile int creditWindow;
+	private int unacknowledged;
+	private boolean creditUsed;
+	private volatile long credit;
+	private volatile boolean cancelReceived;
+	private volatile CompletableFuture<Void> cancellation;
+
+	private final Object watchLock = new Object();
+	private Executor cancelWatcher;
+	private volatile boolean watching;
+	private boolean responding;
+	private RetrievedValue watchedValue;
+	private IOException watchError;
+
+	private long features;
+	private int maxFrameSize;
+	private boolean helloSent;
+	private volatile byte peerVersion;
+	private volatile long peerFeatures;
+	private volatile int peerMaxFrameSize;
+
 	/**
 	 * The communication will take place over the {@code socket}. The
 	 * {@code Protocol} instance will just use the provided input- and
@@ -59,7 +120,26 @@ public class Protocol implements Closeable {
 	 *             if the streams cannot be retrieved
 	 */
 	public Protocol(final Socket socket) throws IOException {
-		this(socket.getInputStream(), socket.getOutputStream());
+		this(socket, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * The communication will take place over the {@code socket} using buffers
+	 * of the specified {@code bufferSize}.
+	 * 
+	 * @param socket
+	 *            the socket to create the communication on
+	 * @param bufferSize
+	 *            the size of the buffers used for the streams
+	 * 
+	 * @throws IOException
+	 *             if the streams cannot be retrieved
+	 * 
+	 * @see #Protocol(Socket)
+	 */
+	public Protocol(final Socket socket, final int bufferSize)
+			throws IOException {
+		this(socket.getInputStream(), socket.getOutputStream(), bufferSize);
 	}
 
 	/**
@@ -72,12 +152,205 @@ public class Protocol implements Closeable {
 	 *            the {@code OutputStream} used for the communication
 	 */
 	public Protocol(final InputStream is, final OutputStream os) {
-		this.is = new DataInputStream(new BufferedInputStream(is));
-		this.os = new DataOutputStream(new BufferedOutputStream(os));
+		this(is, os, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructor to define the {@code InputStream} and {@code OutputStream} to
+	 * communicate over, using buffers of the specified {@code bufferSize}.
+	 * 
+	 * @param is
+	 *            the {@code InputStream} used for the communication
+	 * @param os
+	 *            the {@code OutputStream} used for the communication
+	 * @param bufferSize
+	 *            the size of the buffers used for the streams
+	 */
+	public Protocol(final InputStream is, final OutputStream os,
+			final int bufferSize) {
+		final int size = bufferSize > 0 ? bufferSize : DEFAULT_BUFFER_SIZE;
+
+		this.countingIs = new CountingInputStream(new BufferedInputStream(is,
+				size));
+		this.countingOs = new CountingOutputStream(new BufferedOutputStream(
+				os, size));
+		this.is = new DataInputStream(countingIs);
+		this.os = new DataOutputStream(countingOs);
+
+		this.observer = null;
+		this.sessionToken = null;
+		this.readMark = 0;
+		this.writeMark = 0;
+
+		this.flushInterval = DEFAULT_FLUSH_INTERVAL;
+		this.unflushedResults = 0;
+		this.unflushed = false;
+
+		this.unacknowledged = 0;
+		this.creditUsed = false;
+		this.credit = -1;
+		this.cancelReceived = false;
+		this.cancellation = new CompletableFuture<Void>();
+
+		this.cancelWatcher = null;
+		this.watching = false;
+		this.responding = false;
+		this.watchedValue = null;
+		this.watchError = null;
+
+		this.features = ProtocolFeature.all();
+		this.maxFrameSize = Integer.MAX_VALUE;
+		this.helloSent = false;
+		this.peerVersion = -1;
+		this.peerFeatures = 0;
+		this.peerMaxFrameSize = Integer.MAX_VALUE;
 
 		markCommunicationAsFinal(null);
 	}
 
+	/**
+	 * Sets the {@code IProtocolObserver} informed about each frame read or
+	 * written by {@code this}.
+	 * 
+	 * @param observer
+	 *            the observer to be informed, can be {@code null} to remove
+	 *            the current observer
+	 */
+	public void setObserver(final IProtocolObserver observer) {
+		this.observer = observer;
+	}
+
+	/**
+	 * Gets the {@code IProtocolObserver} of {@code this}.
+	 * 
+	 * @return the {@code IProtocolObserver} of {@code this}, can be
+	 *         {@code null} if none is set
+	 */
+	public IProtocolObserver getObserver() {
+		return observer;
+	}
+
+	/**
+	 * Gets the amount of bytes read by {@code this} so far.
+	 * 
+	 * @return the amount of bytes read so far
+	 */
+	public long getBytesRead() {
+		return countingIs.getCount();
+	}
+
+	/**
+	 * Gets the amount of bytes written by {@code this} so far.
+	 * 
+	 * @return the amount of bytes written so far
+	 */
+	public long getBytesWritten() {
+		return countingOs.getCount();
+	}
+
+	/**
+	 * Checks if data can be read without blocking, i.e. if data is buffered
+	 * or was already received.
+	 * 
+	 * @return {@code true} if data can be read without blocking, otherwise
+	 *         {@code false}
+	 * 
+	 * @throws IOException
+	 *             if the available data cannot be determined
+	 */
+	public boolean isDataAvailable() throws IOException {
+		return is.available() > 0;
+	}
+
+	/**
+	 * Informs the observer (if one is set) about the read of a frame, i.e.
+	 * about all the bytes read since the last frame.
+	 * 
+	 * @param type
+	 *            the type of the frame read, {@code null} for a control marker
+	 */
+	protected void observeRead(final ResponseType type) {
+		final long count = countingIs.getCount();
+		if (observer != null) {
+			observer.frameRead(type, count - readMark);
+		}
+		readMark = count;
+	}
+
+	/**
+	 * Informs the observer (if one is set) about the write of a frame, i.e.
+	 * about all the bytes written since the last frame.
+	 * 
+	 * @param type
+	 *            the type of the frame written, {@code null} for a control
+	 *            marker
+	 */
+	protected void observeWritten(final ResponseType type) {
+		final long count = countingOs.getCount();
+		if (observer != null) {
+			observer.frameWritten(type, count - writeMark);
+		}
+		writeMark = count;
+	}
+
+	/**
+	 * Sets the amount of results written before the data is flushed. The
+	 * results are flushed anyways, if the buffer is full, the end of the
+	 * response is written, or data is read.
+	 * 
+	 * @param flushInterval
+	 *            the amount of results written before a flush, a value of
+	 *            {@code 1} or less flushes each result
+	 */
+	public void setFlushInterval(final int flushInterval) {
+		this.flushInterval = Math.max(1, flushInterval);
+	}
+
+	/**
+	 * Gets the amount of results written before the data is flushed.
+	 * 
+	 * @return the amount of results written before the data is flushed
+	 */
+	public int getFlushInterval() {
+		return flushInterval;
+	}
+
+	/**
+	 * Flushes any written but not yet flushed data. Data is not flushed with
+	 * each written frame, instead it is flushed at the end of a logical
+	 * exchange, i.e. prior to reading from the other side, when a frame the
+	 * other side has to react on (e.g. a message, the end of the meta-data or
+	 * of the response, an exception, or a cancellation) is written, or after
+	 * {@link #getFlushInterval()} results.
+	 * 
+	 * @throws IOException
+	 *             if the data cannot be flushed
+	 */
+	public void flush() throws IOException {
+		if (unflushed) {
+			unflushed = false;
+			unflushedResults = 0;
+			os.flush();
+		}
+	}
+
+	/**
+	 * Marks the end of a written frame.
+	 * 
+	 * @param flush
+	 *            {@code true} if the frame ends a logical exchange and has to
+	 *            be flushed, otherwise {@code false}
+	 * 
+	 * @throws IOException
+	 *             if the data cannot be flushed
+	 */
+	protected void endOfFrame(final boolean flush) throws IOException {
+		unflushed = true;
+		if (flush) {
+			flush();
+		}
+	}
+
 	/**
 	 * Writes an integer.
 	 * 
@@ -90,7 +363,8 @@ public class Protocol implements Closeable {
 	public void writeInt(final int value) throws IOException {
 		os.writeByte(ResponseType.INT.getId());
 		os.writeInt(value);
-		os.flush();
+		observeWritten(ResponseType.INT);
+		endOfFrame(false);
 	}
 
 	/**
@@ -121,7 +395,8 @@ public class Protocol implements Closeable {
 		for (int i = 0; i < values.length; i++) {
 			os.writeInt(values[i]);
 		}
-		os.flush();
+		observeWritten(ResponseType.INT_ARRAY);
+		endOfFrame(false);
 	}
 
 	/**
@@ -141,7 +416,11 @@ public class Protocol implements Closeable {
 	}
 
 	/**
-	 * Writes a result, i.e. the {@code values}.
+	 * Writes a result, i.e. the {@code values}. If the other side
+	 * flow-controls the results (see {@link ResponseType#CREDIT}), the method
+	 * waits until further results are granted (see {@link #awaitCredit()}).
+	 * The result is discarded, if the communication is cancelled while
+	 * waiting.
 	 * 
 	 * @param header
 	 *            the header's types of the values to be written
@@ -161,13 +440,23 @@ public class Protocol implements Closeable {
 							+ header.length + "' != '" + values.length + "').");
 		}
 
+		// pause until the other side grants the result
+		if (credit >= 0 && !awaitCredit()) {
+			return;
+		} else if (credit > 0) {
+			synchronized (watchLock) {
+				credit--;
+			}
+		}
+
 		// generate the bytes to be written
 		os.writeByte(ResponseType.RESULT.getId());
 		for (int i = 0; i < header.length; i++) {
 			final DataType dt = header[i];
 			dt.write(os, values[i]);
 		}
-		os.flush();
+		observeWritten(ResponseType.RESULT);
+		endOfFrame(++unflushedResults >= flushInterval);
 	}
 
 	/**
@@ -188,6 +477,7 @@ public class Protocol implements Closeable {
 			final DataType dt = header[i];
 			result[i] = dt.read(is);
 		}
+		observeRead(ResponseType.RESULT);
 
 		return result;
 	}
@@ -199,17 +489,39 @@ public class Protocol implements Closeable {
 	 *             if the flag cannot be written
 	 */
 	public void writeEndOfResponse() throws IOException {
+
+		// any further value read by the watcher belongs to the next message
+		synchronized (watchLock) {
+			responding = false;
+		}
 		write(ResponseType.EOR);
 	}
 
 	/**
-	 * Writes a flag meaning end-of-meta data.
+	 * Writes a flag meaning end-of-meta data. If a watcher of cancellations
+	 * is set (see {@link #setCancelWatcher(Executor)}), the input is watched
+	 * for cancellations and credits until the end of the response is written.
 	 * 
 	 * @throws IOException
 	 *             if the flag cannot be written
 	 */
 	public void writeEndOfMeta() throws IOException {
 		write(ResponseType.EOM);
+
+		if (cancelWatcher != null && !cancelReceived) {
+			watch();
+		}
+	}
+
+	/**
+	 * Writes a flag meaning end-of-batch, i.e. the results written so far
+	 * have to be acknowledged by the other side.
+	 * 
+	 * @throws IOException
+	 *             if the flag cannot be written
+	 */
+	public void writeEndOfBatch() throws IOException {
+		write(ResponseType.EOB);
 	}
 
 	/**
@@ -222,6 +534,28 @@ public class Protocol implements Closeable {
 		write(ResponseType.CANCEL);
 	}
 
+	/**
+	 * Writes a credit, i.e. grants the other side to write the specified
+	 * amount of further results.
+	 * 
+	 * @param results
+	 *            the amount of results granted, a negative value (only valid
+	 *            prior to a message) if the results are not flow-controlled
+	 * @param flush
+	 *            {@code true} if the credit has to be send immediately,
+	 *            otherwise {@code false}
+	 * 
+	 * @throws IOException
+	 *             if the credit cannot be written
+	 */
+	protected void writeCredit(final int results, final boolean flush)
+			throws IOException {
+		os.writeByte(ResponseType.CREDIT.getId());
+		os.writeInt(results);
+		observeWritten(ResponseType.CREDIT);
+		endOfFrame(flush);
+	}
+
 	/**
 	 * Writes a {@code ResourceDemand}, whereby the {@code resource} specifies
 	 * which resource is demanded.
@@ -317,7 +651,8 @@ public class Protocol implements Closeable {
 		for (final String headerName : headerNames) {
 			writeString(headerName);
 		}
-		os.flush();
+		observeWritten(ResponseType.HEADERNAMES);
+		endOfFrame(false);
 	}
 
 	/**
@@ -330,14 +665,298 @@ public class Protocol implements Closeable {
 	 * 
 	 * @throws IOException
 	 *             if the credential cannot be written
+	 * 
+	 * @see #writeCredential(String, String, String)
 	 */
 	public void writeCredential(final String username, final String password)
 			throws IOException {
+		writeCredential(username, password, null);
+	}
+
+	/**
+	 * Writes the specified {@code credential} to the socket. The credential is
+	 * not flushed, i.e. it is send together with the first message (no
+	 * response is expected for the credential). If a {@code sessionToken} is
+	 * specified, the other side may resume the session identified by the
+	 * token instead of validating the {@code password}.
+	 * 
+	 * @param username
+	 *            the user part of the credential
+	 * @param password
+	 *            the password part of the credential
+	 * @param sessionToken
+	 *            the token of the session to be resumed (see
+	 *            {@link #getSessionToken()}), can be {@code null}
+	 * 
+	 * @throws IOException
+	 *             if the credential cannot be written
+	 */
+	public void writeCredential(final String username, final String password,
+			final String sessionToken) throws IOException {
+		writeCredential(username, password, sessionToken, false);
+	}
+
+	/**
+	 * Writes the specified {@code credential} to the socket (see
+	 * {@link #writeCredential(String, String, String)}). If {@code hello} is
+	 * {@code true}, the capabilities of {@code this} (i.e. the version, the
+	 * features and the maximal size of a frame) are send as additional chunk
+	 * of the credentials, which is ignored by a server not supporting any
+	 * negotiation. A server supporting it answers with its capabilities
+	 * together with the first response, a first response without any
+	 * capabilities marks the server as not supporting any negotiation (see
+	 * {@link #isNegotiated()}).
+	 * 
+	 * @param username
+	 *            the user part of the credential
+	 * @param password
+	 *            the password part of the credential
+	 * @param sessionToken
+	 *            the token of the session to be resumed (see
+	 *            {@link #getSessionToken()}), can be {@code null}
+	 * @param hello
+	 *            {@code true} if the capabilities should be negotiated,
+	 *            otherwise {@code false}
+	 * 
+	 * @throws IOException
+	 *             if the credential cannot be written
+	 */
+	public void writeCredential(final String username, final String password,
+			final String sessionToken, final boolean hello) throws IOException {
 		os.writeByte(ResponseType.CREDENTIALS.getId());
-		os.writeInt(2);
+		os.writeInt(hello ? HELLO_CHUNK + 1 : sessionToken == null ? 2 : 3);
 		writeString(username);
 		writeString(password);
-		os.flush();
+		if (hello) {
+			writeString(sessionToken);
+
+			final byte[] capabilities = createHello();
+			os.writeInt(capabilities.length);
+			os.write(capabilities);
+			helloSent = true;
+		} else if (sessionToken != null) {
+			writeString(sessionToken);
+		}
+		observeWritten(ResponseType.CREDENTIALS);
+		endOfFrame(false);
+	}
+
+	/**
+	 * Creates the capabilities of {@code this}, i.e. the version, the
+	 * features and the maximal size of a frame. Fields added by a later
+	 * version have to be appended.
+	 * 
+	 * @return the bytes of the capabilities
+	 * 
+	 * @throws IOException
+	 *             if the capabilities cannot be created
+	 */
+	protected byte[] createHello() throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream hello = new DataOutputStream(bytes);
+		hello.writeByte(VERSION);
+		hello.writeLong(features);
+		hello.writeInt(maxFrameSize);
+		hello.close();
+
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Reads the capabilities of the other side (see {@link #createHello()}),
+	 * any additional field of a later version is ignored.
+	 * 
+	 * @param bytes
+	 *            the bytes of the capabilities
+	 * 
+	 * @throws IOException
+	 *             if the capabilities cannot be read
+	 */
+	protected void readHello(final byte[] bytes) throws IOException {
+		final DataInputStream hello = new DataInputStream(
+				new ByteArrayInputStream(bytes));
+		final byte version = hello.readByte();
+		final long mask = hello.readLong();
+		final int size = hello.readInt();
+		hello.close();
+
+		peerFeatures = mask;
+		peerMaxFrameSize = size > 0 ? size : Integer.MAX_VALUE;
+		peerVersion = (byte) Math.max(1, version);
+	}
+
+	/**
+	 * Writes the capabilities of {@code this} as answer to the capabilities
+	 * send with the credentials (see {@link #readCredential()}). The
+	 * capabilities are send together with the next response.
+	 * 
+	 * @throws IOException
+	 *             if the capabilities cannot be written
+	 */
+	protected void writeHello() throws IOException {
+		final byte[] capabilities = createHello();
+		os.writeByte(ResponseType.HELLO.getId());
+		os.writeInt(capabilities.length);
+		os.write(capabilities);
+		observeWritten(ResponseType.HELLO);
+		endOfFrame(false);
+	}
+
+	/**
+	 * Checks if the capabilities are negotiated with the other side. The
+	 * capabilities of a server are known once the first response (or pong)
+	 * is read, i.e. no feature is used prior to it.
+	 * 
+	 * @return {@code true} if the capabilities are negotiated, {@code false}
+	 *         if those are not known yet or the other side does not support
+	 *         any negotiation
+	 */
+	public boolean isNegotiated() {
+		return peerVersion > 0;
+	}
+
+	/**
+	 * Checks if the other side is known to not support any negotiation, i.e.
+	 * if it answered without any capabilities.
+	 * 
+	 * @return {@code true} if the other side does not support any
+	 *         negotiation, {@code false} if it does or if it is not known yet
+	 */
+	public boolean isLegacy() {
+		return peerVersion == 0;
+	}
+
+	/**
+	 * Gets the version of the {@code Protocol} agreed on with the other side.
+	 * 
+	 * @return the agreed version, {@code 0} if nothing is negotiated (see
+	 *         {@link #isNegotiated()})
+	 */
+	public byte getVersion() {
+		return isNegotiated() ? (byte) Math.min(VERSION, peerVersion) : 0;
+	}
+
+	/**
+	 * Checks if the specified {@code feature} is supported by both sides,
+	 * i.e. if it can be used.
+	 * 
+	 * @param feature
+	 *            the feature to be checked
+	 * 
+	 * @return {@code true} if the feature can be used, otherwise
+	 *         {@code false}
+	 */
+	public boolean supports(final ProtocolFeature feature) {
+		return isNegotiated() && feature.isContained(features & peerFeatures);
+	}
+
+	/**
+	 * Gets the features supported by both sides.
+	 * 
+	 * @return the features which can be used
+	 */
+	public Set<ProtocolFeature> getNegotiatedFeatures() {
+		return ProtocolFeature.fromMask(isNegotiated() ? features
+				& peerFeatures : 0);
+	}
+
+	/**
+	 * Sets the features supported by {@code this}, the features have to be
+	 * set prior to sending or reading the credentials. By default all the
+	 * features are supported (see {@link ProtocolFeature#all()}).
+	 * 
+	 * @param features
+	 *            the features supported
+	 */
+	public void setFeatures(final ProtocolFeature... features) {
+		this.features = ProtocolFeature.toMask(features);
+	}
+
+	/**
+	 * Gets the maximal size of a frame (i.e. of the data of a single
+	 * {@code ResponseType}) read by {@code this}.
+	 * 
+	 * @return the maximal size of a frame in bytes
+	 */
+	public int getMaxFrameSize() {
+		return maxFrameSize;
+	}
+
+	/**
+	 * Sets the maximal size of a frame read by {@code this}, a larger frame
+	 * is rejected. The size is send to the other side with the capabilities,
+	 * i.e. it has to be set prior to sending or reading the credentials.
+	 * 
+	 * @param maxFrameSize
+	 *            the maximal size of a frame in bytes, {@code 0} or less for
+	 *            no limit
+	 */
+	public void setMaxFrameSize(final int maxFrameSize) {
+		this.maxFrameSize = maxFrameSize > 0 ? maxFrameSize
+				: Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Gets the maximal size of a frame read by the other side, i.e. the
+	 * maximal size of a frame written by {@code this}.
+	 * 
+	 * @return the maximal size of a frame written in bytes
+	 */
+	public int getPeerMaxFrameSize() {
+		return peerMaxFrameSize;
+	}
+
+	/**
+	 * Checks the {@code size} of a frame against the specified {@code max}.
+	 * 
+	 * @param size
+	 *            the size of the frame
+	 * @param max
+	 *            the maximal size
+	 * 
+	 * @throws IOException
+	 *             if the size is invalid or exceeds the maximal size
+	 */
+	protected void checkFrameSize(final long size, final int max)
+			throws IOException {
+		if (size < 0 || size > max) {
+			throw new IOException("The size '" + size
+					+ "' of the frame exceeds the maximum of '" + max
+					+ "' bytes.");
+		}
+	}
+
+	/**
+	 * Writes the token of the session established by the credentials read
+	 * (see {@link #readCredential()}). The token is send together with the
+	 * next response, the other side reads it transparently (see
+	 * {@link #getSessionToken()}).
+	 * 
+	 * @param sessionToken
+	 *            the token identifying the session
+	 * 
+	 * @throws IOException
+	 *             if the token cannot be written
+	 */
+	public void writeSessionToken(final String sessionToken)
+			throws IOException {
+		os.writeByte(ResponseType.SESSION.getId());
+		final byte[] bytes = sessionToken.getBytes("UTF8");
+		os.writeInt(bytes.length);
+		os.write(bytes);
+		observeWritten(ResponseType.SESSION);
+		endOfFrame(false);
+	}
+
+	/**
+	 * Gets the token of the session last send by the other side (see
+	 * {@link #writeSessionToken(String)}).
+	 * 
+	 * @return the token of the session, or {@code null} if no token was
+	 *         received
+	 */
+	public String getSessionToken() {
+		return sessionToken;
 	}
 
 	/**
@@ -411,7 +1030,10 @@ public class Protocol implements Closeable {
 	}
 
 	/**
-	 * Reads the credential.
+	 * Reads the credential. Capabilities send with the credentials are
+	 * answered with the capabilities of {@code this} (see
+	 * {@link #writeCredential(String, String, String, boolean)}), those are
+	 * not part of the returned credential.
 	 * 
 	 * @return the read credential
 	 * @throws IOException
@@ -423,8 +1045,24 @@ public class Protocol implements Closeable {
 		checkException(value);
 
 		if (value instanceof ChunkedRetrievedValue) {
-			return ((ChunkedRetrievedValue) value).getCredentials();
+			final ChunkedRetrievedValue chunked = (ChunkedRetrievedValue) value;
+			final String[] credentials = chunked.getCredentials();
+			final byte[] hello = chunked.getChunk(HELLO_CHUNK);
+			if (hello == null) {
+				peerVersion = 0;
+				return credentials;
+			}
+
+			// answer the capabilities and remove those from the credentials
+			readHello(hello);
+			writeHello();
+			if (credentials[HELLO_CHUNK - 1].isEmpty()) {
+				return Arrays.copyOf(credentials, HELLO_CHUNK - 1);
+			} else {
+				return Arrays.copyOf(credentials, HELLO_CHUNK);
+			}
 		} else {
+			peerVersion = 0;
 			return new String[] { value.getString(), "" };
 		}
 	}
@@ -504,7 +1142,7 @@ public class Protocol implements Closeable {
 	 *             retrieved value is not a {@code QueryType}
 	 */
 	public QueryType readQueryType() throws IOException {
-		final byte marker = is.readByte();
+		final byte marker = readMarker();
 
 		final QueryType queryType = QueryType.find(marker);
 
@@ -512,6 +1150,11 @@ public class Protocol implements Closeable {
 		if (queryType == null) {
 			final RetrievedValue value = _read(marker);
 			checkException(value);
+		} else {
+			observeRead(null);
+			if (observer != null) {
+				observer.queryTypeRead(queryType);
+			}
 		}
 
 		return queryType;
@@ -527,13 +1170,15 @@ public class Protocol implements Closeable {
 	 *             retrieved value is not a {@code QueryStatus}
 	 */
 	public QueryStatus readQueryStatus() throws IOException {
-		final byte marker = is.readByte();
+		final byte marker = readMarker();
 		final QueryStatus queryStatus = QueryStatus.find(marker);
 
 		// check if we got an exception
 		if (queryStatus == null) {
 			final RetrievedValue value = _read(marker);
 			checkException(value);
+		} else {
+			observeRead(null);
 		}
 
 		return queryStatus;
@@ -565,6 +1210,9 @@ public class Protocol implements Closeable {
 	 */
 	public void write(final ResponseType type, byte... bytes)
 			throws IOException {
+		if (type.hasData()) {
+			checkFrameSize(bytes.length, peerMaxFrameSize);
+		}
 		os.writeByte(type.getId());
 
 		// only write something if something is there
@@ -572,7 +1220,15 @@ public class Protocol implements Closeable {
 			os.writeInt(bytes.length);
 			os.write(bytes);
 		}
-		os.flush();
+		observeWritten(type);
+
+		/*
+		 * Flush if the frame completes an exchange, i.e. the other side has
+		 * to react on it. Any other frame is followed by further frames of
+		 * the same exchange.
+		 */
+		endOfFrame(!ResponseType.HEADER.equals(type)
+				&& !ResponseType.RESOURCE_DEMAND.equals(type));
 	}
 
 	/**
@@ -586,7 +1242,8 @@ public class Protocol implements Closeable {
 	 */
 	public void writeQueryType(final QueryType type) throws IOException {
 		os.writeByte(type.getId());
-		os.flush();
+		observeWritten(null);
+		endOfFrame(false);
 	}
 
 	/**
@@ -600,7 +1257,8 @@ public class Protocol implements Closeable {
 	 */
 	public void writeQueryStatus(final QueryStatus status) throws IOException {
 		os.writeByte(status.getId());
-		os.flush();
+		observeWritten(null);
+		endOfFrame(false);
 	}
 
 	/**
@@ -625,20 +1283,47 @@ public class Protocol implements Closeable {
 	public boolean initializeCommunication(final String msg,
 			final IResponseHandler handler) throws IOException {
 
-		// finish any old communication
-		if (inCommunication) {
-			throw new IllegalStateException(
-					"Cannot initialize any new connection, while another communication is running, make sure the connection is closed correctly.");
-		}
+		// the results are only flow-controlled if the other side supports it
+		final int window = handler == null ? 0 : handler.getCreditWindow();
+		final boolean flowControl = window > 0
+				&& supports(ProtocolFeature.FLOW_CONTROL);
 
-		// start the new communication
-		inCommunication = true;
+		// finish any old communication, a running ping is awaited
+		synchronized (this) {
+			if (inCommunication) {
+				throw new IllegalStateException(
+						"Cannot initialize any new connection, while another communication is running, make sure the connection is closed correctly.");
+			}
+
+			// start the new communication
+			synchronized (cancelLock) {
+				inCommunication = true;
+				cancellable = false;
+				cancelRequested = false;
+				cancelled = false;
+				communications++;
+			}
+		}
 
 		// reset the handler to handle a new communication
 		if (handler != null) {
 			handler.resetHandler();
 		}
 
+		/*
+		 * Write the window of the flow control prior to the message. Once
+		 * credit was used, a window is always written, so that any credit
+		 * granted after the end of the last response is replaced.
+		 */
+		if (flowControl || creditUsed) {
+			creditUsed = true;
+			writeCredit(flowControl ? window : -1, false);
+		}
+		synchronized (cancelLock) {
+			creditWindow = flowControl ? window : 0;
+			unacknowledged = 0;
+		}
+
 		// write the message
 		writeMessage(msg);
 
@@ -650,9 +1335,17 @@ public class Protocol implements Closeable {
 		}
 
 		// determine if the query should be handled and write the status
-		final QueryStatus status = handler == null ? QueryStatus.PROCESS
-				: handler.doHandleQueryType(queryType);
-		writeQueryStatus(status);
+		QueryStatus status = handler == null ? QueryStatus.PROCESS : handler
+				.doHandleQueryType(queryType);
+		synchronized (cancelLock) {
+			if (cancelRequested) {
+				status = QueryStatus.CANCEL;
+			}
+			writeQueryStatus(status);
+
+			// from now on a cancellation can be written at any time
+			cancellable = !QueryStatus.CANCEL.equals(status);
+		}
 
 		// depending on the status read the rest or not
 		if (QueryStatus.CANCEL.equals(status)) {
@@ -681,7 +1374,413 @@ public class Protocol implements Closeable {
 			handler.signalEORReached();
 		}
 
-		inCommunication = false;
+		synchronized (cancelLock) {
+			inCommunication = false;
+			cancellable = false;
+			creditWindow = 0;
+		}
+	}
+
+	/**
+	 * Cancels the currently running communication. The method can be called
+	 * by any thread, i.e. also by another thread than the one handling the
+	 * response. The cancellation is written immediately, if the
+	 * {@code QueryStatus} was written already, otherwise the query is not
+	 * processed (i.e. {@link QueryStatus#CANCEL} is send as status). The
+	 * response has to be handled until its end, which is send by the other
+	 * side as fast as possible.
+	 * 
+	 * @return {@code true} if a running communication is cancelled,
+	 *         {@code false} if no communication is running or it was
+	 *         cancelled already
+	 * 
+	 * @throws IOException
+	 *             if the cancellation cannot be written
+	 */
+	public boolean cancel() throws IOException {
+		synchronized (cancelLock) {
+			if (!inCommunication || cancelled || cancelRequested) {
+				return false;
+			} else if (cancellable) {
+				cancelled = true;
+				writeCancellation();
+			} else {
+				cancelRequested = true;
+			}
+
+			return true;
+		}
+	}
+
+	/**
+	 * Checks if the currently running communication was cancelled (see
+	 * {@link #cancel()}).
+	 * 
+	 * @return {@code true} if the communication was cancelled, otherwise
+	 *         {@code false}
+	 */
+	public boolean isCancelled() {
+		return cancelled || cancelRequested;
+	}
+
+	/**
+	 * Acknowledges the consumption of a result of the currently running
+	 * communication. If the results are flow-controlled (see
+	 * {@link IResponseHandler#getCreditWindow()}), the consumed results are
+	 * granted again to the other side, once half of the window is consumed.
+	 * The method is called by the thread consuming the results, which might
+	 * differ from the one reading them.
+	 * 
+	 * @throws IOException
+	 *             if the credit cannot be written
+	 */
+	public void acknowledgeResult() throws IOException {
+		final int window = creditWindow;
+		if (window > 0 && ++unacknowledged >= getCreditThreshold(window)) {
+			grantCredit();
+		}
+	}
+
+	/**
+	 * Changes the window of the flow control of the currently running
+	 * communication. An enlarged window is granted to the other side
+	 * immediately, a reduced window is considered by withholding the
+	 * acknowledgements of consumed results. The method has no effect, if the
+	 * results of the running communication are not flow-controlled.
+	 * 
+	 * @param window
+	 *            the new amount of results the other side may send ahead
+	 * 
+	 * @return {@code true} if the window was changed, otherwise {@code false}
+	 * 
+	 * @throws IOException
+	 *             if the credit cannot be written
+	 */
+	public boolean resizeCreditWindow(final int window) throws IOException {
+		synchronized (cancelLock) {
+			final int current = creditWindow;
+			if (current <= 0 || window <= 0) {
+				return false;
+			}
+
+			unacknowledged += window - current;
+			creditWindow = window;
+		}
+
+		if (unacknowledged >= getCreditThreshold(window)) {
+			grantCredit();
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the window of the flow control of the currently running
+	 * communication.
+	 * 
+	 * @return the amount of results the other side may send ahead, {@code 0}
+	 *         if the results are not flow-controlled
+	 */
+	public int getCreditWindow() {
+		return creditWindow;
+	}
+
+	/**
+	 * Gets the amount of results {@code this} may write until further credit
+	 * is needed. The value is only defined on the side answering the
+	 * messages (see {@link #waitForMessage()}).
+	 * 
+	 * @return the amount of results which can be written, {@code -1} if the
+	 *         results are not flow-controlled
+	 */
+	public long getCredit() {
+		return credit;
+	}
+
+	private int getCreditThreshold(final int window) {
+		return Math.max(1, window / 2);
+	}
+
+	private void grantCredit() throws IOException {
+		synchronized (cancelLock) {
+
+			// the credit is not needed after the response or a cancellation
+			if (unacknowledged <= 0) {
+				return;
+			} else if (inCommunication && cancellable && !cancelled) {
+				writeCredit(unacknowledged, true);
+			}
+			unacknowledged = 0;
+		}
+	}
+
+	/**
+	 * Waits until the other side grants at least one further result. The
+	 * method is only used by the side answering the messages, if the other
+	 * side flow-controls the results (see {@link #getCredit()}). Any data
+	 * written so far is flushed prior to waiting.
+	 * 
+	 * @return {@code true} if a result can be written, {@code false} if the
+	 *         communication was cancelled by the other side
+	 * 
+	 * @throws IOException
+	 *             if the credit cannot be read
+	 */
+	public boolean awaitCredit() throws IOException {
+		while (!cancelReceived && credit == 0) {
+
+			// the watcher reads the credits, if the input is watched
+			if (isWatching()) {
+				flush();
+				synchronized (watchLock) {
+					while (watching && !cancelReceived && credit == 0) {
+						try {
+							watchLock.wait();
+						} catch (final InterruptedException e) {
+							Thread.currentThread().interrupt();
+							throw new IOException(
+									"Interrupted while waiting for credit.");
+						}
+					}
+				}
+				continue;
+			}
+
+			final RetrievedValue value = watchedValue == null ? read()
+					: awaitWatcher();
+			if (value.isCancel()) {
+				receivedCancel();
+			} else if (value.is(ResponseType.CREDIT)) {
+				addCredit(value.getCredit());
+			} else {
+				throw new IllegalStateException(
+						"Expected a credit or a cancellation, but got a '"
+								+ value.getType() + "'.");
+			}
+		}
+
+		return !cancelReceived;
+	}
+
+	private void addCredit(final int results) {
+		synchronized (watchLock) {
+			if (credit >= 0 && results > 0) {
+				credit += results;
+			}
+		}
+	}
+
+	private void receivedCancel() {
+		cancelReceived = true;
+		cancellation.complete(null);
+	}
+
+	/**
+	 * Gets the signal of the cancellation of the message currently answered.
+	 * The signal is only defined on the side answering the messages (see
+	 * {@link #waitForMessage()}), each message gets a new signal. The signal
+	 * is completed, when a cancellation of the other side is read, or if the
+	 * other side is lost while the input is watched (see
+	 * {@link #setCancelWatcher(Executor)}). Without any watcher, the
+	 * cancellation is only read while waiting for credit or checking for it
+	 * (see {@link #peekForCancel(String[])}).
+	 * 
+	 * @return the signal of the cancellation of the current message
+	 */
+	public CompletableFuture<Void> getCancellation() {
+		return cancellation;
+	}
+
+	/**
+	 * Sets the {@code Executor} used to watch the input for cancellations and
+	 * credits, while the results of a message are written, i.e. from the end
+	 * of the meta-data until the end of the response. The watcher blocks on
+	 * the input and completes the signal of the cancellation (see
+	 * {@link #getCancellation()}) as soon as the other side cancels, i.e. the
+	 * answering side does not have to poll the input. Nothing but credits
+	 * and cancellations must be read by the answering side while the input is
+	 * watched.
+	 * 
+	 * @param cancelWatcher
+	 *            the {@code Executor} used to run the watcher, {@code null} to
+	 *            not watch the input
+	 */
+	public void setCancelWatcher(final Executor cancelWatcher) {
+		this.cancelWatcher = cancelWatcher;
+	}
+
+	/**
+	 * Gets the {@code Executor} used to watch the input for cancellations.
+	 * 
+	 * @return the {@code Executor} used to watch the input, {@code null} if
+	 *         the input is not watched
+	 * 
+	 * @see #setCancelWatcher(Executor)
+	 */
+	public Executor getCancelWatcher() {
+		return cancelWatcher;
+	}
+
+	/**
+	 * Checks if the input is currently read by the watcher of cancellations.
+	 * 
+	 * @return {@code true} if the input is watched, otherwise {@code false}
+	 */
+	public boolean isWatching() {
+		return watching;
+	}
+
+	/**
+	 * Starts the watcher reading the input until a value other than a credit
+	 * or a cancellation of the running response is read, which is kept for
+	 * the next read of the answering side.
+	 */
+	private void watch() {
+		synchronized (watchLock) {
+			if (watching || watchedValue != null) {
+				return;
+			}
+			watching = true;
+			responding = true;
+		}
+
+		try {
+			cancelWatcher.execute(new Runnable() {
+
+				@Override
+				public void run() {
+					watchInput();
+				}
+			});
+		} catch (final RejectedExecutionException e) {
+			synchronized (watchLock) {
+				watching = false;
+			}
+		}
+	}
+
+	private void watchInput() {
+		try {
+			while (true) {
+
+				// nothing must be flushed by the watcher
+				final RetrievedValue value = _read(readMarker(false));
+
+				synchronized (watchLock) {
+					if (responding && value.isCancel()) {
+						receivedCancel();
+					} else if (responding && value.is(ResponseType.CREDIT)) {
+						addCredit(value.getCredit());
+					} else {
+						watchedValue = value;
+						watching = false;
+						watchLock.notifyAll();
+						return;
+					}
+					watchLock.notifyAll();
+				}
+			}
+		} catch (final IOException e) {
+
+			// the other side is lost, the work is cancelled
+			synchronized (watchLock) {
+				watchError = e;
+				watching = false;
+				receivedCancel();
+				watchLock.notifyAll();
+			}
+		} catch (final RuntimeException e) {
+			synchronized (watchLock) {
+				watchError = new IOException(e.getMessage(), e);
+				watching = false;
+				receivedCancel();
+				watchLock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Waits until the watcher stopped and gets the value read by it.
+	 * 
+	 * @return the value read by the watcher, or {@code null} if no value is
+	 *         kept
+	 * 
+	 * @throws IOException
+	 *             if the watcher failed to read the input
+	 */
+	private RetrievedValue awaitWatcher() throws IOException {
+		synchronized (watchLock) {
+			while (watching) {
+				try {
+					watchLock.wait();
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException(
+							"Interrupted while waiting for the watcher.");
+				}
+			}
+
+			final RetrievedValue value = watchedValue;
+			watchedValue = null;
+			if (value == null && watchError != null) {
+				final IOException error = watchError;
+				watchError = null;
+				throw error;
+			}
+
+			return value;
+		}
+	}
+
+	/**
+	 * Gets the amount of communications initialized so far (see
+	 * {@link #initializeCommunication(String, IResponseHandler)}). The value
+	 * can be used to check if a specific communication is still running.
+	 * 
+	 * @return the amount of communications initialized so far
+	 */
+	public long getCommunications() {
+		return communications;
+	}
+
+	/**
+	 * Checks if a communication is currently running, i.e. if a response is
+	 * pending or handled.
+	 * 
+	 * @return {@code true} if a communication is running, otherwise
+	 *         {@code false}
+	 */
+	public boolean isInCommunication() {
+		return inCommunication;
+	}
+
+	/**
+	 * Sends a {@link ResponseType#PING} and waits for the
+	 * {@link ResponseType#PONG} of the other side. The other side answers the
+	 * ping while waiting for a message (see {@link #waitForMessage()}), i.e.
+	 * without parsing any query. A ping is not send, if a communication is
+	 * running (see {@link #isInCommunication()}).
+	 * 
+	 * @return {@code true} if the pong was received, {@code false} if a
+	 *         communication is running
+	 * 
+	 * @throws IOException
+	 *             if the ping cannot be send or the pong cannot be read
+	 */
+	public synchronized boolean ping() throws IOException {
+		if (inCommunication) {
+			return false;
+		}
+
+		write(ResponseType.PING);
+		final RetrievedValue value = _read();
+		checkException(value);
+
+		if (!value.is(ResponseType.PONG)) {
+			throw new IOException("Expected a pong, but got a '"
+					+ value.getType() + "'.");
+		}
+
+		return true;
 	}
 
 	/**
@@ -734,12 +1833,22 @@ public class Protocol implements Closeable {
 	 */
 	public Boolean peekForCancel(final String[] message) throws IOException {
 
-		if (is.available() > 0) {
-			final RetrievedValue value = read();
+		// the watcher reads the input, i.e. no need to check it
+		if (cancelReceived) {
+			return true;
+		} else if (isWatching()) {
+			return null;
+		}
+
+		while (!cancelReceived && (watchedValue != null || is.available() > 0)) {
+			final RetrievedValue value = watchedValue == null ? read()
+					: awaitWatcher();
 			checkException(value);
 
 			if (value.isCancel()) {
-				return true;
+				receivedCancel();
+			} else if (value.is(ResponseType.CREDIT)) {
+				addCredit(value.getCredit());
 			} else if (value.is(ResponseType.MESSAGE)) {
 				if (message != null && message.length != 0) {
 					message[0] = value.getMessage();
@@ -750,14 +1859,18 @@ public class Protocol implements Closeable {
 				throw new IllegalStateException(
 						"Retrieving anything different from a message or a cancel statement.");
 			}
-		} else {
-			return null;
 		}
+
+		return cancelReceived ? true : null;
 	}
 
 	/**
 	 * Waits for a message to be send on the input. All cancellations are
-	 * ignored and any other retrieval leads to an exception.
+	 * ignored, pings are answered (see {@link #ping()}) and any other
+	 * retrieval leads to an exception. A credit send prior to the message
+	 * defines the amount of results, which can be written as response before
+	 * further credit is needed (see {@link #writeResult(DataType[], Object[])}
+	 * ).
 	 * 
 	 * @return the read message
 	 * 
@@ -765,14 +1878,32 @@ public class Protocol implements Closeable {
 	 *             if an error occurres during the read
 	 */
 	public String waitForMessage() throws IOException {
-		final RetrievedValue value = _read();
-		checkException(value);
+		RetrievedValue watched = awaitWatcher();
 
-		// ignore anything canceling
-		if (value.isCancel()) {
-			return waitForMessage();
-		} else {
-			return value.getMessage();
+		credit = -1;
+		cancelReceived = false;
+		cancellation = new CompletableFuture<Void>();
+
+		while (true) {
+			final RetrievedValue value;
+			if (watched == null) {
+				value = _read();
+			} else {
+				value = watched;
+				watched = null;
+			}
+			checkException(value);
+
+			// ignore anything canceling, answer any ping and keep the credit
+			if (value.isCancel()) {
+				continue;
+			} else if (value.is(ResponseType.PING)) {
+				write(ResponseType.PONG);
+			} else if (value.is(ResponseType.CREDIT)) {
+				credit = Math.max(-1, value.getCredit());
+			} else {
+				return value.getMessage();
+			}
 		}
 	}
 
@@ -801,16 +1932,7 @@ public class Protocol implements Closeable {
 
 			// write the cancellation if the thread is interrupted
 			if (Thread.interrupted()) {
-				writeCancellation();
-
-				/*
-				 * Skip any resource demand at this point, the cancellation is
-				 * send. Any additional write is not expected at this point by
-				 * the server.
-				 */
-				if (value.is(ResponseType.RESOURCE_DEMAND)) {
-					continue;
-				}
+				cancel();
 			}
 
 			if (value.isEOR()) {
@@ -822,11 +1944,22 @@ public class Protocol implements Closeable {
 			} else if (value.is(ResponseType.RESOURCE_DEMAND)) {
 				final String resource = value.getResourceDemand();
 
-				if (handler == null) {
-					// write nothing as resource
-					writeResource(new ByteArrayInputStream(new byte[0]));
-				} else {
-					writeResource(handler.getResourceStream(resource));
+				// a cancellation must not be written within the resource
+				synchronized (cancelLock) {
+
+					/*
+					 * Skip any resource demand if the cancellation is send.
+					 * Any additional write is not expected at this point by
+					 * the server.
+					 */
+					if (cancelled) {
+						continue;
+					} else if (handler == null) {
+						// write nothing as resource
+						writeResource(new ByteArrayInputStream(new byte[0]));
+					} else {
+						writeResource(handler.getResourceStream(resource));
+					}
 				}
 			} else if (value.is(ResponseType.HEADER)) {
 				if (handler != null) {
@@ -850,12 +1983,15 @@ public class Protocol implements Closeable {
 					final Object[] result = readResult(handler.getHeader());
 					read = handler.handleResult(value.getType(), result);
 				}
-			} else if (value.is(ResponseType.INT)
-					|| value.is(ResponseType.INT_ARRAY)) {
+			} else if (value.is(ResponseType.INT)) {
 				if (handler != null) {
 					read = handler.handleResult(value.getType(),
 							value.getIntegers());
 				}
+			} else if (value.is(ResponseType.INT_ARRAY)) {
+				if (handler != null) {
+					read = handler.handleInts(value.getType(), value.getInts());
+				}
 			} else if (value.is(ResponseType.EOM)) {
 				if (handler != null) {
 					read = handler.handleResult(value.getType(), null);
@@ -876,6 +2012,68 @@ public class Protocol implements Closeable {
 		return eorReached;
 	}
 
+	/**
+	 * Cancels the currently running communication (see {@link #cancel()}) and
+	 * skips the remaining response until its end. The values of the results
+	 * are skipped on byte-level, i.e. no values are created. The skipping
+	 * stops if more than the specified {@code limit} of bytes was skipped, in
+	 * that case the position within the response is undefined and
+	 * {@code this} cannot be used for any further communication.
+	 * 
+	 * @param handler
+	 *            the {@code ResponseHandler} knowing the header of the
+	 *            results, can be {@code null} if no header was read
+	 * @param limit
+	 *            the maximal amount of bytes to be skipped, a negative value
+	 *            to skip everything until the end of the response
+	 * 
+	 * @return the amount of bytes skipped, or {@code -1} if the {@code limit}
+	 *         was exceeded prior to reaching the end of the response
+	 * 
+	 * @throws IOException
+	 *             if the response cannot be skipped, or an exception was sent
+	 *             by the other side
+	 */
+	public long skipResponse(final IResponseHandler handler, final long limit)
+			throws IOException {
+		cancel();
+
+		final DataType[] header = handler == null ? null : handler
+				.getHeader();
+		final long start = getBytesRead();
+		while (true) {
+			if (limit >= 0 && getBytesRead() - start > limit) {
+				return -1;
+			}
+
+			final byte marker = readMarker();
+			if (marker == ResponseType.RESULT.getId() && header != null) {
+				for (final DataType dt : header) {
+					dt.skip(is);
+				}
+				observeRead(ResponseType.RESULT);
+				continue;
+			}
+
+			final RetrievedValue value = _read(marker);
+			checkException(value);
+
+			if (value.isEOR()) {
+				markCommunicationAsFinal(handler);
+				return getBytesRead() - start;
+			} else if (value.is(ResponseType.RESOURCE_DEMAND)) {
+				synchronized (cancelLock) {
+					if (!cancelled) {
+						writeResource(new ByteArrayInputStream(new byte[0]));
+					}
+				}
+			} else if (value.is(ResponseType.RESULT)) {
+				throw new IllegalStateException(
+						"Cannot read a result without any header.");
+			}
+		}
+	}
+
 	/**
 	 * Checks if an exception was thrown on the other side of the communication.
 	 * If so the exception is thrown on {@code this} side as well, using a
@@ -910,7 +2108,70 @@ public class Protocol implements Closeable {
 	 * @see ResponseType
 	 */
 	protected RetrievedValue _read() throws IOException {
-		return _read(is.readByte());
+		return _read(readMarker());
+	}
+
+	/**
+	 * Reads the next byte identifying the type of the next value. Any token of
+	 * a session (i.e. {@link ResponseType#SESSION}) and any capabilities (i.e.
+	 * {@link ResponseType#HELLO}) are consumed, i.e. the marker of the value
+	 * following those is returned.
+	 * 
+	 * @return the marker identifying the type of the next value
+	 * 
+	 * @throws IOException
+	 *             if the marker cannot be read
+	 */
+	protected byte readMarker() throws IOException {
+		return readMarker(true);
+	}
+
+	/**
+	 * Reads the next byte identifying the type of the next value (see
+	 * {@link #readMarker()}).
+	 * 
+	 * @param flush
+	 *            {@code true} to flush any written data prior to waiting for
+	 *            the other side, {@code false} if the reading thread must not
+	 *            write
+	 * 
+	 * @return the marker identifying the type of the next value
+	 * 
+	 * @throws IOException
+	 *             if the marker cannot be read
+	 */
+	protected byte readMarker(final boolean flush) throws IOException {
+
+		// make sure the other side got everything before waiting for it
+		if (flush) {
+			flush();
+		}
+
+		byte marker = is.readByte();
+		while (marker == ResponseType.SESSION.getId()
+				|| marker == ResponseType.HELLO.getId()) {
+			final int size = is.readInt();
+			checkFrameSize(size, maxFrameSize);
+			final byte[] bytes = new byte[size];
+			is.readFully(bytes);
+
+			if (marker == ResponseType.SESSION.getId()) {
+				sessionToken = new String(bytes, "UTF8");
+				observeRead(ResponseType.SESSION);
+			} else {
+				readHello(bytes);
+				observeRead(ResponseType.HELLO);
+			}
+
+			marker = is.readByte();
+		}
+
+		// the capabilities precede any response, i.e. the server is old
+		if (helloSent && peerVersion < 0) {
+			peerVersion = 0;
+		}
+
+		return marker;
 	}
 
 	/**
@@ -931,46 +2192,80 @@ public class Protocol implements Closeable {
 		final ResponseType type = ResponseType.find(typeId);
 
 		// make sure the type is valid
+		final RetrievedValue value;
 		if (type == null) {
 			throw new IllegalArgumentException(
 					"Invalid protocol used for communication (unknown type '"
 							+ typeId + "').");
 		} else if (type.hasData()) {
 
-			if (type.isChunked()) {
+			if (ResponseType.INT_ARRAY.equals(type)) {
+
+				// decode the integers at once, i.e. without any chunk
+				final int amount = is.readInt();
+				checkFrameSize(amount * 4L, maxFrameSize);
+				final int[] ints = new int[amount];
+				for (int i = 0; i < ints.length; i++) {
+					ints[i] = is.readInt();
+				}
+
+				value = new ChunkedRetrievedValue(type, ints);
+			} else if (type.isChunked()) {
 				final int chunkSize = is.readInt();
-				final byte[][] chunks = new byte[chunkSize][];
 
+				// the size of the frame is the sum of the sizes of the chunks
+				final byte[][] chunks;
 				if (type.isFixed()) {
+					checkFrameSize((long) chunkSize * type.getFixedSize(),
+							maxFrameSize);
+					chunks = new byte[chunkSize][];
 					for (int i = 0; i < chunkSize; i++) {
 						chunks[i] = new byte[type.getFixedSize()];
 						is.read(chunks[i]);
 					}
 
 				} else {
+					checkFrameSize(chunkSize, maxFrameSize);
+					chunks = new byte[chunkSize][];
+
+					long total = 0;
 					for (int i = 0; i < chunkSize; i++) {
 						final int size = is.readInt();
+						checkFrameSize(size, maxFrameSize);
+						total += size;
+						checkFrameSize(total, maxFrameSize);
 						chunks[i] = new byte[size];
 						is.read(chunks[i]);
 					}
 				}
 
-				return new ChunkedRetrievedValue(type, chunks);
+				value = new ChunkedRetrievedValue(type, chunks);
 			} else if (type.isFixed()) {
 				final byte[] bytes = new byte[type.getFixedSize()];
 				is.read(bytes);
 
-				return new RetrievedValue(type, bytes);
+				value = new RetrievedValue(type, bytes);
 			} else {
 				final int size = is.readInt();
+				checkFrameSize(size, maxFrameSize);
 				final byte[] bytes = new byte[size];
 				is.read(bytes);
 
-				return new RetrievedValue(type, bytes);
+				value = new RetrievedValue(type, bytes);
 			}
 		} else {
-			return new RetrievedValue(type, null);
+			value = new RetrievedValue(type, null);
 		}
+
+		/*
+		 * The values of a result are read separately, the frame is observed
+		 * when the values are read (see readResult).
+		 */
+		if (!ResponseType.RESULT.equals(type)) {
+			observeRead(type);
+		}
+
+		return value;
 	}
 
 	@Override
@@ -0,0 +1,109 @@
+package net.meisen.dissertation.jdbc.protocol;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The optional features of the {@code Protocol}, which are negotiated when a
+ * connection is established (see {@link ResponseType#HELLO}). A feature is
+ * only used, if both sides support it. Each feature is identified by a bit
+ * of the bitset exchanged, i.e. the bit of a feature must never be changed.
+ *
+ * @author pmeisen
+ *
+ * @see Protocol#supports(ProtocolFeature)
+ *
+ */
+public enum ProtocolFeature {
+	/**
+	 * The results are flow-controlled using credits (see
+	 * {@link ResponseType#CREDIT}).
+	 */
+	FLOW_CONTROL(0);
+
+	private final int bit;
+
+	private ProtocolFeature(final int bit) {
+		this.bit = bit;
+	}
+
+	/**
+	 * Gets the bit identifying the feature within the bitset.
+	 *
+	 * @return the bit identifying the feature
+	 */
+	public int getBit() {
+		return bit;
+	}
+
+	/**
+	 * Gets the mask of the feature, i.e. the bitset only containing
+	 * {@code this}.
+	 *
+	 * @return the mask of the feature
+	 */
+	public long getMask() {
+		return 1L << bit;
+	}
+
+	/**
+	 * Checks if the feature is contained in the specified {@code mask}.
+	 *
+	 * @param mask
+	 *            the bitset to be checked
+	 *
+	 * @return {@code true} if the feature is contained, otherwise
+	 *         {@code false}
+	 */
+	public boolean isContained(final long mask) {
+		return (mask & getMask()) != 0;
+	}
+
+	/**
+	 * Creates the bitset of the specified {@code features}.
+	 *
+	 * @param features
+	 *            the features to create the bitset for
+	 *
+	 * @return the bitset of the features
+	 */
+	public static long toMask(final ProtocolFeature... features) {
+		long mask = 0;
+		for (final ProtocolFeature feature : features) {
+			mask |= feature.getMask();
+		}
+
+		return mask;
+	}
+
+	/**
+	 * Gets the known features contained in the specified {@code mask}, any
+	 * unknown bit (i.e. a feature of a newer version) is ignored.
+	 *
+	 * @param mask
+	 *            the bitset to get the features from
+	 *
+	 * @return the features contained
+	 */
+	public static Set<ProtocolFeature> fromMask(final long mask) {
+		final Set<ProtocolFeature> features = EnumSet
+				.noneOf(ProtocolFeature.class);
+		for (final ProtocolFeature feature : ProtocolFeature.values()) {
+			if (feature.isContained(mask)) {
+				features.add(feature);
+			}
+		}
+
+		return features;
+	}
+
+	/**
+	 * Gets the bitset of all the features supported by this implementation of
+	 * the {@code Protocol}.
+	 *
+	 * @return the bitset of all the features
+	 */
+	public static long all() {
+		return toMask(ProtocolFeature.values());
+	}
+}
@@ -64,7 +64,39 @@ public enum ResponseType {
 	/**
 	 * A {@code ResponseType} which defines credentials to be read.
 	 */
-	CREDENTIALS((byte) 13, true, true);
+	CREDENTIALS((byte) 13, true, true),
+	/**
+	 * A {@code ResponseType} which defines a token identifying an
+	 * authenticated session, which can be resumed using the token.
+	 */
+	SESSION((byte) 14),
+	/**
+	 * A {@code ResponseType} which requests a {@link #PONG} from the other
+	 * side, used to check if the connection is alive.
+	 */
+	PING((byte) 15, false, false),
+	/**
+	 * A {@code ResponseType} which answers a {@link #PING}.
+	 */
+	PONG((byte) 16, false, false),
+	/**
+	 * A {@code ResponseType} which marks the end of a batch of results send
+	 * by the client (e.g. of a bulk-load), the batch is acknowledged by the
+	 * other side.
+	 */
+	EOB((byte) 17, false, false),
+	/**
+	 * A {@code ResponseType} which grants the other side to send the
+	 * specified amount of further results, i.e. a single integer is send (see
+	 * {@link Protocol#acknowledgeResult()}).
+	 */
+	CREDIT((byte) 18, false, Integer.SIZE / 8),
+	/**
+	 * A {@code ResponseType} which answers the capabilities send with the
+	 * credentials, i.e. the version, the features and the maximal size of a
+	 * frame supported by the other side (see {@link ProtocolFeature}).
+	 */
+	HELLO((byte) 19);
 
 	private final byte id;
 	private final boolean hasData;
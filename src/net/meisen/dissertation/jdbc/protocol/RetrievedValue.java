@@ -77,6 +77,25 @@ public class RetrievedValue {
 		return res;
 	}
 
+	/**
+	 * Reads the {@code RetrievedValue} as credit, i.e. as the amount of
+	 * results granted by a {@link ResponseType#CREDIT}.
+	 * 
+	 * @return the amount of results granted
+	 * 
+	 * @throws IOException
+	 *             if the {@code RetrievedValue} cannot be read as credit
+	 */
+	public int getCredit() throws IOException {
+		checkType(ResponseType.CREDIT);
+
+		final DataInputStream dis = getDataInputStream();
+		final int res = dis.readInt();
+		dis.close();
+
+		return res;
+	}
+
 	/**
 	 * Gets the integer retrieved from {@link #getInt()} as array.
 	 * 
@@ -0,0 +1,81 @@
+package net.meisen.dissertation.jdbc.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The modes of threading a {@code TidaEndpoint} can use to handle the
+ * connections. Each connection is handled by a thread of its own, because the
+ * {@code Protocol} reads and writes blocking.
+ *
+ * @author pmeisen
+ *
+ * @see TidaEndpoint#setMode(EndpointMode)
+ *
+ */
+public enum EndpointMode {
+	/**
+	 * Each connection is handled by a platform thread, the threads are pooled.
+	 */
+	PLATFORM_THREADS,
+	/**
+	 * Each connection is handled by a virtual thread of its own, which allows
+	 * thousands of concurrent connections. If the runtime does not provide
+	 * virtual threads, platform threads are used instead.
+	 */
+	VIRTUAL_THREADS;
+
+	/**
+	 * Checks if the runtime provides virtual threads.
+	 *
+	 * @return {@code true} if virtual threads are provided, otherwise
+	 *         {@code false}
+	 */
+	public static boolean isVirtualThreadsAvailable() {
+		return getVirtualFactory() != null;
+	}
+
+	/**
+	 * Creates the {@code ExecutorService} used to handle the connections.
+	 *
+	 * @param name
+	 *            the prefix of the names of the created platform threads
+	 *
+	 * @return the created {@code ExecutorService}
+	 */
+	public ExecutorService createExecutor(final String name) {
+		if (VIRTUAL_THREADS.equals(this)) {
+			final Method factory = getVirtualFactory();
+			if (factory != null) {
+				try {
+					return (ExecutorService) factory.invoke(null);
+				} catch (final Exception e) {
+					// use the platform threads
+				}
+			}
+		}
+
+		final AtomicInteger counter = new AtomicInteger();
+		return Executors.newCachedThreadPool(new ThreadFactory() {
+
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, name + "-"
+						+ counter.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	private static Method getVirtualFactory() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (final NoSuchMethodException e) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package net.meisen.dissertation.jdbc.server;
+
+import net.meisen.dissertation.jdbc.protocol.Protocol;
+
+/**
+ * A handler used by a {@code TidaEndpoint} to answer the messages send by the
+ * clients. The same instance is used by all the connections of an endpoint,
+ * i.e. an implementation must be thread-safe.
+ *
+ * @author pmeisen
+ *
+ * @see TidaEndpoint
+ *
+ */
+public interface IQueryHandler {
+
+	/**
+	 * Authenticates the {@code credentials} send by a client when connecting,
+	 * i.e. the user, the password and optionally the token of a session to be
+	 * resumed. The default implementation accepts any credentials without
+	 * issuing a session.
+	 *
+	 * @param credentials
+	 *            the credentials send by the client
+	 *
+	 * @return the token of the session to be send to the client, or
+	 *         {@code null} if no session is issued
+	 *
+	 * @throws Exception
+	 *             if the credentials are invalid, the connection is closed
+	 *             after the exception is send to the client
+	 */
+	public default String authenticate(final String[] credentials)
+			throws Exception {
+		return null;
+	}
+
+	/**
+	 * Answers the specified {@code message}, i.e. writes the meta-data, reads
+	 * the status of the query and writes the results. The end of the response
+	 * is written by the endpoint after the method returns, i.e. it must not be
+	 * written by the handler. The handler should stop writing results, once
+	 * the client cancelled the message (see {@link Protocol#getCancellation()}
+	 * or {@link Protocol#peekForCancel(String[])}).
+	 *
+	 * @param protocol
+	 *            the {@code Protocol} of the connection
+	 * @param message
+	 *            the message to be answered
+	 *
+	 * @throws Exception
+	 *             if the message cannot be answered, the exception is send to
+	 *             the client and the connection is kept
+	 */
+	public void handle(final Protocol protocol, final String message)
+			throws Exception;
+}
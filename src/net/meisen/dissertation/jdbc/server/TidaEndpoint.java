@@ -0,0 +1,640 @@
+package net.meisen.dissertation.jdbc.server;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import net.meisen.dissertation.jdbc.protocol.Protocol;
+
+/**
+ * The server side of the {@code Protocol}, i.e. an endpoint accepting the
+ * connections of clients and answering the messages send using an
+ * {@code IQueryHandler}. Each connection is handled by a thread of its own
+ * (see {@link EndpointMode}), which reads the credentials, authenticates
+ * those (see {@link IQueryHandler#authenticate(String[])}) and answers the
+ * messages until the client closes the connection. <br/>
+ * <br/>
+ * The amount of concurrent connections can be limited (see
+ * {@link #setMaxConnections(int)}), a connection exceeding the limit is
+ * answered with an exception and closed. Closing the endpoint shuts it down
+ * gracefully, i.e. no further connections are accepted, idle connections are
+ * closed and the responses currently written are finished (see
+ * {@link #shutdown(long)}). <br/>
+ * <br/>
+ * While the results of a message are written, the input of the connection
+ * is watched for cancellations by a separate task of the same
+ * {@code EndpointMode} (see {@link Protocol#setCancelWatcher(Executor)}),
+ * i.e. a handler is signaled about a cancellation or a lost client (see
+ * {@link Protocol#getCancellation()}) without polling the input.
+ *
+ * @author pmeisen
+ *
+ */
+public class TidaEndpoint implements Closeable {
+	private final static Logger LOG = Logger.getLogger(TidaEndpoint.class
+			.getName());
+
+	private final IQueryHandler handler;
+	private final Set<Connection> connections;
+
+	private final AtomicInteger activeConnections;
+	private final AtomicLong acceptedConnections;
+	private final AtomicLong rejectedConnections;
+	private final AtomicLong answeredMessages;
+
+	private EndpointMode mode;
+	private int maxConnections;
+	private long shutdownTimeout;
+	private boolean watchCancellations;
+
+	private ServerSocket serverSocket;
+	private ExecutorService executor;
+	private Thread acceptor;
+	private volatile boolean closing;
+
+	/**
+	 * Creates an endpoint answering messages using the specified
+	 * {@code handler}. The endpoint has to be started (see
+	 * {@link #start(int)}).
+	 *
+	 * @param handler
+	 *            the handler used to answer the messages
+	 */
+	public TidaEndpoint(final IQueryHandler handler) {
+		if (handler == null) {
+			throw new NullPointerException("The handler cannot be null.");
+		}
+
+		this.handler = handler;
+		this.connections = new HashSet<Connection>();
+
+		this.activeConnections = new AtomicInteger();
+		this.acceptedConnections = new AtomicLong();
+		this.rejectedConnections = new AtomicLong();
+		this.answeredMessages = new AtomicLong();
+
+		this.mode = EndpointMode.VIRTUAL_THREADS;
+		this.maxConnections = 0;
+		this.shutdownTimeout = 5000;
+		this.watchCancellations = true;
+
+		this.closing = false;
+	}
+
+	/**
+	 * Starts the endpoint listening on the specified {@code port} of any
+	 * address.
+	 *
+	 * @param port
+	 *            the port to listen on, {@code 0} to use any free port
+	 *
+	 * @return the port listened on
+	 *
+	 * @throws IOException
+	 *             if the port cannot be bound
+	 */
+	public int start(final int port) throws IOException {
+		return start(port, null);
+	}
+
+	/**
+	 * Starts the endpoint listening on the specified {@code port} of the
+	 * specified {@code address}.
+	 *
+	 * @param port
+	 *            the port to listen on, {@code 0} to use any free port
+	 * @param address
+	 *            the address to listen on, {@code null} to listen on any
+	 *            address
+	 *
+	 * @return the port listened on
+	 *
+	 * @throws IOException
+	 *             if the port cannot be bound
+	 */
+	public synchronized int start(final int port, final InetAddress address)
+			throws IOException {
+		if (serverSocket != null) {
+			throw new IllegalStateException("The endpoint was already started.");
+		}
+
+		serverSocket = new ServerSocket(port, 0, address);
+		executor = mode.createExecutor("tida-endpoint-" + getPort());
+		acceptor = new Thread("tida-endpoint-acceptor-" + getPort()) {
+
+			@Override
+			public void run() {
+				accept();
+			}
+		};
+		acceptor.setDaemon(true);
+		acceptor.start();
+
+		return getPort();
+	}
+
+	/**
+	 * Accepts connections until the endpoint is closed.
+	 */
+	protected void accept() {
+		while (!closing) {
+			final Socket socket;
+			try {
+				socket = serverSocket.accept();
+			} catch (final IOException e) {
+				// the server socket is closed
+				break;
+			}
+
+			// check the limit of connections
+			final boolean rejected;
+			if (maxConnections > 0
+					&& activeConnections.get() >= maxConnections) {
+				rejectedConnections.incrementAndGet();
+				rejected = true;
+			} else {
+				activeConnections.incrementAndGet();
+				acceptedConnections.incrementAndGet();
+				rejected = false;
+			}
+
+			final Connection connection = new Connection(socket, rejected);
+			synchronized (connections) {
+				connections.add(connection);
+			}
+			try {
+				executor.execute(connection);
+			} catch (final RuntimeException e) {
+				// the endpoint is shut down
+				connection.release();
+			}
+		}
+	}
+
+	/**
+	 * Creates the {@code Protocol} used to answer the specified accepted
+	 * {@code socket}.
+	 *
+	 * @param socket
+	 *            the accepted socket
+	 *
+	 * @return the created {@code Protocol}
+	 *
+	 * @throws IOException
+	 *             if the {@code Protocol} cannot be created
+	 */
+	protected Protocol createProtocol(final Socket socket) throws IOException {
+		return new Protocol(socket);
+	}
+
+	/**
+	 * Shuts the endpoint down gracefully. No further connections are
+	 * accepted, idle connections are closed immediately and the responses
+	 * currently written are finished. Any connection still answering after
+	 * the {@code timeout} is closed.
+	 *
+	 * @param timeout
+	 *            the time in milliseconds to wait for the responses currently
+	 *            written
+	 *
+	 * @return {@code true} if all the responses were finished, otherwise
+	 *         {@code false}
+	 *
+	 * @throws IOException
+	 *             if the endpoint cannot be shut down
+	 */
+	public boolean shutdown(final long timeout) throws IOException {
+		synchronized (this) {
+			if (closing) {
+				return true;
+			}
+			closing = true;
+		}
+		if (serverSocket == null) {
+			return true;
+		}
+		serverSocket.close();
+
+		// close the idle connections and wait for the others to finish
+		final long end = System.nanoTime()
+				+ TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeout));
+		boolean graceful = true;
+		synchronized (connections) {
+			for (final Connection connection : connections) {
+				connection.closeIfIdle();
+			}
+
+			while (!connections.isEmpty()) {
+				final long remaining = end - System.nanoTime();
+				if (remaining <= 0) {
+					graceful = false;
+					break;
+				}
+
+				try {
+					TimeUnit.NANOSECONDS.timedWait(connections, remaining);
+				} catch (final InterruptedException e) {
+					Thread.currentThread().interrupt();
+					graceful = false;
+					break;
+				}
+			}
+
+			for (final Connection connection : connections) {
+				connection.closeSocket();
+			}
+		}
+
+		executor.shutdownNow();
+		try {
+			acceptor.join(1000);
+			executor.awaitTermination(1, TimeUnit.SECONDS);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		return graceful;
+	}
+
+	/**
+	 * Shuts the endpoint down gracefully using the timeout defined by
+	 * {@link #getShutdownTimeout()}.
+	 *
+	 * @see #shutdown(long)
+	 */
+	@Override
+	public void close() throws IOException {
+		shutdown(shutdownTimeout);
+	}
+
+	/**
+	 * Checks if the endpoint is started and not closed.
+	 *
+	 * @return {@code true} if the endpoint accepts connections, otherwise
+	 *         {@code false}
+	 */
+	public boolean isRunning() {
+		return serverSocket != null && !closing;
+	}
+
+	/**
+	 * Gets the port the endpoint listens on.
+	 *
+	 * @return the port listened on, or {@code -1} if the endpoint was not
+	 *         started
+	 */
+	public int getPort() {
+		return serverSocket == null ? -1 : serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Gets the handler used to answer the messages.
+	 *
+	 * @return the handler used to answer the messages
+	 */
+	public IQueryHandler getHandler() {
+		return handler;
+	}
+
+	/**
+	 * Gets the mode of threading used to handle the connections.
+	 *
+	 * @return the mode of threading
+	 */
+	public EndpointMode getMode() {
+		return mode;
+	}
+
+	/**
+	 * Sets the mode of threading used to handle the connections, the mode
+	 * must be set prior to starting the endpoint.
+	 *
+	 * @param mode
+	 *            the mode of threading
+	 */
+	public void setMode(final EndpointMode mode) {
+		if (mode == null) {
+			throw new NullPointerException("The mode cannot be null.");
+		} else if (serverSocket != null) {
+			throw new IllegalStateException("The endpoint was already started.");
+		}
+
+		this.mode = mode;
+	}
+
+	/**
+	 * Gets the maximal amount of concurrent connections.
+	 *
+	 * @return the maximal amount of concurrent connections, {@code 0} if the
+	 *         amount is not limited
+	 */
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	/**
+	 * Sets the maximal amount of concurrent connections. A connection
+	 * exceeding the limit is answered with an exception and closed.
+	 *
+	 * @param maxConnections
+	 *            the maximal amount of concurrent connections, {@code 0} to
+	 *            not limit the amount
+	 */
+	public void setMaxConnections(final int maxConnections) {
+		this.maxConnections = Math.max(0, maxConnections);
+	}
+
+	/**
+	 * Gets the time in milliseconds to wait for the responses currently
+	 * written, when the endpoint is closed.
+	 *
+	 * @return the timeout of the shutdown in milliseconds
+	 */
+	public long getShutdownTimeout() {
+		return shutdownTimeout;
+	}
+
+	/**
+	 * Sets the time in milliseconds to wait for the responses currently
+	 * written, when the endpoint is closed.
+	 *
+	 * @param shutdownTimeout
+	 *            the timeout of the shutdown in milliseconds
+	 */
+	public void setShutdownTimeout(final long shutdownTimeout) {
+		this.shutdownTimeout = Math.max(0, shutdownTimeout);
+	}
+
+	/**
+	 * Checks if the input of a connection is watched for cancellations while
+	 * the results of a message are written.
+	 *
+	 * @return {@code true} if the input is watched, otherwise {@code false}
+	 */
+	public boolean isWatchCancellations() {
+		return watchCancellations;
+	}
+
+	/**
+	 * Defines if the input of a connection is watched for cancellations while
+	 * the results of a message are written (see
+	 * {@link Protocol#setCancelWatcher(Executor)}). If not watched, a handler
+	 * has to check for cancellations (see
+	 * {@link Protocol#peekForCancel(String[])}).
+	 *
+	 * @param watchCancellations
+	 *            {@code true} to watch the input, otherwise {@code false}
+	 */
+	public void setWatchCancellations(final boolean watchCancellations) {
+		this.watchCancellations = watchCancellations;
+	}
+
+	/**
+	 * Gets the amount of currently open connections, not including the
+	 * rejected ones.
+	 *
+	 * @return the amount of currently open connections
+	 */
+	public int getActiveConnections() {
+		return activeConnections.get();
+	}
+
+	/**
+	 * Gets the amount of connections accepted so far.
+	 *
+	 * @return the amount of connections accepted so far
+	 */
+	public long getAcceptedConnections() {
+		return acceptedConnections.get();
+	}
+
+	/**
+	 * Gets the amount of connections rejected so far, because the limit of
+	 * connections was reached.
+	 *
+	 * @return the amount of connections rejected so far
+	 */
+	public long getRejectedConnections() {
+		return rejectedConnections.get();
+	}
+
+	/**
+	 * Gets the amount of messages answered so far, including the ones failed.
+	 *
+	 * @return the amount of messages answered so far
+	 */
+	public long getAnsweredMessages() {
+		return answeredMessages.get();
+	}
+
+	@Override
+	public String toString() {
+		return "TidaEndpoint on " + getPort() + " (" + mode + ", "
+				+ activeConnections.get() + " connections)";
+	}
+
+	/**
+	 * A connection handled by the endpoint.
+	 *
+	 * @author pmeisen
+	 *
+	 */
+	private class Connection implements Runnable {
+		private final Socket socket;
+		private final boolean rejected;
+
+		private boolean busy;
+		private boolean released;
+
+		public Connection(final Socket socket, final boolean rejected) {
+			this.socket = socket;
+			this.rejected = rejected;
+
+			this.busy = false;
+			this.released = false;
+		}
+
+		@Override
+		public void run() {
+			Protocol protocol = null;
+			try {
+				socket.setTcpNoDelay(true);
+				if (rejected) {
+					socket.setSoTimeout(1000);
+				}
+				protocol = createProtocol(socket);
+				if (watchCancellations) {
+					protocol.setCancelWatcher(executor);
+				}
+				final String[] credentials = protocol.readCredential();
+
+				if (rejected) {
+					protocol.writeException(new IllegalStateException(
+							"The limit of '" + maxConnections
+									+ "' connections is reached."));
+					return;
+				}
+
+				// authenticate the connection
+				final String token;
+				try {
+					token = handler.authenticate(credentials);
+				} catch (final Exception e) {
+					protocol.writeException(e);
+					return;
+				}
+				if (token != null) {
+					protocol.writeSessionToken(token);
+				}
+
+				// answer the messages until the connection is closed
+				while (!closing) {
+					final String msg = protocol.waitForMessage();
+					synchronized (this) {
+						if (closing) {
+							break;
+						}
+						busy = true;
+					}
+
+					try {
+						answer(protocol, msg);
+					} finally {
+						synchronized (this) {
+							busy = false;
+						}
+					}
+				}
+			} catch (final EOFException e) {
+				// the client closed the connection
+			} catch (final SocketException e) {
+				// the connection was closed
+			} catch (final IOException e) {
+				// the connection is broken
+				if (LOG.isLoggable(Level.FINE)) {
+					LOG.log(Level.FINE, "The connection of '"
+							+ socket.getRemoteSocketAddress() + "' is broken.",
+							e);
+				}
+			} catch (final RuntimeException e) {
+
+				// the client send something unexpected, e.g. an unknown frame
+				if (LOG.isLoggable(Level.FINE)) {
+					LOG.log(Level.FINE, "The connection of '"
+							+ socket.getRemoteSocketAddress()
+							+ "' failed unexpectedly.", e);
+				}
+				fail(protocol, e);
+			} finally {
+				release();
+			}
+		}
+
+		/**
+		 * Sends the specified {@code exception} to the client, if the
+		 * connection can still be used to do so.
+		 *
+		 * @param protocol
+		 *            the {@code Protocol} of the connection, can be
+		 *            {@code null} if it was not created
+		 * @param exception
+		 *            the exception to be send
+		 */
+		protected void fail(final Protocol protocol,
+				final RuntimeException exception) {
+			if (protocol == null || socket.isClosed()) {
+				return;
+			}
+
+			try {
+				protocol.writeException(exception);
+				protocol.writeEndOfResponse();
+			} catch (final IOException e) {
+				// ignore, the connection is released anyways
+			}
+		}
+
+		/**
+		 * Answers the specified {@code msg} using the handler of the
+		 * endpoint, an exception of the handler is send to the client.
+		 *
+		 * @param protocol
+		 *            the {@code Protocol} of the connection
+		 * @param msg
+		 *            the message to be answered
+		 *
+		 * @throws IOException
+		 *             if the answer cannot be written
+		 */
+		protected void answer(final Protocol protocol, final String msg)
+				throws IOException {
+			try {
+				handler.handle(protocol, msg);
+			} catch (final IOException e) {
+				if (socket.isClosed()) {
+					throw e;
+				}
+				protocol.writeException(e);
+			} catch (final Exception e) {
+				protocol.writeException(e);
+			} finally {
+				answeredMessages.incrementAndGet();
+			}
+
+			protocol.writeEndOfResponse();
+		}
+
+		/**
+		 * Closes the connection, if no response is currently written.
+		 */
+		public synchronized void closeIfIdle() {
+			if (!busy) {
+				closeSocket();
+			}
+		}
+
+		/**
+		 * Closes the socket of the connection.
+		 */
+		public void closeSocket() {
+			try {
+				socket.close();
+			} catch (final IOException e) {
+				// ignore
+			}
+		}
+
+		/**
+		 * Closes the socket and removes the connection from the endpoint.
+		 */
+		public void release() {
+			closeSocket();
+
+			synchronized (connections) {
+				if (released) {
+					return;
+				}
+				released = true;
+
+				if (!rejected) {
+					activeConnections.decrementAndGet();
+				}
+				connections.remove(this);
+				connections.notifyAll();
+			}
+		}
+	}
+}
@@ -1,9 +1,21 @@
 package net.meisen.dissertation;
 
+import net.meisen.dissertation.jdbc.TestFlowControl;
 import net.meisen.dissertation.jdbc.TestObjectArrayResultSet;
+import net.meisen.dissertation.jdbc.TestProtocolManager;
 import net.meisen.dissertation.jdbc.TestQueryResponseHandler;
+import net.meisen.dissertation.jdbc.TestReplicaRouting;
+import net.meisen.dissertation.jdbc.TestResultExporter;
+import net.meisen.dissertation.jdbc.TestStatementListener;
+import net.meisen.dissertation.jdbc.TestTidaBulkLoader;
+import net.meisen.dissertation.jdbc.TestTidaSnapshot;
 import net.meisen.dissertation.jdbc.TestTidaStatement;
+import net.meisen.dissertation.jdbc.cluster.TestHostCluster;
+import net.meisen.dissertation.jdbc.cluster.TestShardRouter;
+import net.meisen.dissertation.jdbc.metrics.TestDriverMetrics;
+import net.meisen.dissertation.jdbc.protocol.TestNegotiation;
 import net.meisen.dissertation.jdbc.protocol.TestProtocol;
+import net.meisen.dissertation.jdbc.server.TestTidaEndpoint;
 import net.meisen.dissertation.jdbc.version.TestVersion;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
@@ -17,7 +29,13 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({TestVersion.class,
         TestQueryResponseHandler.class,
         TestProtocol.class,
-        TestObjectArrayResultSet.class, TestTidaStatement.class})
+        TestObjectArrayResultSet.class, TestTidaStatement.class,
+        TestDriverMetrics.class, TestStatementListener.class,
+        TestHostCluster.class, TestReplicaRouting.class,
+        TestShardRouter.class, TestProtocolManager.class,
+        TestTidaBulkLoader.class, TestResultExporter.class,
+        TestTidaSnapshot.class, TestFlowControl.class,
+        TestNegotiation.class, TestTidaEndpoint.class})
 public class AllTests {
     // nothing more to do here
 }
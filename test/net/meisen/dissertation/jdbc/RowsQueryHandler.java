@@ -0,0 +1,339 @@
+package net.meisen.dissertation.jdbc;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.meisen.dissertation.jdbc.protocol.DataType;
+import net.meisen.dissertation.jdbc.protocol.Protocol;
+import net.meisen.dissertation.jdbc.protocol.QueryStatus;
+import net.meisen.dissertation.jdbc.protocol.QueryType;
+import net.meisen.dissertation.jdbc.protocol.ResponseType;
+import net.meisen.dissertation.jdbc.protocol.RetrievedValue;
+import net.meisen.dissertation.jdbc.server.IQueryHandler;
+import net.meisen.dissertation.jdbc.server.TidaEndpoint;
+
+/**
+ * A handler used by the tests to answer the queries of the driver using a
+ * {@code TidaEndpoint}. A message {@code XXXX n} (e.g. {@code ROWS n}) is
+ * answered with {@code n} rows (see {@link #row(int)}), until the query is
+ * cancelled. The written rows, the cancellations and the credit granted by
+ * the client are recorded. Any other message is passed to
+ * {@link #answer(Protocol, String)}.
+ *
+ * @author pmeisen
+ *
+ */
+public class RowsQueryHandler implements IQueryHandler {
+	private final String[] names;
+	private final DataType[] types;
+
+	private final AtomicInteger written = new AtomicInteger();
+	private final AtomicInteger cancellations = new AtomicInteger();
+	private final AtomicLong credit = new AtomicLong();
+
+	private TidaEndpoint endpoint;
+
+	/**
+	 * Creates a handler answering with rows of a single string column
+	 * {@code VALUE}, i.e. {@code ROW0}, {@code ROW1}, ...
+	 */
+	public RowsQueryHandler() {
+		this(new String[] { "VALUE" }, new DataType[] { DataType.STRING });
+	}
+
+	/**
+	 * Creates a handler answering with rows of the specified columns.
+	 *
+	 * @param names
+	 *            the names of the columns
+	 * @param types
+	 *            the types of the columns
+	 */
+	public RowsQueryHandler(final String[] names, final DataType[] types) {
+		this.names = names;
+		this.types = types;
+		this.endpoint = null;
+	}
+
+	/**
+	 * Creates the endpoint answering using {@code this}, any previously
+	 * created endpoint is shut down. The endpoint is not started, i.e. it can
+	 * be configured prior to calling {@link #start()}.
+	 *
+	 * @param legacy
+	 *            {@code true} to answer using the protocol of a server not
+	 *            supporting any negotiation (see {@link LegacyProtocol}),
+	 *            otherwise {@code false}
+	 *
+	 * @return the created endpoint
+	 *
+	 * @throws IOException
+	 *             if a previously created endpoint cannot be shut down
+	 */
+	public TidaEndpoint createEndpoint(final boolean legacy)
+			throws IOException {
+		shutdown();
+
+		if (legacy) {
+			endpoint = new TidaEndpoint(this) {
+
+				@Override
+				protected Protocol createProtocol(final Socket socket)
+						throws IOException {
+					return new LegacyProtocol(socket);
+				}
+			};
+		} else {
+			endpoint = new TidaEndpoint(this);
+		}
+
+		return endpoint;
+	}
+
+	/**
+	 * Starts the endpoint on any free port, the endpoint is created if none
+	 * was created so far (see {@link #createEndpoint(boolean)}).
+	 *
+	 * @return the port the endpoint listens on
+	 *
+	 * @throws IOException
+	 *             if the endpoint cannot be started
+	 */
+	public int start() throws IOException {
+		if (endpoint == null) {
+			createEndpoint(false);
+		}
+
+		return endpoint.start(0);
+	}
+
+	/**
+	 * Shuts the endpoint down immediately, if one was created.
+	 *
+	 * @throws IOException
+	 *             if the endpoint cannot be shut down
+	 */
+	public void shutdown() throws IOException {
+		if (endpoint != null) {
+			endpoint.shutdown(0);
+		}
+	}
+
+	/**
+	 * Gets the endpoint answering using {@code this}.
+	 *
+	 * @return the endpoint, {@code null} if none was created
+	 */
+	public TidaEndpoint getEndpoint() {
+		return endpoint;
+	}
+
+	/**
+	 * Creates the properties to connect to the endpoint anonymously.
+	 *
+	 * @return the created properties
+	 */
+	public DriverProperties createProperties() {
+		return createProperties(null, null);
+	}
+
+	/**
+	 * Creates the properties to connect to the endpoint using the specified
+	 * credentials. The properties use a timeout of 500 milliseconds and
+	 * disable the registration of any MBean.
+	 *
+	 * @param user
+	 *            the user to connect with
+	 * @param password
+	 *            the password of the user
+	 *
+	 * @return the created properties
+	 */
+	public DriverProperties createProperties(final String user,
+			final String password) {
+		final DriverProperties props = new DriverProperties("jdbc:tida://",
+				user, password, "localhost", endpoint.getPort());
+		props.setTimeout(500);
+		props.setJmx(false);
+
+		return props;
+	}
+
+	/**
+	 * Creates an anonymous connection to the endpoint (see
+	 * {@link #createProperties()}).
+	 *
+	 * @return the created connection
+	 */
+	public TidaConnection createConnection() {
+		return new TidaConnection(createProperties());
+	}
+
+	@Override
+	public void handle(final Protocol protocol, final String message)
+			throws Exception {
+		if (!message.matches("[A-Z]{4} \\d+")) {
+			answer(protocol, message);
+			return;
+		}
+		credit.set(protocol.getCredit());
+		written.set(0);
+
+		final Class<?>[] header = new Class<?>[types.length];
+		for (int i = 0; i < types.length; i++) {
+			header[i] = types[i].getRepresentorClass();
+		}
+		protocol.writeMeta(QueryType.QUERY, header, names);
+		if (QueryStatus.CANCEL.equals(protocol.readQueryStatus())) {
+			return;
+		}
+		protocol.writeEndOfMeta();
+		beforeRows(protocol, message);
+
+		final int rows = Integer.parseInt(message.substring(5));
+		for (int i = 0; i < rows; i++) {
+			if (Boolean.TRUE.equals(protocol.peekForCancel(null))) {
+				cancellations.incrementAndGet();
+				break;
+			}
+			protocol.writeResult(types, row(i));
+			written.incrementAndGet();
+		}
+		afterRows(protocol, message);
+	}
+
+	/**
+	 * Answers any message not requesting rows. The default implementation
+	 * fails.
+	 *
+	 * @param protocol
+	 *            the protocol to answer on
+	 * @param message
+	 *            the message to be answered
+	 *
+	 * @throws Exception
+	 *             if the message cannot be answered
+	 */
+	protected void answer(final Protocol protocol, final String message)
+			throws Exception {
+		throw new IllegalArgumentException("Unknown message '" + message
+				+ "'.");
+	}
+
+	/**
+	 * Called after the meta-data of the specified {@code message} is
+	 * written, prior to writing the rows.
+	 *
+	 * @param protocol
+	 *            the protocol to answer on
+	 * @param message
+	 *            the message answered
+	 *
+	 * @throws Exception
+	 *             if the message cannot be answered
+	 */
+	protected void beforeRows(final Protocol protocol, final String message)
+			throws Exception {
+		// nothing to do by default
+	}
+
+	/**
+	 * Called after the rows of the specified {@code message} are written.
+	 *
+	 * @param protocol
+	 *            the protocol to answer on
+	 * @param message
+	 *            the message answered
+	 *
+	 * @throws Exception
+	 *             if the message cannot be answered
+	 */
+	protected void afterRows(final Protocol protocol, final String message)
+			throws Exception {
+		// nothing to do by default
+	}
+
+	/**
+	 * Creates the row with the specified {@code index}.
+	 *
+	 * @param index
+	 *            the index of the row
+	 *
+	 * @return the created row
+	 */
+	protected Object[] row(final int index) {
+		return new Object[] { "ROW" + index };
+	}
+
+	/**
+	 * Gets the amount of rows written for the last message.
+	 *
+	 * @return the amount of rows written
+	 */
+	public int getWritten() {
+		return written.get();
+	}
+
+	/**
+	 * Gets the amount of messages cancelled while writing the rows.
+	 *
+	 * @return the amount of cancelled messages
+	 */
+	public int getCancellations() {
+		return cancellations.get();
+	}
+
+	/**
+	 * Gets the credit granted by the client with the last message.
+	 *
+	 * @return the credit granted, {@code -1} if the rows were not
+	 *         flow-controlled
+	 */
+	public long getCredit() {
+		return credit.get();
+	}
+
+	/**
+	 * The {@code Protocol} of a server not supporting any negotiation, i.e.
+	 * the capabilities send with the credentials are ignored and any frame
+	 * unknown to such a server (e.g. a {@code PING} or a {@code CREDIT})
+	 * fails the connection.
+	 *
+	 * @author pmeisen
+	 *
+	 */
+	public static class LegacyProtocol extends Protocol {
+
+		/**
+		 * Constructor to create a protocol answering on the specified
+		 * {@code socket}.
+		 *
+		 * @param socket
+		 *            the socket to answer on
+		 *
+		 * @throws IOException
+		 *             if the streams of the socket cannot be opened
+		 */
+		public LegacyProtocol(final Socket socket) throws IOException {
+			super(socket);
+		}
+
+		@Override
+		public String[] readCredential() throws IOException {
+			read();
+			return new String[] { null, null };
+		}
+
+		@Override
+		protected RetrievedValue _read(final byte typeId) throws IOException {
+			if (typeId > ResponseType.CREDENTIALS.getId()) {
+				throw new IllegalArgumentException(
+						"Invalid protocol used for communication (unknown type '"
+								+ typeId + "').");
+			}
+			return super._read(typeId);
+		}
+	}
+}
@@ -0,0 +1,239 @@
+package net.meisen.dissertation.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.ResultSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the credit-based flow control of the results, i.e. the fetch-size of
+ * a {@code TidaStatement} and a {@code TidaResultSet}.
+ *
+ * @author pmeisen
+ *
+ */
+public class TestFlowControl {
+	private final RowsQueryHandler server = new RowsQueryHandler();
+
+	/**
+	 * Starts the endpoint answering queries.
+	 *
+	 * @throws Exception
+	 *             if the endpoint cannot be started
+	 */
+	@Before
+	public void startServer() throws Exception {
+		start(false);
+	}
+
+	/**
+	 * Shuts the endpoint down.
+	 *
+	 * @throws Exception
+	 *             if the endpoint cannot be shut down
+	 */
+	@After
+	public void shutdownServer() throws Exception {
+		server.shutdown();
+	}
+
+	private void start(final boolean legacy) throws Exception {
+
+		// the cancellations are peeked by the writing thread
+		server.createEndpoint(legacy).setWatchCancellations(false);
+		server.start();
+	}
+
+	private TidaConnection createConnection(final int creditWindow,
+			final int prefetchDepth) {
+		final DriverProperties props = server.createProperties();
+		props.setCreditWindow(creditWindow);
+		props.setPrefetchDepth(prefetchDepth);
+
+		return new TidaConnection(props);
+	}
+
+	private void awaitWritten(final int expected) throws InterruptedException {
+		for (int i = 0; i < 100 && server.getWritten() < expected; i++) {
+			Thread.sleep(10);
+		}
+	}
+
+	/**
+	 * Tests that the server pauses, if the rows are not consumed.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testServerPauses() throws Exception {
+		final TidaConnection conn = createConnection(10, 0);
+		try {
+			final TidaStatement stmt = conn.createStatement();
+			assertEquals(10, stmt.getFetchSize());
+
+			// the capabilities are known after the first response
+			stmt.executeQuery("ROWS 0").close();
+
+			final ResultSet rs = stmt.executeQuery("ROWS 2000");
+			assertEquals(10, rs.getFetchSize());
+			for (int i = 0; i < 5; i++) {
+				assertTrue(rs.next());
+			}
+
+			// the window is granted again after half of it is consumed
+			awaitWritten(15);
+			Thread.sleep(100);
+			assertEquals(10, server.getCredit());
+			assertEquals(15, server.getWritten());
+
+			// enlarging the window grants the difference immediately
+			rs.setFetchSize(50);
+			awaitWritten(55);
+			Thread.sleep(100);
+			assertEquals(55, server.getWritten());
+
+			// closing cancels the paused server
+			rs.close();
+			assertEquals(1, server.getCancellations());
+			stmt.close();
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests that the rows are not flow-controlled without a fetch-size.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testWithoutFlowControl() throws Exception {
+		final TidaConnection conn = createConnection(0, 0);
+		try {
+			final TidaStatement stmt = conn.createStatement();
+			assertEquals(0, stmt.getFetchSize());
+
+			final ResultSet rs = stmt.executeQuery("ROWS 2000");
+			assertTrue(rs.next());
+			awaitWritten(2000);
+			assertEquals(-1, server.getCredit());
+			assertEquals(2000, server.getWritten());
+			rs.close();
+			stmt.close();
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests that a small fetch-size does not lead to a round trip per row,
+	 * i.e. it is ignored without a {@code creditwindow} and does not shrink
+	 * the window otherwise.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testSmallFetchSize() throws Exception {
+		for (final int creditWindow : new int[] { 0, 100 }) {
+			final TidaConnection conn = createConnection(creditWindow, 0);
+			try {
+				final TidaStatement stmt = conn.createStatement();
+				stmt.setFetchSize(1);
+
+				// the capabilities are known after the first response
+				stmt.executeQuery("ROWS 0").close();
+
+				final ResultSet rs = stmt.executeQuery("ROWS 2000");
+				assertTrue(rs.next());
+				rs.setFetchSize(1);
+				assertEquals(creditWindow, rs.getFetchSize());
+
+				// the server does not stall after each row
+				final int expected = creditWindow == 0 ? 2000 : creditWindow;
+				awaitWritten(expected);
+				Thread.sleep(100);
+				assertEquals(creditWindow == 0 ? -1 : creditWindow,
+						server.getCredit());
+				assertEquals(expected, server.getWritten());
+				rs.close();
+				stmt.close();
+			} finally {
+				conn.close();
+			}
+		}
+	}
+
+	/**
+	 * Tests the reading of all the rows using different fetch-sizes on the
+	 * same connection, i.e. any credit granted after the end of a response
+	 * is not used by the next response.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testFetchSizes() throws Exception {
+		for (final int prefetchDepth : new int[] { 0, 4 }) {
+			final TidaConnection conn = createConnection(2, prefetchDepth);
+			try {
+				final TidaStatement stmt = conn.createStatement();
+				// the capabilities are known after the first response
+				stmt.executeQuery("ROWS 0").close();
+				for (final int fetchSize : new int[] { 1, 3, 0, 100, 0 }) {
+					stmt.setFetchSize(fetchSize);
+
+					final ResultSet rs = stmt.executeQuery("ROWS 500");
+					int rows = 0;
+					while (rs.next()) {
+						assertEquals("ROW" + rows, rs.getString(1));
+						rows++;
+					}
+					assertEquals(500, rows);
+					assertFalse(rs.next());
+					assertEquals(Math.max(2, fetchSize), server.getCredit());
+					rs.close();
+				}
+				stmt.close();
+			} finally {
+				conn.close();
+			}
+		}
+		assertEquals(0, server.getCancellations());
+	}
+
+	/**
+	 * Tests that the rows are not flow-controlled, if the server does not
+	 * support it.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testLegacyServer() throws Exception {
+		start(true);
+
+		final TidaConnection conn = createConnection(10, 0);
+		try {
+			final TidaStatement stmt = conn.createStatement();
+			for (int i = 0; i < 2; i++) {
+				final ResultSet rs = stmt.executeQuery("ROWS 2000");
+				assertTrue(rs.next());
+				awaitWritten(2000);
+				assertEquals(-1, server.getCredit());
+				assertEquals(2000, server.getWritten());
+				rs.close();
+			}
+			stmt.close();
+		} finally {
+			conn.close();
+		}
+	}
+}
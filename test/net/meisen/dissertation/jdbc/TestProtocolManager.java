@@ -0,0 +1,911 @@
+package net.meisen.dissertation.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.ServerSocket;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.meisen.dissertation.jdbc.protocol.DataType;
+import net.meisen.dissertation.jdbc.protocol.Protocol;
+import net.meisen.dissertation.jdbc.protocol.QueryStatus;
+import net.meisen.dissertation.jdbc.protocol.QueryType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the implementation of the {@code ProtocolManager}.
+ *
+ * @author pmeisen
+ *
+ */
+public class TestProtocolManager {
+	private RowsQueryHandler alive;
+	private ServerSocket dead;
+	private AtomicInteger slept;
+
+	/**
+	 * Creates an endpoint answering pings and a socket not answering at all.
+	 *
+	 * @throws Exception
+	 *             if a socket cannot be created
+	 */
+	@Before
+	public void createSockets() throws Exception {
+		dead = new ServerSocket(0);
+		slept = new AtomicInteger();
+
+		alive = new RowsQueryHandler() {
+
+			@Override
+			public void handle(final Protocol protocol, final String message)
+					throws Exception {
+				if (message.startsWith("ROWS ")) {
+					super.handle(protocol, message);
+				} else {
+					answer(protocol, message);
+				}
+			}
+
+			@Override
+			protected void answer(final Protocol protocol, final String message)
+					throws Exception {
+				TestProtocolManager.this.answer(protocol, message);
+			}
+		};
+		start(false);
+	}
+
+	/**
+	 * Closes the endpoint and the socket.
+	 *
+	 * @throws Exception
+	 *             if a socket cannot be closed
+	 */
+	@After
+	public void closeSockets() throws Exception {
+		alive.shutdown();
+		dead.close();
+	}
+
+	private void start(final boolean legacy) throws Exception {
+
+		// the cancellations are peeked by the writing thread
+		alive.createEndpoint(legacy).setWatchCancellations(false);
+		alive.start();
+	}
+
+	/**
+	 * Answers the specified {@code message}, a message {@code ROWS n} is
+	 * answered with {@code n} results or until it is cancelled (see
+	 * {@link RowsQueryHandler}). A message {@code ALIVE} is answered without
+	 * any result, a message {@code SLEEP} is answered after it is cancelled,
+	 * a message {@code DRIP n} is answered with {@code n} results each send
+	 * after five milliseconds, a message {@code WAIT n} is answered with a
+	 * single result after {@code n} milliseconds, a message {@code FAIL}
+	 * fails after a single result, and any other message is answered with a
+	 * single result.
+	 *
+	 * @param protocol
+	 *            the protocol to answer on
+	 * @param message
+	 *            the message to be answered
+	 *
+	 * @throws Exception
+	 *             if the message cannot be answered
+	 */
+	protected void answer(final Protocol protocol, final String message)
+			throws Exception {
+		if (ProtocolManager.ALIVE.equals(message)) {
+			protocol.writeQueryType(QueryType.QUERY);
+			protocol.readQueryStatus();
+			return;
+		}
+
+		protocol.writeMeta(QueryType.QUERY, new Class<?>[] { String.class },
+				new String[] { "VALUE" });
+		if (QueryStatus.CANCEL.equals(protocol.readQueryStatus())) {
+			return;
+		}
+
+		// sleep until the query is cancelled
+		if ("SLEEP".equals(message)) {
+			while (!Boolean.TRUE.equals(protocol.peekForCancel(null))) {
+				Thread.sleep(10);
+			}
+			slept.incrementAndGet();
+		} else if (message.startsWith("DRIP ")) {
+			protocol.writeEndOfMeta();
+
+			// write each row on its own
+			final int rows = Integer.parseInt(message.substring(5));
+			for (int i = 0; i < rows; i++) {
+				Thread.sleep(5);
+				protocol.writeResult(new DataType[] { DataType.STRING },
+						new Object[] { "ROW" + i });
+				protocol.flush();
+			}
+		} else if (message.startsWith("WAIT ")) {
+			Thread.sleep(Integer.parseInt(message.substring(5)));
+			protocol.writeEndOfMeta();
+			protocol.writeResult(new DataType[] { DataType.STRING },
+					new Object[] { message });
+		} else if ("FAIL".equals(message)) {
+			protocol.writeEndOfMeta();
+			protocol.writeResult(new DataType[] { DataType.STRING },
+					new Object[] { message });
+			protocol.writeException(new IllegalStateException(message));
+		} else {
+			protocol.writeEndOfMeta();
+			protocol.writeResult(new DataType[] { DataType.STRING },
+					new Object[] { message });
+		}
+	}
+
+	private int getCancellations() {
+		return slept.get() + alive.getCancellations();
+	}
+
+	private DriverProperties createProperties(final int port) {
+		final DriverProperties props = new DriverProperties("jdbc:tida://",
+				null, null, "localhost", port);
+		props.setTimeout(500);
+		props.setJmx(false);
+
+		return props;
+	}
+
+	/**
+	 * Tests the pinging of a protocol.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testPing() throws Exception {
+		final TidaConnection conn = new TidaConnection(alive.createProperties());
+		try {
+			final ProtocolManager manager = conn.getManager();
+			assertTrue(manager.ping(conn.getProtocol(), 1000));
+			assertTrue(conn.isValid(1));
+			assertFalse(conn.isClosed());
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests the pinging of a protocol connected to a server, which does not
+	 * support any negotiation and fails on any {@code PING}.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testPingLegacyServer() throws Exception {
+		start(true);
+
+		final TidaConnection conn = new TidaConnection(alive.createProperties());
+		try {
+			final TidaStatement stmt = conn.createStatement();
+			final ResultSet rs = stmt.executeQuery("ROWS 5");
+			while (rs.next()) {
+				// nothing to do
+			}
+			stmt.close();
+			assertFalse(conn.getProtocol().isNegotiated());
+
+			// the server is asked if it is alive instead of pinged
+			assertTrue(conn.isValid(1));
+			assertFalse(conn.isClosed());
+			conn.getManager().pingUnused();
+			assertEquals(0, conn.getManager().getMetrics().getLostConnections());
+
+			// the connection is still usable
+			final TidaStatement next = conn.createStatement();
+			final ResultSet nextRs = next.executeQuery("ROWS 3");
+			int rows = 0;
+			while (nextRs.next()) {
+				rows++;
+			}
+			assertEquals(3, rows);
+			next.close();
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests that pinging a protocol, which is used for a communication, does
+	 * not change the timeout of the running reads.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testPingInCommunication() throws Exception {
+		final TidaConnection conn = new TidaConnection(alive.createProperties());
+		try {
+			final TidaStatement stmt = conn.createStatement();
+			final ResultSet rs = stmt.executeQuery("DRIP 100");
+			final Protocol protocol = stmt.getProtocol();
+			final ProtocolManager manager = conn.getManager();
+
+			// ping with a short timeout while the rows are read
+			final AtomicBoolean reading = new AtomicBoolean(true);
+			final AtomicInteger failedPings = new AtomicInteger();
+			final Thread pinger = new Thread() {
+
+				@Override
+				public void run() {
+					while (reading.get()) {
+						if (!manager.ping(protocol, 1)) {
+							failedPings.incrementAndGet();
+						}
+					}
+				}
+			};
+			pinger.start();
+
+			int rows = 0;
+			try {
+				while (rs.next()) {
+					rows++;
+				}
+			} finally {
+				reading.set(false);
+				pinger.join(1000);
+			}
+			assertEquals(100, rows);
+			assertEquals(0, failedPings.get());
+			stmt.close();
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests the detection of a lost connection by pinging the unused
+	 * protocols.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testPingUnused() throws Exception {
+		final DriverProperties props = createProperties(dead.getLocalPort());
+		final TidaConnection conn = new TidaConnection(props);
+		final ProtocolManager manager = new ProtocolManager(props);
+		try {
+			final Protocol protocol = manager.createProtocol(conn, conn);
+			assertFalse(manager.ping(protocol, 100));
+
+			manager.pingUnused();
+			assertEquals(0, manager.sizeOfOwners());
+			assertEquals(1, manager.getMetrics().getLostConnections());
+		} finally {
+			manager.close();
+			conn.close();
+		}
+
+		// a connection not answering is not valid
+		final TidaConnection invalid = new TidaConnection(props);
+		assertFalse(invalid.isValid(1));
+		assertTrue(invalid.isClosed());
+	}
+
+	/**
+	 * Tests that the periodic pinging detects a lost connection, even if the
+	 * timeout of the connection is disabled.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testPingIntervalWithoutTimeout() throws Exception {
+		final DriverProperties props = createProperties(dead.getLocalPort());
+		props.setTimeout(0);
+		props.setPingInterval(50);
+
+		final TidaConnection conn = new TidaConnection(props);
+		final ProtocolManager manager = new ProtocolManager(props);
+		try {
+			manager.createProtocol(conn, conn);
+
+			// the pong is awaited at most for the interval
+			final long start = System.currentTimeMillis();
+			while (manager.getMetrics().getLostConnections() == 0
+					&& System.currentTimeMillis() - start < 5000) {
+				Thread.sleep(10);
+			}
+			assertEquals(1, manager.getMetrics().getLostConnections());
+			assertEquals(0, manager.sizeOfOwners());
+		} finally {
+			manager.close();
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests the opening and closing of statements by several threads using
+	 * the same connection.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testConcurrentStatements() throws Exception {
+		final ExecutorService executor = Executors.newFixedThreadPool(16);
+		final TidaConnection conn = new TidaConnection(alive.createProperties());
+		try {
+			final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+			for (int i = 0; i < 16; i++) {
+				futures.add(executor.submit(new Callable<Integer>() {
+
+					@Override
+					public Integer call() throws Exception {
+						int rows = 0;
+						for (int k = 0; k < 20; k++) {
+							final TidaStatement stmt = conn.createStatement();
+							final TidaResultSet rs = stmt.executeQuery("VALUE");
+							while (rs.next()) {
+								rows++;
+							}
+							stmt.close();
+						}
+
+						return rows;
+					}
+				}));
+			}
+			for (final Future<Integer> future : futures) {
+				assertEquals(20, future.get(10, TimeUnit.SECONDS).intValue());
+			}
+
+			// all the statements released their protocols and scopes
+			final ProtocolManager manager = conn.getManager();
+			assertEquals(0, manager.sizeOfOwners());
+			assertEquals(0, manager.sizeOfScopes());
+		} finally {
+			conn.close();
+			executor.shutdownNow();
+		}
+	}
+
+	private void leakStatement(final TidaConnection conn) throws SQLException {
+		final TidaStatement stmt = conn.createStatement();
+		final TidaResultSet rs = stmt.executeQuery("ROWS 10");
+		assertTrue(rs.next());
+	}
+
+	private ProtocolManager leakConnection(final DriverProperties props)
+			throws SQLException {
+		final TidaConnection conn = new TidaConnection(props);
+		leakStatement(conn);
+
+		return conn.getManager();
+	}
+
+	private void awaitReclaim(final ProtocolManager manager, final long leaks)
+			throws InterruptedException {
+		final long deadline = System.currentTimeMillis() + 10000;
+		while (manager.getMetrics().getLeaks() < leaks
+				&& System.currentTimeMillis() < deadline) {
+			System.gc();
+			Thread.sleep(20);
+		}
+	}
+
+	/**
+	 * Tests the reclaiming of the protocols of statements and connections,
+	 * which are not closed.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testReclaim() throws Exception {
+		final DriverProperties props = alive.createProperties();
+		props.setLeakDetection(true);
+
+		// a statement is reclaimed, the connection is still used
+		final TidaConnection conn = new TidaConnection(props);
+		try {
+			final ProtocolManager manager = conn.getManager();
+			leakStatement(conn);
+			assertEquals(1, manager.getMetrics().getOpenProtocols());
+			assertEquals(1, manager.getMetrics().getLiveScopes());
+
+			awaitReclaim(manager, 1);
+			assertEquals(1, manager.getMetrics().getLeaks());
+			assertEquals(0, manager.getMetrics().getOpenProtocols());
+			assertEquals(0, manager.getMetrics().getLiveScopes());
+			assertEquals(0, manager.sizeOfOwners());
+			assertEquals(0, manager.sizeOfScopes());
+
+			// the connection can still be used
+			assertReusable(conn.createStatement());
+		} finally {
+			conn.close();
+		}
+
+		// a connection is reclaimed together with its statement
+		final ProtocolManager manager = leakConnection(props);
+		awaitReclaim(manager, 1);
+		assertTrue(manager.getMetrics().getLeaks() >= 1);
+		assertTrue(manager.isClosed());
+		assertEquals(0, manager.getMetrics().getOpenProtocols());
+		assertEquals(0, manager.sizeOfOwners());
+	}
+
+	/**
+	 * Tests that the prefetching of a statement, which is reclaimed while the
+	 * ring of the prefetcher is full, ends.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testReclaimPrefetching() throws Exception {
+		final DriverProperties props = alive.createProperties();
+		props.setPrefetchDepth(2);
+
+		final TidaConnection conn = new TidaConnection(props);
+		try {
+			final ProtocolManager manager = conn.getManager();
+			leakPrefetching(conn);
+
+			// wait for the prefetcher to fill the ring
+			long deadline = System.currentTimeMillis() + 5000;
+			while (!isPrefetcherWaiting()
+					&& System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			assertTrue(isPrefetcherWaiting());
+
+			awaitReclaim(manager, 1);
+			assertEquals(1, manager.getMetrics().getLeaks());
+
+			// the prefetching thread must not wait forever
+			deadline = System.currentTimeMillis() + 5000;
+			while (isPrefetcherWaiting()
+					&& System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			assertFalse(isPrefetcherWaiting());
+		} finally {
+			conn.close();
+		}
+	}
+
+	private void leakPrefetching(final TidaConnection conn)
+			throws SQLException {
+		final TidaStatement stmt = conn.createStatement();
+		final TidaResultSet rs = stmt.executeQuery("ROWS 100");
+		assertTrue(rs.isPrefetching());
+		assertTrue(rs.next());
+	}
+
+	private boolean isPrefetcherWaiting() {
+		for (final StackTraceElement[] trace : Thread.getAllStackTraces()
+				.values()) {
+			for (final StackTraceElement element : trace) {
+				if (RowPrefetcher.class.getName().equals(
+						element.getClassName())
+						&& "put".equals(element.getMethodName())) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	private Future<Boolean> executeSleep(final ExecutorService executor,
+			final TidaStatement stmt) {
+		return executor.submit(new Callable<Boolean>() {
+
+			@Override
+			public Boolean call() throws Exception {
+				return stmt.executeQuery("SLEEP").next();
+			}
+		});
+	}
+
+	private void assertCancelled(final Future<Boolean> future)
+			throws Exception {
+		try {
+			future.get();
+			fail("Exception expected");
+		} catch (final ExecutionException e) {
+			assertTrue(e.getCause() instanceof SQLException);
+		}
+	}
+
+	/**
+	 * Tests the cancellation of a running statement and the reuse of the
+	 * statement afterwards.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testCancel() throws Exception {
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		final TidaConnection conn = new TidaConnection(alive.createProperties());
+		try {
+			final TidaStatement stmt = conn.createStatement();
+			final Future<Boolean> future = executeSleep(executor, stmt);
+
+			// wait until the query is running and cancel it
+			Thread.sleep(200);
+			assertFalse(future.isDone());
+			stmt.cancel();
+			assertCancelled(future);
+			assertEquals(1, getCancellations());
+
+			// the statement can be used again
+			final TidaResultSet rs = stmt.executeQuery("VALUE");
+			assertTrue(rs.next());
+			assertEquals("VALUE", rs.getString(1));
+			assertFalse(rs.next());
+			stmt.close();
+		} finally {
+			conn.close();
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Tests the abortion of a connection with a running statement.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testAbort() throws Exception {
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		final TidaConnection conn = new TidaConnection(alive.createProperties());
+		try {
+			final TidaStatement stmt = conn.createStatement();
+			final Future<Boolean> future = executeSleep(executor, stmt);
+			Thread.sleep(200);
+
+			// abort synchronously, the running query ends or fails
+			conn.abort(new Executor() {
+
+				@Override
+				public void execute(final Runnable command) {
+					command.run();
+				}
+			});
+			assertTrue(conn.isClosed());
+			try {
+				assertFalse(future.get(2, TimeUnit.SECONDS));
+			} catch (final ExecutionException e) {
+				assertTrue(e.getCause() instanceof SQLException);
+			}
+
+			try {
+				conn.createStatement();
+				fail("Exception expected");
+			} catch (final SQLException e) {
+				// expected
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void assertReusable(final TidaStatement stmt) throws SQLException {
+		final TidaResultSet rs = stmt.executeQuery("VALUE");
+		assertTrue(rs.next());
+		assertEquals("VALUE", rs.getString(1));
+		assertFalse(rs.next());
+		rs.close();
+	}
+
+	/**
+	 * Tests the closing of a partially read result-set, which skips the
+	 * remaining response.
+	 * 
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testCloseSkipsResponse() throws Exception {
+		final DriverProperties props = alive.createProperties();
+		props.setCloseDrainLimit(-1);
+
+		final TidaConnection conn = new TidaConnection(props);
+		try {
+			final TidaStatement stmt = conn.createStatement();
+			final TidaResultSet rs = stmt.executeQuery("ROWS 1000000");
+			assertTrue(rs.next());
+			assertEquals("ROW0", rs.getString(1));
+			rs.close();
+
+			// the server stopped and nothing is left on the thread
+			assertEquals(1, getCancellations());
+			assertFalse(Thread.currentThread().isInterrupted());
+			assertEquals(0, conn.getManager().getMetrics()
+					.getDroppedConnections());
+			assertEquals(1, stmt.sizeOfProtocols());
+			assertReusable(stmt);
+			stmt.close();
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests the closing of a partially read result-set, which exceeds the
+	 * limit of bytes to be skipped and replaces the connection.
+	 * 
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testCloseDropsConnection() throws Exception {
+		final DriverProperties props = alive.createProperties();
+		props.setCloseDrainLimit(0);
+
+		final TidaConnection conn = new TidaConnection(props);
+		try {
+			final TidaStatement stmt = conn.createStatement();
+			final TidaResultSet rs = stmt.executeQuery("ROWS 100000");
+			assertTrue(rs.next());
+			rs.close();
+
+			assertEquals(1, conn.getManager().getMetrics()
+					.getDroppedConnections());
+			assertReusable(stmt);
+			stmt.close();
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests the reading of the results ahead in the background.
+	 * 
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testPrefetch() throws Exception {
+		final DriverProperties props = alive.createProperties();
+		props.setPrefetchDepth(16);
+
+		final TidaConnection conn = new TidaConnection(props);
+		try {
+			final TidaStatement stmt = conn.createStatement();
+
+			// all the results are retrieved in order
+			TidaResultSet rs = stmt.executeQuery("ROWS 1000");
+			assertTrue(rs.isPrefetching());
+			for (int i = 0; i < 1000; i++) {
+				assertTrue(rs.next());
+				assertEquals("ROW" + i, rs.getString(1));
+			}
+			assertFalse(rs.next());
+			assertFalse(rs.next());
+			rs.close();
+
+			// a partially read result is cancelled
+			rs = stmt.executeQuery("ROWS 1000000");
+			assertTrue(rs.next());
+			assertEquals("ROW0", rs.getString(1));
+			rs.close();
+			assertEquals(1, getCancellations());
+			assertReusable(stmt);
+
+			// an error is thrown after the prefetched results
+			rs = stmt.executeQuery("FAIL");
+			assertTrue(rs.next());
+			assertEquals("FAIL", rs.getString(1));
+			try {
+				rs.next();
+				fail("Exception expected");
+			} catch (final SQLException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("FAIL"));
+			}
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests the concurrent execution of several queries using a fan-out.
+	 * 
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testFanOut() throws Exception {
+		final DriverProperties props = alive.createProperties();
+		props.setFanOutParallelism(3);
+
+		final List<String> queries = new ArrayList<String>();
+		for (int i = 0; i < 6; i++) {
+			queries.add("WAIT " + (300 + i));
+		}
+
+		final TidaConnection conn = new TidaConnection(props);
+		try {
+			final long start = System.currentTimeMillis();
+			final QueryFanOut fanOut = conn.unwrap(TidaConnection.class)
+					.fanOut(queries);
+			assertEquals(6, fanOut.size());
+
+			// each query is completed once
+			final Set<Integer> completed = new HashSet<Integer>();
+			int idx;
+			while ((idx = fanOut.nextCompleted()) != -1) {
+				assertTrue(fanOut.isCompleted(idx));
+				assertTrue(completed.add(idx));
+			}
+			assertEquals(6, completed.size());
+
+			// the queries are executed in two rounds
+			final long duration = System.currentTimeMillis() - start;
+			assertTrue("" + duration, duration >= 600);
+			assertTrue("" + duration, duration < 1500);
+
+			// the results are in the order of the queries
+			final List<TidaResultSet> resultSets = fanOut.getResultSets();
+			for (int i = 0; i < 6; i++) {
+				final TidaResultSet rs = resultSets.get(i);
+				assertTrue(rs.next());
+				assertEquals(queries.get(i), rs.getString(1));
+			}
+
+			// the protocols are kept to be reused
+			fanOut.close();
+			assertTrue(fanOut.isClosed());
+			assertEquals(props.getMaxIdle(), conn.getManager().sizeOfIdle());
+
+			final QueryFanOut reused = conn.fanOut("VALUE");
+			final TidaResultSet rs = reused.getResultSet(0);
+			assertTrue(rs.next());
+			assertEquals("VALUE", rs.getString(1));
+			reused.close();
+			assertTrue(conn.getManager().getMetrics().getReuses() > 0);
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests that a fan-out fails, if not all of its statements can be
+	 * created.
+	 * 
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testFanOutCreationFails() throws Exception {
+		final TidaConnection conn = new TidaConnection(
+				alive.createProperties()) {
+			private int created = 0;
+
+			@Override
+			public TidaStatement createStatement() throws SQLException {
+				if (++created > 2) {
+					throw new SQLException("No further statements");
+				}
+
+				return super.createStatement();
+			}
+		};
+
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			final Future<QueryFanOut> fanOut = executor
+					.submit(new Callable<QueryFanOut>() {
+
+						@Override
+						public QueryFanOut call() throws Exception {
+							return conn.fanOut("A", "B", "C");
+						}
+					});
+
+			try {
+				fanOut.get(5, TimeUnit.SECONDS);
+				fail("Exception expected");
+			} catch (final ExecutionException e) {
+				assertTrue(e.getCause().getMessage(), e.getCause()
+						.getMessage().contains("No further statements"));
+			}
+		} finally {
+			executor.shutdownNow();
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests the execution of a query partitioned into time-windows.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testWindowed() throws Exception {
+		final DriverProperties props = alive.createProperties();
+		final TidaConnection conn = new TidaConnection(props);
+		try {
+			final TidaStatement stmt = conn.prepareStatement(
+					"SELECT RECORDS FROM m WITHIN [?, ?) FILTER BY x = ?")
+					.unwrap(TidaStatement.class);
+			stmt.setString(3, "A");
+
+			final Calendar cal = Calendar.getInstance();
+			cal.clear();
+			cal.set(2014, Calendar.MARCH, 3);
+			final Date start = cal.getTime();
+			cal.set(2014, Calendar.MARCH, 7);
+			final Date end = cal.getTime();
+
+			// the windows are returned in time order
+			final String[] days = { "03", "04", "05", "06", "07" };
+			final WindowedResultSet rs = stmt.executeWindowed(1, 2, start,
+					end, 4);
+			assertEquals(4, rs.getWindows());
+			assertTrue(rs.isBeforeFirst());
+			for (int i = 0; i < 4; i++) {
+				assertTrue(rs.next());
+				assertEquals(i, rs.getWindow());
+				assertEquals("SELECT RECORDS FROM m WITHIN ['" + days[i]
+						+ ".03.2014 00:00:00', '" + days[i + 1]
+						+ ".03.2014 00:00:00') FILTER BY x = 'A'",
+						rs.getString(1));
+			}
+			assertFalse(rs.next());
+			assertTrue(rs.isAfterLast());
+
+			// the values of the statement are kept
+			assertEquals(null, stmt.getPlaceholders().get(0).get());
+			assertEquals("A", stmt.getPlaceholders().get(2).get());
+
+			rs.close();
+			assertTrue(rs.isClosed());
+
+			// windows smaller than a second are not created
+			cal.set(2014, Calendar.MARCH, 3, 0, 0, 2);
+			final WindowedResultSet small = stmt.executeWindowed(1, 2, start,
+					cal.getTime(), 10);
+			assertEquals(2, small.getWindows());
+			small.close();
+
+			// invalid windows
+			try {
+				stmt.executeWindowed(1, 2, end, start, 4);
+				fail("Exception expected");
+			} catch (final SQLException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("windows"));
+			}
+		} finally {
+			conn.close();
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package net.meisen.dissertation.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.ServerSocket;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+
+import net.meisen.dissertation.jdbc.cluster.TidaHost;
+import net.meisen.dissertation.jdbc.protocol.Protocol;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the routing of read-only connections to the replicas.
+ *
+ * @author pmeisen
+ *
+ */
+public class TestReplicaRouting {
+	private ServerSocket primary;
+	private ServerSocket replica;
+
+	/**
+	 * Creates the sockets used as primary and replica.
+	 *
+	 * @throws Exception
+	 *             if a socket cannot be created
+	 */
+	@Before
+	public void createSockets() throws Exception {
+		primary = new ServerSocket(0);
+		replica = new ServerSocket(0);
+	}
+
+	/**
+	 * Closes the sockets used as primary and replica.
+	 *
+	 * @throws Exception
+	 *             if a socket cannot be closed
+	 */
+	@After
+	public void closeSockets() throws Exception {
+		primary.close();
+		replica.close();
+	}
+
+	private TidaConnection createConnection(final boolean replicas) {
+		final DriverProperties props = new DriverProperties("jdbc:tida://",
+				null, null, "localhost", primary.getLocalPort());
+		if (replicas) {
+			props.setReplicas(Collections.singletonList(new TidaHost(
+					"localhost", replica.getLocalPort())));
+		}
+		props.setJmx(false);
+
+		return new TidaConnection(props);
+	}
+
+	/**
+	 * Tests the parsing of the replicas specified by the properties.
+	 *
+	 * @throws SQLException
+	 *             if the connection cannot be created
+	 */
+	@Test
+	public void testReplicasProperty() throws SQLException {
+		final Properties props = new Properties();
+		props.setProperty(DriverProperties.PROPERTY_PORT, "7000");
+		props.setProperty(DriverProperties.PROPERTY_JMX, "false");
+		props.setProperty(DriverProperties.PROPERTY_REPLICAS, "r1:7001, r2");
+		props.setProperty(DriverProperties.PROPERTY_ROUTEQUERIES, "false");
+
+		final TidaConnection conn = (TidaConnection) DriverManager
+				.getConnection("jdbc:tida://h1", props);
+		final DriverProperties driverProperties = conn.getDriverProperties();
+
+		assertEquals(Arrays.asList(new TidaHost("r1", 7001), new TidaHost(
+				"r2", 7000)), driverProperties.getReplicas());
+		assertEquals("r1:7001,r2:7000", driverProperties.getReplicasAsString());
+		assertFalse(driverProperties.isRouteQueries());
+		assertTrue(driverProperties.hasReplicas());
+	}
+
+	/**
+	 * Tests the switching between the primary and the replica using
+	 * {@code setReadOnly}.
+	 *
+	 * @throws SQLException
+	 *             if the protocol cannot be created
+	 */
+	@Test
+	public void testReadOnlyRouting() throws SQLException {
+		final TidaConnection conn = createConnection(true);
+		final ProtocolManager manager = conn.getManager();
+
+		try {
+			final Protocol primaryProtocol = conn.getProtocol();
+			assertFalse(manager.isReplica(primaryProtocol));
+
+			// a read-only connection uses a replica
+			conn.setReadOnly(true);
+			final Protocol replicaProtocol = conn.getProtocol();
+			assertNotSame(primaryProtocol, replicaProtocol);
+			assertTrue(manager.isReplica(replicaProtocol));
+			assertEquals(1, manager.sizeOfOwners());
+			assertEquals(1, manager.getReplicaCluster().getNodes().get(0)
+					.getOutstanding());
+			assertEquals(0, manager.getCluster().getNodes().get(0)
+					.getOutstanding());
+
+			// the statement follows the routing of the connection
+			final TidaStatement stmt = conn.createStatement();
+			assertTrue(stmt.isReplicaRouted());
+			final Protocol stmtProtocol = stmt.getProtocol();
+			assertTrue(manager.isReplica(stmtProtocol));
+			assertSame(stmtProtocol, stmt.getProtocol(true, null));
+
+			// a modification is routed to the primary, the unused one is parked
+			assertFalse(manager.isReplica(stmt.getProtocol(false, null)));
+			assertEquals(2, manager.sizeOfOwners());
+			stmt.close();
+
+			// and back to the primary
+			conn.setReadOnly(false);
+			assertFalse(manager.isReplica(conn.getProtocol()));
+			assertEquals(0, manager.getReplicaCluster().getNodes().get(0)
+					.getOutstanding());
+			assertEquals(1, manager.getCluster().getNodes().get(0)
+					.getOutstanding());
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests that a read-only connection uses the primary hosts, if no replicas
+	 * are specified.
+	 *
+	 * @throws SQLException
+	 *             if the protocol cannot be created
+	 */
+	@Test
+	public void testReadOnlyWithoutReplicas() throws SQLException {
+		final TidaConnection conn = createConnection(false);
+		final ProtocolManager manager = conn.getManager();
+
+		try {
+			final Protocol protocol = conn.getProtocol();
+
+			conn.setReadOnly(true);
+			assertFalse(conn.isReplicaRouted());
+			assertSame(protocol, conn.getProtocol());
+			assertFalse(manager.isReplica(protocol));
+			assertNull(manager.getReplicaCluster());
+		} finally {
+			conn.close();
+		}
+	}
+}
@@ -0,0 +1,213 @@
+package net.meisen.dissertation.jdbc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Date;
+
+import net.meisen.dissertation.jdbc.protocol.DataType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the export of results, i.e. the {@code ResultExporter} and the
+ * {@code ResultEncoder}.
+ *
+ * @author pmeisen
+ *
+ */
+public class TestResultExporter {
+	private static final DataType[] TYPES = { DataType.INT, DataType.STRING,
+			DataType.DATE, DataType.DOUBLE };
+
+	private final RowsQueryHandler server = new RowsQueryHandler(
+			new String[] { "ID", "NAME", "TIME", "VALUE" }, TYPES) {
+
+		@Override
+		protected Object[] row(final int index) {
+			return TestResultExporter.this.row(index);
+		}
+	};
+
+	/**
+	 * Starts the endpoint answering queries.
+	 *
+	 * @throws Exception
+	 *             if the endpoint cannot be started
+	 */
+	@Before
+	public void startServer() throws Exception {
+		server.start();
+	}
+
+	/**
+	 * Shuts the endpoint down.
+	 *
+	 * @throws Exception
+	 *             if the endpoint cannot be shut down
+	 */
+	@After
+	public void shutdownServer() throws Exception {
+		server.shutdown();
+	}
+
+	/**
+	 * Creates the row with the specified {@code index}, every third row has a
+	 * name to be quoted or escaped, every third row has {@code null} values.
+	 *
+	 * @param index
+	 *            the index of the row
+	 *
+	 * @return the created row
+	 */
+	protected Object[] row(final int index) {
+		if (index % 3 == 2) {
+			return new Object[] { index, null, null, null };
+		} else {
+			return new Object[] { index,
+					index % 3 == 1 ? "a,\"b\"\tc\\" : "R" + index,
+					new Date(index * 1000L), index / 2.0 };
+		}
+	}
+
+	private TidaConnection createConnection(final int parallelism) {
+		final DriverProperties props = server.createProperties();
+		props.setExportParallelism(parallelism);
+
+		return new TidaConnection(props);
+	}
+
+	private byte[] export(final int parallelism, final int rows,
+			final ExportFormat format) throws Exception {
+		final TidaConnection conn = createConnection(parallelism);
+		try {
+			final TidaStatement stmt = conn.createStatement();
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			assertEquals(rows, stmt.export("ROWS " + rows, out, format));
+			stmt.close();
+
+			return out.toByteArray();
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests the export as comma separated values.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testCsv() throws Exception {
+		final String csv = new String(export(0, 3, ExportFormat.CSV), "UTF-8");
+		assertEquals("ID,NAME,TIME,VALUE\r\n"
+				+ "0,R0,01.01.1970 00:00:00,000,0.0\r\n"
+				+ "1,\"a,\"\"b\"\"\tc\\\",01.01.1970 00:00:01,000,0.5\r\n"
+				+ "2,,,\r\n", csv);
+	}
+
+	/**
+	 * Tests the export as tab separated values.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testTsv() throws Exception {
+		final String tsv = new String(export(0, 3, ExportFormat.TSV), "UTF-8");
+		assertEquals("ID\tNAME\tTIME\tVALUE\n"
+				+ "0\tR0\t01.01.1970 00:00:00,000\t0.0\n"
+				+ "1\ta,\"b\"\\tc\\\\\t01.01.1970 00:00:01,000\t0.5\n"
+				+ "2\t\t\t\n", tsv);
+	}
+
+	/**
+	 * Tests the export in the binary format.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testBinary() throws Exception {
+		final DataInputStream in = new DataInputStream(
+				new ByteArrayInputStream(export(0, 5, ExportFormat.BINARY)));
+		assertEquals(ResultEncoder.MAGIC, in.readInt());
+		assertEquals(ResultEncoder.VERSION, in.readByte());
+		assertEquals(TYPES.length, in.readInt());
+
+		final DataType[] types = new DataType[TYPES.length];
+		for (int i = 0; i < types.length; i++) {
+			types[i] = DataType.find(in.readByte());
+			assertEquals(TYPES[i], types[i]);
+			in.readUTF();
+		}
+
+		int rows = 0;
+		while (in.readByte() == 1) {
+			final Object[] row = new Object[types.length];
+			for (int i = 0; i < types.length; i++) {
+				row[i] = types[i].read(in);
+			}
+			assertArrayEquals(row(rows), row);
+			rows++;
+		}
+		assertEquals(5, rows);
+		assertEquals(-1, in.read());
+	}
+
+	/**
+	 * Tests the concurrent encoding of the rows, i.e. the rows are written in
+	 * the same order as by the sequential encoding.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testParallel() throws Exception {
+		final int rows = 5 * ResultExporter.BATCH_SIZE + 7;
+
+		for (final ExportFormat format : ExportFormat.values()) {
+			final byte[] sequential = export(0, rows, format);
+			final byte[] parallel = export(3, rows, format);
+			assertArrayEquals(sequential, parallel);
+		}
+	}
+
+	/**
+	 * Tests the export into a file.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testExportToFile() throws Exception {
+		final File file = File.createTempFile("export", ".csv");
+		file.deleteOnExit();
+
+		final TidaConnection conn = createConnection(2);
+		try {
+			final TidaStatement stmt = conn.createStatement();
+			assertEquals(2000, stmt.export("ROWS 2000", file.toPath(),
+					ExportFormat.CSV));
+			stmt.close();
+		} finally {
+			conn.close();
+		}
+
+		final String csv = new String(Files.readAllBytes(file.toPath()),
+				"UTF-8");
+		assertTrue(csv.startsWith("ID,NAME,TIME,VALUE\r\n0,R0,"));
+		assertTrue(csv.endsWith("\r\n1999,\"a,\"\"b\"\"\tc\\\","
+				+ "01.01.1970 00:33:19,000,999.5\r\n"));
+		assertTrue(file.delete());
+	}
+}
@@ -0,0 +1,232 @@
+package net.meisen.dissertation.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Test;
+
+/**
+ * Tests the implementation of the {@code IStatementListener}, the
+ * {@code QueryEvent} and the {@code SlowQueryLogger}.
+ *
+ * @author pmeisen
+ *
+ */
+public class TestStatementListener {
+
+	/**
+	 * Listener recording the called methods.
+	 *
+	 * @author pmeisen
+	 *
+	 */
+	public static class RecordingListener implements IStatementListener {
+		private final List<String> calls = new ArrayList<String>();
+
+		@Override
+		public void beforeExecute(final QueryEvent event) {
+			calls.add("beforeExecute");
+		}
+
+		@Override
+		public void firstRow(final QueryEvent event) {
+			calls.add("firstRow");
+		}
+
+		@Override
+		public void endOfResponse(final QueryEvent event) {
+			calls.add("endOfResponse");
+		}
+
+		@Override
+		public void error(final QueryEvent event, final SQLException exception) {
+			calls.add("error");
+		}
+
+		@Override
+		public void cancel(final QueryEvent event) {
+			calls.add("cancel");
+		}
+
+		/**
+		 * Gets the recorded calls.
+		 *
+		 * @return the recorded calls
+		 */
+		public List<String> getCalls() {
+			return calls;
+		}
+	}
+
+	/**
+	 * Tests that no event is created if no listener is registered.
+	 */
+	@Test
+	public void testNoEventWithoutListeners() {
+		assertNull(QueryEvent.create(null, "SELECT",
+				Collections.<IStatementListener> emptyList()));
+		assertNull(QueryEvent.create(null, "SELECT", null));
+	}
+
+	/**
+	 * Tests the order of the fired events and that the first row is only
+	 * reported once.
+	 */
+	@Test
+	public void testEventOrder() {
+		final RecordingListener listener = new RecordingListener();
+		final QueryEvent event = QueryEvent.create(null, "SELECT",
+				Collections.<IStatementListener> singletonList(listener));
+
+		event.fireBeforeExecute();
+		event.fireRow();
+		event.fireRow();
+		event.fireRow();
+		assertFalse(event.isFinished());
+		event.fireEndOfResponse(TidaResultSetType.QUERY);
+
+		assertEquals(3, event.getRows());
+		assertTrue(event.isFinished());
+		assertTrue(event.getTimeToFirstRow() >= 0);
+		assertEquals(TidaResultSetType.QUERY, event.getResultSetType());
+		assertEquals("[beforeExecute, firstRow, endOfResponse]", listener
+				.getCalls().toString());
+	}
+
+	/**
+	 * Tests that only the first final event (end-of-response, error, or
+	 * cancel) is fired.
+	 */
+	@Test
+	public void testSingleFinalEvent() {
+		final RecordingListener listener = new RecordingListener();
+		final QueryEvent event = QueryEvent.create(null, "SELECT",
+				Collections.<IStatementListener> singletonList(listener));
+
+		event.fireBeforeExecute();
+		event.fireCancel();
+		event.fireError(new SQLException("failure"));
+		event.fireEndOfResponse(TidaResultSetType.QUERY);
+
+		assertTrue(event.isCancelled());
+		assertNull(event.getException());
+		assertEquals("[beforeExecute, cancel]", listener.getCalls().toString());
+	}
+
+	/**
+	 * Tests that a failing listener does not influence other listeners.
+	 */
+	@Test
+	public void testFailingListener() {
+		final RecordingListener listener = new RecordingListener();
+		final List<IStatementListener> listeners = new ArrayList<IStatementListener>();
+		listeners.add(new RecordingListener() {
+
+			@Override
+			public void beforeExecute(final QueryEvent event) {
+				throw new IllegalStateException("failure");
+			}
+		});
+		listeners.add(listener);
+
+		QueryEvent.create(null, "SELECT", listeners).fireBeforeExecute();
+		assertEquals("[beforeExecute]", listener.getCalls().toString());
+	}
+
+	/**
+	 * Tests the threshold and the sampling of the {@code SlowQueryLogger}.
+	 */
+	@Test
+	public void testSlowQueryLogger() {
+		final QueryEvent event = new QueryEvent(null, "SELECT",
+				Collections.<IStatementListener> emptyList());
+		event.fireEndOfResponse(TidaResultSetType.QUERY);
+
+		// nothing is logged below the threshold
+		final SlowQueryLogger notSlow = new SlowQueryLogger(60000, 1.0);
+		notSlow.endOfResponse(event);
+		assertEquals(0, notSlow.getLogged());
+		assertEquals(0, notSlow.getSuppressed());
+
+		// everything is logged
+		final SlowQueryLogger all = new SlowQueryLogger(0, 1.0);
+		all.endOfResponse(event);
+		all.cancel(event);
+		assertEquals(2, all.getLogged());
+		assertEquals(0, all.getSuppressed());
+
+		// everything is suppressed
+		final SlowQueryLogger none = new SlowQueryLogger(0, 0.0);
+		none.endOfResponse(event);
+		assertEquals(0, none.getLogged());
+		assertEquals(1, none.getSuppressed());
+	}
+
+	/**
+	 * Tests the creation of the listeners defined by the properties of the
+	 * connection.
+	 *
+	 * @throws SQLException
+	 *             if the connection cannot be created
+	 */
+	@Test
+	public void testListenersOfConnection() throws SQLException {
+		final Properties props = new Properties();
+		props.setProperty(DriverProperties.PROPERTY_SLOWQUERYTHRESHOLD, "500");
+		props.setProperty(DriverProperties.PROPERTY_SLOWQUERYSAMPLING, "0.5");
+		props.setProperty(DriverProperties.PROPERTY_LISTENERCLASSES,
+				RecordingListener.class.getName() + ", ");
+
+		final TidaConnection conn = (TidaConnection) DriverManager
+				.getConnection("jdbc:tida://localhost:6666", props);
+		final List<IStatementListener> listeners = conn
+				.getStatementListeners();
+
+		assertEquals(2, listeners.size());
+		assertTrue(listeners.get(0) instanceof SlowQueryLogger);
+		assertEquals(500, ((SlowQueryLogger) listeners.get(0))
+				.getThresholdInMs());
+		assertEquals(0.5, ((SlowQueryLogger) listeners.get(0)).getSampling(),
+				0.0);
+		assertTrue(listeners.get(1) instanceof RecordingListener);
+
+		// add one programmatically
+		final RecordingListener listener = new RecordingListener();
+		conn.addStatementListener(listener);
+		assertEquals(3, conn.getStatementListeners().size());
+		conn.removeStatementListener(listener);
+		assertEquals(2, conn.getStatementListeners().size());
+	}
+
+	/**
+	 * Tests the exception thrown if a listener cannot be created.
+	 *
+	 * @throws SQLException
+	 *             if the connection cannot be created
+	 */
+	@Test
+	public void testInvalidListener() throws SQLException {
+		final Properties props = new Properties();
+		props.setProperty(DriverProperties.PROPERTY_LISTENERCLASSES,
+				"net.meisen.dissertation.jdbc.DoesNotExist");
+
+		final TidaConnection conn = (TidaConnection) DriverManager
+				.getConnection("jdbc:tida://localhost:6666", props);
+		try {
+			conn.getStatementListeners();
+			fail("Exception expected");
+		} catch (final SQLException e) {
+			assertEquals(1013, e.getErrorCode());
+		}
+	}
+}
@@ -0,0 +1,280 @@
+package net.meisen.dissertation.jdbc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import net.meisen.dissertation.jdbc.protocol.DataType;
+import net.meisen.dissertation.jdbc.protocol.Protocol;
+import net.meisen.dissertation.jdbc.protocol.QueryStatus;
+import net.meisen.dissertation.jdbc.protocol.QueryType;
+import net.meisen.dissertation.jdbc.protocol.ResponseType;
+import net.meisen.dissertation.jdbc.protocol.RetrievedValue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the implementation of the {@code TidaBulkLoader}.
+ *
+ * @author pmeisen
+ *
+ */
+public class TestTidaBulkLoader {
+	private static final String[] NAMES = { "[START]", "[END]", "NAME" };
+	private static final Class<?>[] TYPES = { Date.class, Date.class,
+			String.class };
+
+	private final RowsQueryHandler server = new RowsQueryHandler() {
+
+		@Override
+		protected void answer(final Protocol protocol, final String message)
+				throws Exception {
+			TestTidaBulkLoader.this.answer(protocol, message);
+		}
+	};
+	private List<Object[]> loaded;
+	private AtomicInteger batches;
+
+	/**
+	 * Starts the endpoint answering bulk-loads.
+	 *
+	 * @throws Exception
+	 *             if the endpoint cannot be started
+	 */
+	@Before
+	public void startServer() throws Exception {
+		loaded = Collections.synchronizedList(new ArrayList<Object[]>());
+		batches = new AtomicInteger();
+
+		server.start();
+	}
+
+	/**
+	 * Shuts the endpoint down.
+	 *
+	 * @throws Exception
+	 *             if the endpoint cannot be shut down
+	 */
+	@After
+	public void shutdownServer() throws Exception {
+		server.shutdown();
+	}
+
+	/**
+	 * Answers the specified {@code message}. A bulk-load into {@code model}
+	 * is acknowledged batch by batch, a record named {@code FAIL} fails the
+	 * bulk-load, and any other message is answered as query (i.e. a bulk-load
+	 * is not accepted).
+	 *
+	 * @param protocol
+	 *            the protocol to answer on
+	 * @param message
+	 *            the message to be answered
+	 *
+	 * @throws Exception
+	 *             if the message cannot be answered
+	 */
+	protected void answer(final Protocol protocol, final String message)
+			throws Exception {
+		if (!message.startsWith("BULKLOAD INTO model ")) {
+			protocol.writeQueryType(QueryType.QUERY);
+			protocol.readQueryStatus();
+			return;
+		}
+
+		protocol.writeQueryType(QueryType.MANIPULATION);
+		final QueryStatus status = protocol.readQueryStatus();
+		if (QueryStatus.CANCEL.equals(status)) {
+			return;
+		}
+
+		// read the records batch by batch
+		final DataType[] header = protocol.read().getHeader();
+		final List<Object[]> batch = new ArrayList<Object[]>();
+		boolean failed = false;
+		RetrievedValue value;
+		while (!(value = protocol.read()).isEOR()) {
+			if (value.is(ResponseType.RESULT)) {
+				final Object[] record = protocol.readResult(header);
+				if ("FAIL".equals(record[2]) && !failed) {
+					failed = true;
+					protocol.writeException(new IllegalStateException("FAIL"));
+				}
+				batch.add(record);
+			} else if (failed) {
+				// ignore anything after the failure
+			} else if (value.is(ResponseType.EOB)) {
+				final int[] ids = new int[batch.size()];
+				for (int i = 0; i < ids.length; i++) {
+					ids[i] = loaded.size() + i;
+				}
+				loaded.addAll(batch);
+				batch.clear();
+				batches.incrementAndGet();
+
+				if (QueryStatus.PROCESSANDGETIDS.equals(status)) {
+					protocol.writeInts(ids);
+				} else {
+					protocol.writeInt(ids.length);
+				}
+				protocol.flush();
+			}
+		}
+	}
+
+	private TidaConnection createConnection(final int batchSize,
+			final int window) {
+		final DriverProperties props = server.createProperties();
+		props.setBulkBatchSize(batchSize);
+		props.setBulkWindow(window);
+
+		return new TidaConnection(props);
+	}
+
+	/**
+	 * Tests the loading of records in batches.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testLoad() throws Exception {
+		final TidaConnection conn = createConnection(10, 2);
+		try {
+			final TidaBulkLoader loader = conn.unwrap(TidaConnection.class)
+					.createBulkLoader("model", NAMES, TYPES);
+			for (int i = 0; i < 25; i++) {
+				loader.add(new Date(i * 1000L), new Date(i * 1000L + 500L), "R"
+						+ i);
+
+				// the window of unacknowledged batches is never exceeded
+				assertTrue(loader.getOutstanding() < 2);
+			}
+			assertEquals(25, loader.getRecords());
+			loader.close();
+
+			// all the records are acknowledged
+			assertEquals(25, loader.getAcknowledged());
+			assertEquals(0, loader.getOutstanding());
+			assertEquals(3, batches.get());
+			assertEquals(25, loaded.size());
+			for (int i = 0; i < 25; i++) {
+				final Object[] record = loaded.get(i);
+				assertEquals(new Date(i * 1000L), record[0]);
+				assertEquals(new Date(i * 1000L + 500L), record[1]);
+				assertEquals("R" + i, record[2]);
+			}
+
+			// the protocol is kept to be reused
+			assertEquals(1, conn.getManager().sizeOfIdle());
+			assertEquals(0, loader.getGeneratedIds().length);
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests the retrieval of the identifiers of the loaded records.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testGeneratedIds() throws Exception {
+		final TidaConnection conn = createConnection(2, 1);
+		try {
+			final TidaBulkLoader loader = conn.createBulkLoader("model",
+					NAMES, TYPES, true);
+			for (int i = 0; i < 5; i++) {
+				loader.add(new Date(), null, "R" + i);
+			}
+			assertArrayEquals(new int[] { 0, 1, 2, 3 },
+					loader.getGeneratedIds());
+			loader.close();
+
+			assertArrayEquals(new int[] { 0, 1, 2, 3, 4 },
+					loader.getGeneratedIds());
+			assertEquals(null, loaded.get(4)[1]);
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests the validation of the added records.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testInvalidRecords() throws Exception {
+		final TidaConnection conn = createConnection(10, 2);
+		try {
+			final TidaBulkLoader loader = conn.createBulkLoader("model",
+					NAMES, TYPES);
+			try {
+				loader.add(new Date(), new Date());
+				fail("Exception expected");
+			} catch (final SQLException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("[3012]"));
+			}
+			try {
+				loader.add(new Date(), 5, "R");
+				fail("Exception expected");
+			} catch (final SQLException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("[3013]"));
+			}
+
+			// the loader can still be used
+			loader.add(new Date(), new Date(), "R");
+			loader.close();
+			assertEquals(1, loaded.size());
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests the failure of a bulk-load on server-side, and a bulk-load not
+	 * accepted by the server.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testFailure() throws Exception {
+		final TidaConnection conn = createConnection(10, 2);
+		try {
+			final TidaBulkLoader loader = conn.createBulkLoader("model",
+					NAMES, TYPES);
+			loader.add(new Date(), new Date(), "FAIL");
+			try {
+				loader.close();
+				fail("Exception expected");
+			} catch (final SQLException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("FAIL"));
+			}
+			assertTrue(loader.isClosed());
+			assertEquals(0, loaded.size());
+
+			try {
+				conn.createBulkLoader("unknown", NAMES, TYPES);
+				fail("Exception expected");
+			} catch (final SQLException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("[3014]"));
+			}
+		} finally {
+			conn.close();
+		}
+	}
+}
@@ -0,0 +1,292 @@
+package net.meisen.dissertation.jdbc;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Date;
+
+import net.meisen.dissertation.jdbc.protocol.DataType;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the implementation of the {@code TidaSnapshot}, the
+ * {@code SnapshotWriter} and the {@code SnapshotResultSet}.
+ *
+ * @author pmeisen
+ *
+ */
+public class TestTidaSnapshot {
+	private static final String[] NAMES = { "ID", "NAME", "TIME", "VALUE",
+			"FLAG" };
+	private static final DataType[] TYPES = { DataType.INT, DataType.STRING,
+			DataType.DATE, DataType.DOUBLE, DataType.BYTE };
+
+	private Path file;
+	private final RowsQueryHandler server = new RowsQueryHandler(NAMES, TYPES) {
+
+		@Override
+		protected Object[] row(final int index) {
+			return TestTidaSnapshot.this.row(index);
+		}
+	};
+
+	/**
+	 * Creates the file of the snapshot and starts the endpoint answering
+	 * queries.
+	 *
+	 * @throws Exception
+	 *             if the file or the endpoint cannot be created
+	 */
+	@Before
+	public void create() throws Exception {
+		file = Files.createTempFile("snapshot", ".tids");
+		server.start();
+	}
+
+	/**
+	 * Shuts the endpoint down and deletes the file of the snapshot.
+	 *
+	 * @throws Exception
+	 *             if the endpoint cannot be shut down
+	 */
+	@After
+	public void cleanUp() throws Exception {
+		server.shutdown();
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Creates the row with the specified {@code index}, the names repeat
+	 * every 10 rows and every seventh row has {@code null} values.
+	 *
+	 * @param index
+	 *            the index of the row
+	 *
+	 * @return the created row
+	 */
+	protected Object[] row(final int index) {
+		if (index % 7 == 3) {
+			return new Object[] { index, null, null, null, null };
+		} else {
+			return new Object[] { index, "Nameä" + (index % 10),
+					new Date(index * 1000L), index / 4.0,
+					(byte) (index % 2) };
+		}
+	}
+
+	private void write(final int rows) throws IOException {
+		final SnapshotWriter writer = new SnapshotWriter(file, NAMES, TYPES);
+		for (int i = 0; i < rows; i++) {
+			writer.add(row(i));
+		}
+		assertEquals(rows, writer.getRows());
+		writer.close();
+	}
+
+	/**
+	 * Tests the retrieval of the values and the column views of a snapshot.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testColumns() throws Exception {
+		write(200);
+
+		try (final TidaSnapshot snapshot = TidaSnapshot.open(file)) {
+			assertEquals(200, snapshot.getRows());
+			assertEquals(5, snapshot.getColumnCount());
+			assertArrayEquals(NAMES, snapshot.getNames());
+			assertArrayEquals(TYPES, snapshot.getTypes());
+			assertEquals(2, snapshot.findColumn("TIME"));
+			assertEquals(-1, snapshot.findColumn("UNKNOWN"));
+
+			// the values row by row
+			for (int i = 0; i < 200; i++) {
+				final Object[] row = row(i);
+				for (int c = 0; c < row.length; c++) {
+					assertEquals(row[c], snapshot.getValue(c, i));
+					assertEquals(row[c] == null, snapshot.isNull(c, i));
+				}
+			}
+			assertFalse(snapshot.hasNulls(0));
+			assertTrue(snapshot.hasNulls(1));
+
+			// the views of the columns
+			final IntBuffer ids = snapshot.getInts(0);
+			final LongBuffer times = snapshot.getLongs(2);
+			assertEquals(200, ids.remaining());
+			assertEquals(200, times.remaining());
+			assertTrue(ids.isReadOnly());
+			for (int i = 0; i < 200; i++) {
+				assertEquals(i, ids.get(i));
+				assertEquals(i % 7 == 3 ? 0L : i * 1000L, times.get(i));
+			}
+			assertEquals(49.5, snapshot.getDoubles(3).get(198), 0.0);
+			assertEquals(1, snapshot.getBytes(4).get(1));
+
+			// the strings are stored once in the dictionary
+			assertEquals(10, snapshot.getDictionarySize(1));
+			final IntBuffer names = snapshot.getInts(1);
+			assertEquals("Nameä5",
+					snapshot.getDictionaryEntry(1, names.get(15)));
+			assertEquals(names.get(5), names.get(15));
+
+			// the types are validated
+			try {
+				snapshot.getLongs(1);
+				fail("Exception expected");
+			} catch (final IllegalArgumentException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("NAME"));
+			}
+		}
+	}
+
+	/**
+	 * Tests the iteration of a snapshot as {@code ResultSet}.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testResultSet() throws Exception {
+		write(5);
+
+		try (final TidaSnapshot snapshot = TidaSnapshot.open(file)) {
+			final SnapshotResultSet rs = snapshot.createResultSet();
+			assertTrue(rs.isBeforeFirst());
+
+			assertTrue(rs.next());
+			assertEquals(0, rs.getInt(1));
+			assertEquals("Nameä0", rs.getString("NAME"));
+			assertEquals("01.01.1970 00:00:00,000", rs.getString(3));
+			assertEquals(new Timestamp(0), rs.getTimestamp("TIME"));
+			assertEquals(0.0, rs.getDouble(4), 0.0);
+			assertEquals("0", rs.getString(5));
+			assertFalse(rs.wasNull());
+
+			// a row with null values
+			assertTrue(rs.absolute(4));
+			assertEquals(3L, rs.getLong(1));
+			assertNull(rs.getString(2));
+			assertTrue(rs.wasNull());
+			assertEquals(0.0, rs.getDouble(4), 0.0);
+			assertTrue(rs.wasNull());
+			assertNull(rs.getObject(3));
+
+			// scrolling
+			assertTrue(rs.previous());
+			assertEquals(3, rs.getRow());
+			assertEquals(Integer.valueOf(2), rs.getObject(1, Integer.class));
+			assertTrue(rs.last());
+			assertEquals(4, rs.getInt(1));
+			assertFalse(rs.next());
+			assertTrue(rs.isAfterLast());
+			assertTrue(rs.first());
+			assertEquals(0, rs.getInt(1));
+
+			// the meta-data
+			final ResultSetMetaData meta = rs.getMetaData();
+			assertEquals(5, meta.getColumnCount());
+			assertEquals("TIME", meta.getColumnLabel(3));
+			assertEquals(Types.TIMESTAMP, meta.getColumnType(3));
+
+			// invalid retrievals
+			try {
+				rs.getInt(2);
+				fail("Exception expected");
+			} catch (final SQLException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("[10006]"));
+			}
+			try {
+				rs.getInt(6);
+				fail("Exception expected");
+			} catch (final SQLException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("[10000]"));
+			}
+
+			rs.close();
+			try {
+				rs.next();
+				fail("Exception expected");
+			} catch (final SQLException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("[10998]"));
+			}
+		}
+	}
+
+	/**
+	 * Tests the persisting of the results of a query.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testSnapshotQuery() throws Exception {
+		final TidaConnection conn = server.createConnection();
+		try {
+			final TidaStatement stmt = conn.createStatement();
+			assertEquals(1000, stmt.snapshot("ROWS 1000", file));
+			stmt.close();
+		} finally {
+			conn.close();
+		}
+
+		// the snapshot is read without any server
+		server.shutdown();
+		try (final TidaSnapshot snapshot = TidaSnapshot.open(file)) {
+			assertEquals(1000, snapshot.getRows());
+
+			final SnapshotResultSet rs = snapshot.createResultSet();
+			int rows = 0;
+			while (rs.next()) {
+				assertArrayEquals(row(rows), new Object[] { rs.getObject(1),
+						rs.getObject(2), rs.getObject(3), rs.getObject(4),
+						rs.getObject(5) });
+				rows++;
+			}
+			assertEquals(1000, rows);
+		}
+	}
+
+	/**
+	 * Tests the opening of files, which are not snapshots.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testInvalidFile() throws Exception {
+		Files.write(file, "no snapshot at all".getBytes("UTF-8"));
+
+		try {
+			TidaSnapshot.open(file);
+			fail("Exception expected");
+		} catch (final IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("not a snapshot"));
+		}
+
+		// an empty snapshot is valid
+		write(0);
+		try (final TidaSnapshot snapshot = TidaSnapshot.open(file)) {
+			assertEquals(0, snapshot.getRows());
+			assertFalse(snapshot.createResultSet().next());
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package net.meisen.dissertation.jdbc.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.ServerSocket;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import net.meisen.dissertation.jdbc.DriverProperties;
+import net.meisen.dissertation.jdbc.ProtocolManager;
+import net.meisen.dissertation.jdbc.TidaConnection;
+
+import org.junit.Test;
+
+/**
+ * Tests the implementation of the {@code HostCluster} and the selection
+ * strategies.
+ *
+ * @author pmeisen
+ *
+ */
+public class TestHostCluster {
+
+	private List<TidaHost> hosts(final int amount) {
+		final TidaHost[] hosts = new TidaHost[amount];
+		for (int i = 0; i < amount; i++) {
+			hosts[i] = new TidaHost("host" + i, 7000 + i);
+		}
+		return Arrays.asList(hosts);
+	}
+
+	/**
+	 * Tests the parsing of an url with several hosts.
+	 *
+	 * @throws SQLException
+	 *             if the connection cannot be created
+	 */
+	@Test
+	public void testMultiHostUrl() throws SQLException {
+		final Properties props = new Properties();
+		props.setProperty(DriverProperties.PROPERTY_PORT, "7000");
+		props.setProperty(DriverProperties.PROPERTY_JMX, "false");
+
+		final TidaConnection conn = (TidaConnection) DriverManager
+				.getConnection("jdbc:tida://user:pw@h1:7001,h2,h3:7003", props);
+		final DriverProperties driverProperties = conn.getDriverProperties();
+
+		assertEquals(Arrays.asList(new TidaHost("h1", 7001), new TidaHost(
+				"h2", 7000), new TidaHost("h3", 7003)),
+				driverProperties.getHosts());
+		assertEquals("h1", driverProperties.getHost());
+		assertEquals(7001, driverProperties.getPort());
+		assertEquals("user", driverProperties.getUser());
+	}
+
+	/**
+	 * Tests the round-robin selection.
+	 */
+	@Test
+	public void testRoundRobin() {
+		final HostCluster cluster = new HostCluster(hosts(3),
+				new RoundRobinHostSelector(), 0, 1000);
+		final List<ClusterNode> nodes = cluster.getNodes();
+
+		for (int i = 0; i < 6; i++) {
+			assertSame(nodes.get(i % 3), cluster.select(null));
+		}
+		assertFalse(cluster.isHealthChecked());
+	}
+
+	/**
+	 * Tests the selection of the node with the least outstanding queries.
+	 */
+	@Test
+	public void testLeastOutstanding() {
+		final HostCluster cluster = new HostCluster(hosts(3),
+				new LeastOutstandingHostSelector(), 0, 1000);
+		final List<ClusterNode> nodes = cluster.getNodes();
+
+		nodes.get(0).acquire();
+		nodes.get(0).acquire();
+		nodes.get(2).acquire();
+		for (int i = 0; i < 5; i++) {
+			assertSame(nodes.get(1), cluster.select(null));
+		}
+
+		nodes.get(0).release();
+		nodes.get(0).release();
+		assertEquals(0, nodes.get(0).getOutstanding());
+		for (int i = 0; i < 5; i++) {
+			assertFalse(nodes.get(2) == cluster.select(null));
+		}
+	}
+
+	/**
+	 * Tests the ejection and reinstating of a node.
+	 */
+	@Test
+	public void testEjection() {
+		final HostCluster cluster = new HostCluster(hosts(2),
+				new RoundRobinHostSelector(), 0, 60000);
+		final ClusterNode failed = cluster.getNodes().get(0);
+		final ClusterNode other = cluster.getNodes().get(1);
+
+		cluster.failed(failed);
+		assertFalse(failed.isAvailable());
+		for (int i = 0; i < 4; i++) {
+			assertSame(other, cluster.select(null));
+		}
+
+		// if all nodes are ejected, those are tried anyways
+		cluster.failed(other);
+		assertSame(failed, cluster.select(null));
+		assertNull(cluster.select(cluster.getNodes()));
+
+		cluster.succeeded(failed);
+		assertTrue(failed.isAvailable());
+		assertSame(failed, cluster.select(Collections.singleton(other)));
+	}
+
+	/**
+	 * Tests the creation of the selectors by name.
+	 *
+	 * @throws Exception
+	 *             if a selector cannot be created
+	 */
+	@Test
+	public void testCreateSelector() throws Exception {
+		assertTrue(HostCluster.createSelector(null) instanceof RoundRobinHostSelector);
+		assertTrue(HostCluster.createSelector("Random") instanceof RandomHostSelector);
+		assertTrue(HostCluster.createSelector(HostCluster.LEASTOUTSTANDING) instanceof LeastOutstandingHostSelector);
+		assertTrue(HostCluster.createSelector(RandomHostSelector.class
+				.getName()) instanceof RandomHostSelector);
+	}
+
+	/**
+	 * Tests the failover to another host, if one host cannot be reached.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testFailover() throws Exception {
+		final ServerSocket live = new ServerSocket(0);
+		final ServerSocket dead = new ServerSocket(0);
+		final int deadPort = dead.getLocalPort();
+		dead.close();
+
+		final DriverProperties props = new DriverProperties("jdbc:tida://",
+				null, null, Arrays.asList(new TidaHost("localhost", deadPort),
+						new TidaHost("localhost", live.getLocalPort())));
+		props.setHealthCheckInterval(0);
+		props.setJmx(false);
+
+		final TidaConnection conn = new TidaConnection(props);
+		final ProtocolManager manager = new ProtocolManager(props);
+		try {
+			for (int i = 0; i < 3; i++) {
+				manager.createProtocol(conn, conn);
+			}
+
+			final List<ClusterNode> nodes = manager.getCluster().getNodes();
+			assertFalse(nodes.get(0).isAvailable());
+			assertEquals(0, nodes.get(0).getOutstanding());
+			assertEquals(3, nodes.get(1).getOutstanding());
+			assertEquals(1, manager.getMetrics().getFailovers());
+		} finally {
+			manager.close();
+			conn.close();
+			live.close();
+		}
+
+		assertEquals(0, manager.getCluster().getNodes().get(1)
+				.getOutstanding());
+	}
+}
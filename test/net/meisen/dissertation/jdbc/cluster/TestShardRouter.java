@@ -0,0 +1,181 @@
+package net.meisen.dissertation.jdbc.cluster;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.ServerSocket;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import net.meisen.dissertation.jdbc.DriverProperties;
+import net.meisen.dissertation.jdbc.ProtocolManager;
+import net.meisen.dissertation.jdbc.TidaConnection;
+import net.meisen.dissertation.jdbc.protocol.Protocol;
+
+import org.junit.Test;
+
+/**
+ * Tests the implementation of the {@code ShardRouter}.
+ *
+ * @author pmeisen
+ *
+ */
+public class TestShardRouter {
+
+	/**
+	 * Tests the extraction of the model of a statement.
+	 */
+	@Test
+	public void testExtractModel() {
+		assertEquals("MODELID",
+				ShardRouter.extractModel("SELECT TIMESERIES FROM MODELID"));
+		assertEquals(
+				"model",
+				ShardRouter
+						.extractModel("select timeSeries from model in [03.03.2014,05.03.2014) filter by singleEqual='FROM x'"));
+		assertEquals(
+				"MyModel",
+				ShardRouter
+						.extractModel("INSERT INTO MyModel ([START], [END-], NAME) VALUES (20.01.1981, 20.02.2004, 'Philipp')"));
+		assertEquals("my-model",
+				ShardRouter.extractModel("DELETE 5 FROM my-model"));
+		assertEquals("myModel", ShardRouter.extractModel("UNLOAD myModel"));
+		assertEquals("myModel",
+				ShardRouter.extractModel("LOAD myModel FROM 'file.xml'"));
+
+		assertNull(ShardRouter.extractModel("LOAD FROM 'file.xml'"));
+		assertNull(ShardRouter.extractModel("GET MODELS"));
+		assertNull(ShardRouter.extractModel("ALIVE"));
+		assertNull(ShardRouter.extractModel(null));
+	}
+
+	/**
+	 * Tests the routing using configured shards.
+	 *
+	 * @throws SQLException
+	 *             if the connection cannot be created
+	 */
+	@Test
+	public void testConfiguredShards() throws SQLException {
+		final Properties props = new Properties();
+		props.setProperty(DriverProperties.PROPERTY_PORT, "7001");
+		props.setProperty(DriverProperties.PROPERTY_JMX, "false");
+		props.setProperty(DriverProperties.PROPERTY_SHARDS,
+				"modelA=h1:7001, modelB=h2");
+
+		final TidaConnection conn = (TidaConnection) DriverManager
+				.getConnection("jdbc:tida://h1:7001,h2:7002", props);
+		final DriverProperties driverProperties = conn.getDriverProperties();
+		assertTrue(driverProperties.isSharded());
+		assertEquals("modelA=h1:7001,modelB=h2:7001",
+				driverProperties.getShardsAsString());
+
+		final ShardRouter router = ShardRouter.getRouter(driverProperties);
+		assertNotNull(router);
+		assertFalse(router.isDiscovering());
+		assertEquals(new TidaHost("h1", 7001),
+				router.route("SELECT TIMESERIES FROM modela"));
+		assertEquals(new TidaHost("h2", 7001),
+				router.route("INSERT INTO MODELB ([START]) VALUES (1)"));
+		assertNull(router.route("SELECT TIMESERIES FROM modelC"));
+		assertNull(router.route("GET VERSION"));
+	}
+
+	/**
+	 * Tests that no router is created without any shards.
+	 */
+	@Test
+	public void testNoShards() {
+		final DriverProperties props = new DriverProperties("jdbc:tida://",
+				"localhost", 7001);
+
+		assertFalse(props.isSharded());
+		assertNull(ShardRouter.getRouter(props));
+	}
+
+	/**
+	 * Tests the validation of an invalid shard.
+	 */
+	@Test
+	public void testInvalidShard() {
+		final Properties props = new Properties();
+		props.setProperty(DriverProperties.PROPERTY_SHARDS, "localhost:7001");
+
+		try {
+			DriverManager.getConnection("jdbc:tida://localhost:7001", props);
+			fail("Exception expected");
+		} catch (final SQLException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("localhost:7001"));
+		}
+	}
+
+	/**
+	 * Tests the parking and reuse of the protocols of different shards.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testParking() throws Exception {
+		final ServerSocket socketA = new ServerSocket(0);
+		final ServerSocket socketB = new ServerSocket(0);
+		final TidaHost hostA = new TidaHost("localhost", socketA.getLocalPort());
+		final TidaHost hostB = new TidaHost("localhost", socketB.getLocalPort());
+
+		final Map<String, TidaHost> shards = new LinkedHashMap<String, TidaHost>();
+		shards.put("modelA", hostA);
+		shards.put("modelB", hostB);
+
+		final DriverProperties props = new DriverProperties("jdbc:tida://",
+				"localhost", socketA.getLocalPort());
+		props.setShards(shards);
+		props.setJmx(false);
+
+		final TidaConnection conn = new TidaConnection(props);
+		final ProtocolManager manager = new ProtocolManager(props);
+		try {
+			assertEquals(hostB, manager.getShard("SELECT RECORDS FROM modelB"));
+
+			final Protocol protocolA = manager.createProtocol(conn, conn,
+					false, hostA);
+			assertSame(manager.getRoute(false, hostA),
+					manager.getRoute(false, hostA));
+
+			// park the protocol and get it again
+			manager.park(conn);
+			assertEquals(1, manager.sizeOfIdle());
+			assertEquals(0, manager.sizeOfOwners());
+			assertEquals(0, manager.getRoute(false, hostA).getNodes().get(0)
+					.getOutstanding());
+
+			final Protocol protocolB = manager.createProtocol(conn, conn,
+					false, hostB);
+			assertFalse(protocolA == protocolB);
+			assertEquals(1, manager.sizeOfIdle());
+			manager.park(conn);
+			assertEquals(2, manager.sizeOfIdle());
+
+			assertSame(protocolA,
+					manager.createProtocol(conn, conn, false, hostA));
+			assertEquals(1, manager.sizeOfIdle());
+			assertEquals(1, manager.getRoute(false, hostA).getNodes().get(0)
+					.getOutstanding());
+			assertEquals(1, manager.getMetrics().getReuses());
+		} finally {
+			manager.close();
+			conn.close();
+			socketA.close();
+			socketB.close();
+		}
+
+		assertEquals(0, manager.sizeOfIdle());
+	}
+}
@@ -0,0 +1,191 @@
+package net.meisen.dissertation.jdbc.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import net.meisen.dissertation.jdbc.QueryResponseHandler;
+import net.meisen.dissertation.jdbc.protocol.DataType;
+import net.meisen.dissertation.jdbc.protocol.Protocol;
+import net.meisen.dissertation.jdbc.protocol.QueryType;
+
+import org.junit.Test;
+
+/**
+ * Tests the implementation of the {@code DriverMetrics}.
+ * 
+ * @author pmeisen
+ * 
+ */
+public class TestDriverMetrics {
+
+	/**
+	 * Tests the counting of frames, bytes, rows and queries by observing a
+	 * {@code Protocol}.
+	 * 
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testProtocolObservation() throws Exception {
+		final DataType[] header = new DataType[] { DataType.INT,
+				DataType.STRING, DataType.DATE };
+
+		// create the response of the server
+		final ByteArrayOutputStream response = new ByteArrayOutputStream();
+		final Protocol serverSide = new Protocol(new ByteArrayInputStream(
+				new byte[0]), response);
+		serverSide.writeMeta(QueryType.QUERY, new Class<?>[] { Integer.class,
+				String.class, Date.class }, new String[] { "ID", "NAME",
+				"START" });
+		serverSide.writeEndOfMeta();
+		for (int i = 0; i < 3; i++) {
+			serverSide.writeResult(header, new Object[] { i, "Name " + i,
+					new Date() });
+		}
+		serverSide.writeEndOfResponse();
+		serverSide.close();
+
+		// read the response and observe the reading
+		final DriverMetrics parent = new DriverMetrics(null);
+		final DriverMetrics metrics = new DriverMetrics(parent);
+		final ByteArrayOutputStream request = new ByteArrayOutputStream();
+		final Protocol clientSide = new Protocol(new ByteArrayInputStream(
+				response.toByteArray()), request);
+		clientSide.setObserver(metrics);
+
+		final QueryResponseHandler handler = new QueryResponseHandler();
+		assertTrue(clientSide.initializeCommunication("SELECT", handler));
+		while (!clientSide.handleResponse(handler)) {
+			// read everything
+		}
+		clientSide.close();
+
+		for (final DriverMetrics m : new DriverMetrics[] { metrics, parent }) {
+			assertEquals(1l, m.getQueries().get(QueryType.QUERY.name())
+					.longValue());
+			assertEquals(0l, m.getQueries().get(QueryType.MANIPULATION.name())
+					.longValue());
+			assertEquals(3l, m.getRowsDecoded());
+
+			assertEquals(1l, m.getFramesIn().get("HEADER").longValue());
+			assertEquals(1l, m.getFramesIn().get("HEADERNAMES").longValue());
+			assertEquals(1l, m.getFramesIn().get("EOM").longValue());
+			assertEquals(3l, m.getFramesIn().get("RESULT").longValue());
+			assertEquals(1l, m.getFramesIn().get("EOR").longValue());
+			assertEquals(1l, m.getFramesIn().get(DriverMetrics.CONTROL)
+					.longValue());
+			assertEquals(response.size(), m.getTotalBytesIn());
+
+			assertEquals(1l, m.getFramesOut().get("MESSAGE").longValue());
+			assertEquals(1l, m.getFramesOut().get(DriverMetrics.CONTROL)
+					.longValue());
+			assertEquals(request.size(), m.getTotalBytesOut());
+		}
+
+		// check the reset
+		metrics.reset();
+		assertEquals(0l, metrics.getRowsDecoded());
+		assertEquals(0l, metrics.getTotalBytesIn());
+		assertEquals(3l, parent.getRowsDecoded());
+	}
+
+	/**
+	 * Tests the counting of connections.
+	 */
+	@Test
+	public void testConnections() {
+		final DriverMetrics parent = new DriverMetrics(null);
+		final DriverMetrics metrics = new DriverMetrics(parent);
+
+		metrics.connected(TimeUnit.MILLISECONDS.toNanos(2),
+				TimeUnit.MICROSECONDS.toNanos(300));
+		metrics.connected(TimeUnit.MILLISECONDS.toNanos(3),
+				TimeUnit.MICROSECONDS.toNanos(200));
+		metrics.connectFailed();
+		metrics.protocolClosed();
+		metrics.socketClosed();
+		metrics.reconnected();
+		metrics.timedOut();
+		metrics.cancelled();
+
+		for (final DriverMetrics m : new DriverMetrics[] { metrics, parent }) {
+			assertEquals(2l, m.getConnects());
+			assertEquals(1l, m.getConnectFailures());
+			assertEquals(1l, m.getOpenProtocols());
+			assertEquals(1l, m.getOpenSockets());
+			assertEquals(1l, m.getReconnects());
+			assertEquals(1l, m.getTimeouts());
+			assertEquals(1l, m.getCancellations());
+			assertEquals(2l, m.getConnectTime().getCount());
+			assertEquals(300l, m.getAuthenticationTime().getMax());
+		}
+	}
+
+	/**
+	 * Tests the {@code LatencyHistogram}.
+	 */
+	@Test
+	public void testHistogram() {
+		final LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0l, histogram.getPercentile(50));
+
+		for (int i = 1; i <= 1000; i++) {
+			histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+		}
+
+		assertEquals(1000l, histogram.getCount());
+		assertEquals(500.5, histogram.getMean(), 0.0);
+		assertEquals(1000l, histogram.getMax());
+
+		// the percentiles are approximated by the upper bound of the bucket
+		final long p50 = histogram.getPercentile(50);
+		assertTrue(p50 >= 500 && p50 <= 1023);
+		assertEquals(1000l, histogram.getPercentile(99.9));
+		assertEquals(1l, histogram.getPercentile(0));
+
+		histogram.reset();
+		assertEquals(0l, histogram.getCount());
+		assertEquals(0l, histogram.getMax());
+	}
+
+	/**
+	 * Tests the registration as MBean.
+	 * 
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testRegistration() throws Exception {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		final DriverMetrics metrics = new DriverMetrics(
+				DriverMetrics.getDriverMetrics());
+		assertTrue(metrics.register("ProtocolManager", "host=test"));
+
+		final ObjectName name = metrics.getObjectName();
+		assertNotNull(name);
+		assertTrue(server.isRegistered(name));
+		assertTrue(server.isRegistered(new ObjectName(DriverMetrics.DOMAIN
+				+ ":type=Driver")));
+
+		metrics.frameRead(null, 5);
+		assertEquals(0l, server.getAttribute(name, "RowsDecoded"));
+		assertEquals(0l, server.getAttribute(name, "Timeouts"));
+
+		metrics.unregister();
+		assertNull(metrics.getObjectName());
+		assertFalse(server.isRegistered(name));
+	}
+}
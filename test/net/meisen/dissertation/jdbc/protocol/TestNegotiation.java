@@ -0,0 +1,377 @@
+package net.meisen.dissertation.jdbc.protocol;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the negotiation of the capabilities of the {@code Protocol}, i.e.
+ * the {@link ResponseType#HELLO}.
+ *
+ * @author pmeisen
+ *
+ */
+public class TestNegotiation {
+
+	/**
+	 * The script of the server answering the client.
+	 */
+	private interface IServerScript {
+		void run(final Protocol protocol) throws Exception;
+	}
+
+	private ServerSocket serverSocket;
+	private Socket clientSocket;
+	private Protocol client;
+	private Thread server;
+	private Protocol serverProtocol;
+	private final AtomicReference<Throwable> serverError = new AtomicReference<Throwable>();
+
+	/**
+	 * Creates the socket of the server.
+	 *
+	 * @throws Exception
+	 *             if the socket cannot be created
+	 */
+	@Before
+	public void createSocket() throws Exception {
+		serverSocket = new ServerSocket(0);
+	}
+
+	/**
+	 * Closes the sockets and checks that the server finished without any
+	 * error.
+	 *
+	 * @throws Exception
+	 *             if the sockets cannot be closed
+	 */
+	@After
+	public void cleanUp() throws Exception {
+		if (clientSocket != null) {
+			clientSocket.close();
+		}
+		serverSocket.close();
+		if (server != null) {
+			server.join(1000);
+		}
+	}
+
+	private void start(final IServerScript script) throws Exception {
+		server = new Thread() {
+
+			@Override
+			public void run() {
+				try (final Socket socket = serverSocket.accept()) {
+					serverProtocol = new Protocol(socket);
+					script.run(serverProtocol);
+				} catch (final Throwable t) {
+					serverError.set(t);
+				}
+			}
+		};
+		server.setDaemon(true);
+		server.start();
+
+		clientSocket = new Socket("localhost", serverSocket.getLocalPort());
+		client = new Protocol(clientSocket);
+	}
+
+	private void echo(final Protocol protocol) throws Exception {
+		assertEquals("ECHO", protocol.waitForMessage());
+		protocol.writeMessage("ECHO");
+	}
+
+	private void echo() throws Exception {
+		client.writeMessage("ECHO");
+		assertEquals("ECHO", client.readMessage());
+	}
+
+	private void awaitServer() throws Exception {
+		server.join(5000);
+		assertFalse(server.isAlive());
+		if (serverError.get() != null) {
+			throw new AssertionError(serverError.get());
+		}
+	}
+
+	/**
+	 * Tests the negotiation between two sides supporting it.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testNegotiation() throws Exception {
+		final AtomicReference<String[]> credentials = new AtomicReference<String[]>();
+		start(new IServerScript() {
+
+			@Override
+			public void run(final Protocol protocol) throws Exception {
+				credentials.set(protocol.readCredential());
+				assertTrue(protocol.isNegotiated());
+				assertTrue(protocol.supports(ProtocolFeature.FLOW_CONTROL));
+
+				echo(protocol);
+				assertEquals("STOP", protocol.waitForMessage());
+			}
+		});
+
+		assertFalse(client.isNegotiated());
+		client.writeCredential("user", "password", null, true);
+
+		// the capabilities are known with the first response
+		assertFalse(client.isNegotiated());
+		echo();
+		assertTrue(client.isNegotiated());
+		assertEquals(Protocol.VERSION, client.getVersion());
+		assertTrue(client.supports(ProtocolFeature.FLOW_CONTROL));
+		assertEquals(EnumSet.of(ProtocolFeature.FLOW_CONTROL),
+				client.getNegotiatedFeatures());
+
+		client.writeMessage("STOP");
+		awaitServer();
+		assertArrayEquals(new String[] { "user", "password" },
+				credentials.get());
+	}
+
+	/**
+	 * Tests that the token of a session is kept, if capabilities are send.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testNegotiationWithSession() throws Exception {
+		final AtomicReference<String[]> credentials = new AtomicReference<String[]>();
+		start(new IServerScript() {
+
+			@Override
+			public void run(final Protocol protocol) throws Exception {
+				credentials.set(protocol.readCredential());
+				protocol.writeSessionToken("TOKEN");
+				echo(protocol);
+				assertEquals("STOP", protocol.waitForMessage());
+			}
+		});
+
+		client.writeCredential("user", "password", "OLD", true);
+		echo();
+		assertTrue(client.isNegotiated());
+		assertEquals("TOKEN", client.getSessionToken());
+
+		client.writeMessage("STOP");
+		awaitServer();
+		assertArrayEquals(new String[] { "user", "password", "OLD" },
+				credentials.get());
+	}
+
+	/**
+	 * Tests the fallback if the server does not answer the capabilities,
+	 * i.e. the server does not support any negotiation.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testLegacyServer() throws Exception {
+		start(new IServerScript() {
+
+			@Override
+			public void run(final Protocol protocol) throws Exception {
+
+				// an old server reads the credentials without any answer
+				assertTrue(protocol.read().is(ResponseType.CREDENTIALS));
+				echo(protocol);
+				assertEquals("STOP", protocol.waitForMessage());
+			}
+		});
+
+		// a first response without capabilities marks the server as old
+		client.writeCredential("user", "password", null, true);
+		echo();
+		assertFalse(client.isNegotiated());
+		assertEquals(0, client.getVersion());
+		assertFalse(client.supports(ProtocolFeature.FLOW_CONTROL));
+		assertTrue(client.getNegotiatedFeatures().isEmpty());
+
+		client.writeMessage("STOP");
+		awaitServer();
+	}
+
+	/**
+	 * Tests a client not sending any capabilities, i.e. nothing is
+	 * negotiated on both sides.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testLegacyClient() throws Exception {
+		start(new IServerScript() {
+
+			@Override
+			public void run(final Protocol protocol) throws Exception {
+				assertEquals(3, protocol.readCredential().length);
+				assertFalse(protocol.isNegotiated());
+				assertFalse(protocol.supports(ProtocolFeature.FLOW_CONTROL));
+				assertEquals("STOP", protocol.waitForMessage());
+			}
+		});
+
+		client.writeCredential("user", "password", "TOKEN");
+		assertFalse(client.isNegotiated());
+		client.writeMessage("STOP");
+		client.flush();
+		awaitServer();
+	}
+
+	/**
+	 * Tests that a feature is only used, if both sides support it.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testDisabledFeature() throws Exception {
+		start(new IServerScript() {
+
+			@Override
+			public void run(final Protocol protocol) throws Exception {
+				protocol.setFeatures();
+				protocol.readCredential();
+				assertTrue(protocol.isNegotiated());
+				assertFalse(protocol.supports(ProtocolFeature.FLOW_CONTROL));
+				echo(protocol);
+				assertEquals("STOP", protocol.waitForMessage());
+			}
+		});
+
+		client.writeCredential("user", "password", null, true);
+		echo();
+		assertTrue(client.isNegotiated());
+		assertFalse(client.supports(ProtocolFeature.FLOW_CONTROL));
+
+		client.writeMessage("STOP");
+		awaitServer();
+	}
+
+	/**
+	 * Tests the exchange of the maximal size of a frame.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testMaxFrameSize() throws Exception {
+		start(new IServerScript() {
+
+			@Override
+			public void run(final Protocol protocol) throws Exception {
+				protocol.readCredential();
+				assertEquals(32, protocol.getPeerMaxFrameSize());
+				assertEquals("PING", protocol.waitForMessage());
+
+				// a message exceeding the size is not written
+				try {
+					protocol.writeMessage(new String(new char[33]));
+					fail("Exception expected");
+				} catch (final IOException e) {
+					assertTrue(e.getMessage(), e.getMessage().contains("'32'"));
+				}
+				protocol.writeMessage("OK");
+				assertEquals("STOP", protocol.waitForMessage());
+			}
+		});
+
+		client.setMaxFrameSize(32);
+		client.writeCredential("user", "password", null, true);
+		client.writeMessage("PING");
+		assertEquals("OK", client.readMessage());
+		assertTrue(client.isNegotiated());
+		assertEquals(Integer.MAX_VALUE, client.getPeerMaxFrameSize());
+
+		client.writeMessage("STOP");
+		awaitServer();
+	}
+
+	/**
+	 * Tests the rejection of a frame exceeding the maximal size.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testFrameExceedsMaxSize() throws Exception {
+		start(new IServerScript() {
+
+			@Override
+			public void run(final Protocol protocol) throws Exception {
+
+				// an old server does not know the maximal size
+				protocol.read();
+				protocol.writeMessage(new String(new char[64]));
+				protocol.flush();
+			}
+		});
+
+		client.setMaxFrameSize(32);
+		client.writeCredential("user", "password", null, true);
+		client.flush();
+		try {
+			client.readMessage();
+			fail("Exception expected");
+		} catch (final IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("'64'"));
+		}
+		awaitServer();
+	}
+
+	/**
+	 * Tests the rejection of a chunked frame, whose chunks exceed the maximal
+	 * size in total.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testChunksExceedMaxSize() throws Exception {
+		start(new IServerScript() {
+
+			@Override
+			public void run(final Protocol protocol) throws Exception {
+				protocol.read();
+
+				// each name is small, but not all of them together
+				final String[] names = new String[10];
+				for (int i = 0; i < names.length; i++) {
+					names[i] = "NAME" + i;
+				}
+				protocol.writeHeaderNames(names);
+				protocol.flush();
+			}
+		});
+
+		client.setMaxFrameSize(32);
+		client.writeCredential("user", "password", null, true);
+		client.flush();
+		try {
+			client.read();
+			fail("Exception expected");
+		} catch (final IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("'35'"));
+		}
+		awaitServer();
+	}
+}
@@ -4,6 +4,8 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.ServerSocket;
@@ -12,8 +14,11 @@ import java.util.Date;
 import java.util.Random;
 import java.util.UUID;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -320,6 +325,48 @@ public class TestProtocol {
         assertEquals(999, testCounter);
     }
 
+    /**
+     * Tests the decoding of integers without boxing.
+     *
+     * @throws Exception if an unexpected exception occurrs
+     */
+    @Test
+    public void testProtocolPrimitiveInts() throws Exception {
+        final int[] values = new int[10000];
+        final Random rnd = new Random();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rnd.nextInt();
+        }
+
+        serverHandler = (msgNr, val, serverSideProtocol) -> {
+            serverSideProtocol.writeInts(values);
+            serverSideProtocol.writeEndOfResponse();
+        };
+
+        final IResponseHandler clientHandler = new TestResponseHandler() {
+
+            @Override
+            public boolean handleResult(final ResponseType type,
+                                        final Object[] result) {
+                fail("The integers should not be boxed.");
+                return false;
+            }
+
+            @Override
+            public boolean handleInts(final ResponseType type,
+                                      final int[] result) {
+                assertEquals(ResponseType.INT_ARRAY, type);
+                assertArrayEquals(values, result);
+
+                testCounter = result.length;
+                return true;
+            }
+        };
+
+        clientSideProtocol.writeAndHandle("0", clientHandler);
+        assertEquals(values.length, testCounter);
+    }
+
     /**
      * Tests to validate the sending of strings.
      *
@@ -525,6 +572,123 @@ public class TestProtocol {
         }
     }
 
+    /**
+     * Tests that the written frames are coalesced, i.e. flushed only at the
+     * end of a logical exchange or after the defined amount of results.
+     *
+     * @throws Exception if an unexpected exception occurrs
+     */
+    @Test
+    public void testWriteCoalescing() throws Exception {
+        final int[] flushes = new int[]{0};
+        final ByteArrayOutputStream out = new ByteArrayOutputStream() {
+
+            @Override
+            public void flush() throws IOException {
+                flushes[0]++;
+                super.flush();
+            }
+        };
+
+        final Protocol protocol = new Protocol(new ByteArrayInputStream(
+                new byte[0]), out);
+        protocol.setFlushInterval(10);
+
+        // the meta-data is flushed with the EOM (or a read)
+        protocol.writeMeta(QueryType.QUERY, new Class<?>[]{String.class},
+                new String[]{"NAME"});
+        assertEquals(0, flushes[0]);
+        protocol.writeEndOfMeta();
+        assertEquals(1, flushes[0]);
+
+        // the results are flushed every 10 results
+        for (int i = 0; i < 25; i++) {
+            protocol.writeResult(new DataType[]{DataType.STRING},
+                    new Object[]{"" + i});
+        }
+        assertEquals(3, flushes[0]);
+
+        // the end of the response is flushed
+        protocol.writeEndOfResponse();
+        assertEquals(4, flushes[0]);
+        assertEquals(protocol.getBytesWritten(), out.size());
+
+        // nothing left to be flushed
+        protocol.flush();
+        assertEquals(4, flushes[0]);
+    }
+
+    /**
+     * Tests that the credentials are send together with the first message and
+     * that the token of a session is read transparently.
+     *
+     * @throws Exception if an unexpected exception occurrs
+     */
+    @Test
+    public void testPipelinedCredentialAndSession() throws Exception {
+        final int[] flushes = new int[]{0};
+        final ByteArrayOutputStream clientOut = new ByteArrayOutputStream() {
+
+            @Override
+            public void flush() throws IOException {
+                flushes[0]++;
+                super.flush();
+            }
+        };
+
+        // the credentials are not flushed prior to the first message
+        final Protocol client = new Protocol(new ByteArrayInputStream(
+                new byte[0]), clientOut);
+        client.writeCredential("user", "password", "token");
+        assertEquals(0, flushes[0]);
+        client.writeMessage("SELECT");
+        assertEquals(1, flushes[0]);
+
+        // the server reads both and answers with a new token
+        final ByteArrayOutputStream serverOut = new ByteArrayOutputStream();
+        final Protocol server = new Protocol(new ByteArrayInputStream(
+                clientOut.toByteArray()), serverOut);
+        assertArrayEquals(new String[]{"user", "password", "token"},
+                server.readCredential());
+        assertEquals("SELECT", server.waitForMessage());
+        server.writeSessionToken("newToken");
+        server.writeQueryType(QueryType.QUERY);
+        server.flush();
+
+        // the token is consumed while reading the answer
+        final Protocol reader = new Protocol(new ByteArrayInputStream(
+                serverOut.toByteArray()), new ByteArrayOutputStream());
+        assertNull(reader.getSessionToken());
+        assertEquals(QueryType.QUERY, reader.readQueryType());
+        assertEquals("newToken", reader.getSessionToken());
+    }
+
+    /**
+     * Tests that a ping is answered while waiting for a message.
+     *
+     * @throws Exception if an unexpected exception occurrs
+     */
+    @Test
+    public void testPing() throws Exception {
+        final ByteArrayOutputStream clientOut = new ByteArrayOutputStream();
+        final Protocol client = new Protocol(new ByteArrayInputStream(
+                new byte[0]), clientOut);
+        client.write(ResponseType.PING);
+        client.writeMessage("SELECT");
+
+        // the server answers the ping and returns the message
+        final ByteArrayOutputStream serverOut = new ByteArrayOutputStream();
+        final Protocol server = new Protocol(new ByteArrayInputStream(
+                clientOut.toByteArray()), serverOut);
+        assertEquals("SELECT", server.waitForMessage());
+
+        // the pong is read by the ping
+        final Protocol reader = new Protocol(new ByteArrayInputStream(
+                serverOut.toByteArray()), new ByteArrayOutputStream());
+        assertTrue(reader.ping());
+        assertFalse(reader.isInCommunication());
+    }
+
     /**
      * Cleans up behind the test.
      *
@@ -0,0 +1,504 @@
+package net.meisen.dissertation.jdbc.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.net.Socket;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import net.meisen.dissertation.jdbc.DriverProperties;
+import net.meisen.dissertation.jdbc.RowsQueryHandler;
+import net.meisen.dissertation.jdbc.TidaConnection;
+import net.meisen.dissertation.jdbc.TidaStatement;
+import net.meisen.dissertation.jdbc.protocol.Protocol;
+import net.meisen.dissertation.jdbc.protocol.QueryStatus;
+import net.meisen.dissertation.jdbc.protocol.QueryType;
+import net.meisen.dissertation.jdbc.protocol.ResponseType;
+import net.meisen.dissertation.jdbc.protocol.WrappedException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the implementation of the {@code TidaEndpoint}.
+ *
+ * @author pmeisen
+ *
+ */
+public class TestTidaEndpoint {
+	private RowsQueryHandler server;
+	private TidaEndpoint endpoint;
+	private CountDownLatch slow;
+	private final AtomicInteger authentications = new AtomicInteger();
+	private final AtomicInteger signaled = new AtomicInteger();
+
+	/**
+	 * Creates the endpoint answering queries. A message {@code ROWS n} is
+	 * answered with {@code n} rows, a message {@code SLOW n} waits until
+	 * {@link #slow} is released prior to answering with {@code n} rows, a
+	 * message {@code WAIT n} answers with {@code n} rows and waits for the
+	 * cancellation and a message {@code FAIL} fails.
+	 *
+	 * @throws Exception
+	 *             if the endpoint cannot be created
+	 */
+	@Before
+	public void createEndpoint() throws Exception {
+		slow = new CountDownLatch(1);
+		server = new RowsQueryHandler() {
+
+			@Override
+			public String authenticate(final String[] credentials)
+					throws Exception {
+				authentications.incrementAndGet();
+				if ("invalid".equals(credentials[0])) {
+					throw new IllegalArgumentException("Invalid user");
+				}
+
+				return null;
+			}
+
+			@Override
+			protected void answer(final Protocol protocol, final String message)
+					throws Exception {
+				if ("FAIL".equals(message)) {
+					throw new IllegalStateException("Failed by request");
+				}
+				super.answer(protocol, message);
+			}
+
+			@Override
+			protected void beforeRows(final Protocol protocol,
+					final String message) throws Exception {
+				if (message.startsWith("SLOW")) {
+					slow.await(5, TimeUnit.SECONDS);
+				}
+			}
+
+			@Override
+			protected void afterRows(final Protocol protocol,
+					final String message) throws Exception {
+
+				// wait for the signal without reading anything
+				if (message.startsWith("WAIT")) {
+					protocol.flush();
+					protocol.getCancellation().get(5, TimeUnit.SECONDS);
+					signaled.incrementAndGet();
+				}
+			}
+		};
+		endpoint = server.createEndpoint(false);
+	}
+
+	/**
+	 * Closes the endpoint.
+	 *
+	 * @throws Exception
+	 *             if the endpoint cannot be closed
+	 */
+	@After
+	public void closeEndpoint() throws Exception {
+		slow.countDown();
+		server.shutdown();
+	}
+
+	private TidaConnection createConnection(final String user) {
+		return createConnection(user, 0);
+	}
+
+	private TidaConnection createConnection(final String user,
+			final int creditWindow) {
+		final DriverProperties props = server.createProperties(user,
+				"password");
+		props.setTimeout(5000);
+		props.setCreditWindow(creditWindow);
+
+		return new TidaConnection(props);
+	}
+
+	private int count(final TidaConnection conn, final String query)
+			throws SQLException {
+		final TidaStatement stmt = conn.createStatement();
+		try {
+			final ResultSet rs = stmt.executeQuery(query);
+			int rows = 0;
+			while (rs.next()) {
+				assertEquals("ROW" + rows, rs.getString(1));
+				rows++;
+			}
+			rs.close();
+
+			return rows;
+		} finally {
+			stmt.close();
+		}
+	}
+
+	/**
+	 * Tests the answering of queries using both modes of threading.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testQueries() throws Exception {
+		for (final EndpointMode mode : EndpointMode.values()) {
+			endpoint.shutdown(0);
+			createEndpoint();
+			endpoint.setMode(mode);
+			endpoint.start(0);
+			assertTrue(endpoint.isRunning());
+
+			final TidaConnection conn = createConnection("user");
+			try {
+				assertEquals(100, count(conn, "ROWS 100"));
+				assertEquals(0, count(conn, "ROWS 0"));
+			} finally {
+				conn.close();
+			}
+			assertEquals(2, endpoint.getAnsweredMessages());
+		}
+	}
+
+	/**
+	 * Tests that an exception of the handler is send to the client and the
+	 * connection is kept.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testFailures() throws Exception {
+		endpoint.start(0);
+
+		final TidaConnection conn = createConnection("user");
+		try {
+			try {
+				count(conn, "FAIL");
+				fail("Exception expected");
+			} catch (final SQLException e) {
+				assertTrue(e.getMessage(),
+						e.getMessage().contains("Failed by request"));
+			}
+			assertEquals(5, count(conn, "ROWS 5"));
+		} finally {
+			conn.close();
+		}
+
+		// invalid credentials are rejected
+		final TidaConnection invalid = createConnection("invalid");
+		try {
+			count(invalid, "ROWS 5");
+			fail("Exception expected");
+		} catch (final SQLException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains("Invalid user"));
+		} finally {
+			invalid.close();
+		}
+	}
+
+	/**
+	 * Tests the limit of concurrent connections.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testConnectionLimit() throws Exception {
+		endpoint.setMaxConnections(2);
+		endpoint.start(0);
+
+		final List<Socket> sockets = new ArrayList<Socket>();
+		try {
+			for (int i = 0; i < 2; i++) {
+				final Socket socket = new Socket("localhost", endpoint.getPort());
+				sockets.add(socket);
+
+				final Protocol protocol = new Protocol(socket);
+				protocol.writeCredential("user", "password", null, true);
+				assertTrue(protocol.ping());
+				assertTrue(protocol.isNegotiated());
+			}
+			assertEquals(2, endpoint.getActiveConnections());
+
+			// the limit is reached
+			final Socket exceeding = new Socket("localhost", endpoint.getPort());
+			try {
+				final Protocol protocol = new Protocol(exceeding);
+				protocol.writeCredential("user", "password", null, true);
+				protocol.ping();
+				fail("Exception expected");
+			} catch (final WrappedException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("limit"));
+			} finally {
+				exceeding.close();
+			}
+			assertEquals(1, endpoint.getRejectedConnections());
+		} finally {
+			sockets.remove(0).close();
+		}
+
+		// a connection is available again after closing one
+		for (int i = 0; i < 100 && endpoint.getActiveConnections() > 1; i++) {
+			Thread.sleep(10);
+		}
+		final TidaConnection conn = createConnection("user");
+		try {
+			assertEquals(1, count(conn, "ROWS 1"));
+		} finally {
+			conn.close();
+			sockets.remove(0).close();
+		}
+		assertEquals(1, endpoint.getRejectedConnections());
+	}
+
+	/**
+	 * Tests the handling of many concurrent connections.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testConcurrentConnections() throws Exception {
+		endpoint.start(0);
+
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		final List<Thread> clients = new ArrayList<Thread>();
+		for (int i = 0; i < 50; i++) {
+			final Thread client = new Thread() {
+
+				@Override
+				public void run() {
+					try {
+						final TidaConnection conn = createConnection("user");
+						for (int k = 0; k < 5; k++) {
+							assertEquals(20, count(conn, "ROWS 20"));
+						}
+						conn.close();
+					} catch (final Throwable t) {
+						error.set(t);
+					}
+				}
+			};
+			clients.add(client);
+			client.start();
+		}
+		for (final Thread client : clients) {
+			client.join(10000);
+		}
+
+		assertNull(error.get());
+		assertEquals(250, endpoint.getAnsweredMessages());
+		assertEquals(0, endpoint.getRejectedConnections());
+	}
+
+	/**
+	 * Tests the graceful shutdown, i.e. a running response is finished and
+	 * no further connection is accepted.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testGracefulShutdown() throws Exception {
+		final int port = endpoint.start(0);
+
+		// an idle connection
+		final TidaConnection idle = createConnection("user");
+		assertEquals(1, count(idle, "ROWS 1"));
+
+		// a running response
+		final AtomicInteger rows = new AtomicInteger(-1);
+		final TidaConnection conn = createConnection("user");
+		final Thread client = new Thread() {
+
+			@Override
+			public void run() {
+				try {
+					rows.set(count(conn, "SLOW 10"));
+				} catch (final SQLException e) {
+					// the response is not finished
+				}
+			}
+		};
+		client.start();
+		Thread.sleep(200);
+
+		// release the response after the shutdown started
+		new Thread() {
+
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(200);
+				} catch (final InterruptedException e) {
+					// ignore
+				}
+				slow.countDown();
+			}
+		}.start();
+		assertTrue(endpoint.shutdown(5000));
+		assertFalse(endpoint.isRunning());
+
+		client.join(1000);
+		assertEquals(10, rows.get());
+		assertEquals(0, endpoint.getActiveConnections());
+		conn.close();
+		idle.close();
+
+		// no further connections are accepted
+		try {
+			new Socket("localhost", port).close();
+			fail("Exception expected");
+		} catch (final Exception e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Tests the signal of a cancellation, i.e. the handler is informed
+	 * without reading the input.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testCancellationSignal() throws Exception {
+		endpoint.start(0);
+
+		final TidaConnection conn = createConnection("user");
+		try {
+			final TidaStatement stmt = conn.createStatement();
+			final ResultSet rs = stmt.executeQuery("WAIT 1");
+			assertTrue(rs.next());
+			assertEquals(0, signaled.get());
+
+			// closing the result cancels the query
+			rs.close();
+			assertEquals(1, signaled.get());
+			stmt.close();
+
+			// the connection is used for further queries
+			assertEquals(3, count(conn, "ROWS 3"));
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests the signal of a lost client.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testLostClient() throws Exception {
+		endpoint.start(0);
+
+		final Socket socket = new Socket("localhost", endpoint.getPort());
+		final Protocol client = new Protocol(socket);
+		client.writeCredential("user", "password", null, true);
+		client.writeMessage("WAIT 1");
+		assertEquals(QueryType.QUERY, client.readQueryType());
+		client.writeQueryStatus(QueryStatus.PROCESS);
+		while (!client.read().is(ResponseType.RESULT)) {
+			// skip the meta-data
+		}
+
+		// the client is lost while the handler waits
+		socket.close();
+		for (int i = 0; i < 100 && signaled.get() == 0; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(1, signaled.get());
+	}
+
+	/**
+	 * Tests that a connection sending a frame unknown to the endpoint is
+	 * answered with an exception and released.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testUnknownFrame() throws Exception {
+		endpoint = server.createEndpoint(true);
+		endpoint.start(0);
+
+		final Socket socket = new Socket("localhost", endpoint.getPort());
+		final Protocol client = new Protocol(socket);
+		try {
+			client.writeCredential("user", "password", null, false);
+
+			// a legacy endpoint does not know any ping
+			try {
+				client.ping();
+				fail("Expected an exception");
+			} catch (final WrappedException e) {
+				assertTrue(e.getMessage(),
+						e.getMessage().contains("unknown type"));
+			}
+		} finally {
+			socket.close();
+		}
+
+		for (int i = 0; i < 100 && endpoint.getActiveConnections() > 0; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, endpoint.getActiveConnections());
+
+		// the endpoint still answers other connections
+		final TidaConnection conn = createConnection("user");
+		try {
+			assertEquals(3, count(conn, "ROWS 3"));
+		} finally {
+			conn.close();
+		}
+	}
+
+	/**
+	 * Tests the flow control of results, while the input is watched for
+	 * cancellations.
+	 *
+	 * @throws Exception
+	 *             if an unexpected error occurs
+	 */
+	@Test
+	public void testWatchedFlowControl() throws Exception {
+		endpoint.start(0);
+
+		final TidaConnection conn = createConnection("user", 1);
+		try {
+			final TidaStatement stmt = conn.createStatement();
+
+			// the capabilities are known after the first response
+			stmt.executeQuery("ROWS 0").close();
+			for (final int fetchSize : new int[] { 1, 7, 0 }) {
+				stmt.setFetchSize(fetchSize);
+				final ResultSet rs = stmt.executeQuery("ROWS 100");
+				int rows = 0;
+				while (rs.next()) {
+					assertEquals("ROW" + rows, rs.getString(1));
+					rows++;
+				}
+				assertEquals(100, rows);
+				assertEquals(Math.max(1, fetchSize), server.getCredit());
+				rs.close();
+			}
+			stmt.close();
+		} finally {
+			conn.close();
+		}
+	}
+}